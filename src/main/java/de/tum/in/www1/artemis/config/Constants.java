@@ -135,6 +135,9 @@ public final class Constants {
     // Also, the value on the client side must match this value.
     public static final int COMPLAINT_TEXT_LIMIT = 65535;
 
+    // The number of comparisons with the highest similarity that are saved for the result of a plagiarism check, the remaining comparisons are discarded
+    public static final int PLAGIARISM_RESULT_MAX_COMPARISONS = 100;
+
     public static final String ASSIGNMENT_CHECKOUT_PATH = "assignment";
 
     public static final String TESTS_CHECKOUT_PATH = "tests";
@@ -228,6 +231,8 @@ public final class Constants {
 
     public static final long MONITORING_CACHE_RESET_DELAY = 60 * 30; // 30 minutes in seconds
 
+    public static final long MONITORING_ACTION_BROADCAST_DELAY = 1000; // 1 second in milliseconds
+
     public static final String HAZELCAST_MONITORING_PREFIX = "monitoring-";
 
     public static final String HAZELCAST_MONITORING_CACHE = HAZELCAST_MONITORING_PREFIX + "activity-cache";
@@ -240,6 +245,18 @@ public final class Constants {
 
     public static final String HAZELCAST_ACTIVE_PLAGIARISM_CHECKS_PER_COURSE_CACHE = HAZELCAST_PLAGIARISM_PREFIX + "active-plagiarism-checks-per-course-cache";
 
+    public static final String HAZELCAST_PLAGIARISM_INDEX_PER_EXERCISE_CACHE = HAZELCAST_PLAGIARISM_PREFIX + "plagiarism-index-per-exercise-cache";
+
+    public static final String HAZELCAST_RE_EVALUATION_PREFIX = "re-evaluation-";
+
+    public static final String HAZELCAST_RE_EVALUATION_JOBS_CACHE = HAZELCAST_RE_EVALUATION_PREFIX + "jobs-cache";
+
+    public static final String HAZELCAST_ACTIVE_RE_EVALUATION_JOB_PER_EXERCISE_CACHE = HAZELCAST_RE_EVALUATION_PREFIX + "active-job-per-exercise-cache";
+
+    public static final String HAZELCAST_CLAIMED_ASSESSMENT_SUBMISSIONS_CACHE = "claimed-assessment-submissions-cache";
+
+    public static final String HAZELCAST_RECENTLY_USED_WORKING_COPIES_CACHE = "recently-used-working-copies-cache";
+
     public static final String VERSION_CONTROL_URL = "versionControlUrl";
 
     public static final String USE_EXTERNAL = "useExternal";
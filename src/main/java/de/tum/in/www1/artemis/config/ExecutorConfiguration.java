@@ -0,0 +1,91 @@
+package de.tum.in.www1.artemis.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Defines the bounded thread pools that are shared by all requests of a kind, e.g. all running plagiarism checks.
+ * The size of every pool can be configured with {@code artemis.thread-pools.<name>}, the pools are monitored with the executor metrics of Micrometer
+ * (tagged with the bean name) and all running tasks are stopped on shutdown.
+ */
+@Configuration
+public class ExecutorConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ExecutorConfiguration.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public ExecutorConfiguration(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param threads the maximum number of student repositories that are checked out in parallel for repository exports
+     * @return the executor shared by all running repository exports
+     */
+    @Bean(name = "repositoryExportExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService repositoryExportExecutor(@Value("${artemis.thread-pools.repository-export:8}") int threads) {
+        return createMonitoredExecutor("repositoryExportExecutor", threads);
+    }
+
+    /**
+     * @param threads the maximum number of repositories that are cloned in parallel for programming plagiarism checks
+     * @return the executor shared by all running plagiarism checks
+     */
+    @Bean(name = "repositoryDownloadExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService repositoryDownloadExecutor(@Value("${artemis.thread-pools.repository-download:8}") int threads) {
+        return createMonitoredExecutor("repositoryDownloadExecutor", threads);
+    }
+
+    /**
+     * @param threads the maximum number of student exams whose exercises are prepared in parallel when the exercises of an exam are started
+     * @return the executor shared by all exams
+     */
+    @Bean(name = "examExerciseStartExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService examExerciseStartExecutor(@Value("${artemis.thread-pools.exam-exercise-start:10}") int threads) {
+        return createMonitoredExecutor("examExerciseStartExecutor", threads);
+    }
+
+    /**
+     * @param threads the maximum number of results whose scores are calculated in parallel when programming exercises are re-evaluated
+     * @return the executor shared by all re-evaluated programming exercises
+     */
+    @Bean(name = "programmingScoreCalculationExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService programmingScoreCalculationExecutor(@Value("${artemis.thread-pools.programming-score-calculation:4}") int threads) {
+        return createMonitoredExecutor("programmingScoreCalculationExecutor", threads);
+    }
+
+    /**
+     * @param threads the maximum number of re-evaluation jobs of programming exercises that run in the background at the same time
+     * @return the executor shared by all re-evaluation jobs
+     */
+    @Bean(name = "programmingReEvaluationExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService programmingReEvaluationExecutor(@Value("${artemis.thread-pools.programming-re-evaluation:2}") int threads) {
+        return createMonitoredExecutor("programmingReEvaluationExecutor", threads);
+    }
+
+    /**
+     * @param threads the maximum number of lectures whose PDF attachment units are merged at the same time
+     * @return the executor shared by all merges of lecture PDFs
+     */
+    @Bean(name = "lecturePdfMergeExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService lecturePdfMergeExecutor(@Value("${artemis.thread-pools.lecture-pdf-merge:2}") int threads) {
+        return createMonitoredExecutor("lecturePdfMergeExecutor", threads);
+    }
+
+    private ExecutorService createMonitoredExecutor(String name, int threads) {
+        log.debug("Creating executor {} with {} threads", name, threads);
+        var executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory(name + "-"));
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, name);
+    }
+}
@@ -246,6 +246,15 @@ public class Feedback extends DomainObject {
         return this.visibility == Visibility.NEVER;
     }
 
+    /**
+     * Checks whether students are allowed to see this feedback.
+     * @param isBeforeDueDate if feedbacks marked with visibility 'after due date' should be hidden as well.
+     * @return false if the feedback is marked with visibility never or (before the due date) with visibility 'after due date'.
+     */
+    public boolean isVisibleToStudents(boolean isBeforeDueDate) {
+        return !isInvisible() && !(isBeforeDueDate && isAfterDueDate());
+    }
+
     public Feedback visibility(Visibility visibility) {
         this.visibility = visibility;
         return this;
@@ -472,11 +472,7 @@ public class Result extends DomainObject {
      * @param isBeforeDueDate if feedbacks marked with visibility 'after due date' should also be removed.
      */
     public void filterSensitiveFeedbacks(boolean isBeforeDueDate) {
-        feedbacks.removeIf(Feedback::isInvisible);
-
-        if (isBeforeDueDate) {
-            feedbacks.removeIf(Feedback::isAfterDueDate);
-        }
+        feedbacks.removeIf(feedback -> !feedback.isVisibleToStudents(isBeforeDueDate));
         setTestCaseCount((int) feedbacks.stream().filter(Feedback::isTestFeedback).count());
         setPassedTestCaseCount((int) feedbacks.stream().filter(Feedback::isTestFeedback).filter(feedback -> Boolean.TRUE.equals(feedback.isPositive())).count());
     }
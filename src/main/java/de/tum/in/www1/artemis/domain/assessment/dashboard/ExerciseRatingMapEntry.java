@@ -0,0 +1,11 @@
+package de.tum.in.www1.artemis.domain.assessment.dashboard;
+
+/**
+ * Custom object for sql query: the average rating and number of ratings of the exercise with the given id
+ */
+public record ExerciseRatingMapEntry(long exerciseId, Double averageRating, Long numberOfRatings) {
+
+    public ExerciseRatingCount toExerciseRatingCount() {
+        return new ExerciseRatingCount(averageRating, numberOfRatings);
+    }
+}
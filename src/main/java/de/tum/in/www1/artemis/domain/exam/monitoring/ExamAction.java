@@ -2,6 +2,10 @@ package de.tum.in.www1.artemis.domain.exam.monitoring;
 
 import java.time.ZonedDateTime;
 
+import javax.persistence.*;
+
+import org.hibernate.annotations.DiscriminatorOptions;
+
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
@@ -13,6 +17,12 @@ import de.tum.in.www1.artemis.domain.exam.monitoring.actions.*;
 /**
  * Defines an action performed by a student during an exam.
  */
+@Entity
+@Table(name = "exam_action")
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "discriminator", discriminatorType = DiscriminatorType.STRING)
+@DiscriminatorValue("A")
+@DiscriminatorOptions(force = true)
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "type", visible = true)
 // @formatter:off
 @JsonSubTypes({@JsonSubTypes.Type(value = ConnectionUpdatedAction.class, name = "CONNECTION_UPDATED"),
@@ -30,22 +40,27 @@ public class ExamAction extends DomainObject {
      * In order to avoid DTOs, we use this value to create and identify the correct exam activity.
      * This value is used for this purpose only. There is no guarantee that this value is always correct in other cases.
      */
+    @Column(name = "student_exam_id")
     protected Long studentExamId;
 
     /**
      * In order to avoid DTOs, we use this value to identify the correct exam activity.
      * This value is used for this purpose only. There is no guarantee that this value is always correct in other cases.
      */
+    @Column(name = "exam_activity_id")
     protected Long examActivityId;
 
     /**
      * Define the time when this action was performed.
      */
+    @Column(name = "timestamp")
     protected ZonedDateTime timestamp;
 
     /**
      * Defines the type of the performed action (necessary to avoid DTOs)
      */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type")
     protected ExamActionType type;
 
     public ZonedDateTime getTimestamp() {
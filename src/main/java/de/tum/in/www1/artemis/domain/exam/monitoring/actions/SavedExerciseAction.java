@@ -1,35 +1,44 @@
 package de.tum.in.www1.artemis.domain.exam.monitoring.actions;
 
+import javax.persistence.*;
+
 import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
 
 /**
  * This action indicates whether a student saved an exercise manually or automatically.
  */
+@Entity
+@DiscriminatorValue("SAE")
 public class SavedExerciseAction extends ExamAction {
 
     /**
      * This boolean indicates whether a save operation was forced or not.
      */
+    @Column(name = "forced")
     private boolean forced;
 
     /**
      * This boolean indicates whether a save was successful or not.
      */
+    @Column(name = "failed")
     private boolean failed;
 
     /**
      * This boolean indicates whether a save was performed manually or automatically.
      */
+    @Column(name = "automatically")
     private boolean automatically;
 
     /**
      * The corresponding submission id.
      */
+    @Column(name = "submission_id")
     private Long submissionId;
 
     /**
      * The corresponding exercise id.
      */
+    @Column(name = "exercise_id")
     private Long exerciseId;
 
     public boolean isForced() {
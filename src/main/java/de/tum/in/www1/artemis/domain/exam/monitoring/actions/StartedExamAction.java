@@ -1,15 +1,20 @@
 package de.tum.in.www1.artemis.domain.exam.monitoring.actions;
 
+import javax.persistence.*;
+
 import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
 
 /**
  * This action indicates whether a student started or restarted the exam.
  */
+@Entity
+@DiscriminatorValue("STE")
 public class StartedExamAction extends ExamAction {
 
     /**
      * Exam session of the start/restart.
      */
+    @Column(name = "session_id")
     private Long sessionId;
 
     public Long getSessionId() {
@@ -84,6 +84,22 @@ public class Post extends Posting {
     @Column(name = "vote_count")
     private int voteCount;
 
+    public Post() {
+    }
+
+    /**
+     * Creates a post that only contains the values needed to compare it to other posts, e.g. when searching for similar posts
+     *
+     * @param id      the id of the post
+     * @param title   the title of the post
+     * @param content the content of the post
+     */
+    public Post(Long id, String title, String content) {
+        setId(id);
+        this.title = title;
+        setContent(content);
+    }
+
     public String getTitle() {
         return title;
     }
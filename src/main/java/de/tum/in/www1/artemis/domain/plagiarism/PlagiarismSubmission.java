@@ -98,13 +98,7 @@ public class PlagiarismSubmission<E extends PlagiarismSubmissionElement> extends
         String studentLogin = "unknown";
 
         if (submissionIdAndStudentLogin.length >= 2) {
-            try {
-                submissionId = Long.parseLong(submissionIdAndStudentLogin[0]);
-            }
-            catch (NumberFormatException e) {
-                logger.error("Invalid submissionId: {}", e.getMessage());
-            }
-
+            submissionId = getSubmissionIdFromJPlagSubmission(jplagSubmission);
             studentLogin = submissionIdAndStudentLogin[1];
         }
 
@@ -118,6 +112,22 @@ public class PlagiarismSubmission<E extends PlagiarismSubmissionElement> extends
         return submission;
     }
 
+    /**
+     * Extract the id of the related submission from the name of a JPlag Submission, which has the format {@code <submissionId>-<studentLogin>}
+     *
+     * @param jplagSubmission the JPlag Submission
+     * @return the id of the related submission or 0 if the name does not start with a valid id
+     */
+    public static long getSubmissionIdFromJPlagSubmission(Submission jplagSubmission) {
+        try {
+            return Long.parseLong(jplagSubmission.getName().split("[-.]")[0]);
+        }
+        catch (NumberFormatException e) {
+            logger.error("Invalid submissionId: {}", e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Create a new PlagiarismSubmission instance from an existing Modeling Submission
      *
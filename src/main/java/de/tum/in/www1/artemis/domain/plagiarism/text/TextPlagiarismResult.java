@@ -21,6 +21,22 @@ public class TextPlagiarismResult extends PlagiarismResult<TextSubmissionElement
      * @param exercise the exercise to which the result should belong, either Text or Programming
      */
     public void convertJPlagResult(JPlagResult result, Exercise exercise) {
+        addJPlagComparisons(result, exercise);
+        this.duration = result.getDuration();
+        // NOTE: there seems to be an issue in JPlag 4.0 that the similarity distribution is reversed, either in the implementation or in the documentation.
+        // we use it like this: 0: [0% - 10%), 1: [10% - 20%), 2: [20% - 30%), ..., 9: [90% - 100%] so we reverse it
+        var similarityDistribution = result.getSimilarityDistribution();
+        ArrayUtils.reverse(similarityDistribution);
+        this.setSimilarityDistribution(similarityDistribution);
+        this.setExercise(exercise);
+    }
+
+    /**
+     * converts the 500 comparisons with the highest similarity of the given JPlagResult and adds them to this result
+     * @param result the JPlagResult contains comparisons
+     * @param exercise the exercise to which the result belongs, either Text or Programming
+     */
+    public void addJPlagComparisons(JPlagResult result, Exercise exercise) {
         // sort and limit the number of comparisons to 500
         var comparisons = result.getComparisons(500);
         // only convert those 500 comparisons to save memory and cpu power
@@ -29,12 +45,5 @@ public class TextPlagiarismResult extends PlagiarismResult<TextSubmissionElement
             comparison.setPlagiarismResult(this);
             this.comparisons.add(comparison);
         }
-        this.duration = result.getDuration();
-        // NOTE: there seems to be an issue in JPlag 4.0 that the similarity distribution is reversed, either in the implementation or in the documentation.
-        // we use it like this: 0: [0% - 10%), 1: [10% - 20%), 2: [20% - 30%), ..., 9: [90% - 100%] so we reverse it
-        var similarityDistribution = result.getSimilarityDistribution();
-        ArrayUtils.reverse(similarityDistribution);
-        this.setSimilarityDistribution(similarityDistribution);
-        this.setExercise(exercise);
     }
 }
@@ -0,0 +1,130 @@
+package de.tum.in.www1.artemis.domain.scores;
+
+import java.time.Instant;
+
+import javax.persistence.*;
+
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.User;
+
+/**
+ * Course student scores store the points and the presentation score that a student achieved in all exercises of a course, so that course scores do not have to be
+ * calculated from all participations and results of the course for every request.
+ * <p>
+ * The stored values depend on the exercises of the course (e.g. which exercises are already included in the score calculation), which is captured by the
+ * calculation key. Scores with a different calculation key than the current one of the course are outdated and calculated again when they are requested.
+ * Scores are invalidated when the results of a student change (together with the participant scores) or when the members of a team change. The version makes sure that
+ * a calculation based on the previous results cannot overwrite such an invalidation.
+ * @see de.tum.in.www1.artemis.service.CourseScoreCalculationService
+ * @see de.tum.in.www1.artemis.service.scheduled.ParticipantScoreSchedulerService
+ */
+@Entity
+@Table(name = "course_student_score", uniqueConstraints = @UniqueConstraint(columnNames = { "course_id", "user_id" }))
+@EntityListeners(AuditingEntityListener.class)
+public class CourseStudentScore extends DomainObject {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * False if the student did not participate in any exercise of the course, the other values are 0 in that case
+     */
+    @Column(name = "participated", nullable = false)
+    private boolean participated;
+
+    /**
+     * The sum of the (rounded) points achieved in all exercises of the course that are included in the score calculation, without rounding the sum
+     */
+    @Column(name = "points_achieved", nullable = false)
+    private double pointsAchieved;
+
+    @Column(name = "presentation_score", nullable = false)
+    private int presentationScore;
+
+    /**
+     * Identifies the configuration of the course exercises that was used to calculate this score
+     */
+    @Column(name = "calculation_key", nullable = false, length = 64)
+    private String calculationKey;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @LastModifiedDate
+    @Column(name = "last_modified_date")
+    private Instant lastModifiedDate;
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public void setCourse(Course course) {
+        this.course = course;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public boolean isParticipated() {
+        return participated;
+    }
+
+    public void setParticipated(boolean participated) {
+        this.participated = participated;
+    }
+
+    public double getPointsAchieved() {
+        return pointsAchieved;
+    }
+
+    public void setPointsAchieved(double pointsAchieved) {
+        this.pointsAchieved = pointsAchieved;
+    }
+
+    public int getPresentationScore() {
+        return presentationScore;
+    }
+
+    public void setPresentationScore(int presentationScore) {
+        this.presentationScore = presentationScore;
+    }
+
+    public String getCalculationKey() {
+        return calculationKey;
+    }
+
+    public void setCalculationKey(String calculationKey) {
+        this.calculationKey = calculationKey;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    @Override
+    public String toString() {
+        Long courseId = getCourse() != null ? getCourse().getId() : null;
+        Long userId = getUser() != null ? getUser().getId() : null;
+        return "CourseStudentScore{" + "id=" + getId() + ", courseId=" + courseId + ", userId=" + userId + ", participated=" + participated + ", pointsAchieved="
+                + pointsAchieved + ", presentationScore=" + presentationScore + ", calculationKey='" + calculationKey + '\'' + ", version=" + version + '}';
+    }
+}
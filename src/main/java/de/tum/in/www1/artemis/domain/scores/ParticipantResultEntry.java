@@ -0,0 +1,12 @@
+package de.tum.in.www1.artemis.domain.scores;
+
+/**
+ * A lightweight projection of a result of a participant (user or team) that is used to update the participant scores of many participants at once.
+ *
+ * @param participantId the id of the user or team the result belongs to
+ * @param resultId      the id of the result
+ * @param score         the score of the result
+ * @param rated         whether the result is rated
+ */
+public record ParticipantResultEntry(Long participantId, Long resultId, Double score, Boolean rated) {
+}
@@ -8,6 +8,7 @@ import java.time.temporal.TemporalAccessor;
  * amount is the number of entries in the same timeslot
  * username is for specific purposes (Logged-in users, active user, active tutors) where duplicated user entries need to
  * be filtered out in java and therefore not the amount is needed, but the name so the amount can be calculated afterwards
+ * date is used instead of day if the database already grouped the entries by a prefix of the timestamp, e.g. "2021-05-04" or "2021-05-04 13" (in UTC)
  */
 public class StatisticsEntry {
 
@@ -31,6 +32,12 @@ public class StatisticsEntry {
         this.username = username;
     }
 
+    public StatisticsEntry(String date, long amount) {
+        this.date = date;
+        this.amount = amount;
+        this.username = "";
+    }
+
     public StatisticsEntry(String date, String username) {
         this.date = date;
         this.amount = 1L;
@@ -0,0 +1,53 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.scores.CourseStudentScore;
+
+@Repository
+public interface CourseStudentScoreRepository extends JpaRepository<CourseStudentScore, Long> {
+
+    List<CourseStudentScore> findAllByCourse_Id(Long courseId);
+
+    List<CourseStudentScore> findAllByCourse_IdAndUser_IdIn(Long courseId, Collection<Long> userIds);
+
+    @Query("""
+            SELECT s.user.id
+            FROM CourseStudentScore s
+            WHERE s.course.id = :courseId
+                AND s.user.id IN :userIds
+            """)
+    Set<Long> findUserIdsByCourseIdAndUserIdIn(@Param("courseId") Long courseId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Replaces the calculation key of the scores of the given users, so that the scores are calculated again the next time they are used.
+     * The version is incremented as well, so that concurrent calculations that are still based on the previous results cannot store their scores.
+     *
+     * @param courseId       the id of the course
+     * @param userIds        the ids of the users whose scores are outdated
+     * @param calculationKey a calculation key that differs from all valid keys
+     * @return the number of updated scores
+     */
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE CourseStudentScore s
+            SET s.calculationKey = :calculationKey, s.version = s.version + 1
+            WHERE s.course.id = :courseId
+                AND s.user.id IN :userIds
+            """)
+    int updateCalculationKeyByCourseIdAndUserIdIn(@Param("courseId") Long courseId, @Param("userIds") Collection<Long> userIds, @Param("calculationKey") String calculationKey);
+
+    @Transactional // ok because of delete
+    @Modifying
+    void deleteAllByCourse_Id(Long courseId);
+}
@@ -0,0 +1,37 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
+
+/**
+ * Spring Data JPA repository for the ExamAction entity.
+ */
+@Repository
+public interface ExamActionRepository extends JpaRepository<ExamAction, Long> {
+
+    /**
+     * Loads the next page of actions of an exam ordered by id. We page by the last loaded id instead of an offset, so that loading a page does not get slower the further
+     * we get into the (potentially very large) table.
+     *
+     * @param examId   the id of the exam
+     * @param lastId   the id of the last action of the previous page, use 0 for the first page
+     * @param pageable the page size, the page number has to be 0
+     * @return the actions of the exam with an id larger than the given id
+     */
+    @Query("""
+            SELECT action
+            FROM ExamAction action, StudentExam studentExam
+            WHERE action.studentExamId = studentExam.id
+                AND studentExam.exam.id = :examId
+                AND action.id > :lastId
+            ORDER BY action.id
+            """)
+    List<ExamAction> findByExamIdAndIdGreaterThan(@Param("examId") long examId, @Param("lastId") long lastId, Pageable pageable);
+}
@@ -31,6 +31,9 @@ public interface ExampleSubmissionRepository extends JpaRepository<ExampleSubmis
     @EntityGraph(type = LOAD, attributePaths = { "submission", "submission.results" })
     Set<ExampleSubmission> findAllWithResultByExerciseId(long exerciseId);
 
+    @EntityGraph(type = LOAD, attributePaths = { "submission", "submission.results" })
+    Set<ExampleSubmission> findAllWithResultByExerciseIdIn(Set<Long> exerciseIds);
+
     @EntityGraph(type = LOAD, attributePaths = { "submission", "submission.results" })
     @Query("""
             SELECT DISTINCT exampleSubmission
@@ -28,6 +28,13 @@ public interface NotificationSettingRepository extends JpaRepository<Notificatio
             """)
     Set<NotificationSetting> findAllNotificationSettingsForRecipientWithId(@Param("userId") long userId);
 
+    @Query("""
+            SELECT notificationSetting
+            FROM NotificationSetting notificationSetting
+            WHERE notificationSetting.user.id IN :#{#userIds}
+            """)
+    Set<NotificationSetting> findAllNotificationSettingsForRecipientsWithIds(@Param("userIds") Set<Long> userIds);
+
     @EntityGraph(type = LOAD, attributePaths = { "user.groups", "user.authorities" })
     @Query("""
             SELECT setting
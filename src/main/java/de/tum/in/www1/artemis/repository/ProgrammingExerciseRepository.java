@@ -387,6 +387,29 @@ public interface ProgrammingExerciseRepository extends JpaRepository<Programming
                 """)
     long countAssessmentsByExerciseIdSubmittedIgnoreTestRunSubmissions(@Param("exerciseId") Long exerciseId);
 
+    /**
+     * Same as {@link #countAssessmentsByExerciseIdSubmittedIgnoreTestRunSubmissions(Long)}, but for multiple exercises with one query
+     *
+     * @param exerciseIds the exercise ids we are interested in
+     * @return the number of distinct assessed submissions for each exercise that has assessed submissions
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseMapEntry(
+                p.exercise.id,
+                COUNT(DISTINCT p)
+            )
+            FROM ProgrammingExerciseStudentParticipation p
+            LEFT JOIN p.results r
+            WHERE p.exercise.id IN :exerciseIds
+                AND p.testRun = FALSE
+                AND r.submission.submitted = TRUE
+                AND (r.submission.type <> 'ILLEGAL' OR r.submission.type IS NULL)
+                AND r.assessor IS NOT NULL
+                AND r.completionDate IS NOT NULL
+            GROUP BY p.exercise.id
+            """)
+    List<ExerciseMapEntry> countAssessmentsByExerciseIdsSubmittedIgnoreTestRun(@Param("exerciseIds") Set<Long> exerciseIds);
+
     /**
      * In distinction to other exercise types, students can have multiple submissions in a programming exercise.
      * We therefore have to check here if any submission of the student was submitted before the deadline.
@@ -2,7 +2,9 @@ package de.tum.in.www1.artemis.repository;
 
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -31,4 +33,25 @@ public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission,
 
     @EntityGraph(type = LOAD, attributePaths = { "submittedAnswers" })
     QuizSubmission findWithEagerSubmittedAnswersById(@Param("submissionId") long submissionId);
+
+    @Query("""
+            SELECT DISTINCT submission FROM QuizSubmission submission
+            LEFT JOIN FETCH submission.submittedAnswers
+            WHERE submission.id IN :#{#submissionIds}
+            """)
+    Set<QuizSubmission> findWithEagerSubmittedAnswersByIdIn(@Param("submissionIds") Collection<Long> submissionIds);
+
+    /**
+     * Get all submissions of the given quiz exercise together with their submitted answers and results, i.e. everything that is necessary to recalculate the statistics
+     *
+     * @param exerciseId the id of the quiz exercise
+     * @return all quiz submissions of the exercise with eagerly loaded submitted answers and results
+     */
+    @Query("""
+            SELECT DISTINCT submission FROM QuizSubmission submission
+            LEFT JOIN FETCH submission.submittedAnswers
+            LEFT JOIN FETCH submission.results
+            WHERE submission.participation.exercise.id = :#{#exerciseId}
+            """)
+    Set<QuizSubmission> findWithEagerSubmittedAnswersAndResultsByExerciseId(@Param("exerciseId") long exerciseId);
 }
@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -11,7 +12,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import de.tum.in.www1.artemis.domain.Rating;
-import de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseRatingCount;
+import de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseRatingMapEntry;
 
 /**
  * Spring Data JPA repository for the Rating entity.
@@ -31,18 +32,27 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
 
     List<Rating> findAllByResult_Participation_Exercise_Course_Id(Long courseId);
 
+    /**
+     * Calculates the average rating and the number of ratings of the given exercises with one query.
+     * Exercises without completed results are not included.
+     *
+     * @param exerciseIds the ids of the exercises
+     * @return the average rating and number of ratings for each exercise with completed results
+     */
     @Query("""
-                SELECT new de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseRatingCount(
+                SELECT new de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseRatingMapEntry(
+                    e.id,
                     cast(sum(ra.rating) as double) / sum(case when ra.rating is not null then 1 else 0 end),
                     sum(case when ra.rating is not null then 1 else 0 end))
                 FROM
                     Result r JOIN r.participation p JOIN p.exercise e
-                    LEFT JOIN FETCH Rating ra ON ra.result = r.id
+                    LEFT JOIN Rating ra ON ra.result = r.id
                 WHERE
                     r.completionDate is not null AND
-                    e.id = :#{#exerciseId}
+                    e.id IN :exerciseIds
+                GROUP BY e.id
             """)
-    ExerciseRatingCount averageRatingByExerciseId(@Param("exerciseId") Long exerciseId);
+    List<ExerciseRatingMapEntry> averageRatingByExerciseIds(@Param("exerciseIds") Set<Long> exerciseIds);
 
     /**
      * Count all ratings given to submissions for the given course.
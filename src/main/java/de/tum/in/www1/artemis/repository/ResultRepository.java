@@ -14,9 +14,11 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseMapEntry;
 import de.tum.in.www1.artemis.domain.assessment.dashboard.ResultCount;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardAssessments;
+import de.tum.in.www1.artemis.domain.scores.ParticipantResultEntry;
 import de.tum.in.www1.artemis.service.util.RoundingUtil;
 import de.tum.in.www1.artemis.web.rest.dto.DueDateStat;
 import de.tum.in.www1.artemis.web.rest.dto.ResultWithPointsPerGradingCriterionDTO;
@@ -177,6 +179,29 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
             """)
     long countNumberOfFinishedAssessmentsForExerciseIgnoreTestRuns(@Param("exerciseId") Long exerciseId);
 
+    /**
+     * Same as {@link #countNumberOfFinishedAssessmentsForExerciseIgnoreTestRuns(Long)}, but for multiple exercises with one query
+     *
+     * @param exerciseIds the ids of the exercises
+     * @return the number of finished assessments for each exercise that has finished assessments
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseMapEntry(
+                e.id,
+                COUNT(DISTINCT p)
+            )
+            FROM StudentParticipation p JOIN p.results r JOIN p.exercise e
+            WHERE e.id IN :exerciseIds
+                AND p.testRun = FALSE
+                AND r.assessor IS NOT NULL
+                AND r.rated = TRUE
+                AND r.submission.submitted = TRUE
+                AND r.completionDate IS NOT NULL
+                AND (e.dueDate IS NULL OR r.submission.submissionDate <= e.dueDate)
+            GROUP BY e.id
+            """)
+    List<ExerciseMapEntry> countNumberOfFinishedAssessmentsForExercisesIgnoreTestRuns(@Param("exerciseIds") Set<Long> exerciseIds);
+
     /**
      * @param exerciseId id of exercise
      * @return a list that contains the count of manual assessments for each studentParticipation of the exercise
@@ -194,6 +219,28 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
             """)
     List<Long> countNumberOfFinishedAssessmentsByExerciseIdIgnoreTestRuns(@Param("exerciseId") Long exerciseId);
 
+    /**
+     * Same as {@link #countNumberOfFinishedAssessmentsByExerciseIdIgnoreTestRuns(Long)}, but for multiple exercises with one query
+     *
+     * @param exerciseIds ids of the exercises
+     * @return a list that contains the count of manual assessments for each studentParticipation of the exercises, together with the id of the exercise
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseMapEntry(
+                p.exercise.id,
+                COUNT(r.id)
+            )
+            FROM StudentParticipation p JOIN p.submissions s JOIN s.results r
+            WHERE p.exercise.id IN :exerciseIds
+                AND p.testRun = FALSE
+                AND s.submitted = TRUE
+                AND r.completionDate IS NOT NULL
+                AND r.rated = TRUE
+                AND r.assessor IS NOT NULL
+                GROUP BY p.exercise.id, p.id
+            """)
+    List<ExerciseMapEntry> countNumberOfFinishedAssessmentsByExerciseIdsIgnoreTestRuns(@Param("exerciseIds") Set<Long> exerciseIds);
+
     @Query("""
             SELECT r
                 FROM StudentParticipation p join p.submissions s join s.results r
@@ -253,60 +300,36 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
     long countByAssessor_IdAndParticipation_ExerciseIdAndRatedAndCompletionDateIsNotNull(Long tutorId, Long exerciseId, boolean rated);
 
     @Query("""
-            SELECT r
-            FROM Exercise e JOIN e.studentParticipations p JOIN p.submissions s JOIN s.results r
-            WHERE e.id = :exerciseId
-                AND p.student.id = :studentId
-                AND r.score IS NOT NULL
-                AND r.completionDate IS NOT NULL
-                AND (s.type <> 'ILLEGAL' or s.type is null)
-            ORDER BY p.id DESC, s.id DESC, r.id DESC
-            """)
-    List<Result> getResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForStudent(@Param("exerciseId") Long exerciseId, @Param("studentId") Long studentId);
-
-    @Query("""
-            SELECT r
-            FROM Exercise e JOIN e.studentParticipations p JOIN p.submissions s JOIN s.results r
-            WHERE e.id = :exerciseId
-                AND p.team.id = :teamId
-                AND r.score IS NOT NULL
-                AND r.completionDate IS NOT NULL
-                AND (s.type <> 'ILLEGAL' or s.type is null)
-            ORDER BY p.id DESC, s.id DESC, r.id DESC
-            """)
-    List<Result> getResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeam(@Param("exerciseId") Long exerciseId, @Param("teamId") Long teamId);
-
-    @Query("""
-            SELECT r
+            SELECT new de.tum.in.www1.artemis.domain.scores.ParticipantResultEntry(p.student.id, r.id, r.score, r.rated)
             FROM Exercise e
             JOIN e.studentParticipations p
             JOIN p.submissions s
             JOIN s.results r
             WHERE e.id = :exerciseId
-                AND p.student.id = :studentId
+                AND p.student.id IN :studentIds
                 AND r.score IS NOT NULL
                 AND r.completionDate IS NOT NULL
-                AND r.rated = true
                 AND (s.type <> 'ILLEGAL' or s.type is null)
             ORDER BY p.id DESC, s.id DESC, r.id DESC
             """)
-    List<Result> getRatedResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForStudent(@Param("exerciseId") Long exerciseId, @Param("studentId") Long studentId);
+    List<ParticipantResultEntry> getResultEntriesOrderedByParticipationIdLegalSubmissionIdResultIdDescForStudents(@Param("exerciseId") Long exerciseId,
+            @Param("studentIds") Set<Long> studentIds);
 
     @Query("""
-            SELECT r
+            SELECT new de.tum.in.www1.artemis.domain.scores.ParticipantResultEntry(p.team.id, r.id, r.score, r.rated)
             FROM Exercise e
             JOIN e.studentParticipations p
             JOIN p.submissions s
             JOIN s.results r
             WHERE e.id = :exerciseId
-                AND p.team.id = :teamId
+                AND p.team.id IN :teamIds
                 AND r.score IS NOT NULL
                 AND r.completionDate IS NOT NULL
-                AND r.rated = true
                 AND (s.type <> 'ILLEGAL' or s.type is null)
             ORDER BY p.id DESC, s.id DESC, r.id DESC
             """)
-    List<Result> getRatedResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeam(@Param("exerciseId") Long exerciseId, @Param("teamId") Long teamId);
+    List<ParticipantResultEntry> getResultEntriesOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeams(@Param("exerciseId") Long exerciseId,
+            @Param("teamIds") Set<Long> teamIds);
 
     List<Result> findAllByLastModifiedDateAfter(Instant lastModifiedDate);
 
@@ -1,6 +1,7 @@
 package de.tum.in.www1.artemis.repository;
 
 import java.time.*;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.IsoFields;
 import java.time.temporal.TemporalField;
@@ -31,26 +32,26 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                s.submissionDate,
+                substring(s.submissionDate, 1, 13),
                 count(s.id)
                 )
             from Submission s
             where s.submissionDate >= :#{#startDate} and s.submissionDate <= :#{#endDate} and (s.participation.exercise.exerciseGroup IS NOT NULL or exists (select c from Course c where s.participation.exercise.course.testCourse = false))
-            group by s.submissionDate
-            order by s.submissionDate asc
+            group by substring(s.submissionDate, 1, 13)
+            order by substring(s.submissionDate, 1, 13) asc
             """)
     List<StatisticsEntry> getTotalSubmissions(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
 
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                s.submissionDate,
+                substring(s.submissionDate, 1, 13),
                 count(s.id)
                 )
             from Submission s
             where s.submissionDate >= :#{#startDate} and s.submissionDate <= :#{#endDate} and s.participation.exercise.id in :exerciseIds
-            group by s.submissionDate
-            order by s.submissionDate asc
+            group by substring(s.submissionDate, 1, 13)
+            order by substring(s.submissionDate, 1, 13) asc
             """)
     List<StatisticsEntry> getTotalSubmissionsForCourse(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate,
             @Param("exerciseIds") List<Long> exerciseIds);
@@ -58,13 +59,13 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                s.submissionDate,
+                substring(s.submissionDate, 1, 13),
                 count(s.id)
                 )
             from Submission s
             where s.submissionDate >= :#{#startDate} and s.submissionDate <= :#{#endDate} and s.participation.exercise.id = :exerciseId
-            group by s.submissionDate
-            order by s.submissionDate asc
+            group by substring(s.submissionDate, 1, 13)
+            order by substring(s.submissionDate, 1, 13) asc
             """)
     List<StatisticsEntry> getTotalSubmissionsForExercise(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate,
             @Param("exerciseId") Long exerciseId);
@@ -72,24 +73,26 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                s.submissionDate, u.login
+                substring(s.submissionDate, 1, 13), u.login
                 )
             from User u, Submission s, StudentParticipation p
             where s.participation.id = p.id and p.student.id = u.id and s.submissionDate >= :#{#startDate} and s.submissionDate <= :#{#endDate} and u.login not like '%test%'
             and (s.participation.exercise.exerciseGroup IS NOT NULL or exists (select c from Course c where s.participation.exercise.course.testCourse = false))
-            order by s.submissionDate asc
+            group by substring(s.submissionDate, 1, 13), u.login
+            order by substring(s.submissionDate, 1, 13) asc
             """)
     List<StatisticsEntry> getActiveUsers(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
 
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                s.submissionDate, u.login
+                substring(s.submissionDate, 1, 13), u.login
                 )
             from User u, Submission s, StudentParticipation p
             where s.participation.id = p.id and p.student.id = u.id and s.submissionDate >= :#{#startDate} and s.submissionDate <= :#{#endDate} and u.login not like '%test%'
             and p.exercise.id in :exerciseIds
-            order by s.submissionDate asc
+            group by substring(s.submissionDate, 1, 13), u.login
+            order by substring(s.submissionDate, 1, 13) asc
             """)
     List<StatisticsEntry> getActiveUsersForCourse(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate,
             @Param("exerciseIds") List<Long> exerciseIds);
@@ -97,12 +100,13 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                s.submissionDate, u.login
+                substring(s.submissionDate, 1, 13), u.login
                 )
             from User u, Submission s, StudentParticipation p
             where s.participation.id = p.id and p.student.id = u.id and s.submissionDate >= :#{#startDate} and s.submissionDate <= :#{#endDate} and u.login not like '%test%'
             and p.exercise.id = :exerciseId
-            order by s.submissionDate asc
+            group by substring(s.submissionDate, 1, 13), u.login
+            order by substring(s.submissionDate, 1, 13) asc
             """)
     List<StatisticsEntry> getActiveUsersForExercise(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate, @Param("exerciseId") Long exerciseId);
 
@@ -159,11 +163,12 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                p.auditEventDate, u.login
+                substring(p.auditEventDate, 1, 13), u.login
                 )
             from User u, PersistentAuditEvent p
             where u.login = p.principal and p.auditEventType = 'AUTHENTICATION_SUCCESS' and u.login not like '%test%' and p.auditEventDate >= :#{#startDate} and p.auditEventDate <= :#{#endDate}
-            order by p.auditEventDate asc
+            group by substring(p.auditEventDate, 1, 13), u.login
+            order by substring(p.auditEventDate, 1, 13) asc
             """)
     List<StatisticsEntry> getLoggedInUsers(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 
@@ -241,22 +246,24 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
 
     @Query("""
             select new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                r.completionDate, r.assessor.login
+                substring(r.completionDate, 1, 13), r.assessor.login
                 )
             from Result r
             where (r.assessmentType = 'MANUAL' or r.assessmentType = 'SEMI_AUTOMATIC') and r.completionDate >= :#{#startDate} and r.completionDate <= :#{#endDate} and r.assessor.login not like '%test%'
             and (r.participation.exercise.exerciseGroup IS NOT NULL or exists (select c from Course c where r.participation.exercise.course.testCourse = false))
+            group by substring(r.completionDate, 1, 13), r.assessor.login
             """)
     List<StatisticsEntry> getActiveTutors(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
 
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                r.completionDate, r.assessor.login
+                substring(r.completionDate, 1, 13), r.assessor.login
                 )
             from Result r
             where (r.assessmentType = 'MANUAL' or r.assessmentType = 'SEMI_AUTOMATIC') and r.completionDate >= :#{#startDate} and r.completionDate <= :#{#endDate} and r.assessor.login not like '%test%'
             and r.participation.exercise.id in :exerciseIds
+            group by substring(r.completionDate, 1, 13), r.assessor.login
             """)
     List<StatisticsEntry> getActiveTutorsForCourse(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate,
             @Param("exerciseIds") List<Long> exerciseIds);
@@ -264,35 +271,36 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                r.completionDate, r.assessor.login
+                substring(r.completionDate, 1, 13), r.assessor.login
                 )
             from Result r
             where (r.assessmentType = 'MANUAL' or r.assessmentType = 'SEMI_AUTOMATIC') and r.completionDate >= :#{#startDate} and r.completionDate <= :#{#endDate} and r.assessor.login not like '%test%'
             and r.participation.exercise.id = :exerciseId
+            group by substring(r.completionDate, 1, 13), r.assessor.login
             """)
     List<StatisticsEntry> getActiveTutorsForExercise(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate, @Param("exerciseId") Long exerciseId);
 
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                r.completionDate, count(r.id)
+                substring(r.completionDate, 1, 13), count(r.id)
                 )
             from Result r
             where r.completionDate >= :#{#startDate} and r.completionDate <= :#{#endDate} and (r.participation.exercise.exerciseGroup IS NOT NULL or exists (select c from Course c where r.participation.exercise.course.testCourse = false))
-            group by r.completionDate
-            order by r.completionDate
+            group by substring(r.completionDate, 1, 13)
+            order by substring(r.completionDate, 1, 13)
             """)
     List<StatisticsEntry> getCreatedResults(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
 
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                r.completionDate, count(r.id)
+                substring(r.completionDate, 1, 13), count(r.id)
                 )
             from Result r
             where r.completionDate >= :#{#startDate} and r.completionDate <= :#{#endDate} and r.participation.exercise.id in :exerciseIds
-            group by r.completionDate
-            order by r.completionDate
+            group by substring(r.completionDate, 1, 13)
+            order by substring(r.completionDate, 1, 13)
             """)
     List<StatisticsEntry> getCreatedResultsForCourse(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate,
             @Param("exerciseIds") List<Long> exerciseIds);
@@ -300,36 +308,36 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                r.completionDate, count(r.id)
+                substring(r.completionDate, 1, 13), count(r.id)
                 )
             from Result r
             where r.completionDate >= :#{#startDate} and r.completionDate <= :#{#endDate} and r.participation.exercise.id = :exerciseId
-            group by r.completionDate
-            order by r.completionDate
+            group by substring(r.completionDate, 1, 13)
+            order by substring(r.completionDate, 1, 13)
             """)
     List<StatisticsEntry> getCreatedResultsForExercise(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate, @Param("exerciseId") Long exerciseId);
 
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                r.completionDate, sum(size(r.feedbacks))
+                substring(r.completionDate, 1, 13), sum(size(r.feedbacks))
                 )
             from Result r
             where r.completionDate >= :#{#startDate} and r.completionDate <= :#{#endDate} and (r.participation.exercise.exerciseGroup IS NOT NULL or exists (select c from Course c where r.participation.exercise.course.testCourse = false))
-            group by r.completionDate
-            order by r.completionDate
+            group by substring(r.completionDate, 1, 13)
+            order by substring(r.completionDate, 1, 13)
             """)
     List<StatisticsEntry> getResultFeedbacks(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
 
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                r.completionDate, sum(size(r.feedbacks))
+                substring(r.completionDate, 1, 13), sum(size(r.feedbacks))
                 )
             from Result r
             where r.completionDate >= :#{#startDate} and r.completionDate <= :#{#endDate} and r.participation.exercise.id in :exerciseIds
-            group by r.completionDate
-            order by r.completionDate
+            group by substring(r.completionDate, 1, 13)
+            order by substring(r.completionDate, 1, 13)
             """)
     List<StatisticsEntry> getResultFeedbacksForCourse(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate,
             @Param("exerciseIds") List<Long> exerciseIds);
@@ -337,12 +345,12 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
     @Query("""
             select
             new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(
-                r.completionDate, sum(size(r.feedbacks))
+                substring(r.completionDate, 1, 13), sum(size(r.feedbacks))
                 )
             from Result r
             where r.completionDate >= :#{#startDate} and r.completionDate <= :#{#endDate} and r.participation.exercise.id = :exerciseId
-            group by r.completionDate
-            order by r.completionDate
+            group by substring(r.completionDate, 1, 13)
+            order by substring(r.completionDate, 1, 13)
             """)
     List<StatisticsEntry> getResultFeedbacksForExercise(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate, @Param("exerciseId") Long exerciseId);
 
@@ -455,11 +463,12 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
         var exerciseIds = view == StatisticsView.COURSE && entityId != null ? findExerciseIdsByCourseId(entityId) : null;
         switch (graphType) {
             case SUBMISSIONS -> {
-                return switch (view) {
+                List<StatisticsEntry> result = switch (view) {
                     case ARTEMIS -> getTotalSubmissions(startDate, endDate);
                     case COURSE -> getTotalSubmissionsForCourse(startDate, endDate, exerciseIds);
                     case EXERCISE -> getTotalSubmissionsForExercise(startDate, endDate, entityId);
                 };
+                return convertHourlyEntries(result, startDate.getZone());
             }
             case ACTIVE_USERS -> {
                 List<StatisticsEntry> result = switch (view) {
@@ -467,13 +476,13 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
                     case COURSE -> getActiveUsersForCourse(startDate, endDate, exerciseIds);
                     case EXERCISE -> getActiveUsersForExercise(startDate, endDate, entityId);
                 };
-                return filterDuplicatedUsers(span, result, startDate, graphType);
+                return filterDuplicatedUsers(span, convertHourlyEntries(result, startDate.getZone()), startDate);
             }
             case LOGGED_IN_USERS -> {
                 Instant startDateInstant = startDate.toInstant();
                 Instant endDateInstant = endDate.toInstant();
                 List<StatisticsEntry> result = getLoggedInUsers(startDateInstant, endDateInstant);
-                return filterDuplicatedUsers(span, result, startDate, graphType);
+                return filterDuplicatedUsers(span, convertHourlyEntries(result, startDate.getZone()), startDate);
             }
             case RELEASED_EXERCISES -> {
                 return switch (view) {
@@ -516,21 +525,23 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
                     case COURSE -> getActiveTutorsForCourse(startDate, endDate, exerciseIds);
                     case EXERCISE -> getActiveTutorsForExercise(startDate, endDate, entityId);
                 };
-                return filterDuplicatedUsers(span, result, startDate, graphType);
+                return filterDuplicatedUsers(span, convertHourlyEntries(result, startDate.getZone()), startDate);
             }
             case CREATED_RESULTS -> {
-                return switch (view) {
+                List<StatisticsEntry> result = switch (view) {
                     case ARTEMIS -> getCreatedResults(startDate, endDate);
                     case COURSE -> getCreatedResultsForCourse(startDate, endDate, exerciseIds);
                     case EXERCISE -> getCreatedResultsForExercise(startDate, endDate, entityId);
                 };
+                return convertHourlyEntries(result, startDate.getZone());
             }
             case CREATED_FEEDBACKS -> {
-                return switch (view) {
+                List<StatisticsEntry> result = switch (view) {
                     case ARTEMIS -> getResultFeedbacks(startDate, endDate);
                     case COURSE -> getResultFeedbacksForCourse(startDate, endDate, exerciseIds);
                     case EXERCISE -> getResultFeedbacksForExercise(startDate, endDate, entityId);
                 };
+                return convertHourlyEntries(result, startDate.getZone());
             }
             case POSTS -> {
                 return switch (view) {
@@ -550,6 +561,27 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
         }
     }
 
+    /**
+     * The high volume statistics queries (e.g. submissions, results and active users) let the database group the entries by hour, so that they return at most
+     * one row per hour (and user) instead of one row per entry. This method converts the hour of these entries (e.g. "2021-05-04 13" in UTC) into the day
+     * of the entries in the given time zone, so that they can be sorted into the timeslots like all other entries.
+     * <p>
+     * Note: The hours are grouped in UTC. In time zones whose offset is not a whole number of hours (e.g. +05:30), an hour therefore does not start at the
+     * beginning of a local hour, and all of its entries are sorted into the timeslot of its start. Entries close to the end of a timeslot can thus be shifted
+     * into the previous timeslot by up to the fraction of the offset (e.g. 30 minutes).
+     *
+     * @param hourlyEntries the entries returned by the database, grouped by hour
+     * @param zone          the time zone of the statistics
+     * @return the same entries with the start of their hour as day
+     */
+    private List<StatisticsEntry> convertHourlyEntries(List<StatisticsEntry> hourlyEntries, ZoneId zone) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH");
+        for (StatisticsEntry entry : hourlyEntries) {
+            entry.setDay(LocalDateTime.parse(entry.getDate(), formatter).atZone(ZoneOffset.UTC).withZoneSameInstant(zone));
+        }
+        return hourlyEntries;
+    }
+
     /**
      * This method handles the duplicity of usernames. It gets a List<StatisticsData> with set day values and set username values.
      * It then filters out all duplicated user entries per timeslot (depending on spanType) and return a list of entries
@@ -558,20 +590,12 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
      * @param span DAY,WEEK,MONTH or YEAR
      * @param result the result given by the Repository call
      * @param startDate the startDate of the period
-     * @param graphType the graphType for which the List should be converted
      * @return A List<StatisticsData> with only distinct users per timeslot
      */
-    private List<StatisticsEntry> filterDuplicatedUsers(SpanType span, List<StatisticsEntry> result, ZonedDateTime startDate, GraphType graphType) {
-        Map<Integer, List<String>> users = new HashMap<>();
+    private List<StatisticsEntry> filterDuplicatedUsers(SpanType span, List<StatisticsEntry> result, ZonedDateTime startDate) {
+        Map<Integer, Set<String>> users = new HashMap<>();
         for (StatisticsEntry listElement : result) {
-            ZonedDateTime date;
-            if (graphType == GraphType.LOGGED_IN_USERS) {
-                Instant instant = (Instant) listElement.getDay();
-                date = instant.atZone(startDate.getZone());
-            }
-            else {
-                date = (ZonedDateTime) listElement.getDay();
-            }
+            ZonedDateTime date = (ZonedDateTime) listElement.getDay();
             Integer index = switch (span) {
                 case DAY -> date.getHour();
                 case WEEK, MONTH -> Math.toIntExact(ChronoUnit.DAYS.between(startDate, date));
@@ -589,30 +613,20 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
      * @param userStatisticEntry the statistic entry which contains a username and a potentially new user
      * @param index the index of the map which should be considered, can be a date or an integer
      */
-    default void addUserToTimeslot(Map<Integer, List<String>> users, StatisticsEntry userStatisticEntry, Integer index) {
-        String username = userStatisticEntry.getUsername();
-        List<String> usersInSameSlot = users.get(index);
-        // if this index is not yet existing in users
-        if (usersInSameSlot == null) {
-            usersInSameSlot = new ArrayList<>();
-            usersInSameSlot.add(username);
-            users.put(index, usersInSameSlot);
-        }   // if the value of the map for this index does not contain this username
-        else if (!usersInSameSlot.contains(username)) {
-            usersInSameSlot.add(username);
-        }
+    default void addUserToTimeslot(Map<Integer, Set<String>> users, StatisticsEntry userStatisticEntry, Integer index) {
+        users.computeIfAbsent(index, timeslot -> new HashSet<>()).add(userStatisticEntry.getUsername());
     }
 
     /**
      * Helper class for the filterDuplicatedUsers method, which takes the users in the same timeslot as well as some parameters needed
      * for calculation to convert these into a List<StatisticsData> which is then returned
      *
-     * @param users a Map where a date gets mapped onto a list of users with entries on this date
+     * @param users a Map where a date gets mapped onto the set of users with entries on this date
      * @param span the spanType for which we created the users List
      * @param startDate the startDate which we need for mapping into timeslots
      * @return A List<StatisticsData> with no duplicated user per timeslot
      */
-    private List<StatisticsEntry> mergeUsersPerTimeslotIntoList(Map<Integer, List<String>> users, SpanType span, ZonedDateTime startDate) {
+    private List<StatisticsEntry> mergeUsersPerTimeslotIntoList(Map<Integer, Set<String>> users, SpanType span, ZonedDateTime startDate) {
         List<StatisticsEntry> returnList = new ArrayList<>();
         users.forEach((timeIndex, userList) -> {
             ZonedDateTime start = switch (span) {
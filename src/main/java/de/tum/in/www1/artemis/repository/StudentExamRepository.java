@@ -143,6 +143,15 @@ public interface StudentExamRepository extends JpaRepository<StudentExam, Long>
      */
     boolean existsByExam_CourseIdAndExamIdAndUserId(@Param("courseId") long courseId, @Param("examId") long examId, @Param("userId") long userId);
 
+    /**
+     * Checks if the StudentExam with the given id belongs to the given exam and user (student).
+     * @param studentExamId the id of the student exam
+     * @param examId the id of the exam
+     * @param login the login of the user (student)
+     * @return True if the student exam exists and belongs to the given exam and user, else false.
+     */
+    boolean existsByIdAndExamIdAndUserLogin(@Param("studentExamId") long studentExamId, @Param("examId") long examId, @Param("login") String login);
+
     @Query("""
             SELECT DISTINCT se FROM StudentExam se
             LEFT JOIN FETCH se.exercises e
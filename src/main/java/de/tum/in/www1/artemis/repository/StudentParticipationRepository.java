@@ -23,6 +23,7 @@ import de.tum.in.www1.artemis.domain.Submission;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.enumeration.ExerciseMode;
+import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
 import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
@@ -57,6 +58,16 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             """)
     List<StudentParticipation> findByCourseIdAndStudentIdWithEagerRatedResults(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
 
+    @Query("""
+            SELECT DISTINCT p FROM StudentParticipation p
+            LEFT JOIN FETCH p.results r
+            LEFT JOIN p.team.students ts
+            WHERE p.exercise.course.id = :courseId
+                AND (p.student.id IN :studentIds OR ts.id IN :studentIds)
+                AND (r.rated IS NULL OR r.rated = true)
+            """)
+    List<StudentParticipation> findByCourseIdAndStudentIdsWithEagerRatedResults(@Param("courseId") Long courseId, @Param("studentIds") Collection<Long> studentIds);
+
     @Query("""
             SELECT DISTINCT p FROM StudentParticipation p
             LEFT JOIN FETCH p.submissions s
@@ -90,6 +101,13 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             """)
     Optional<StudentParticipation> findByExerciseIdAndStudentLogin(@Param("exerciseId") Long exerciseId, @Param("username") String username);
 
+    @Query("""
+            SELECT DISTINCT p.student.login FROM StudentParticipation p
+            WHERE p.exercise.id = :#{#exerciseId}
+                AND p.student.login IN :#{#usernames}
+            """)
+    Set<String> findStudentLoginsByExerciseIdAndStudentLogins(@Param("exerciseId") Long exerciseId, @Param("usernames") Set<String> usernames);
+
     @Query("""
             SELECT DISTINCT p FROM StudentParticipation p
             LEFT JOIN FETCH p.submissions s
@@ -117,6 +135,16 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             """)
     Optional<StudentParticipation> findOneByExerciseIdAndTeamId(@Param("exerciseId") Long exerciseId, @Param("teamId") Long teamId);
 
+    @Query("""
+            SELECT DISTINCT p FROM StudentParticipation p
+            LEFT JOIN FETCH p.student
+            LEFT JOIN FETCH p.team
+            LEFT JOIN FETCH p.submissions s
+            WHERE p.id = :#{#participationId}
+                AND (s.type <> 'ILLEGAL' OR s.type IS NULL)
+            """)
+    Optional<StudentParticipation> findWithStudentAndTeamAndEagerLegalSubmissionsById(@Param("participationId") long participationId);
+
     @Query("""
             SELECT DISTINCT p FROM StudentParticipation p
             LEFT JOIN FETCH p.submissions s
@@ -207,33 +235,17 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
     Set<StudentParticipation> findByExerciseIdAndTestRunWithEagerLegalSubmissionsAndLatestResultWithCompletionDate(@Param("exerciseId") Long exerciseId,
             @Param("testRun") boolean testRun);
 
-    /**
-     * Get all participations for an exercise with each latest {@link AssessmentType#AUTOMATIC} result and feedbacks (determined by id).
-     *
-     * @param exerciseId Exercise id.
-     * @return participations for exercise.
-     */
     @Query("""
             select distinct p from StudentParticipation p
             left join fetch p.results r
             left join fetch r.feedbacks
             left join fetch r.submission s
-            where p.exercise.id = :#{#exerciseId}
+            where p.id = :#{#participationId}
                 and (r.id = (select max(pr.id) from p.results pr
                     left join pr.submission prs
                     where pr.assessmentType = 'AUTOMATIC' and (prs.type <> 'ILLEGAL' or prs.type is null)))
             """)
-    List<StudentParticipation> findByExerciseIdWithLatestAutomaticResultAndFeedbacks(@Param("exerciseId") Long exerciseId);
-
-    /**
-     * Get all participations without individual due date for an exercise with each latest {@link AssessmentType#AUTOMATIC} result and feedbacks (determined by id).
-     *
-     * @param exerciseId Exercise id.
-     * @return participations for the exercise.
-     */
-    default List<StudentParticipation> findByExerciseIdWithLatestAutomaticResultAndFeedbacksWithoutIndividualDueDate(Long exerciseId) {
-        return findByExerciseIdWithLatestAutomaticResultAndFeedbacks(exerciseId).stream().filter(participation -> participation.getIndividualDueDate() == null).toList();
-    }
+    Optional<StudentParticipation> findByIdWithLatestAutomaticResultAndFeedbacks(@Param("participationId") Long participationId);
 
     @Query("""
             select distinct p from StudentParticipation p
@@ -241,38 +253,74 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             left join fetch r.feedbacks
             left join fetch r.submission s
             where p.id = :#{#participationId}
-                and (r.id = (select max(pr.id) from p.results pr
-                    left join pr.submission prs
-                    where pr.assessmentType = 'AUTOMATIC' and (prs.type <> 'ILLEGAL' or prs.type is null)))
+                 and (s.type <> 'ILLEGAL' or s.type is null)
+                 and (r.assessmentType = 'MANUAL' or r.assessmentType = 'SEMI_AUTOMATIC')
             """)
-    Optional<StudentParticipation> findByIdWithLatestAutomaticResultAndFeedbacks(@Param("participationId") Long participationId);
+    Optional<StudentParticipation> findByIdWithManualResultAndFeedbacks(@Param("participationId") Long participationId);
 
-    // Manual result can either be from type MANUAL or SEMI_AUTOMATIC
+    /**
+     * Get the ids of all participations of an exercise that have at least one result, ordered by id.
+     *
+     * @param exerciseId Exercise id.
+     * @return the ids of the participations with results.
+     */
+    @Query("""
+            select distinct p.id from StudentParticipation p
+            join p.results r
+            where p.exercise.id = :#{#exerciseId}
+            order by p.id
+            """)
+    List<Long> findIdsWithResultsByExerciseId(@Param("exerciseId") Long exerciseId);
+
+    /**
+     * Get the ids of all participations without individual due date of an exercise that have at least one result, ordered by id.
+     *
+     * @param exerciseId Exercise id.
+     * @return the ids of the participations with results.
+     */
+    @Query("""
+            select distinct p.id from StudentParticipation p
+            join p.results r
+            where p.exercise.id = :#{#exerciseId}
+                and p.individualDueDate is null
+            order by p.id
+            """)
+    List<Long> findIdsWithResultsByExerciseIdWithoutIndividualDueDate(@Param("exerciseId") Long exerciseId);
+
+    /**
+     * Get the given participations with each latest {@link AssessmentType#AUTOMATIC} result and feedbacks (determined by id).
+     *
+     * @param participationIds the ids of the participations.
+     * @return the participations that have an automatic result.
+     */
     @Query("""
             select distinct p from StudentParticipation p
             left join fetch p.results r
             left join fetch r.feedbacks
             left join fetch r.submission s
-            where p.exercise.id = :#{#exerciseId}
-                 and (s.type <> 'ILLEGAL' or s.type is null)
-                 and (r.assessmentType = 'MANUAL' or r.assessmentType = 'SEMI_AUTOMATIC')
+            where p.id in :#{#participationIds}
+                and (r.id = (select max(pr.id) from p.results pr
+                    left join pr.submission prs
+                    where pr.assessmentType = 'AUTOMATIC' and (prs.type <> 'ILLEGAL' or prs.type is null)))
             """)
-    List<StudentParticipation> findByExerciseIdWithManualResultAndFeedbacks(@Param("exerciseId") Long exerciseId);
-
-    default List<StudentParticipation> findByExerciseIdWithManualResultAndFeedbacksWithoutIndividualDueDate(Long exerciseId) {
-        return findByExerciseIdWithManualResultAndFeedbacks(exerciseId).stream().filter(participation -> participation.getIndividualDueDate() == null).toList();
-    }
+    List<StudentParticipation> findByIdsWithLatestAutomaticResultAndFeedbacks(@Param("participationIds") Collection<Long> participationIds);
 
+    /**
+     * Get the given participations with their manual results and feedbacks.
+     *
+     * @param participationIds the ids of the participations.
+     * @return the participations that have a manual result.
+     */
     @Query("""
             select distinct p from StudentParticipation p
             left join fetch p.results r
             left join fetch r.feedbacks
             left join fetch r.submission s
-            where p.id = :#{#participationId}
+            where p.id in :#{#participationIds}
                  and (s.type <> 'ILLEGAL' or s.type is null)
                  and (r.assessmentType = 'MANUAL' or r.assessmentType = 'SEMI_AUTOMATIC')
             """)
-    Optional<StudentParticipation> findByIdWithManualResultAndFeedbacks(@Param("participationId") Long participationId);
+    List<StudentParticipation> findByIdsWithManualResultAndFeedbacks(@Param("participationIds") Collection<Long> participationIds);
 
     @Query("""
             select distinct p from StudentParticipation p
@@ -290,6 +338,22 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             """)
     List<StudentParticipation> findByExerciseIdAndStudentId(@Param("exerciseId") Long exerciseId, @Param("studentId") Long studentId);
 
+    @Query("""
+            SELECT DISTINCT p.student.id
+            FROM StudentParticipation p
+            WHERE p.exercise.id = :#{#exerciseId}
+            """)
+    Set<Long> findStudentIdsByExerciseId(@Param("exerciseId") Long exerciseId);
+
+    @Query("""
+            SELECT DISTINCT p.student.id
+            FROM StudentParticipation p
+            WHERE p.exercise.id = :#{#exerciseId}
+                AND p.initializationState IN :#{#initializationStates}
+            """)
+    Set<Long> findStudentIdsByExerciseIdAndInitializationStateIn(@Param("exerciseId") Long exerciseId,
+            @Param("initializationStates") Set<InitializationState> initializationStates);
+
     @Query("""
             select distinct p from StudentParticipation p
             left join fetch p.results
@@ -714,6 +778,18 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
         return filterParticipationsWithRelevantResults(participations, false);
     }
 
+    /**
+     * Get all participations of the given students belonging to course with relevant results.
+     *
+     * @param courseId   the id of the course
+     * @param studentIds the ids of the students (also as members of a team)
+     * @return an unmodifiable list of participations of the students belonging to course
+     */
+    default List<StudentParticipation> findByCourseIdAndStudentIdsWithRelevantResult(Long courseId, Collection<Long> studentIds) {
+        List<StudentParticipation> participations = findByCourseIdAndStudentIdsWithEagerRatedResults(courseId, studentIds);
+        return filterParticipationsWithRelevantResults(participations, false);
+    }
+
     /**
      * filters the relevant results by removing all irrelevant ones
      *
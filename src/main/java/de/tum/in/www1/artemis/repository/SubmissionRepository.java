@@ -391,7 +391,22 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
      * @return a new submission for the given type connected to the given participation
      */
     default Submission initializeSubmission(Participation participation, Exercise exercise, SubmissionType submissionType) {
+        Submission submission = createSubmission(participation, exercise, submissionType);
+        save(submission);
+        participation.addSubmission(submission);
+        return submission;
+    }
 
+    /**
+     * Creates a new submission (depending on the type of the given exercise) for the given participation without storing it in the database, e.g. to store many submissions
+     * at once with {@link #saveAll(Iterable)}.
+     *
+     * @param participation   the participation for which the submission should be created
+     * @param exercise        the corresponding exercise
+     * @param submissionType  type for the submission to be created
+     * @return a new, unsaved submission for the given type referencing the given participation
+     */
+    default Submission createSubmission(Participation participation, Exercise exercise, SubmissionType submissionType) {
         Submission submission;
         if (exercise instanceof ProgrammingExercise) {
             submission = new ProgrammingSubmission();
@@ -414,8 +429,6 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
 
         submission.setType(submissionType);
         submission.setParticipation(participation);
-        save(submission);
-        participation.addSubmission(submission);
         return submission;
     }
 
@@ -1,9 +1,7 @@
 package de.tum.in.www1.artemis.repository;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -63,6 +61,9 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     @Query("select team from Team team left join fetch team.students where team.id = :#{#teamId}")
     Optional<Team> findOneWithEagerStudents(@Param("teamId") Long teamId);
 
+    @Query("select distinct student.id from Team team join team.students student where team.id in :#{#teamIds}")
+    Set<Long> findStudentIdsByTeamIds(@Param("teamIds") Collection<Long> teamIds);
+
     /**
      * Returns all teams for an exercise (optionally filtered for a specific tutor who owns the teams)
      * @param exercise Exercise for which to return all teams
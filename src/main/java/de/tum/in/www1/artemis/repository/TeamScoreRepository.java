@@ -29,7 +29,7 @@ public interface TeamScoreRepository extends JpaRepository<TeamScore, Long> {
     void deleteAllByTeamId(long teamId);
 
     @EntityGraph(type = LOAD, attributePaths = { "team", "exercise" })
-    Optional<TeamScore> findByExercise_IdAndTeam_Id(@Param("exerciseId") Long exerciseId, @Param("teamId") Long teamId);
+    List<TeamScore> findAllByExercise_IdAndTeam_IdIn(Long exerciseId, Set<Long> teamIds);
 
     @EntityGraph(type = LOAD, attributePaths = { "team", "exercise", "lastResult", "lastRatedResult" })
     List<TeamScore> findAllByExerciseIn(Set<Exercise> exercises, Pageable pageable);
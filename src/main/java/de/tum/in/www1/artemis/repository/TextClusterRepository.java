@@ -6,7 +6,6 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 import javax.validation.constraints.NotNull;
 
@@ -39,9 +38,6 @@ public interface TextClusterRepository extends JpaRepository<TextCluster, Long>
         return findWithEagerExerciseById(clusterId).orElseThrow(() -> new EntityNotFoundException("TextCluster", clusterId));
     }
 
-    @Query("SELECT distinct cluster FROM TextCluster cluster LEFT JOIN FETCH cluster.blocks b LEFT JOIN FETCH b.submission blocksub LEFT JOIN FETCH blocksub.results WHERE cluster.id IN :#{#clusterIds}")
-    List<TextCluster> findAllByIdsWithEagerTextBlocks(@Param("clusterIds") Set<Long> clusterIds);
-
     @Query("""
             SELECT new de.tum.in.www1.artemis.web.rest.dto.TextClusterStatisticsDTO(
                 textblock.cluster.id,
@@ -58,6 +54,34 @@ public interface TextClusterRepository extends JpaRepository<TextCluster, Long>
             """)
     List<TextClusterStatisticsDTO> getClusterStatistics(@Param("exerciseId") Long exerciseId);
 
+    interface TextClusterBlockCounts {
+
+        Long getClusterId();
+
+        long getBlockCount();
+
+        long getOpenBlockCount();
+    }
+
+    /**
+     * Counts the text blocks of every cluster of the given exercise, including the blocks of submissions that have not been assessed yet (open blocks).
+     * This avoids loading all clusters with their text blocks, submissions and results only to count them.
+     *
+     * @param exerciseId the id of the text exercise
+     * @return the block counts of all clusters of the exercise, also of clusters without blocks
+     */
+    @Query("""
+            SELECT cluster.id AS clusterId,
+                count(block.id) AS blockCount,
+                SUM(case when submission.id is not null and size(submission.results) = 0 then 1 else 0 end) AS openBlockCount
+            FROM TextCluster cluster
+                LEFT JOIN cluster.blocks block
+                LEFT JOIN block.submission submission
+            WHERE cluster.exercise.id = :exerciseId
+            GROUP BY cluster.id
+            """)
+    List<TextClusterBlockCounts> countBlocksOfClustersByExerciseId(@Param("exerciseId") Long exerciseId);
+
     interface TextClusterIdAndDisabled {
 
         Long getClusterId();
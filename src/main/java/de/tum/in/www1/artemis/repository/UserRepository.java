@@ -192,6 +192,19 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
             """)
     List<User> findAllByLoginsInGroup(@Param("groupName") String groupName, @Param("logins") Set<String> logins);
 
+    /**
+     * Gets all users with the given logins in a single query, e.g. to resolve the participants of a quiz in bulk.
+     *
+     * @param logins Logins of users
+     * @return found users that match the criteria
+     */
+    @Query("""
+            SELECT user
+            FROM User user
+            WHERE user.login IN :#{#logins}
+            """)
+    List<User> findAllByLogins(@Param("logins") Set<String> logins);
+
     /**
      * Searches for users by their login or full name.
      *
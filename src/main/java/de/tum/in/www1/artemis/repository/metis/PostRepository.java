@@ -62,6 +62,23 @@ public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificat
             """)
     List<String> findPostTagsForCourse(@Param("courseId") Long courseId);
 
+    /**
+     * Finds the id, title and content of all posts of the course (course-wide posts as well as exercise and lecture posts), without loading their associations.
+     * This is used to compare a new post with all posts of the course.
+     *
+     * @param courseId the id of the course
+     * @return posts that only contain the id, title and content
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.metis.Post(post.id, post.title, post.content)
+            FROM Post post
+            LEFT JOIN post.lecture lecture LEFT JOIN post.exercise exercise
+            WHERE (lecture.course.id = :courseId
+            OR exercise.course.id = :courseId
+            OR post.course.id = :courseId)
+            """)
+    List<Post> findPostTitlesAndContentsForCourse(@Param("courseId") Long courseId);
+
     @Query("""
             SELECT DISTINCT post FROM Post post
             LEFT JOIN post.answers answer LEFT JOIN post.reactions reaction
@@ -37,7 +37,9 @@ public interface PlagiarismResultRepository extends JpaRepository<PlagiarismResu
     default PlagiarismResult<?> savePlagiarismResultAndRemovePrevious(PlagiarismResult<?> result) {
         Optional<PlagiarismResult<?>> optionalPreviousResult = findFirstByExerciseIdOrderByLastModifiedDateDesc(result.getExercise().getId());
         result = save(result);
-        optionalPreviousResult.ifPresent(this::delete);
+        // the previous result might have been updated incrementally, in this case it must not be deleted
+        final var savedResultId = result.getId();
+        optionalPreviousResult.filter(previousResult -> !previousResult.getId().equals(savedResultId)).ifPresent(this::delete);
         return result;
     }
 
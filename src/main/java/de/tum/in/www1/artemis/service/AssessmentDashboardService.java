@@ -11,6 +11,7 @@ import de.tum.in.www1.artemis.domain.ExampleSubmission;
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
 import de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseMapEntry;
+import de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseRatingCount;
 import de.tum.in.www1.artemis.domain.enumeration.TutorParticipationStatus;
 import de.tum.in.www1.artemis.domain.participation.TutorParticipation;
 import de.tum.in.www1.artemis.repository.*;
@@ -48,17 +49,16 @@ public class AssessmentDashboardService {
     }
 
     /**
-     * Prepares the exercises for the assessment dashboard by setting the tutor participations and statistics
-     * This is very slow as each iteration takes about 2.5 s
+     * Prepares the exercises for the assessment dashboard by setting the tutor participations and statistics.
+     * The statistics of all exercises are fetched with a constant number of queries, independent of the number of exercises.
      * @param exercises exercises to be prepared for the assessment dashboard
      * @param tutorParticipations participations of the tutors
      * @param examMode flag should be set for exam dashboard
      */
     public void generateStatisticsForExercisesForAssessmentDashboard(Set<Exercise> exercises, List<TutorParticipation> tutorParticipations, boolean examMode) {
         log.debug("generateStatisticsForExercisesForAssessmentDashboard invoked");
-        // start measures performance of each individual query, start2 measures performance of one loop iteration
+        // start measures performance of each individual query
         long start = System.nanoTime();
-        long start2 = System.nanoTime();
         long startComplete = System.nanoTime();
         Set<Exercise> programmingExerciseIds = exercises.stream().filter(exercise -> exercise instanceof ProgrammingExercise).collect(Collectors.toSet());
         Set<Exercise> nonProgrammingExerciseIds = exercises.stream().filter(exercise -> !(exercise instanceof ProgrammingExercise)).collect(Collectors.toSet());
@@ -71,69 +71,92 @@ public class AssessmentDashboardService {
         log.debug("Finished >> assessmentDashboardService.calculateNumberOfSubmissions all << in {}", TimeLogUtil.formatDurationFrom(start));
         start = System.nanoTime();
 
-        // NOTE: similar to calculateNumberOfSubmissions the number of assessments could be calculated outside the loop for a performance boost.
-        // This won't be as straight forward as we have to consider correction rounds
+        calculateNumberOfAssessments(programmingExerciseIds, nonProgrammingExerciseIds, examMode);
+        log.debug("Finished >> assessmentDashboardService.calculateNumberOfAssessments all << in {}", TimeLogUtil.formatDurationFrom(start));
+        start = System.nanoTime();
+
+        Set<Long> exerciseIds = exercises.stream().map(Exercise::getId).collect(Collectors.toSet());
+        Map<Long, Set<ExampleSubmission>> exampleSubmissionsPerExercise = exampleSubmissionRepository.findAllWithResultByExerciseIdIn(exerciseIds).stream()
+                // Do not provide example submissions without any assessment
+                .filter(exampleSubmission -> exampleSubmission.getSubmission() != null && exampleSubmission.getSubmission().getLatestResult() != null)
+                .collect(Collectors.groupingBy(exampleSubmission -> exampleSubmission.getExercise().getId(), Collectors.toSet()));
+        log.debug("Finished >> exampleSubmissionRepository.findAllWithResultByExerciseIdIn << in {}", TimeLogUtil.formatDurationFrom(start));
+        start = System.nanoTime();
+
+        Map<Long, ExerciseRatingCount> ratingPerExercise = ratingService.averageRatingByExerciseIds(exerciseIds);
+        log.debug("Finished >> ratingService.averageRatingByExerciseIds << in {}", TimeLogUtil.formatDurationFrom(start));
+
+        Map<Long, TutorParticipation> tutorParticipationPerExercise = new HashMap<>();
+        tutorParticipations.forEach(participation -> tutorParticipationPerExercise.putIfAbsent(participation.getAssessedExercise().getId(), participation));
 
-        // parts of this loop can possibly still be extracted
         for (Exercise exercise : exercises) {
-            DueDateStat totalNumberOfAssessments;
+            exercise.setExampleSubmissions(exampleSubmissionsPerExercise.getOrDefault(exercise.getId(), new HashSet<>()));
 
-            if (exercise instanceof ProgrammingExercise) {
-                totalNumberOfAssessments = new DueDateStat(programmingExerciseRepository.countAssessmentsByExerciseIdSubmitted(exercise.getId()), 0L);
-                log.debug("Finished >> programmingExerciseRepository.countAssessmentsByExerciseIdSubmitted << call for exercise {} in {}", exercise.getId(),
-                        TimeLogUtil.formatDurationFrom(start));
-            }
-            else {
-                totalNumberOfAssessments = resultRepository.countNumberOfFinishedAssessmentsForExercise(exercise.getId());
-                log.debug("Finished >> resultRepository.countNumberOfFinishedAssessmentsForExercise << call for exercise {} in {}", exercise.getId(),
-                        TimeLogUtil.formatDurationFrom(start));
-            }
-            start = System.nanoTime();
-
-            final DueDateStat[] numberOfAssessmentsOfCorrectionRounds;
-            if (examMode) {
-                // set number of corrections specific to each correction round
-                int numberOfCorrectionRounds = exercise.getExerciseGroup().getExam().getNumberOfCorrectionRoundsInExam();
-                numberOfAssessmentsOfCorrectionRounds = resultRepository.countNumberOfFinishedAssessmentsForExamExerciseForCorrectionRounds(exercise, numberOfCorrectionRounds);
-                log.debug("Finished >> resultRepository.countNumberOfFinishedAssessmentsForExamExerciseForCorrectionRounds << call for exercise {} in {}", exercise.getId(),
-                        TimeLogUtil.formatDurationFrom(start));
-            }
-            else {
-                // no examMode here, so correction rounds defaults to 1 and is the same as totalNumberOfAssessments
-                numberOfAssessmentsOfCorrectionRounds = new DueDateStat[] { totalNumberOfAssessments };
+            TutorParticipation tutorParticipation = tutorParticipationPerExercise.get(exercise.getId());
+            if (tutorParticipation == null) {
+                tutorParticipation = new TutorParticipation();
+                tutorParticipation.setStatus(TutorParticipationStatus.NOT_PARTICIPATED);
             }
+            exercise.setTutorParticipations(Collections.singleton(tutorParticipation));
 
-            exercise.setNumberOfAssessmentsOfCorrectionRounds(numberOfAssessmentsOfCorrectionRounds);
-            // numberOfAssessmentsOfCorrectionRounds can be length 0 for test exams
-            if (numberOfAssessmentsOfCorrectionRounds.length > 0) {
-                exercise.setTotalNumberOfAssessments(numberOfAssessmentsOfCorrectionRounds[0]);
-            }
+            var exerciseRating = ratingPerExercise.getOrDefault(exercise.getId(), new ExerciseRatingCount(null, null));
+            exercise.setAverageRating(exerciseRating.averageRating());
+            exercise.setNumberOfRatings(exerciseRating.numberOfRatings());
+        }
+        log.debug("Finished >> generateStatisticsForExercisesForAssessmentDashboard << call in {}", TimeLogUtil.formatDurationFrom(startComplete));
+    }
 
-            start = System.nanoTime();
-            Set<ExampleSubmission> exampleSubmissions = exampleSubmissionRepository.findAllWithResultByExerciseId(exercise.getId());
+    /**
+     * This method fetches and stores the number of assessments for each exercise, also for each correction round in exam mode.
+     * @param programmingExercises          - the programming-exercises, for which the number of assessments should be fetched
+     * @param nonProgrammingExercises       - the exercises, which are not programming-exercises, for which the number of assessments should be fetched
+     * @param examMode                      - if the exercises are part of an exam
+     */
+    private void calculateNumberOfAssessments(Set<Exercise> programmingExercises, Set<Exercise> nonProgrammingExercises, boolean examMode) {
+        Set<Long> programmingExerciseIds = programmingExercises.stream().map(Exercise::getId).collect(Collectors.toSet());
+        Set<Long> nonProgrammingExerciseIds = nonProgrammingExercises.stream().map(Exercise::getId).collect(Collectors.toSet());
 
-            log.debug("Finished >> exampleSubmissionRepository.findAllWithResultByExerciseId << call for course {} in {}", exercise.getId(), TimeLogUtil.formatDurationFrom(start));
-            start = System.nanoTime();
+        var programmingAssessmentMap = programmingExerciseRepository.countAssessmentsByExerciseIdsSubmittedIgnoreTestRun(programmingExerciseIds).stream()
+                .collect(Collectors.toMap(ExerciseMapEntry::exerciseId, ExerciseMapEntry::value));
+        var assessmentMap = resultRepository.countNumberOfFinishedAssessmentsForExercisesIgnoreTestRuns(nonProgrammingExerciseIds).stream()
+                .collect(Collectors.toMap(ExerciseMapEntry::exerciseId, ExerciseMapEntry::value));
 
-            // Do not provide example submissions without any assessment
-            exampleSubmissions.removeIf(exampleSubmission -> exampleSubmission.getSubmission() == null || exampleSubmission.getSubmission().getLatestResult() == null);
-            exercise.setExampleSubmissions(exampleSubmissions);
+        // in exam mode, the number of manual results of each student participation determines the number of assessments per correction round
+        final Map<Long, List<Long>> resultCountsPerExercise;
+        if (examMode) {
+            Set<Long> exerciseIds = new HashSet<>(programmingExerciseIds);
+            exerciseIds.addAll(nonProgrammingExerciseIds);
+            resultCountsPerExercise = resultRepository.countNumberOfFinishedAssessmentsByExerciseIdsIgnoreTestRuns(exerciseIds).stream()
+                    .collect(Collectors.groupingBy(ExerciseMapEntry::exerciseId, Collectors.mapping(ExerciseMapEntry::value, Collectors.toList())));
+        }
+        else {
+            resultCountsPerExercise = Map.of();
+        }
 
-            TutorParticipation tutorParticipation = tutorParticipations.stream().filter(participation -> participation.getAssessedExercise().getId().equals(exercise.getId()))
-                    .findFirst().orElseGet(() -> {
-                        TutorParticipation emptyTutorParticipation = new TutorParticipation();
-                        emptyTutorParticipation.setStatus(TutorParticipationStatus.NOT_PARTICIPATED);
-                        return emptyTutorParticipation;
-                    });
-            exercise.setTutorParticipations(Collections.singleton(tutorParticipation));
+        programmingExercises.forEach(exercise -> setNumberOfAssessments(exercise, new DueDateStat(programmingAssessmentMap.getOrDefault(exercise.getId(), 0L), 0L),
+                examMode, resultCountsPerExercise));
+        nonProgrammingExercises.forEach(
+                exercise -> setNumberOfAssessments(exercise, new DueDateStat(assessmentMap.getOrDefault(exercise.getId(), 0L), 0L), examMode, resultCountsPerExercise));
+    }
 
-            var exerciseRating = ratingService.averageRatingByExerciseId(exercise.getId());
-            exercise.setAverageRating(exerciseRating.averageRating());
-            exercise.setNumberOfRatings(exerciseRating.numberOfRatings());
+    private void setNumberOfAssessments(Exercise exercise, DueDateStat totalNumberOfAssessments, boolean examMode, Map<Long, List<Long>> resultCountsPerExercise) {
+        final DueDateStat[] numberOfAssessmentsOfCorrectionRounds;
+        if (examMode) {
+            // set number of corrections specific to each correction round
+            int numberOfCorrectionRounds = exercise.getExerciseGroup().getExam().getNumberOfCorrectionRoundsInExam();
+            numberOfAssessmentsOfCorrectionRounds = resultRepository.convertDatabaseResponseToDueDateStats(resultCountsPerExercise.getOrDefault(exercise.getId(), List.of()),
+                    numberOfCorrectionRounds);
+        }
+        else {
+            // no examMode here, so correction rounds defaults to 1 and is the same as totalNumberOfAssessments
+            numberOfAssessmentsOfCorrectionRounds = new DueDateStat[] { totalNumberOfAssessments };
+        }
 
-            log.debug("Finished >> assessmentDashboardLoopIteration << call for exercise {} in {}", exercise.getId(), TimeLogUtil.formatDurationFrom(start2));
+        exercise.setNumberOfAssessmentsOfCorrectionRounds(numberOfAssessmentsOfCorrectionRounds);
+        // numberOfAssessmentsOfCorrectionRounds can be length 0 for test exams
+        if (numberOfAssessmentsOfCorrectionRounds.length > 0) {
+            exercise.setTotalNumberOfAssessments(numberOfAssessmentsOfCorrectionRounds[0]);
         }
-        log.debug("Finished >> generateStatisticsForExercisesForAssessmentDashboard << call in {}", TimeLogUtil.formatDurationFrom(startComplete));
     }
 
     /**
@@ -1,8 +1,8 @@
 package de.tum.in.www1.artemis.service;
 
+import java.nio.file.Path;
 import java.time.ZonedDateTime;
 
-import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -23,17 +23,20 @@ public class AttachmentUnitService {
 
     private final FileService fileService;
 
-    private final CacheManager cacheManager;
+    private final FileResourceService fileResourceService;
 
     private final LectureRepository lectureRepository;
 
-    public AttachmentUnitService(AttachmentUnitRepository attachmentUnitRepository, AttachmentRepository attachmentRepository, FileService fileService, CacheManager cacheManager,
-            LectureRepository lectureRepository) {
+    private final MergedLecturePdfService mergedLecturePdfService;
+
+    public AttachmentUnitService(AttachmentUnitRepository attachmentUnitRepository, AttachmentRepository attachmentRepository, FileService fileService,
+            FileResourceService fileResourceService, LectureRepository lectureRepository, MergedLecturePdfService mergedLecturePdfService) {
         this.attachmentUnitRepository = attachmentUnitRepository;
         this.attachmentRepository = attachmentRepository;
         this.fileService = fileService;
-        this.cacheManager = cacheManager;
+        this.fileResourceService = fileResourceService;
         this.lectureRepository = lectureRepository;
+        this.mergedLecturePdfService = mergedLecturePdfService;
     }
 
     /**
@@ -62,6 +65,7 @@ public class AttachmentUnitService {
 
         prepareAttachmentUnitForClient(savedAttachmentUnit, savedAttachment);
         evictCache(file, savedAttachmentUnit);
+        mergedLecturePdfService.invalidate(lecture.getId());
 
         return savedAttachmentUnit;
     }
@@ -95,6 +99,7 @@ public class AttachmentUnitService {
 
         prepareAttachmentUnitForClient(savedAttachmentUnit, savedAttachment);
         evictCache(updateFile, savedAttachmentUnit);
+        mergedLecturePdfService.invalidate(savedAttachmentUnit.getLecture().getId());
 
         return savedAttachmentUnit;
     }
@@ -136,7 +141,7 @@ public class AttachmentUnitService {
      */
     private void evictCache(MultipartFile file, AttachmentUnit attachmentUnit) {
         if (file != null && !file.isEmpty()) {
-            this.cacheManager.getCache("files").evict(fileService.actualPathForPublicPath(attachmentUnit.getAttachment().getLink()));
+            fileResourceService.evict(Path.of(fileService.actualPathForPublicPath(attachmentUnit.getAttachment().getLink())));
         }
     }
 
@@ -1,9 +1,8 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.*;
+
+import javax.annotation.Nullable;
 
 import org.springframework.stereotype.Service;
 
@@ -35,17 +34,17 @@ public class BuildLogEntryService {
      * @return the saved build logs
      */
     public List<BuildLogEntry> saveBuildLogs(List<BuildLogEntry> buildLogs, ProgrammingSubmission programmingSubmission) {
-        return buildLogs.stream().map(buildLogEntry -> {
+        buildLogs.forEach(buildLogEntry -> {
             // Truncate the log so that it fits into the database
             buildLogEntry.truncateLogToMaxLength();
             // Cut association to parent object
             buildLogEntry.setProgrammingSubmission(null);
-            // persist the BuildLogEntry object without an association to the parent object.
-            var updatedBuildLogEntry = buildLogEntryRepository.save(buildLogEntry);
-            // restore the association to the parent object
-            updatedBuildLogEntry.setProgrammingSubmission(programmingSubmission);
-            return updatedBuildLogEntry;
-        }).collect(Collectors.toCollection(ArrayList::new));
+        });
+        // persist all BuildLogEntry objects without an association to the parent object in one go
+        List<BuildLogEntry> savedBuildLogs = new ArrayList<>(buildLogEntryRepository.saveAll(buildLogs));
+        // restore the association to the parent object
+        savedBuildLogs.forEach(buildLogEntry -> buildLogEntry.setProgrammingSubmission(programmingSubmission));
+        return savedBuildLogs;
     }
 
     /**
@@ -125,20 +124,19 @@ public class BuildLogEntryService {
      * It avoids duplicate entries and only allows not more than one empty log.
      *
      * @param programmingLanguage programming language of build log
-     * @param buildLogs           accumulated build logs
+     * @param existingLogs        the log strings of the accumulated build logs
+     * @param lastLog             the log string of the last accumulated build log, null if there is none
      * @param shortenedLogString  current build log string
      * @return boolean indicating a build log should be added to the overall build logs
      */
-    public boolean checkIfBuildLogIsNotADuplicate(ProgrammingLanguage programmingLanguage, List<BuildLogEntry> buildLogs, String shortenedLogString) {
+    private boolean checkIfBuildLogIsNotADuplicate(ProgrammingLanguage programmingLanguage, Set<String> existingLogs, @Nullable String lastLog, String shortenedLogString) {
         // C outputs duplicate but necessary output, so we need to skip it
         boolean skipLanguage = ProgrammingLanguage.C.equals(programmingLanguage);
-        if (!skipLanguage && !buildLogs.isEmpty()) {
+        if (!skipLanguage && lastLog != null) {
             // E.g. Swift produces a lot of duplicate build logs when a build fails
-            var existingLog = buildLogs.stream().filter(log -> log.getLog().equals(shortenedLogString)).findFirst();
-            String lastLog = buildLogs.get(buildLogs.size() - 1).getLog();
             // If the log does not exist already or if the log is a single blank log add it to the build logs (avoid more than one empty log in a row)
             boolean isSingleBlankLog = shortenedLogString.isBlank() && !lastLog.isBlank();
-            return existingLog.isEmpty() || isSingleBlankLog;
+            return !existingLogs.contains(shortenedLogString) || isSingleBlankLog;
         }
         return true;
     }
@@ -152,6 +150,8 @@ public class BuildLogEntryService {
      */
     private List<BuildLogEntry> removeUnnecessaryLogs(List<BuildLogEntry> buildLogEntries, ProgrammingLanguage programmingLanguage) {
         List<BuildLogEntry> filteredLogs = new ArrayList<>();
+        // the log strings of the filtered logs, for a constant time duplicate check
+        Set<String> filteredLogStrings = new HashSet<>();
         for (BuildLogEntry buildLog : buildLogEntries) {
 
             String logString = buildLog.getLog();
@@ -171,8 +171,10 @@ public class BuildLogEntryService {
             }
 
             // Avoid duplicate log entries
-            if (checkIfBuildLogIsNotADuplicate(programmingLanguage, filteredLogs, logString)) {
+            String lastLog = filteredLogs.isEmpty() ? null : filteredLogs.get(filteredLogs.size() - 1).getLog();
+            if (checkIfBuildLogIsNotADuplicate(programmingLanguage, filteredLogStrings, lastLog, logString)) {
                 filteredLogs.add(new BuildLogEntry(buildLog.getTime(), logString, buildLog.getProgrammingSubmission()));
+                filteredLogStrings.add(logString);
             }
         }
 
@@ -4,9 +4,16 @@ import static de.tum.in.www1.artemis.service.util.RoundingUtil.roundScoreSpecifi
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -17,6 +24,7 @@ import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCase;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismVerdict;
+import de.tum.in.www1.artemis.domain.scores.CourseStudentScore;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCaseRepository;
 import de.tum.in.www1.artemis.service.plagiarism.PlagiarismCaseService.PlagiarismMapping;
@@ -25,29 +33,56 @@ import de.tum.in.www1.artemis.web.rest.dto.*;
 /**
  * Service Implementation for calculating course scores.
  * Adapted from the implementation at course-score-calculation.service.ts.
+ * <p>
+ * The points and presentation scores of the students are stored as {@link CourseStudentScore}s, so that they only have to be calculated from the participations and results
+ * again if the exercises of the course change (e.g. an exercise is included in the calculation after its due date) or if the results of a student change.
+ * Scores of students with plagiarism cases are always calculated, because the verdicts can change at any time.
  */
 @Service
 public class CourseScoreCalculationService {
 
+    private final Logger log = LoggerFactory.getLogger(CourseScoreCalculationService.class);
+
     private static final double SCORE_NORMALIZATION_VALUE = 0.01;
 
+    /**
+     * If more students have to be calculated, all participations of the course are loaded instead of filtering the students in the database
+     */
+    private static final int MAX_STUDENTS_FILTERED_IN_DATABASE = 100;
+
+    /**
+     * The calculation key of invalidated scores, it never matches the key of a course because that is a SHA-256 hash
+     */
+    private static final String OUTDATED_CALCULATION_KEY = "outdated";
+
     private final StudentParticipationRepository studentParticipationRepository;
 
     private final ExerciseRepository exerciseRepository;
 
     private final PlagiarismCaseRepository plagiarismCaseRepository;
 
+    private final CourseStudentScoreRepository courseStudentScoreRepository;
+
+    private final TeamRepository teamRepository;
+
+    private final UserRepository userRepository;
+
     public CourseScoreCalculationService(StudentParticipationRepository studentParticipationRepository, ExerciseRepository exerciseRepository,
-            PlagiarismCaseRepository plagiarismCaseRepository) {
+            PlagiarismCaseRepository plagiarismCaseRepository, CourseStudentScoreRepository courseStudentScoreRepository, TeamRepository teamRepository,
+            UserRepository userRepository) {
         this.studentParticipationRepository = studentParticipationRepository;
         this.exerciseRepository = exerciseRepository;
         this.plagiarismCaseRepository = plagiarismCaseRepository;
+        this.courseStudentScoreRepository = courseStudentScoreRepository;
+        this.teamRepository = teamRepository;
+        this.userRepository = userRepository;
     }
 
     /**
      * Calculates max and reachable max points for the given course and the student scores for the given student ids
      * and takes the effects of related plagiarism verdicts on the grade into account. Implementation is adapted from course-score-calculation.service.ts.
      * <p>
+     * The stored scores of the students are used if they are up-to-date, only the remaining students are calculated (and stored) again.
      * If there is a single student id in studentIds, the student id will be filtered in the database as an optimization
      * wherever possible.
      *
@@ -61,6 +96,226 @@ public class CourseScoreCalculationService {
             return null;
         }
 
+        List<PlagiarismCase> plagiarismCases;
+        List<CourseStudentScore> storedScores;
+        if (studentIds.size() == 1) {  // Optimize single student case by filtering in the database.
+            Long studentId = studentIds.iterator().next();
+            plagiarismCases = plagiarismCaseRepository.findByCourseIdAndStudentId(courseId, studentId);
+            storedScores = courseStudentScoreRepository.findAllByCourse_IdAndUser_IdIn(courseId, studentIds);
+        }
+        else {
+            plagiarismCases = plagiarismCaseRepository.findByCourseId(courseId);
+            storedScores = courseStudentScoreRepository.findAllByCourse_Id(courseId);
+        }
+        var context = createCalculationContext(courseExercises, plagiarismCases);
+        var studentIdToStoredScore = mapByStudentId(storedScores);
+
+        Set<Long> studentIdsToCalculate = new HashSet<>();
+        for (Long studentId : studentIds) {
+            if (!isUpToDate(studentIdToStoredScore.get(studentId), studentId, context)) {
+                studentIdsToCalculate.add(studentId);
+            }
+        }
+        var calculatedScores = calculateAndStoreCourseScores(context, studentIdsToCalculate, studentIdToStoredScore);
+
+        List<CourseScoresDTO.StudentScore> studentScores = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            var storedScore = studentIdToStoredScore.get(studentId);
+            if (calculatedScores.containsKey(studentId)) {
+                studentScores.add(calculatedScores.get(studentId));
+            }
+            else if (!studentIdsToCalculate.contains(studentId) && storedScore != null && storedScore.isParticipated()) {
+                studentScores.add(createStudentScore(studentId, new AchievedPoints(storedScore.getPointsAchieved(), storedScore.getPresentationScore()), context, null));
+            }
+        }
+        return new CourseScoresDTO(context.maxPointsInCourse(), context.reachableMaxPointsInCourse(), context.course().getPresentationScore(), studentScores);
+    }
+
+    /**
+     * Marks the stored course scores of the given participants as outdated, e.g. because their results in an exercise of the course changed.
+     *
+     * @param exercise       the course exercise in which the results or the presentation scores of the participants changed
+     * @param participantIds the ids of the participants (users or teams, determined by the exercise)
+     */
+    public void invalidateCourseScoresOfParticipants(Exercise exercise, Collection<Long> participantIds) {
+        if (!exercise.isCourseExercise() || participantIds.isEmpty()) {
+            return;
+        }
+        Collection<Long> studentIds = exercise.isTeamMode() ? teamRepository.findStudentIdsByTeamIds(participantIds) : participantIds;
+        invalidateCourseScores(exercise.getCourseViaExerciseGroupOrCourseMember(), studentIds);
+    }
+
+    /**
+     * Marks the stored course scores of the given students as outdated, so that they are calculated again the next time they are used.
+     * <p>
+     * Only the affected scores are updated instead of calculating them again from all participations of the students, because the results of the students change far
+     * more often than their scores are used. A calculation that is already running with the previous results cannot store its scores afterwards (see
+     * {@link CourseStudentScore}), even if the students did not have a stored score yet.
+     *
+     * @param course     the course
+     * @param studentIds the ids of the students whose points or presentation scores in the course changed
+     */
+    public void invalidateCourseScores(Course course, Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        Set<Long> uniqueStudentIds = new HashSet<>(studentIds);
+        int invalidatedScores = courseStudentScoreRepository.updateCalculationKeyByCourseIdAndUserIdIn(course.getId(), uniqueStudentIds, OUTDATED_CALCULATION_KEY);
+        if (invalidatedScores == uniqueStudentIds.size()) {
+            return;
+        }
+        // outdated scores are stored for the remaining students, so that a running calculation cannot store a new score for them
+        uniqueStudentIds.removeAll(courseStudentScoreRepository.findUserIdsByCourseIdAndUserIdIn(course.getId(), uniqueStudentIds));
+        List<CourseStudentScore> outdatedScores = uniqueStudentIds.stream().map(studentId -> {
+            var score = new CourseStudentScore();
+            score.setCourse(course);
+            score.setUser(userRepository.getReferenceById(studentId));
+            score.setCalculationKey(OUTDATED_CALCULATION_KEY);
+            return score;
+        }).toList();
+        try {
+            courseStudentScoreRepository.saveAll(outdatedScores);
+        }
+        catch (DataAccessException ex) {
+            // the scores were stored concurrently in the meantime
+            courseStudentScoreRepository.updateCalculationKeyByCourseIdAndUserIdIn(course.getId(), uniqueStudentIds, OUTDATED_CALCULATION_KEY);
+        }
+    }
+
+    /**
+     * Deletes all stored scores of the given course and calculates the scores of all students who participated in the course again.
+     * Stored scores are checked whenever they are used, so this is only necessary if they got inconsistent, e.g. because results were changed directly in the database.
+     *
+     * @param courseId the id of the course
+     * @return the number of stored scores
+     */
+    public int rebuildCourseScores(long courseId) {
+        courseStudentScoreRepository.deleteAllByCourse_Id(courseId);
+        Set<Exercise> courseExercises = exerciseRepository.findAllExercisesByCourseId(courseId);
+        if (courseExercises.isEmpty()) {
+            return 0;
+        }
+        var context = createCalculationContext(courseExercises, plagiarismCaseRepository.findByCourseId(courseId));
+        var calculatedScores = calculateAndStoreCourseScores(context, null, Map.of());
+        return (int) calculatedScores.keySet().stream().filter(studentId -> context.plagiarismMapping().getPlagiarismCasesForStudent(studentId).isEmpty()).count();
+    }
+
+    /**
+     * Calculates the course scores of the given students from their participations and stores them, as long as the students do not have plagiarism cases.
+     * Students without participations are stored as well, but they are not part of the calculated scores.
+     *
+     * @param context                the values of the course that are needed for the calculation
+     * @param studentIds             the ids of the students to calculate, or null to calculate all students who participated in the course
+     * @param studentIdToStoredScore the currently stored scores of (at least) the given students
+     * @return the calculated scores of all students who participated in the course
+     */
+    private Map<Long, CourseScoresDTO.StudentScore> calculateAndStoreCourseScores(CalculationContext context, @Nullable Set<Long> studentIds,
+            Map<Long, CourseStudentScore> studentIdToStoredScore) {
+        if (studentIds != null && studentIds.isEmpty()) {
+            return Map.of();
+        }
+
+        long courseId = context.course().getId();
+        List<StudentParticipation> participations;
+        if (studentIds != null && studentIds.size() <= MAX_STUDENTS_FILTERED_IN_DATABASE) {
+            participations = studentParticipationRepository.findByCourseIdAndStudentIdsWithRelevantResult(courseId, studentIds);
+        }
+        else {
+            participations = studentParticipationRepository.findByCourseIdWithRelevantResult(courseId);
+        }
+        MultiValueMap<Long, StudentParticipation> studentIdToParticipations = new LinkedMultiValueMap<>();
+        for (StudentParticipation participation : participations) {
+            for (User student : participation.getStudents()) {
+                if (studentIds == null || studentIds.contains(student.getId())) {
+                    studentIdToParticipations.add(student.getId(), participation);
+                }
+            }
+        }
+
+        Map<Long, AchievedPoints> studentIdToAchievedPoints = new ConcurrentHashMap<>();
+        Map<Long, CourseScoresDTO.StudentScore> calculatedScores = studentIdToParticipations.entrySet().parallelStream().map(entry -> {
+            Long studentId = entry.getKey();
+            if (!context.plagiarismMapping().getPlagiarismCasesForStudent(studentId).isEmpty()) {
+                return calculateCourseScoreForStudent(studentId, entry.getValue(), context.maxPointsInCourse(), context.reachableMaxPointsInCourse(),
+                        context.plagiarismMapping());
+            }
+            var achievedPoints = calculateAchievedPoints(entry.getValue(), Map.of());
+            studentIdToAchievedPoints.put(studentId, achievedPoints);
+            return createStudentScore(studentId, achievedPoints, context, null);
+        }).collect(Collectors.toMap(CourseScoresDTO.StudentScore::studentId, Function.identity()));
+
+        storeCourseScores(context, studentIds != null ? studentIds : studentIdToParticipations.keySet(), studentIdToAchievedPoints, studentIdToStoredScore);
+        return calculatedScores;
+    }
+
+    private void storeCourseScores(CalculationContext context, Set<Long> studentIds, Map<Long, AchievedPoints> studentIdToAchievedPoints,
+            Map<Long, CourseStudentScore> studentIdToStoredScore) {
+        List<CourseStudentScore> scoresToSave = new ArrayList<>();
+        List<CourseStudentScore> scoresToDelete = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            var storedScore = studentIdToStoredScore.get(studentId);
+            if (!context.plagiarismMapping().getPlagiarismCasesForStudent(studentId).isEmpty()) {
+                // the score of the student depends on the plagiarism verdicts, so it must not be used
+                if (storedScore != null) {
+                    scoresToDelete.add(storedScore);
+                }
+                continue;
+            }
+            // students without participations are stored as well, so that they do not have to be calculated again for every request
+            var achievedPoints = studentIdToAchievedPoints.getOrDefault(studentId, new AchievedPoints(0.0, 0));
+            var score = storedScore != null ? storedScore : new CourseStudentScore();
+            if (storedScore == null) {
+                score.setCourse(context.course());
+                score.setUser(userRepository.getReferenceById(studentId));
+            }
+            score.setParticipated(studentIdToAchievedPoints.containsKey(studentId));
+            score.setPointsAchieved(achievedPoints.points());
+            score.setPresentationScore(achievedPoints.presentationScore());
+            score.setCalculationKey(context.calculationKey());
+            scoresToSave.add(score);
+        }
+
+        try {
+            courseStudentScoreRepository.saveAll(scoresToSave);
+        }
+        catch (DataAccessException ex) {
+            // some of the scores were invalidated or stored concurrently by another request, so the remaining scores are stored one by one
+            log.info("Could not store the scores of {} students in course {} at once: {}", scoresToSave.size(), context.course().getId(), ex.getMessage());
+            scoresToSave.forEach(score -> storeCourseScore(score, studentIdToStoredScore.containsKey(score.getUser().getId())));
+        }
+        try {
+            courseStudentScoreRepository.deleteAll(scoresToDelete);
+        }
+        catch (DataAccessException ex) {
+            // the scores are deleted again the next time they are used
+            log.info("Could not delete the scores of {} students in course {}: {}", scoresToDelete.size(), context.course().getId(), ex.getMessage());
+        }
+    }
+
+    private void storeCourseScore(CourseStudentScore score, boolean wasStored) {
+        if (!wasStored) {
+            // the failed batch already assigned an id to the new score
+            score.setId(null);
+        }
+        try {
+            courseStudentScoreRepository.save(score);
+        }
+        catch (DataAccessException ex) {
+            // the score was invalidated after it was loaded, it is calculated again the next time it is used
+            log.debug("Could not store the course score {}: {}", score, ex.getMessage());
+        }
+    }
+
+    private boolean isUpToDate(@Nullable CourseStudentScore storedScore, Long studentId, CalculationContext context) {
+        return storedScore != null && context.calculationKey().equals(storedScore.getCalculationKey())
+                && context.plagiarismMapping().getPlagiarismCasesForStudent(studentId).isEmpty();
+    }
+
+    private static Map<Long, CourseStudentScore> mapByStudentId(List<CourseStudentScore> scores) {
+        return scores.stream().collect(Collectors.toMap(score -> score.getUser().getId(), Function.identity(), (score, duplicate) -> score));
+    }
+
+    private CalculationContext createCalculationContext(Set<Exercise> courseExercises, List<PlagiarismCase> plagiarismCases) {
         double maxPointsInCourse = 0.0; // the sum of all included exercises, whose due date is over or unset or who are automatically assessed and assessment is done
         double reachableMaxPointsInCourse = 0.0; // the sum of all included and already assessed exercises
         for (var exercise : courseExercises) {
@@ -75,37 +330,27 @@ public class CourseScoreCalculationService {
                 }
             }
         }
-        List<PlagiarismCase> plagiarismCases;
-
-        MultiValueMap<Long, StudentParticipation> studentIdToParticipations = new LinkedMultiValueMap<>();
-        if (studentIds.size() == 1) {  // Optimize single student case by filtering in the database.
-            Long studentId = studentIds.iterator().next();
-            var participations = studentParticipationRepository.findByCourseIdAndStudentIdWithEagerRatedResults(courseId, studentId);
-            if (!participations.isEmpty()) {
-                studentIdToParticipations.addAll(studentId, participations);
-            }
-            plagiarismCases = plagiarismCaseRepository.findByCourseIdAndStudentId(courseId, studentId);
-        }
-        else {
-            var participations = studentParticipationRepository.findByCourseIdWithRelevantResult(courseId);
-            var studentIdSet = new HashSet<>(studentIds);
-            for (StudentParticipation participation : participations) {
-                for (User student : participation.getStudents()) {
-                    if (studentIdSet.contains(student.getId())) {
-                        studentIdToParticipations.add(student.getId(), participation);
-                    }
-                }
-            }
-            plagiarismCases = plagiarismCaseRepository.findByCourseId(courseId);
-        }
-        var plagiarismMapping = PlagiarismMapping.createFromPlagiarismCases(plagiarismCases);
-        double finalMaxPointsInCourse = maxPointsInCourse; // needed to make the variable effectively final for lambda below
-        double finalReachableMaxPointsInCourse = reachableMaxPointsInCourse; // needed to make the variable effectively final for lambda below
-        var studentScores = studentIdToParticipations.entrySet().parallelStream()
-                .map(entry -> calculateCourseScoreForStudent(entry.getKey(), entry.getValue(), finalMaxPointsInCourse, finalReachableMaxPointsInCourse, plagiarismMapping))
-                .toList();
         var course = courseExercises.iterator().next().getCourseViaExerciseGroupOrCourseMember();
-        return new CourseScoresDTO(maxPointsInCourse, reachableMaxPointsInCourse, course.getPresentationScore(), studentScores);
+        return new CalculationContext(course, maxPointsInCourse, reachableMaxPointsInCourse, getCalculationKey(course, courseExercises),
+                PlagiarismMapping.createFromPlagiarismCases(plagiarismCases));
+    }
+
+    /**
+     * Creates a key that changes whenever the points of a student in the course can change without a change of their participations or results,
+     * i.e. if the rounding of the course changes, exercises are added or removed, or an exercise is included in (or excluded from) the calculation.
+     *
+     * @param course          the course
+     * @param courseExercises all exercises of the course
+     * @return the SHA-256 hash of the relevant attributes of the course and its exercises
+     */
+    private String getCalculationKey(Course course, Set<Exercise> courseExercises) {
+        StringBuilder key = new StringBuilder().append(course.getAccuracyOfScores());
+        courseExercises.stream().sorted(Comparator.comparing(Exercise::getId)).forEach(exercise -> {
+            var dueDate = exercise.getDueDate() != null ? exercise.getDueDate().toInstant().toEpochMilli() : null;
+            key.append('\n').append(exercise.getId()).append('|').append(includeIntoScoreCalculation(exercise)).append('|').append(exercise.getMaxPoints()).append('|')
+                    .append(dueDate);
+        });
+        return DigestUtils.sha256Hex(key.toString());
     }
 
     /**
@@ -126,9 +371,23 @@ public class CourseScoreCalculationService {
             return new CourseScoresDTO.StudentScore(studentId, 0.0, 0.0, 0.0, 0, false, PlagiarismVerdict.PLAGIARISM);
         }
 
+        var plagiarismCasesForStudent = plagiarismMapping.getPlagiarismCasesForStudent(studentId);
+        var achievedPoints = calculateAchievedPoints(participationsOfStudent, plagiarismCasesForStudent);
+        Course course = participationsOfStudent.get(0).getExercise().getCourseViaExerciseGroupOrCourseMember();
+        var context = new CalculationContext(course, maxPointsInCourse, reachableMaxPointsInCourse, null, plagiarismMapping);
+        return createStudentScore(studentId, achievedPoints, context, findMostServerePlagiarismVerdict(plagiarismCasesForStudent.values()));
+    }
+
+    /**
+     * Sums up the points and presentation scores the student achieved in the given participations, only considering exercises that are included in the score calculation
+     *
+     * @param participationsOfStudent   the exercise participations of the student
+     * @param plagiarismCasesForStudent the plagiarism cases of the student mapped by the exercise id
+     * @return the (not rounded) sum of the rounded points per exercise and the sum of the presentation scores
+     */
+    private AchievedPoints calculateAchievedPoints(List<StudentParticipation> participationsOfStudent, Map<Long, PlagiarismCase> plagiarismCasesForStudent) {
         double pointsAchievedByStudentInCourse = 0.0;
         int presentationScore = 0;
-        var plagiarismCasesForStudent = plagiarismMapping.getPlagiarismCasesForStudent(studentId);
 
         for (StudentParticipation participation : participationsOfStudent) {
             Exercise exercise = participation.getExercise();
@@ -144,17 +403,24 @@ public class CourseScoreCalculationService {
             }
             presentationScore += participation.getPresentationScore() != null ? participation.getPresentationScore() : 0;
         }
+        return new AchievedPoints(pointsAchievedByStudentInCourse, presentationScore);
+    }
 
-        Course course = participationsOfStudent.get(0).getExercise().getCourseViaExerciseGroupOrCourseMember();
+    private CourseScoresDTO.StudentScore createStudentScore(Long studentId, AchievedPoints achievedPoints, CalculationContext context,
+            @Nullable PlagiarismVerdict mostSevereVerdict) {
+        Course course = context.course();
+        double pointsAchievedByStudentInCourse = achievedPoints.points();
+        double maxPointsInCourse = context.maxPointsInCourse();
+        double reachableMaxPointsInCourse = context.reachableMaxPointsInCourse();
 
         double absolutePoints = roundScoreSpecifiedByCourseSettings(pointsAchievedByStudentInCourse, course);
         double relativeScore = maxPointsInCourse > 0 ? roundScoreSpecifiedByCourseSettings(pointsAchievedByStudentInCourse / maxPointsInCourse * 100.0, course) : 0.0;
         double currentRelativeScore = reachableMaxPointsInCourse > 0
                 ? roundScoreSpecifiedByCourseSettings(pointsAchievedByStudentInCourse / reachableMaxPointsInCourse * 100.0, course)
                 : 0.0;
-        boolean presentationScorePassed = isPresentationScoreSufficientForBonus(presentationScore, course.getPresentationScore());
-        PlagiarismVerdict mostSevereVerdict = findMostServerePlagiarismVerdict(plagiarismCasesForStudent.values());
-        return new CourseScoresDTO.StudentScore(studentId, absolutePoints, relativeScore, currentRelativeScore, presentationScore, presentationScorePassed, mostSevereVerdict);
+        boolean presentationScorePassed = isPresentationScoreSufficientForBonus(achievedPoints.presentationScore(), course.getPresentationScore());
+        return new CourseScoresDTO.StudentScore(studentId, absolutePoints, relativeScore, currentRelativeScore, achievedPoints.presentationScore(), presentationScorePassed,
+                mostSevereVerdict);
     }
 
     private double calculatePointsAchievedFromExercise(Exercise exercise, Result result, @Nullable PlagiarismCase plagiarismCaseForExercise) {
@@ -284,4 +550,23 @@ public class CourseScoreCalculationService {
         return PlagiarismVerdict.findMostSevereVerdict(studentVerdictsFromExercises);
     }
 
+    /**
+     * The values of a course that are the same for the score calculation of all students
+     *
+     * @param course                     the course
+     * @param maxPointsInCourse          max points in the course
+     * @param reachableMaxPointsInCourse max points achievable in the course depending on the due dates of the exercises
+     * @param calculationKey             the key of the current configuration of the course exercises, see {@link #getCalculationKey(Course, Set)}
+     * @param plagiarismMapping          the plagiarism cases of the students in the course
+     */
+    private record CalculationContext(Course course, double maxPointsInCourse, double reachableMaxPointsInCourse, String calculationKey, PlagiarismMapping plagiarismMapping) {
+    }
+
+    /**
+     * @param points            the sum of the (rounded) points achieved in the included exercises
+     * @param presentationScore the sum of the presentation scores in the included exercises
+     */
+    private record AchievedPoints(double points, int presentationScore) {
+    }
+
 }
@@ -40,6 +40,10 @@ public class FilePathService {
         return Path.of(fileUploadPath, "attachments", "lecture").toString();
     }
 
+    public static String getMergedLecturePdfFilePath() {
+        return Path.of(fileUploadPath, "attachments", "lecture-merged").toString();
+    }
+
     public static String getAttachmentUnitFilePath() {
         return Path.of(fileUploadPath, "attachments", "attachment-unit").toString();
     }
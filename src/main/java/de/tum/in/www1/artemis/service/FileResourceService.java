@@ -0,0 +1,212 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Provides files stored on disk as {@link Resource}s, so that they can be streamed to the client (including HTTP range requests) without loading them into the heap.
+ * <p>
+ * Small files (e.g. course icons or drag and drop images) are requested very often and are therefore kept in a small node-local cache outside the heap.
+ * A cached file is only used as long as its size and modification date did not change, so that replaced files are never served from the cache.
+ */
+@Service
+public class FileResourceService {
+
+    private final Logger log = LoggerFactory.getLogger(FileResourceService.class);
+
+    private final long maxCachedFileSize;
+
+    private final long maxCacheSize;
+
+    /**
+     * The cached files in access order, so that the least recently used files are evicted first
+     */
+    private final LinkedHashMap<Path, CachedFile> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cacheSize = 0;
+
+    public FileResourceService(@Value("${artemis.file-serving.cache.max-file-size-kb:256}") long maxCachedFileSizeInKB,
+            @Value("${artemis.file-serving.cache.max-size-mb:64}") long maxCacheSizeInMB) {
+        this.maxCachedFileSize = maxCachedFileSizeInKB * 1024;
+        this.maxCacheSize = maxCacheSizeInMB * 1024 * 1024;
+    }
+
+    /**
+     * Get the file at the given path as a resource that can be returned by a REST endpoint.
+     *
+     * @param path the path of the file
+     * @return the file as a resource, or an empty optional if the file does not exist
+     * @throws IOException if the file can't be accessed
+     */
+    public Optional<Resource> getFileResource(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (size > maxCachedFileSize || size > maxCacheSize) {
+            return Optional.of(new FileSystemResource(path));
+        }
+
+        CachedFile cachedFile = getCachedFile(path);
+        if (cachedFile == null || cachedFile.size() != size || cachedFile.lastModified() != lastModified) {
+            cachedFile = new CachedFile(readFile(path, size), size, lastModified);
+            putCachedFile(path, cachedFile);
+        }
+        return Optional.of(new CachedFileResource(cachedFile, path.getFileName().toString()));
+    }
+
+    /**
+     * Remove the file at the given path from the cache, e.g. because it has been replaced by a new file with the same name
+     *
+     * @param path the path of the file
+     */
+    public synchronized void evict(Path path) {
+        CachedFile cachedFile = cachedFiles.remove(path);
+        if (cachedFile != null) {
+            cacheSize -= cachedFile.size();
+            log.debug("Evicted {} from the file cache", path);
+        }
+    }
+
+    private synchronized CachedFile getCachedFile(Path path) {
+        return cachedFiles.get(path);
+    }
+
+    private synchronized void putCachedFile(Path path, CachedFile cachedFile) {
+        CachedFile previousFile = cachedFiles.put(path, cachedFile);
+        cacheSize += cachedFile.size() - (previousFile != null ? previousFile.size() : 0);
+
+        // evict the least recently used files until the cache fits into its limit again
+        Iterator<CachedFile> iterator = cachedFiles.values().iterator();
+        while (cacheSize > maxCacheSize && iterator.hasNext()) {
+            cacheSize -= iterator.next().size();
+            iterator.remove();
+        }
+    }
+
+    private static ByteBuffer readFile(Path path, long size) throws IOException {
+        ByteBuffer content = ByteBuffer.allocateDirect((int) size);
+        try (FileChannel channel = FileChannel.open(path)) {
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                // read until the buffer is full or the end of the file is reached
+            }
+        }
+        return content.flip().asReadOnlyBuffer();
+    }
+
+    private record CachedFile(ByteBuffer content, long size, long lastModified) {
+    }
+
+    /**
+     * A resource for a cached file, every input stream reads the cached content independently
+     */
+    private static class CachedFileResource extends AbstractResource {
+
+        private final CachedFile cachedFile;
+
+        private final String filename;
+
+        private CachedFileResource(CachedFile cachedFile, String filename) {
+            this.cachedFile = cachedFile;
+            this.filename = filename;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return cachedFile.content().remaining();
+        }
+
+        @Override
+        public long lastModified() {
+            return cachedFile.lastModified();
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Cached file [" + filename + "]";
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteBufferInputStream(cachedFile.content().duplicate());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || (other instanceof CachedFileResource otherResource && cachedFile.equals(otherResource.cachedFile));
+        }
+
+        @Override
+        public int hashCode() {
+            return cachedFile.hashCode();
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int bytesToRead = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, bytesToRead);
+            return bytesToRead;
+        }
+
+        @Override
+        public long skip(long n) {
+            int bytesToSkip = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + bytesToSkip);
+            return bytesToSkip;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
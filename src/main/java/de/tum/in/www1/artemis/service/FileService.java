@@ -29,8 +29,6 @@ import org.apache.pdfbox.pdmodel.PDDocumentInformation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
@@ -99,30 +97,6 @@ public class FileService implements DisposableBean {
         futures.clear();
     }
 
-    /**
-     * Get the file for the given path as a byte[]
-     *
-     * @param path the path for the file to load
-     * @return file contents as a byte[], or null, if the file doesn't exist
-     * @throws IOException if the file can't be accessed.
-     */
-    @Cacheable(value = "files", unless = "#result == null")
-    public byte[] getFileForPath(String path) throws IOException {
-        File file = new File(path);
-        if (file.exists()) {
-            return Files.readAllBytes(file.toPath());
-        }
-        else {
-            return null;
-        }
-    }
-
-    @CacheEvict(value = "files", key = "#path")
-    public void resetOnPath(String path) {
-        log.info("Invalidate files cache for {}", path);
-        // Intentionally blank
-    }
-
     /**
      * Helper method which handles the file creation for both normal file uploads and for markdown
      *
@@ -998,41 +972,29 @@ public class FileService implements DisposableBean {
     }
 
     /**
-     * Merge the PDF files located in the given paths.
+     * Merge the PDF files located in the given paths and write the merged file to the given stream.
+     * Only temporary files are used as buffer while merging, so that the memory usage does not depend on the size of the files.
      *
-     * @param paths             list of paths to merge
+     * @param paths             list of paths to merge, paths of files that do not exist are ignored
      * @param mergedPdfFileName title of merged pdf file
-     * @return byte array of the merged file
+     * @param outputStream      the stream the merged file is written to
+     * @throws IOException if the files could not be merged
      */
-    public Optional<byte[]> mergePdfFiles(List<String> paths, String mergedPdfFileName) {
-        if (paths == null || paths.isEmpty()) {
-            return Optional.empty();
-        }
+    public void mergePdfFiles(List<String> paths, String mergedPdfFileName, OutputStream outputStream) throws IOException {
         PDFMergerUtility pdfMerger = new PDFMergerUtility();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-        try {
-            for (String path : paths) {
-                File file = new File(path);
-                if (file.exists()) {
-                    pdfMerger.addSource(new File(path));
-                }
+        for (String path : paths) {
+            File file = new File(path);
+            if (file.exists()) {
+                pdfMerger.addSource(file);
             }
-
-            PDDocumentInformation pdDocumentInformation = new PDDocumentInformation();
-            pdDocumentInformation.setTitle(mergedPdfFileName);
-            pdfMerger.setDestinationDocumentInformation(pdDocumentInformation);
-
-            pdfMerger.setDestinationStream(outputStream);
-            pdfMerger.mergeDocuments(MemoryUsageSetting.setupTempFileOnly());
-
-        }
-        catch (IOException e) {
-            log.warn("Could not merge files");
-            return Optional.empty();
         }
 
-        return Optional.of(outputStream.toByteArray());
+        PDDocumentInformation pdDocumentInformation = new PDDocumentInformation();
+        pdDocumentInformation.setTitle(mergedPdfFileName);
+        pdfMerger.setDestinationDocumentInformation(pdDocumentInformation);
+
+        pdfMerger.setDestinationStream(outputStream);
+        pdfMerger.mergeDocuments(MemoryUsageSetting.setupTempFileOnly());
     }
 
     /**
@@ -37,15 +37,19 @@ public class FileUploadSubmissionService extends SubmissionService {
 
     private final ExerciseDateService exerciseDateService;
 
+    private final FileResourceService fileResourceService;
+
     public FileUploadSubmissionService(FileUploadSubmissionRepository fileUploadSubmissionRepository, SubmissionRepository submissionRepository, ResultRepository resultRepository,
             ParticipationService participationService, UserRepository userRepository, StudentParticipationRepository studentParticipationRepository, FileService fileService,
             AuthorizationCheckService authCheckService, FeedbackRepository feedbackRepository, ExamDateService examDateService, ExerciseDateService exerciseDateService,
-            CourseRepository courseRepository, ParticipationRepository participationRepository, ComplaintRepository complaintRepository) {
+            CourseRepository courseRepository, ParticipationRepository participationRepository, ComplaintRepository complaintRepository,
+            FileResourceService fileResourceService, SubmissionClaimService submissionClaimService) {
         super(submissionRepository, userRepository, authCheckService, resultRepository, studentParticipationRepository, participationService, feedbackRepository, examDateService,
-                exerciseDateService, courseRepository, participationRepository, complaintRepository);
+                exerciseDateService, courseRepository, participationRepository, complaintRepository, submissionClaimService);
         this.fileUploadSubmissionRepository = fileUploadSubmissionRepository;
         this.fileService = fileService;
         this.exerciseDateService = exerciseDateService;
+        this.fileResourceService = fileResourceService;
     }
 
     /**
@@ -168,7 +172,7 @@ public class FileUploadSubmissionService extends SubmissionService {
             }
             else { // same name
                    // IMPORTANT: invalidate the cache so that the new file with the same name will be downloaded (and not a potentially cached one)
-                fileService.resetOnPath(newLocalFilePath);
+                fileResourceService.evict(Path.of(newLocalFilePath));
             }
         }
         return newFilePath;
@@ -24,10 +24,14 @@ public class LectureService {
 
     private final LearningGoalRepository learningGoalRepository;
 
-    public LectureService(LectureRepository lectureRepository, AuthorizationCheckService authCheckService, LearningGoalRepository learningGoalRepository) {
+    private final MergedLecturePdfService mergedLecturePdfService;
+
+    public LectureService(LectureRepository lectureRepository, AuthorizationCheckService authCheckService, LearningGoalRepository learningGoalRepository,
+            MergedLecturePdfService mergedLecturePdfService) {
         this.lectureRepository = lectureRepository;
         this.authCheckService = authCheckService;
         this.learningGoalRepository = learningGoalRepository;
+        this.mergedLecturePdfService = mergedLecturePdfService;
     }
 
     /**
@@ -108,6 +112,7 @@ public class LectureService {
         }).toList());
 
         lectureRepository.deleteById(lectureToDelete.getId());
+        mergedLecturePdfService.invalidate(lectureToDelete.getId());
     }
 
 }
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import de.tum.in.www1.artemis.domain.LearningGoal;
 import de.tum.in.www1.artemis.domain.Lecture;
 import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.lecture.AttachmentUnit;
 import de.tum.in.www1.artemis.domain.lecture.ExerciseUnit;
 import de.tum.in.www1.artemis.domain.lecture.LectureUnit;
 import de.tum.in.www1.artemis.domain.lecture.LectureUnitCompletion;
@@ -30,12 +31,15 @@ public class LectureUnitService {
 
     private final LectureUnitCompletionRepository lectureUnitCompletionRepository;
 
+    private final MergedLecturePdfService mergedLecturePdfService;
+
     public LectureUnitService(LectureUnitRepository lectureUnitRepository, LectureRepository lectureRepository, LearningGoalRepository learningGoalRepository,
-            LectureUnitCompletionRepository lectureUnitCompletionRepository) {
+            LectureUnitCompletionRepository lectureUnitCompletionRepository, MergedLecturePdfService mergedLecturePdfService) {
         this.lectureUnitRepository = lectureUnitRepository;
         this.lectureRepository = lectureRepository;
         this.learningGoalRepository = learningGoalRepository;
         this.lectureUnitCompletionRepository = lectureUnitCompletionRepository;
+        this.mergedLecturePdfService = mergedLecturePdfService;
     }
 
     /**
@@ -104,5 +108,9 @@ public class LectureUnitService {
         lecture.getLectureUnits().clear();
         lecture.getLectureUnits().addAll(lectureUnitsUpdated);
         lectureRepository.save(lecture);
+
+        if (lectureUnitToDelete instanceof AttachmentUnit) {
+            mergedLecturePdfService.invalidate(lecture.getId());
+        }
     }
 }
@@ -5,9 +5,9 @@ import static de.tum.in.www1.artemis.domain.notification.NotificationTargetFacto
 
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.Locale;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
@@ -21,6 +21,7 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 
@@ -85,6 +86,11 @@ public class MailService {
 
     private final String newAnnouncementDE = "Neue Ankündigung \"%s\" im Kurs \"%s\"";
 
+    /**
+     * Emails to multiple users are created once with this placeholder as name of the user, which is replaced with the actual name for each user
+     */
+    private static final String RECIPIENT_NAME_PLACEHOLDER = "ArtemisRecipientNamePlaceholder";
+
     // time related variables
     private static final String TIME_SERVICE = "timeService";
 
@@ -191,14 +197,20 @@ public class MailService {
         NotificationType notificationType = NotificationTitleTypeConstants.findCorrespondingNotificationType(notification.getTitle());
         log.debug("Sending \"{}\" notification email to '{}'", notificationType.name(), user.getEmail());
 
-        String localeKey = user.getLangKey();
-        if (localeKey == null) {
-            throw new IllegalArgumentException(
-                    "The user object has no language key defined. This can happen if you do not load the user object from the database but take it straight from the client");
-        }
-
-        Locale locale = Locale.forLanguageTag(localeKey);
+        NotificationEmail email = createNotificationEmail(notification, notificationType, user, notificationSubject, getLocale(user));
+        sendEmail(user, email.subject(), email.content(), false, true);
+    }
 
+    /**
+     * Creates the subject and content of a notification based email
+     * @param notification which properties are used to create the email
+     * @param notificationType the type of the notification
+     * @param user who should be contacted
+     * @param notificationSubject that is used to provide further information (e.g. exercise, attachment, post, etc.)
+     * @param locale used for translations
+     * @return the subject and content of the email
+     */
+    private NotificationEmail createNotificationEmail(Notification notification, NotificationType notificationType, User user, Object notificationSubject, Locale locale) {
         Context context = new Context(locale);
         context.setVariable(USER, user);
         context.setVariable(NOTIFICATION, notification);
@@ -230,8 +242,16 @@ public class MailService {
         context.setVariable(BASE_URL, artemisServerUrl);
 
         String content = createContentForNotificationEmailByType(notificationType, context);
+        return new NotificationEmail(subject, content);
+    }
 
-        sendEmail(user, subject, content, false, true);
+    private static Locale getLocale(User user) {
+        String localeKey = user.getLangKey();
+        if (localeKey == null) {
+            throw new IllegalArgumentException(
+                    "The user object has no language key defined. This can happen if you do not load the user object from the database but take it straight from the client");
+        }
+        return Locale.forLanguageTag(localeKey);
     }
 
     private void setContextForTutorialGroupNotifications(Context context, NotificationType notificationType,
@@ -310,9 +330,52 @@ public class MailService {
         }
     }
 
+    /**
+     * Sends a notification based email to multiple users.
+     * The email is only created once per language, and the name of each user is inserted into the created content afterwards.
+     * Emails that could not be sent are retried once after all other emails have been sent.
+     *
+     * @param notification which properties are used to create the email
+     * @param users who should be contacted
+     * @param notificationSubject that is used to provide further information (e.g. exercise, attachment, post, etc.)
+     */
     @Async
     public void sendNotificationEmailForMultipleUsers(Notification notification, List<User> users, Object notificationSubject) {
-        users.forEach(user -> sendNotificationEmail(notification, user, notificationSubject));
+        NotificationType notificationType = NotificationTitleTypeConstants.findCorrespondingNotificationType(notification.getTitle());
+        log.debug("Sending \"{}\" notification email to {} users", notificationType.name(), users.size());
+
+        User recipientPlaceholder = new User();
+        recipientPlaceholder.setFirstName(RECIPIENT_NAME_PLACEHOLDER);
+        Map<Locale, NotificationEmail> emailPerLocale = new HashMap<>();
+        Function<User, NotificationEmail> createEmail = user -> {
+            if (notificationType == EXERCISE_SUBMISSION_ASSESSED) {
+                // the content contains the individual score of the user
+                return createNotificationEmail(notification, notificationType, user, notificationSubject, getLocale(user));
+            }
+            NotificationEmail email = emailPerLocale.computeIfAbsent(getLocale(user),
+                    locale -> createNotificationEmail(notification, notificationType, recipientPlaceholder, notificationSubject, locale));
+            return new NotificationEmail(email.subject(), email.content().replace(RECIPIENT_NAME_PLACEHOLDER, HtmlUtils.htmlEscape(Objects.toString(user.getName(), ""))));
+        };
+
+        List<User> failedUsers = users.stream().filter(user -> !trySendNotificationEmail(user, createEmail.apply(user))).collect(Collectors.toCollection(ArrayList::new));
+        failedUsers.removeIf(user -> trySendNotificationEmail(user, createEmail.apply(user)));
+        if (!failedUsers.isEmpty()) {
+            log.error("\"{}\" notification email could not be sent to {} of {} users", notificationType.name(), failedUsers.size(), users.size());
+        }
+    }
+
+    private boolean trySendNotificationEmail(User user, NotificationEmail email) {
+        try {
+            sendEmail(user, email.subject(), email.content(), false, true);
+            return true;
+        }
+        catch (ArtemisMailException ex) {
+            // the failure is already logged when sending the email
+            return false;
+        }
+    }
+
+    private record NotificationEmail(String subject, String content) {
     }
 
     /// Weekly Summary Email
@@ -0,0 +1,142 @@
+package de.tum.in.www1.artemis.service;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Merges the PDF attachments of a lecture into one document and stores it on disk, so that it only has to be generated once per version of the lecture attachments.
+ * <p>
+ * The version is derived from the title and the path, size and modification date of every merged file. Therefore, changed attachments never lead to an outdated merged
+ * document, and users that are allowed to see different attachments (e.g. students and tutors before the release of an attachment) get different merged documents.
+ */
+@Service
+public class MergedLecturePdfService {
+
+    private final Logger log = LoggerFactory.getLogger(MergedLecturePdfService.class);
+
+    private static final long MERGE_TIMEOUT_IN_SECONDS = 120;
+
+    private final FileService fileService;
+
+    /**
+     * Merging is CPU and memory intensive, so only a limited number of documents is merged at the same time, independent of the number of requests
+     */
+    private final ExecutorService mergeExecutor;
+
+    private final Map<Path, CompletableFuture<Path>> mergesInProgress = new ConcurrentHashMap<>();
+
+    public MergedLecturePdfService(FileService fileService, @Qualifier("lecturePdfMergeExecutor") ExecutorService mergeExecutor) {
+        this.fileService = fileService;
+        this.mergeExecutor = mergeExecutor;
+    }
+
+    /**
+     * Get the merged PDF of the given files. If the files have not been merged in this version before, they are merged in the background and the calling thread waits
+     * for the result. Concurrent requests for the same version share one merge.
+     *
+     * @param lectureId the id of the lecture the files belong to
+     * @param title     the title of the merged document
+     * @param paths     the paths of the PDF files to merge in the order in which they should be merged
+     * @return the path of the merged PDF, or an empty optional if there is nothing to merge or the files could not be merged
+     */
+    public Optional<Path> getMergedPdf(long lectureId, String title, List<String> paths) {
+        if (paths == null || paths.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Path mergedPdfPath = getMergedPdfDirectory(lectureId).resolve(getVersion(title, paths) + ".pdf");
+        if (Files.exists(mergedPdfPath)) {
+            return Optional.of(mergedPdfPath);
+        }
+
+        CompletableFuture<Path> merge = mergesInProgress.computeIfAbsent(mergedPdfPath,
+                path -> CompletableFuture.supplyAsync(() -> mergePdfFiles(paths, title, mergedPdfPath), mergeExecutor));
+        merge.whenComplete((path, error) -> mergesInProgress.remove(mergedPdfPath, merge));
+
+        try {
+            return Optional.of(merge.get(MERGE_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS));
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        catch (ExecutionException | TimeoutException ex) {
+            log.error("Failed to merge the PDF files of lecture {}", lectureId, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes all merged PDFs of the given lecture, e.g. because one of its attachment units changed or the lecture was deleted.
+     * Outdated documents are never served anyway, this only frees the disk space.
+     *
+     * @param lectureId the id of the lecture
+     */
+    public void invalidate(long lectureId) {
+        Path mergedPdfDirectory = getMergedPdfDirectory(lectureId);
+        if (Files.exists(mergedPdfDirectory)) {
+            log.debug("Delete the merged PDFs of lecture {}", lectureId);
+            FileUtils.deleteQuietly(mergedPdfDirectory.toFile());
+        }
+    }
+
+    private Path mergePdfFiles(List<String> paths, String title, Path mergedPdfPath) {
+        try {
+            Files.createDirectories(mergedPdfPath.getParent());
+            // write into a temporary file first, so that concurrent requests never read a partially written document
+            Path temporaryPath = mergedPdfPath.resolveSibling(mergedPdfPath.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temporaryPath)) {
+                fileService.mergePdfFiles(paths, title, outputStream);
+            }
+            catch (IOException ex) {
+                Files.deleteIfExists(temporaryPath);
+                throw ex;
+            }
+            Files.move(temporaryPath, mergedPdfPath, ATOMIC_MOVE, REPLACE_EXISTING);
+            log.debug("Merged {} PDF files into {}", paths.size(), mergedPdfPath);
+            return mergedPdfPath;
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Path getMergedPdfDirectory(long lectureId) {
+        return Path.of(FilePathService.getMergedLecturePdfFilePath(), String.valueOf(lectureId));
+    }
+
+    private static String getVersion(String title, List<String> paths) {
+        StringBuilder version = new StringBuilder(String.valueOf(title));
+        for (String path : paths) {
+            Path file = Path.of(path);
+            version.append('\n').append(path);
+            try {
+                version.append('|').append(Files.size(file)).append('|').append(Files.getLastModifiedTime(file).toMillis());
+            }
+            catch (IOException ex) {
+                // files that do not exist are skipped when merging
+                version.append("|missing");
+            }
+        }
+        return DigestUtils.sha256Hex(version.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
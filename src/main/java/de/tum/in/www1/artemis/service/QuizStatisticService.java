@@ -1,16 +1,14 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Result;
-import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.quiz.*;
 import de.tum.in.www1.artemis.repository.*;
 
@@ -19,8 +17,6 @@ public class QuizStatisticService {
 
     private final Logger log = LoggerFactory.getLogger(QuizStatisticService.class);
 
-    private final StudentParticipationRepository studentParticipationRepository;
-
     private final ResultRepository resultRepository;
 
     private final QuizPointStatisticRepository quizPointStatisticRepository;
@@ -31,10 +27,8 @@ public class QuizStatisticService {
 
     private final SimpMessageSendingOperations messagingTemplate;
 
-    public QuizStatisticService(StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository, SimpMessageSendingOperations messagingTemplate,
-            QuizPointStatisticRepository quizPointStatisticRepository, QuizQuestionStatisticRepository quizQuestionStatisticRepository,
-            QuizSubmissionRepository quizSubmissionRepository) {
-        this.studentParticipationRepository = studentParticipationRepository;
+    public QuizStatisticService(ResultRepository resultRepository, SimpMessageSendingOperations messagingTemplate, QuizPointStatisticRepository quizPointStatisticRepository,
+            QuizQuestionStatisticRepository quizQuestionStatisticRepository, QuizSubmissionRepository quizSubmissionRepository) {
         this.resultRepository = resultRepository;
         this.quizPointStatisticRepository = quizPointStatisticRepository;
         this.quizQuestionStatisticRepository = quizQuestionStatisticRepository;
@@ -66,45 +60,41 @@ public class QuizStatisticService {
             }
         }
 
-        // add the Results in every participation of the given quizExercise to the statistics
-        for (Participation participation : studentParticipationRepository.findByExerciseId(quizExercise.getId())) {
-
-            Result latestRatedResult = null;
-            Result latestUnratedResult = null;
-
-            var results = resultRepository.findAllByParticipationIdOrderByCompletionDateDesc(participation.getId());
-            // update all Results of a participation
-            for (Result result : results) {
-
+        // load all submissions with their submitted answers and results in one query and determine the latest rated and unrated result of every participation
+        Map<Long, Result> latestRatedResults = new HashMap<>();
+        Map<Long, Result> latestUnratedResults = new HashMap<>();
+        for (QuizSubmission quizSubmission : quizSubmissionRepository.findWithEagerSubmittedAnswersAndResultsByExerciseId(quizExercise.getId())) {
+            Long participationId = quizSubmission.getParticipation().getId();
+            for (Result result : quizSubmission.getResults()) {
+                if (result == null) {
+                    continue;
+                }
+                // the result has to point to the submission with the eagerly loaded submitted answers
+                result.setSubmission(quizSubmission);
                 // find the latest rated Result
-                if (Boolean.TRUE.equals(result.isRated()) && (latestRatedResult == null || latestRatedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestRatedResult = result;
+                if (Boolean.TRUE.equals(result.isRated())) {
+                    latestRatedResults.merge(participationId, result, QuizStatisticService::getLaterResult);
                 }
                 // find latest unrated Result
-                if (Boolean.FALSE.equals(result.isRated()) && (latestUnratedResult == null || latestUnratedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestUnratedResult = result;
+                if (Boolean.FALSE.equals(result.isRated())) {
+                    latestUnratedResults.merge(participationId, result, QuizStatisticService::getLaterResult);
                 }
             }
-            // update statistics with the latest rated und unrated Result
-            if (latestRatedResult != null && latestRatedResult.getSubmission() != null) {
-                var latestRatedSubmission = quizSubmissionRepository.findWithEagerSubmittedAnswersById(latestRatedResult.getSubmission().getId());
-                quizExercise.addResultToAllStatistics(latestRatedResult, latestRatedSubmission);
-            }
-            if (latestUnratedResult != null && latestUnratedResult.getSubmission() != null) {
-                var latestUnratedSubmission = quizSubmissionRepository.findWithEagerSubmittedAnswersById(latestUnratedResult.getSubmission().getId());
-                quizExercise.addResultToAllStatistics(latestUnratedResult, latestUnratedSubmission);
-            }
         }
+        // update statistics with the latest rated und unrated Result
+        latestRatedResults.values().forEach(result -> quizExercise.addResultToAllStatistics(result, (QuizSubmission) result.getSubmission()));
+        latestUnratedResults.values().forEach(result -> quizExercise.addResultToAllStatistics(result, (QuizSubmission) result.getSubmission()));
 
         // save changed Statistics
         quizPointStatisticRepository.save(quizExercise.getQuizPointStatistic());
         quizPointStatisticRepository.flush();
+        List<QuizQuestionStatistic> quizQuestionStatistics = new ArrayList<>();
         for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
             if (quizQuestion.getQuizQuestionStatistic() != null) {
-                quizQuestionStatisticRepository.save(quizQuestion.getQuizQuestionStatistic());
-                quizQuestionStatisticRepository.flush();
+                quizQuestionStatistics.add(quizQuestion.getQuizQuestionStatistic());
             }
         }
+        quizQuestionStatisticRepository.saveAllAndFlush(quizQuestionStatistics);
     }
 
     /**
@@ -119,14 +109,14 @@ public class QuizStatisticService {
         if (results != null && quiz != null && quiz.getQuizQuestions() != null) {
             log.debug("update statistics with {} new results", results.size());
 
+            Map<Long, QuizSubmission> quizSubmissions = getSubmissionsWithSubmittedAnswers(results);
             for (Result result : results) {
                 // check if the result is rated
                 // NOTE: there is never an old Result if the new result is rated
                 if (Boolean.FALSE.equals(result.isRated())) {
                     quiz.removeResultFromAllStatistics(getPreviousResult(result));
                 }
-                var quizSubmission = quizSubmissionRepository.findWithEagerSubmittedAnswersById(result.getSubmission().getId());
-                quiz.addResultToAllStatistics(result, quizSubmission);
+                quiz.addResultToAllStatistics(result, quizSubmissions.get(result.getSubmission().getId()));
             }
             // save statistics
             quizPointStatisticRepository.save(quiz.getQuizPointStatistic());
@@ -144,6 +134,35 @@ public class QuizStatisticService {
         }
     }
 
+    /**
+     * Get the submissions of the given results including their submitted answers. Submissions which are already in memory with their submitted answers (e.g. the ones cached by
+     * the quiz schedule service) are used directly, all others are loaded from the database in one query.
+     *
+     * @param results the results whose submissions are needed
+     * @return the quiz submissions with submitted answers mapped by their id
+     */
+    private Map<Long, QuizSubmission> getSubmissionsWithSubmittedAnswers(Set<Result> results) {
+        Map<Long, QuizSubmission> quizSubmissions = new HashMap<>();
+        Set<Long> submissionIdsToLoad = new HashSet<>();
+        for (Result result : results) {
+            if (result.getSubmission() instanceof QuizSubmission quizSubmission && quizSubmission.getSubmittedAnswers() != null
+                    && Hibernate.isInitialized(quizSubmission.getSubmittedAnswers())) {
+                quizSubmissions.put(quizSubmission.getId(), quizSubmission);
+            }
+            else {
+                submissionIdsToLoad.add(result.getSubmission().getId());
+            }
+        }
+        if (!submissionIdsToLoad.isEmpty()) {
+            quizSubmissionRepository.findWithEagerSubmittedAnswersByIdIn(submissionIdsToLoad).forEach(quizSubmission -> quizSubmissions.put(quizSubmission.getId(), quizSubmission));
+        }
+        return quizSubmissions;
+    }
+
+    private static Result getLaterResult(Result result, Result otherResult) {
+        return result.getCompletionDate().isBefore(otherResult.getCompletionDate()) ? otherResult : result;
+    }
+
     /**
      * Go through all Results in the Participation and return the latest one before the new Result,
      *
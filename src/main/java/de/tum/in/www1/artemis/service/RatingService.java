@@ -1,13 +1,17 @@
 package de.tum.in.www1.artemis.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Rating;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseRatingCount;
+import de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseRatingMapEntry;
 import de.tum.in.www1.artemis.repository.RatingRepository;
 import de.tum.in.www1.artemis.repository.ResultRepository;
 
@@ -83,12 +87,13 @@ public class RatingService {
     }
 
     /**
-     * Computes rating information for the given exercise.
+     * Computes the average rating and the number of ratings of multiple exercises with one query
      *
-     * @param exerciseId - id of the exercise
-     * @return the rating information of the exercise
+     * @param exerciseIds the ids of the exercises
+     * @return the average rating and number of ratings by exercise id, exercises without completed results are not included
      */
-    public ExerciseRatingCount averageRatingByExerciseId(Long exerciseId) {
-        return ratingRepository.averageRatingByExerciseId(exerciseId);
+    public Map<Long, ExerciseRatingCount> averageRatingByExerciseIds(Set<Long> exerciseIds) {
+        return ratingRepository.averageRatingByExerciseIds(exerciseIds).stream()
+                .collect(Collectors.toMap(ExerciseRatingMapEntry::exerciseId, ExerciseRatingMapEntry::toExerciseRatingCount));
     }
 }
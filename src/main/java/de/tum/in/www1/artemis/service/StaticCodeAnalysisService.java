@@ -177,8 +177,20 @@ public class StaticCodeAnalysisService {
      * @return The filtered list of feedback objects
      */
     public List<Feedback> categorizeScaFeedback(Result result, List<Feedback> staticCodeAnalysisFeedback, ProgrammingExercise programmingExercise) {
-        var categoryPairs = getCategoriesWithMappingForExercise(programmingExercise);
+        return categorizeScaFeedback(result, staticCodeAnalysisFeedback, getCategoriesWithMappingForExercise(programmingExercise));
+    }
 
+    /**
+     * Sets the category for each feedback and removes feedback with no category or an inactive one, see {@link #categorizeScaFeedback(Result, List, ProgrammingExercise)}.
+     * Used when the feedback of many results is categorized, so that the categories only have to be loaded once.
+     *
+     * @param result of the build run
+     * @param staticCodeAnalysisFeedback List of static code analysis feedback objects
+     * @param categoryPairs the categories of the exercise with their mappings, see {@link #getCategoriesWithMappingForExercise(ProgrammingExercise)}
+     * @return The filtered list of feedback objects
+     */
+    public List<Feedback> categorizeScaFeedback(Result result, List<Feedback> staticCodeAnalysisFeedback,
+            List<ImmutablePair<StaticCodeAnalysisCategory, List<StaticCodeAnalysisDefaultCategory.CategoryMapping>>> categoryPairs) {
         return staticCodeAnalysisFeedback.stream().filter(feedback -> {
             // ObjectMapper to extract the static code analysis issue from the feedback
             ObjectMapper mapper = new ObjectMapper();
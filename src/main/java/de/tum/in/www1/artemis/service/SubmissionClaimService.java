@@ -0,0 +1,50 @@
+package de.tum.in.www1.artemis.service;
+
+import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_CLAIMED_ASSESSMENT_SUBMISSIONS_CACHE;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.security.SecurityUtils;
+
+/**
+ * Tutors that request a submission to assess at the same time would often get the same submission, because the submission is only locked when the assessment is started.
+ * Submissions that are proposed to a tutor are therefore claimed for a short time (on all nodes), so that other tutors get different submissions in the meantime.
+ * Claims are only a hint: they expire automatically and do not prevent a tutor from locking a submission.
+ */
+@Service
+public class SubmissionClaimService {
+
+    /**
+     * Enough time for the client to lock the proposed submission, after that the submission is excluded from the assessable submissions anyway
+     */
+    private static final long CLAIM_DURATION_IN_SECONDS = 60;
+
+    // claimed submission (submission id and correction round) -> login of the tutor that claimed it
+    private final IMap<String, String> claimedSubmissions;
+
+    public SubmissionClaimService(HazelcastInstance hazelcastInstance) {
+        this.claimedSubmissions = hazelcastInstance.getMap(HAZELCAST_CLAIMED_ASSESSMENT_SUBMISSIONS_CACHE);
+    }
+
+    /**
+     * Atomically claims the submission in the given correction round for the current user, unless another user already claimed it
+     *
+     * @param submissionId    the id of the submission that should be proposed to the current user
+     * @param correctionRound the correction round in which the submission should be assessed
+     * @return true if the submission is claimed by the current user now, false if another user claimed it before
+     */
+    public boolean claim(long submissionId, int correctionRound) {
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        if (login == null) {
+            return true;
+        }
+        String claimingLogin = claimedSubmissions.putIfAbsent(submissionId + "-" + correctionRound, login, CLAIM_DURATION_IN_SECONDS, TimeUnit.SECONDS);
+        return claimingLogin == null || Objects.equals(claimingLogin, login);
+    }
+}
@@ -56,10 +56,12 @@ public class SubmissionService {
 
     protected final ComplaintRepository complaintRepository;
 
+    private final SubmissionClaimService submissionClaimService;
+
     public SubmissionService(SubmissionRepository submissionRepository, UserRepository userRepository, AuthorizationCheckService authCheckService,
             ResultRepository resultRepository, StudentParticipationRepository studentParticipationRepository, ParticipationService participationService,
             FeedbackRepository feedbackRepository, ExamDateService examDateService, ExerciseDateService exerciseDateService, CourseRepository courseRepository,
-            ParticipationRepository participationRepository, ComplaintRepository complaintRepository) {
+            ParticipationRepository participationRepository, ComplaintRepository complaintRepository, SubmissionClaimService submissionClaimService) {
         this.submissionRepository = submissionRepository;
         this.userRepository = userRepository;
         this.authCheckService = authCheckService;
@@ -72,6 +74,7 @@ public class SubmissionService {
         this.courseRepository = courseRepository;
         this.participationRepository = participationRepository;
         this.complaintRepository = complaintRepository;
+        this.submissionClaimService = submissionClaimService;
     }
 
     /**
@@ -208,8 +211,9 @@ public class SubmissionService {
     public Optional<Submission> getNextAssessableSubmission(Exercise exercise, boolean examMode, int correctionRound) {
         var assessableSubmissions = getAssessableSubmissions(exercise, examMode, correctionRound);
 
-        return assessableSubmissions.stream().filter(a -> Objects.nonNull(a.getParticipation().getIndividualDueDate()))
-                .min(Comparator.comparing(a -> a.getParticipation().getIndividualDueDate()));
+        List<Submission> submissionsByIndividualDueDate = assessableSubmissions.stream().filter(a -> Objects.nonNull(a.getParticipation().getIndividualDueDate()))
+                .sorted(Comparator.comparing(a -> a.getParticipation().getIndividualDueDate())).toList();
+        return claimFirstUnclaimedSubmission(submissionsByIndividualDueDate, correctionRound);
     }
 
     /**
@@ -225,8 +229,32 @@ public class SubmissionService {
      */
     public Optional<Submission> getRandomAssessableSubmission(Exercise exercise, boolean examMode, int correctionRound) {
         var assessableSubmissions = getAssessableSubmissions(exercise, examMode, correctionRound);
+        if (assessableSubmissions.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // start at a random submission and continue with the following ones, if the random submission has already been claimed by another tutor
+        int randomIndex = ThreadLocalRandom.current().nextInt(assessableSubmissions.size());
+        List<Submission> submissionsFromRandomIndex = new ArrayList<>(assessableSubmissions.subList(randomIndex, assessableSubmissions.size()));
+        submissionsFromRandomIndex.addAll(assessableSubmissions.subList(0, randomIndex));
+        return claimFirstUnclaimedSubmission(submissionsFromRandomIndex, correctionRound);
+    }
 
-        return assessableSubmissions.isEmpty() ? Optional.empty() : Optional.of(assessableSubmissions.get(ThreadLocalRandom.current().nextInt(assessableSubmissions.size())));
+    /**
+     * Claims the first of the given submissions that has not been claimed by another tutor, so that tutors requesting a submission at the same time get different
+     * submissions. If all submissions have been claimed, the first submission is returned anyway, as claims are only a hint.
+     *
+     * @param submissions     the assessable submissions in the order in which they should be proposed
+     * @param correctionRound the correction round the submission should be assessed in
+     * @param <T>             the type of the submissions
+     * @return the claimed submission or an empty Optional if there are no submissions
+     */
+    protected <T extends Submission> Optional<T> claimFirstUnclaimedSubmission(List<T> submissions, int correctionRound) {
+        if (submissions.isEmpty()) {
+            return Optional.empty();
+        }
+        return submissions.stream().filter(submission -> submissionClaimService.claim(submission.getId(), correctionRound)).findFirst()
+                .or(() -> Optional.of(submissions.get(0)));
     }
 
     /**
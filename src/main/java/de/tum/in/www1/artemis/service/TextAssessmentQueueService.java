@@ -1,7 +1,6 @@
 package de.tum.in.www1.artemis.service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
@@ -27,61 +26,53 @@ public class TextAssessmentQueueService {
     }
 
     /**
-     * Calculates the proposedTextSubmission for a given Text exercise. This means the Text exercise which should be assessed next
+     * Calculates the proposed TextSubmissions for a given Text exercise. This means the open TextSubmissions in the order in which they should be assessed next
      *
      * @param textExercise the exercise for
      * @throws IllegalArgumentException if textExercise isn't automatically assessable
-     * @return a TextSubmission with the highest information Gain if there is one
+     * @return the open TextSubmissions ordered by descending information Gain
      */
-    public Optional<TextSubmission> getProposedTextSubmission(TextExercise textExercise) {
-        return getProposedTextSubmission(textExercise, null);
+    public List<TextSubmission> getProposedTextSubmissions(TextExercise textExercise) {
+        return getProposedTextSubmissions(textExercise, null);
     }
 
     /**
-     * Calculates the proposedTextSubmission for a given Text exercise
+     * Calculates the proposed TextSubmissions for a given Text exercise
      *
      * @param textExercise the exercise for
      * @param languages  list of languages the submission which the returned submission should have if null all languages are allowed
      * @throws IllegalArgumentException if textExercise isn't automatically assessable
-     * @return a TextSubmission with the highest information Gain if there is one
+     * @return the open TextSubmissions ordered by descending information Gain
      */
     @Transactional(readOnly = true) // TODO: remove transactional
-    public Optional<TextSubmission> getProposedTextSubmission(TextExercise textExercise, List<Language> languages) {
+    public List<TextSubmission> getProposedTextSubmissions(TextExercise textExercise, List<Language> languages) {
         if (!textExercise.isAutomaticAssessmentEnabled()) {
             throw new IllegalArgumentException("The TextExercise is not automatic assessable");
         }
         List<TextSubmission> textSubmissionList = getAllOpenTextSubmissions(textExercise);
         if (textSubmissionList.isEmpty()) {
-            return Optional.empty();
+            return List.of();
         }
-        Map<TextBlock, Double> smallerClusterMap = calculateSmallerClusterPercentageBatch(textSubmissionList);
-        return textSubmissionList.stream().filter(textSubmission -> languages == null || languages.contains(textSubmission.getLanguage()))
-                .max(Comparator.comparingDouble(textSubmission -> calculateInformationGain(textSubmission, smallerClusterMap)));
+        ClusterSizes clusterSizes = getClusterSizes(textExercise);
+        Map<TextBlock, Double> smallerClusterMap = calculateSmallerClusterPercentageBatch(textSubmissionList, clusterSizes);
+        Map<TextSubmission, Double> informationGains = new HashMap<>();
+        for (TextSubmission textSubmission : textSubmissionList) {
+            if (languages == null || languages.contains(textSubmission.getLanguage())) {
+                informationGains.put(textSubmission, calculateInformationGain(textSubmission, smallerClusterMap, clusterSizes));
+            }
+        }
+        return textSubmissionList.stream().filter(informationGains::containsKey)
+                .sorted(Comparator.comparingDouble((TextSubmission textSubmission) -> informationGains.get(textSubmission)).reversed()).toList();
     }
 
     /**
      * Return all TextSubmission which are the latest TextSubmission of a Participation and doesn't have a Result so far
-     * The corresponding TextBlocks and Participations are retrieved from the database
+     * The corresponding TextBlocks (with their clusters, but without the blocks of the clusters) and Participations are retrieved from the database
      * @param exercise Exercise for which all assessed submissions should be retrieved
      * @return an unmodifiable list of all TextSubmission which aren't assessed at the Moment, but need assessment in the future.
      */
     public List<TextSubmission> getAllOpenTextSubmissions(TextExercise exercise) {
         final List<TextSubmission> submissions = textSubmissionRepository.findByParticipation_ExerciseIdAndResultsIsNullAndSubmittedIsTrue(exercise.getId());
-
-        final Set<Long> clusterIds = submissions.stream().flatMap(submission -> submission.getBlocks().stream()).map(TextBlock::getCluster).filter(Objects::nonNull)
-                .map(TextCluster::getId).collect(Collectors.toSet());
-
-        // To prevent lazy loading many elements later on, we fetch all clusters with text blocks here.
-        final Map<Long, TextCluster> textClusterMap = textClusterRepository.findAllByIdsWithEagerTextBlocks(clusterIds).stream()
-                .collect(Collectors.toMap(TextCluster::getId, textCluster -> textCluster));
-
-        // link up clusters with eager blocks
-        submissions.stream().flatMap(submission -> submission.getBlocks().stream()).forEach(textBlock -> {
-            if (textBlock.getCluster() != null) {
-                textBlock.setCluster(textClusterMap.get(textBlock.getCluster().getId()));
-            }
-        });
-
         return submissions.stream()
                 .filter(submission -> submission.getParticipation().findLatestSubmission().isPresent() && submission == submission.getParticipation().findLatestSubmission().get())
                 .toList();
@@ -93,9 +84,10 @@ public class TextAssessmentQueueService {
      *
      * @param textSubmission the textSubmission
      * @param smallerClusterMap Map of TextBlocks to percentage of smaller clusters the TextBlock Cluster
+     * @param clusterSizes the sizes of the clusters of the exercise
      * @return information gain for the TextSubmission
      */
-    private double calculateInformationGain(TextSubmission textSubmission, Map<TextBlock, Double> smallerClusterMap) {
+    private double calculateInformationGain(TextSubmission textSubmission, Map<TextBlock, Double> smallerClusterMap, ClusterSizes clusterSizes) {
         var textBlocks = textSubmission.getBlocks();
         double totalScore = 0.0;
         for (TextBlock textBlock : textBlocks) {
@@ -103,7 +95,7 @@ public class TextAssessmentQueueService {
                 continue;
             }
             double textBlockScore = textBlock.getAddedDistance();
-            textBlockScore /= textBlock.getCluster().size();
+            textBlockScore /= clusterSizes.blockCount(textBlock.getCluster());
             textBlockScore += smallerClusterMap.get(textBlock);
             totalScore += textBlockScore;
         }
@@ -150,13 +142,20 @@ public class TextAssessmentQueueService {
      * If a textBlock has no cluster or is already assessable, it isn't in the map
      */
     public Map<TextBlock, Double> calculateSmallerClusterPercentageBatch(List<TextSubmission> textSubmissionList) {
+        if (textSubmissionList.isEmpty()) {
+            return new HashMap<>();
+        }
+        TextExercise currentExercise = (TextExercise) textSubmissionList.get(0).getParticipation().getExercise();
+        return calculateSmallerClusterPercentageBatch(textSubmissionList, getClusterSizes(currentExercise));
+    }
+
+    private Map<TextBlock, Double> calculateSmallerClusterPercentageBatch(List<TextSubmission> textSubmissionList, ClusterSizes clusterSizes) {
         Map<TextBlock, Double> result = new HashMap<>();
         if (textSubmissionList.isEmpty()) {
             return result;
         }
         Participation participation = textSubmissionList.get(0).getParticipation();
-        TextExercise currentExercise = (TextExercise) participation.getExercise();
-        List<TextCluster> clusters = textClusterRepository.findAllByExercise(currentExercise);
+        Exercise currentExercise = participation.getExercise();
 
         if (textSubmissionList.stream().map(submission -> submission.getParticipation().getExercise()).anyMatch(elem -> elem != currentExercise)) {
             throw new IllegalArgumentException("All TextSubmissions have to be from the same Exercise");
@@ -166,28 +165,82 @@ public class TextAssessmentQueueService {
                 if (textBlock.getCluster() == null) {
                     return;
                 }
-                OptionalInt optionalLargestClusterSize = clusters.stream().mapToInt(TextCluster::openTextBlockCount).max();
 
                 // if cluster is empty
-                if (optionalLargestClusterSize.isEmpty()) {
+                if (clusterSizes.sortedOpenBlockCounts().length == 0) {
                     result.put(textBlock, 0.0);
                     return;
                 }
+                int openBlockCount = clusterSizes.openBlockCount(textBlock.getCluster());
                 // if cluster is the largest set to smaller percentage to 1
-                if (optionalLargestClusterSize.getAsInt() == textBlock.getCluster().openTextBlockCount()) {
+                if (clusterSizes.largestOpenBlockCount() == openBlockCount) {
                     result.put(textBlock, 1.0);
                     return;
                 }
 
-                int smallerClusterCount = clusters.stream().mapToInt(TextCluster::openTextBlockCount).reduce(0, (sum, elem) -> {
-                    if (elem < textBlock.getCluster().openTextBlockCount()) {
-                        return sum + 1;
-                    }
-                    return sum;
-                });
-                result.put(textBlock, (double) smallerClusterCount / clusters.size());
+                int smallerClusterCount = clusterSizes.countClustersWithLessOpenBlocks(openBlockCount);
+                result.put(textBlock, (double) smallerClusterCount / clusterSizes.sortedOpenBlockCounts().length);
             });
         });
         return result;
     }
+
+    /**
+     * Counts the blocks and open blocks of all clusters of the exercise with one query, so that the blocks of the clusters do not have to be loaded
+     *
+     * @param textExercise the exercise of the clusters
+     * @return the sizes of all clusters of the exercise
+     */
+    private ClusterSizes getClusterSizes(TextExercise textExercise) {
+        List<TextClusterRepository.TextClusterBlockCounts> blockCounts = textClusterRepository.countBlocksOfClustersByExerciseId(textExercise.getId());
+        Map<Long, Integer> blockCountPerCluster = new HashMap<>();
+        Map<Long, Integer> openBlockCountPerCluster = new HashMap<>();
+        int[] sortedOpenBlockCounts = new int[blockCounts.size()];
+        for (int i = 0; i < blockCounts.size(); i++) {
+            var clusterBlockCounts = blockCounts.get(i);
+            blockCountPerCluster.put(clusterBlockCounts.getClusterId(), Math.toIntExact(clusterBlockCounts.getBlockCount()));
+            openBlockCountPerCluster.put(clusterBlockCounts.getClusterId(), Math.toIntExact(clusterBlockCounts.getOpenBlockCount()));
+            sortedOpenBlockCounts[i] = Math.toIntExact(clusterBlockCounts.getOpenBlockCount());
+        }
+        Arrays.sort(sortedOpenBlockCounts);
+        return new ClusterSizes(blockCountPerCluster, openBlockCountPerCluster, sortedOpenBlockCounts);
+    }
+
+    /**
+     * The number of blocks and open blocks (i.e. blocks of submissions without result) of the clusters of one exercise.
+     * The sorted open block counts allow to determine the number of smaller clusters with a binary search instead of comparing all clusters for every block.
+     */
+    private record ClusterSizes(Map<Long, Integer> blockCountPerCluster, Map<Long, Integer> openBlockCountPerCluster, int[] sortedOpenBlockCounts) {
+
+        int blockCount(TextCluster cluster) {
+            return blockCountPerCluster.getOrDefault(cluster.getId(), 0);
+        }
+
+        int openBlockCount(TextCluster cluster) {
+            return openBlockCountPerCluster.getOrDefault(cluster.getId(), 0);
+        }
+
+        int largestOpenBlockCount() {
+            return sortedOpenBlockCounts[sortedOpenBlockCounts.length - 1];
+        }
+
+        /**
+         * @param openBlockCount the number of open blocks to compare with
+         * @return the number of clusters with less open blocks than the given number
+         */
+        int countClustersWithLessOpenBlocks(int openBlockCount) {
+            int low = 0;
+            int high = sortedOpenBlockCounts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sortedOpenBlockCounts[middle] < openBlockCount) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
 }
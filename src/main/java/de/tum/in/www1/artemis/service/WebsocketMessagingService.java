@@ -3,15 +3,28 @@ package de.tum.in.www1.artemis.service;
 import static de.tum.in.www1.artemis.config.Constants.*;
 
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.Optional;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.Feedback;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.participation.Participation;
@@ -24,6 +37,13 @@ import de.tum.in.www1.artemis.service.exam.ExamDateService;
 @Service
 public class WebsocketMessagingService {
 
+    private final Logger log = LoggerFactory.getLogger(WebsocketMessagingService.class);
+
+    /**
+     * The prefix for destinations of single users, see {@link org.springframework.messaging.simp.SimpMessagingTemplate#convertAndSendToUser}
+     */
+    private static final String USER_DESTINATION_PREFIX = "/user/";
+
     private final SimpMessageSendingOperations messagingTemplate;
 
     private final ExamDateService examDateService;
@@ -32,12 +52,18 @@ public class WebsocketMessagingService {
 
     private final AuthorizationCheckService authCheckService;
 
+    /**
+     * Serializes results without their participation, so that the results do not have to be modified before they are sent
+     */
+    private final ObjectMapper resultObjectMapper;
+
     public WebsocketMessagingService(SimpMessageSendingOperations messagingTemplate, ExamDateService examDateService, ExerciseDateService exerciseDateService,
-            AuthorizationCheckService authCheckService) {
+            AuthorizationCheckService authCheckService, MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter) {
         this.messagingTemplate = messagingTemplate;
         this.examDateService = examDateService;
         this.exerciseDateService = exerciseDateService;
         this.authCheckService = authCheckService;
+        this.resultObjectMapper = mappingJackson2HttpMessageConverter.getObjectMapper().copy().addMixIn(Result.class, ResultWithoutParticipationMixin.class);
     }
 
     /**
@@ -61,6 +87,9 @@ public class WebsocketMessagingService {
 
     /**
      * Broadcast a new result to the client.
+     * <p>
+     * The result is serialized only once. The payloads for students (without assessor and sensitive feedback) and for tutors, instructors and admins are derived from
+     * this serialization and each of them is encoded once, independent of the number of recipients. The given result is not modified.
      *
      * @param participation the id is used in the destination (so that only clients who have subscribed the specific participation will receive the result)
      * @param result the new result that should be sent to the client. It typically includes feedback, its participation will be cut off here to reduce the payload size.
@@ -69,11 +98,8 @@ public class WebsocketMessagingService {
      */
     public void broadcastNewResult(Participation participation, Result result) {
         // remove unnecessary properties to reduce the data sent to the client (we should not send the exercise and its potentially huge problem statement)
-        var originalParticipation = result.getParticipation();
-        result.setParticipation(originalParticipation.copyParticipationId());
-
-        final var originalAssessor = result.getAssessor();
-        final var originalFeedback = new ArrayList<>(result.getFeedbacks());
+        final ObjectNode resultNode = resultObjectMapper.valueToTree(result);
+        resultNode.set("participation", resultObjectMapper.valueToTree(result.getParticipation().copyParticipationId()));
 
         // TODO: Are there other cases that must be handled here?
         if (participation instanceof StudentParticipation studentParticipation) {
@@ -92,26 +118,85 @@ public class WebsocketMessagingService {
                     || ZonedDateTime.now().isAfter(exercise.getAssessmentDueDate());
 
             if (isReadyForRelease && !isAfterExamEnd) {
-                result.filterSensitiveInformation();
+                // students should not see information about their assessor, see Result#filterSensitiveInformation
+                final ObjectNode resultNodeWithoutAssessor = resultNode.deepCopy();
+                resultNodeWithoutAssessor.remove("assessor");
+
+                var studentsByRole = studentParticipation.getStudents().stream()
+                        .collect(Collectors.partitioningBy(student -> authCheckService.isAtLeastTeachingAssistantForExercise(exercise, student)));
+                if (!studentsByRole.get(true).isEmpty()) {
+                    byte[] payload = toJson(resultNodeWithoutAssessor);
+                    studentsByRole.get(true).forEach(user -> sendPreEncodedMessageToUser(user.getLogin(), NEW_RESULT_TOPIC, payload));
+                }
+                if (!studentsByRole.get(false).isEmpty()) {
+                    byte[] payload = toJson(filterSensitiveFeedbacks(resultNodeWithoutAssessor, result, !isWorkingPeriodOver));
+                    studentsByRole.get(false).forEach(user -> sendPreEncodedMessageToUser(user.getLogin(), NEW_RESULT_TOPIC, payload));
+                }
+            }
+        }
 
-                studentParticipation.getStudents().stream().filter(student -> authCheckService.isAtLeastTeachingAssistantForExercise(exercise, student))
-                        .forEach(user -> messagingTemplate.convertAndSendToUser(user.getLogin(), NEW_RESULT_TOPIC, result));
+        // Send to tutors, instructors and admins
+        sendPreEncodedMessage(getNonPersonalExerciseResultDestination(participation.getExercise().getId()), toJson(resultNode));
+    }
 
-                result.filterSensitiveFeedbacks(!isWorkingPeriodOver);
-                studentParticipation.getStudents().stream().filter(student -> !authCheckService.isAtLeastTeachingAssistantForExercise(exercise, student))
-                        .forEach(user -> messagingTemplate.convertAndSendToUser(user.getLogin(), NEW_RESULT_TOPIC, result));
+    /**
+     * Removes the feedbacks that students must not see from the serialized result, equivalent to {@link Result#filterSensitiveFeedbacks(boolean)}.
+     *
+     * @param resultNode      the serialized result
+     * @param result          the result, its feedbacks have to be in the same order as in the serialized result
+     * @param isBeforeDueDate if feedbacks marked with visibility 'after due date' should also be removed
+     * @return a copy of the serialized result with the remaining feedbacks and the updated test case counts
+     */
+    private static ObjectNode filterSensitiveFeedbacks(ObjectNode resultNode, Result result, boolean isBeforeDueDate) {
+        final ObjectNode filteredResultNode = resultNode.deepCopy();
+        final JsonNode feedbackNodes = resultNode.path("feedbacks");
+        final List<Feedback> feedbacks = result.getFeedbacks();
+        final ArrayNode visibleFeedbackNodes = filteredResultNode.arrayNode();
+        int testCaseCount = 0;
+        int passedTestCaseCount = 0;
+        for (int i = 0; i < feedbacks.size() && i < feedbackNodes.size(); i++) {
+            Feedback feedback = feedbacks.get(i);
+            if (!feedback.isVisibleToStudents(isBeforeDueDate)) {
+                continue;
+            }
+            visibleFeedbackNodes.add(feedbackNodes.get(i));
+            if (feedback.isTestFeedback()) {
+                testCaseCount++;
+                if (Boolean.TRUE.equals(feedback.isPositive())) {
+                    passedTestCaseCount++;
+                }
             }
         }
+        if (visibleFeedbackNodes.isEmpty()) {
+            // empty collections are not serialized, see the JsonInclude annotation of Result
+            filteredResultNode.remove("feedbacks");
+        }
+        else {
+            filteredResultNode.set("feedbacks", visibleFeedbackNodes);
+        }
+        filteredResultNode.put("testCaseCount", testCaseCount);
+        filteredResultNode.put("passedTestCaseCount", passedTestCaseCount);
+        return filteredResultNode;
+    }
 
-        // Restore information that should not go to students but tutors, instructors, and admins should still see
-        result.setAssessor(originalAssessor);
-        result.setFeedbacks(originalFeedback);
+    private byte[] toJson(ObjectNode node) {
+        try {
+            return resultObjectMapper.writeValueAsBytes(node);
+        }
+        catch (JsonProcessingException e) {
+            // cannot happen for a tree that was created by the same object mapper
+            log.error("Exception occurred while serializing a result", e);
+            throw new IllegalStateException(e);
+        }
+    }
 
-        // Send to tutors, instructors and admins
-        messagingTemplate.convertAndSend(getNonPersonalExerciseResultDestination(participation.getExercise().getId()), result);
+    private void sendPreEncodedMessage(String destination, byte[] payload) {
+        messagingTemplate.send(destination, MessageBuilder.withPayload(payload).build());
+    }
 
-        // recover the participation because we might want to use it again after this method
-        result.setParticipation(originalParticipation);
+    private void sendPreEncodedMessageToUser(String user, String destination, byte[] payload) {
+        // same encoding of the user name as in SimpMessagingTemplate#convertAndSendToUser
+        sendPreEncodedMessage(USER_DESTINATION_PREFIX + StringUtils.replace(user, "/", "%2F") + destination, payload);
     }
 
     /**
@@ -144,4 +229,13 @@ public class WebsocketMessagingService {
     private static String getNonPersonalExerciseResultDestination(String exerciseId) {
         return EXERCISE_TOPIC_ROOT + exerciseId + "/newResults";
     }
+
+    /**
+     * Mixin to ignore the participation of results when serializing them, the participation id is added separately
+     */
+    private abstract static class ResultWithoutParticipationMixin {
+
+        @JsonIgnore
+        abstract Participation getParticipation();
+    }
 }
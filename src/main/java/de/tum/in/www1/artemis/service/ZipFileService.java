@@ -66,6 +66,30 @@ public class ZipFileService {
         }
     }
 
+    /**
+     * Recursively add all files in contentRootPath to the given zip output stream, placed in the folder with the given name.
+     * In contrast to the other methods, errors while writing are not ignored, because they usually mean that the stream is no longer usable.
+     *
+     * @param zipOutputStream the stream of the zip archive to which the files are added
+     * @param contentRootPath a path to a folder: all content in this folder (and in any subfolders) will be included in the zip archive
+     * @param folderName      the name of the folder in the zip archive in which the content is placed
+     * @param contentFilter   a path filter to exclude some files, can be null to include everything
+     * @throws IOException if an error occurred while reading the files or writing to the stream
+     */
+    public void addFolderContentToZip(ZipOutputStream zipOutputStream, Path contentRootPath, String folderName, @Nullable Predicate<Path> contentFilter) throws IOException {
+        try (var files = Files.walk(contentRootPath)) {
+            var filteredPaths = files.filter(path -> Files.isReadable(path) && !Files.isDirectory(path));
+            if (contentFilter != null) {
+                filteredPaths = filteredPaths.filter(contentFilter);
+            }
+            for (Path path : filteredPaths.toList()) {
+                zipOutputStream.putNextEntry(new ZipEntry(Path.of(folderName).resolve(contentRootPath.relativize(path)).toString()));
+                Files.copy(path, zipOutputStream);
+                zipOutputStream.closeEntry();
+            }
+        }
+    }
+
     private void createZipFileFromPathStream(Path zipFilePath, Stream<Path> paths, Path pathsRoot, @Nullable Predicate<Path> extraFilter) throws IOException {
         try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zipFilePath))) {
             var filteredPaths = paths.filter(path -> Files.isReadable(path) && !Files.isDirectory(path));
@@ -17,7 +17,6 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.compass.controller.FeedbackSelector;
 import de.tum.in.www1.artemis.service.compass.controller.ModelClusterFactory;
-import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 
 @Service
@@ -33,6 +32,9 @@ public class CompassService {
 
     private final FeedbackRepository feedbackRepository;
 
+    // shared by all calls, so that the parsed models are cached between building the clusters and selecting the feedback suggestions
+    private final ModelClusterFactory modelClusterFactory = new ModelClusterFactory();
+
     public CompassService(ModelingSubmissionRepository modelingSubmissionRepository, ModelElementRepository modelElementRepository, ModelClusterRepository modelClusterRepository,
             FeedbackRepository feedbackRepository) {
         this.modelingSubmissionRepository = modelingSubmissionRepository;
@@ -63,8 +65,7 @@ public class CompassService {
         List<ModelingSubmission> submissions = modelingSubmissionRepository.findSubmittedByExerciseIdWithEagerResultsAndFeedback(modelingExercise.getId());
         log.info("ModelCluster: start building clusters of {} submissions for modeling exercise {}", submissions.size(), modelingExercise.getId());
 
-        ModelClusterFactory clusterFactory = new ModelClusterFactory();
-        List<ModelCluster> modelClusters = clusterFactory.buildClusters(submissions, modelingExercise);
+        List<ModelCluster> modelClusters = modelClusterFactory.buildClusters(submissions, modelingExercise);
         log.info("ModelClusterTimeLog: building clusters of {} submissions for modeling exercise {} done in {}", submissions.size(), modelingExercise.getId(),
                 TimeLogUtil.formatDurationFrom(start));
         modelClusterRepository.saveAll(modelClusters);
@@ -86,16 +87,15 @@ public class CompassService {
         Result result = getAutomaticResultForSubmission(modelingSubmission);
         if (result != null) {
             List<Feedback> feedbacksForSuggestion = new ArrayList<>();
-            ModelClusterFactory clusterBuilder = new ModelClusterFactory();
-            List<UMLElement> elements = clusterBuilder.getModelElements(modelingSubmission);
+            List<String> elementIds = modelClusterFactory.getModelElementIds(modelingSubmission);
 
-            // elements can be null if the modeling submission does not contain a model
+            // element ids can be null if the modeling submission does not contain a model
             // this can happen for empty submissions in exams
-            if (elements == null) {
+            if (elementIds == null) {
                 return null;
             }
 
-            List<ModelElement> modelElements = modelElementRepository.findByModelElementIdIn(elements.stream().map(UMLElement::getJSONElementID).toList());
+            List<ModelElement> modelElements = modelElementRepository.findByModelElementIdIn(elementIds);
             List<Long> clusterIds = modelElements.stream().map(ModelElement::getCluster).map(ModelCluster::getId).toList();
             List<ModelCluster> modelClusters = modelClusterRepository.findAllByIdInWithEagerElements(clusterIds);
             List<String> references = modelClusters.stream().flatMap(modelCluster -> modelCluster.getModelElements().stream())
@@ -3,12 +3,10 @@ package de.tum.in.www1.artemis.service.compass.controller;
 import static com.google.gson.JsonParser.parseString;
 
 import java.io.IOException;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +20,7 @@ import de.tum.in.www1.artemis.domain.modeling.ModelElement;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
 import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
 import de.tum.in.www1.artemis.service.compass.assessment.Context;
+import de.tum.in.www1.artemis.service.compass.umlmodel.Similarity;
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
 import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.UMLAttribute;
@@ -33,6 +32,48 @@ public class ModelClusterFactory {
 
     private final Logger log = LoggerFactory.getLogger(ModelClusterFactory.class);
 
+    /**
+     * The maximum number of parsed models that are kept in memory, the least recently used ones are removed first
+     */
+    private static final int MAXIMUM_NUMBER_OF_PARSED_MODELS = 2000;
+
+    /**
+     * The class that implements the similarity of an element type. Every implementation of {@link UMLElement#similarity(Similarity)} returns 0 for elements that are not an
+     * instance of its own class, so only elements with the same similarity type can belong to the same cluster.
+     */
+    private static final ClassValue<Class<?>> SIMILARITY_TYPE = new ClassValue<>() {
+
+        @Override
+        protected Class<?> computeValue(Class<?> elementClass) {
+            try {
+                return elementClass.getMethod("similarity", Similarity.class).getDeclaringClass();
+            }
+            catch (NoSuchMethodException e) {
+                return elementClass;
+            }
+        }
+    };
+
+    /**
+     * Parsed models by submission id and digest of the model, so that a model is not parsed again as long as the submission does not change. Clustering changes the similarity
+     * ids and contexts of the elements, so a model is removed from the cache while it is clustered and reset before it is clustered again, see
+     * {@link #checkOutModel(ModelingSubmission)}
+     */
+    private final Map<ParsedModelKey, UMLDiagram> parsedModels = Collections.synchronizedMap(new LinkedHashMap<ParsedModelKey, UMLDiagram>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ParsedModelKey, UMLDiagram> eldest) {
+            return size() > MAXIMUM_NUMBER_OF_PARSED_MODELS;
+        }
+    });
+
+    private record ParsedModelKey(long submissionId, String modelDigest) {
+
+        static ParsedModelKey of(ModelingSubmission modelingSubmission) {
+            return new ParsedModelKey(modelingSubmission.getId(), DigestUtils.sha256Hex(modelingSubmission.getModel()));
+        }
+    }
+
     /**
      * Finds the similar elements among submissions and puts them in a cluster
      *
@@ -41,23 +82,37 @@ public class ModelClusterFactory {
      * @return an unmodifiable list of clusters that have more than one element in them
      */
     public List<ModelCluster> buildClusters(List<ModelingSubmission> modelingSubmissions, ModelingExercise exercise) {
-        // The elements that has no other similar elements or are the first of their kind
-        HashSet<UMLElement> uniqueElements = new HashSet<>();
+        // The elements that has no other similar elements or are the first of their kind, grouped by their similarity type so that new elements are only compared to candidates
+        // which can be similar at all
+        Map<Class<?>, Set<UMLElement>> uniqueElements = new HashMap<>();
 
         // The map of similarity id and clusters. We are using similarity id instead of cluster id here since clusters do not exist in database yet
         Map<Integer, ModelCluster> clusters = new ConcurrentHashMap<>();
         // TODO: this should work without unproxy!
-        for (Submission submission : modelingSubmissions) {
-            // We have to unproxy here as sometimes the Submission is a Hibernate proxy resulting in a cast exception
-            // when iterating over the ModelingSubmissions directly (i.e. for (ModelingSubmission submission : submissions)).
-            ModelingSubmission modelingSubmission = (ModelingSubmission) Hibernate.unproxy(submission);
-
-            List<UMLElement> modelElements = getModelElements(modelingSubmission);
-            if (modelElements != null) {
-                for (UMLElement element : modelElements) {
-                    selectCluster(element, uniqueElements, clusters, exercise, modelingSubmission);
+        // We have to unproxy here as sometimes the Submission is a Hibernate proxy resulting in a cast exception
+        // when iterating over the ModelingSubmissions directly (i.e. for (ModelingSubmission submission : submissions)).
+        List<ModelingSubmission> submissions = modelingSubmissions.stream().map(submission -> (ModelingSubmission) Hibernate.unproxy(submission)).toList();
+
+        // Parsing the models is independent for every submission and can be done in parallel, only assigning the elements to clusters has to be done sequentially
+        List<UMLDiagram> models = submissions.parallelStream().map(this::checkOutModel).toList();
+
+        try {
+            for (int i = 0; i < submissions.size(); i++) {
+                UMLDiagram model = models.get(i);
+                if (model != null) {
+                    List<UMLElement> modelElements = model.getAllModelElements();
+                    for (UMLElement element : modelElements) {
+                        selectCluster(element, uniqueElements, clusters, exercise, submissions.get(i));
+                    }
+                    setContextOfModelElements(modelElements);
+                }
+            }
+        }
+        finally {
+            for (int i = 0; i < submissions.size(); i++) {
+                if (models.get(i) != null) {
+                    returnModel(submissions.get(i), models.get(i));
                 }
-                setContextOfModelElements(modelElements);
             }
         }
 
@@ -88,42 +143,99 @@ public class ModelClusterFactory {
     }
 
     /**
-     * Builds and returns the elements of the modeling submission
+     * Returns the ids of the elements of the modeling submission, the parsed model is cached as long as the model of the submission does not change
      *
      * @param modelingSubmission the submission that has the elements
-     * @return the uml elements that submission has
+     * @return the ids of the uml elements that submission has or null if the submission has no valid model
      */
-    public List<UMLElement> getModelElements(ModelingSubmission modelingSubmission) {
-        String modelString = modelingSubmission.getModel();
-        if (modelString != null) {
-            JsonObject modelObject = parseString(modelString).getAsJsonObject();
-            try {
-                UMLDiagram model = UMLModelParser.buildModelFromJSON(modelObject, modelingSubmission.getId());
-                return model.getAllModelElements();
-            }
-            catch (IOException e) {
-                log.error("Error while building and adding model!", e);
+    public List<String> getModelElementIds(ModelingSubmission modelingSubmission) {
+        if (modelingSubmission.getModel() == null) {
+            return null;
+        }
+        var key = ParsedModelKey.of(modelingSubmission);
+        UMLDiagram model = parsedModels.get(key);
+        if (model == null) {
+            model = parseModel(modelingSubmission);
+            if (model == null) {
+                return null;
             }
+            parsedModels.putIfAbsent(key, model);
+        }
+        // the ids never change, so it does not matter whether the model is clustered at the same time
+        return model.getAllModelElements().stream().map(UMLElement::getJSONElementID).toList();
+    }
+
+    /**
+     * Removes the parsed model of the submission from the cache or parses it, so that the caller is the only one that changes its elements.
+     * The model should be returned with {@link #returnModel(ModelingSubmission, UMLDiagram)} afterwards, so that it is not parsed again.
+     *
+     * @param modelingSubmission the submission that has the model
+     * @return the parsed model without similarity ids and contexts, or null if the submission has no valid model
+     */
+    UMLDiagram checkOutModel(ModelingSubmission modelingSubmission) {
+        if (modelingSubmission.getModel() == null) {
+            return null;
+        }
+        UMLDiagram cachedModel = parsedModels.remove(ParsedModelKey.of(modelingSubmission));
+        if (cachedModel == null) {
+            return parseModel(modelingSubmission);
+        }
+        resetSimilarityOfModelElements(cachedModel);
+        return cachedModel;
+    }
+
+    /**
+     * Removes the similarity ids and contexts of a previous clustering from all elements of the model. Some elements compare the similarity ids of their parents if these are
+     * already set, and some elements are clustered before their parents, so the ids of a previous clustering would change the clusters.
+     *
+     * @param model the model that was clustered before
+     */
+    private static void resetSimilarityOfModelElements(UMLDiagram model) {
+        for (UMLElement element : model.getAllModelElements()) {
+            element.setSimilarityID(-1);
+            element.setContext(Context.NO_CONTEXT);
+        }
+    }
+
+    /**
+     * Adds a model that was checked out with {@link #checkOutModel(ModelingSubmission)} to the cache again
+     *
+     * @param modelingSubmission the submission that has the model
+     * @param model the parsed model of the submission
+     */
+    void returnModel(ModelingSubmission modelingSubmission, UMLDiagram model) {
+        parsedModels.put(ParsedModelKey.of(modelingSubmission), model);
+    }
+
+    private UMLDiagram parseModel(ModelingSubmission modelingSubmission) {
+        JsonObject modelObject = parseString(modelingSubmission.getModel()).getAsJsonObject();
+        try {
+            return UMLModelParser.buildModelFromJSON(modelObject, modelingSubmission.getId());
+        }
+        catch (IOException e) {
+            log.error("Error while building and adding model!", e);
+            return null;
         }
-        return null;
     }
 
     /**
      * Builds and returns the elements of the modeling submission
      *
      * @param element the element to compare for other elements
-     * @param uniqueModelElements the elements that have no similar elements or the first of their kind
+     * @param uniqueModelElements the elements that have no similar elements or the first of their kind, grouped by their similarity type
      * @param clusters map of clusters and similarity ids to assign the element
      * @param exercise the exercise that submission of element belongs to
      * @param submission the submission that element belongs to
      */
-    private void selectCluster(UMLElement element, Set<UMLElement> uniqueModelElements, Map<Integer, ModelCluster> clusters, ModelingExercise exercise,
+    private void selectCluster(UMLElement element, Map<Class<?>, Set<UMLElement>> uniqueModelElements, Map<Integer, ModelCluster> clusters, ModelingExercise exercise,
             ModelingSubmission submission) {
 
         // Pair of similarity value and cluster ID
         var bestSimilarityFit = Pair.of(-1.0, -1);
 
-        for (final var knownElement : uniqueModelElements) {
+        // elements of other similarity types always have a similarity of 0, so we do not need to compare them
+        final var candidates = uniqueModelElements.computeIfAbsent(SIMILARITY_TYPE.get(element.getClass()), similarityType -> new HashSet<>());
+        for (final var knownElement : candidates) {
             final var similarity = knownElement.similarity(element);
             if (similarity > CompassConfiguration.EQUALITY_THRESHOLD && similarity > bestSimilarityFit.getFirst()) {
                 // element is similar to existing element and has a higher similarity than another element
@@ -138,7 +250,8 @@ public class ModelClusterFactory {
             cluster = clusters.get(similarityId);
         }
         else {
-            int similarityId = uniqueModelElements.size();
+            // every unique element has its own cluster
+            int similarityId = clusters.size();
             cluster = new ModelCluster();
             cluster.setMinimumSimilarity(CompassConfiguration.EQUALITY_THRESHOLD);
             cluster.setModelElementType(element.getType());
@@ -146,7 +259,7 @@ public class ModelClusterFactory {
             clusters.put(similarityId, cluster);
             // element does not fit already known element / similarity set
             element.setSimilarityID(similarityId);
-            uniqueModelElements.add(element);
+            candidates.add(element);
         }
         ModelElement modelElement = new ModelElement();
         modelElement.setCluster(cluster);
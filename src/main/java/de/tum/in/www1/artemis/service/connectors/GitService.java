@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.service.connectors;
 
+import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_RECENTLY_USED_WORKING_COPIES_CACHE;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
@@ -14,7 +16,8 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -45,9 +48,13 @@ import org.eclipse.jgit.transport.sshd.SshdSessionFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.Repository;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
@@ -57,6 +64,10 @@ import de.tum.in.www1.artemis.exception.GitException;
 import de.tum.in.www1.artemis.service.FileService;
 import de.tum.in.www1.artemis.service.ZipFileService;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class GitService {
@@ -96,9 +107,49 @@ public class GitService {
     @Value("${artemis.git.email}")
     private String artemisGitEmail;
 
-    private final Map<Path, Repository> cachedRepositories = new ConcurrentHashMap<>();
+    /**
+     * The opened repositories by local path, least recently used first. Each open repository holds file handles (e.g. of its pack files), so the least recently used ones are
+     * removed when there are more than {@link #maxOpenRepositories} and closed later, see {@link #evictedRepositories}.
+     */
+    private final Map<Path, Repository> cachedRepositories;
+
+    /**
+     * The repositories removed from {@link #cachedRepositories} by local path. Another thread might still use such a repository, so it is only closed after
+     * {@link #EVICTED_REPOSITORY_CLOSE_DELAY_IN_MILLIS}. If it is requested again before, it is added to the cache again instead of opening the repository a second time.
+     */
+    private final Map<Path, EvictedRepository> evictedRepositories = new ConcurrentHashMap<>();
+
+    private record EvictedRepository(Repository repository, long evictedAt) {
+    }
+
+    /**
+     * The running clone operations by local path, concurrent requests for the same path wait for the running clone instead of cloning again.
+     */
+    private final Map<Path, CompletableFuture<Void>> cloneInProgressOperations = new ConcurrentHashMap<>();
+
+    /**
+     * The time of the last access of every working copy opened by this server, used to delete the least recently used working copies first.
+     */
+    private final Map<Path, Long> workingCopyLastAccess = new ConcurrentHashMap<>();
+
+    /**
+     * The working copies in the repoClonePath accessed by any server within {@link #WORKING_COPY_MIN_IDLE_TIME_IN_MILLIS}, by path relative to the repoClonePath.
+     * The repoClonePath is shared by all servers in a multi node setup, so a working copy is only deleted to free disk space if no server used it recently.
+     * The entries expire automatically, every server only renews its entries once per {@link #RECENTLY_USED_WORKING_COPY_UPDATE_INTERVAL_IN_MILLIS}.
+     */
+    private final IMap<String, Long> recentlyUsedWorkingCopies;
+
+    private final int maxOpenRepositories;
 
-    private final Map<Path, Path> cloneInProgressOperations = new ConcurrentHashMap<>();
+    private final long maxWorkingCopyDiskUsage;
+
+    private final AtomicLong workingCopyDiskUsage = new AtomicLong();
+
+    private final Counter cacheHitCounter;
+
+    private final Counter cacheMissCounter;
+
+    private final Timer cloneTimer;
 
     private final FileService fileService;
 
@@ -108,19 +159,55 @@ public class GitService {
 
     private static final int JGIT_TIMEOUT_IN_SECONDS = 5;
 
+    private static final int CLONE_WAIT_TIMEOUT_IN_SECONDS = 60;
+
+    /**
+     * Working copies accessed within this time are never deleted to free disk space, because they are likely to be used again soon.
+     */
+    private static final long WORKING_COPY_MIN_IDLE_TIME_IN_MILLIS = 60 * 60 * 1000;
+
+    private static final long RECENTLY_USED_WORKING_COPY_UPDATE_INTERVAL_IN_MILLIS = 60 * 1000;
+
+    private static final long EVICTED_REPOSITORY_CLOSE_DELAY_IN_MILLIS = 10 * 60 * 1000;
+
     private static final String ANONYMIZED_STUDENT_NAME = "student";
 
     private static final String ANONYMIZED_STUDENT_EMAIL = "";
 
     private static final String REMOTE_NAME = "origin";
 
-    public GitService(FileService fileService, ZipFileService zipFileService) {
+    public GitService(FileService fileService, ZipFileService zipFileService, MeterRegistry meterRegistry, HazelcastInstance hazelcastInstance,
+            @Value("${artemis.git.working-copies.max-open-repositories:1000}") int maxOpenRepositories,
+            @Value("${artemis.git.working-copies.max-disk-usage-mb:0}") long maxWorkingCopyDiskUsageInMb) {
         log.info("file.encoding={}", System.getProperty("file.encoding"));
         log.info("sun.jnu.encoding={}", System.getProperty("sun.jnu.encoding"));
         log.info("Default Charset={}", Charset.defaultCharset());
         log.info("Default Charset in Use={}", new OutputStreamWriter(new ByteArrayOutputStream()).getEncoding());
         this.fileService = fileService;
         this.zipFileService = zipFileService;
+        this.maxOpenRepositories = maxOpenRepositories;
+        this.maxWorkingCopyDiskUsage = maxWorkingCopyDiskUsageInMb * FileUtils.ONE_MB;
+        this.cachedRepositories = Collections.synchronizedMap(new LinkedHashMap<Path, Repository>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Repository> eldest) {
+                if (size() > GitService.this.maxOpenRepositories) {
+                    evictedRepositories.put(eldest.getKey(), new EvictedRepository(eldest.getValue(), System.currentTimeMillis()));
+                    return true;
+                }
+                return false;
+            }
+        });
+        this.recentlyUsedWorkingCopies = hazelcastInstance.getMap(HAZELCAST_RECENTLY_USED_WORKING_COPIES_CACHE);
+
+        this.cacheHitCounter = Counter.builder("artemis.git.working_copies.requests").description("Requests for a working copy that was already opened").tag("result", "hit")
+                .register(meterRegistry);
+        this.cacheMissCounter = Counter.builder("artemis.git.working_copies.requests").description("Requests for a working copy that was not opened yet").tag("result", "miss")
+                .register(meterRegistry);
+        this.cloneTimer = Timer.builder("artemis.git.working_copies.clone").description("Time to clone a repository into a working copy").register(meterRegistry);
+        Gauge.builder("artemis.git.working_copies.open", cachedRepositories, Map::size).description("Number of opened working copies").register(meterRegistry);
+        Gauge.builder("artemis.git.working_copies.disk_usage", workingCopyDiskUsage, AtomicLong::get).description("Disk space used by the working copies opened by this server")
+                .baseUnit("bytes").register(meterRegistry);
     }
 
     /**
@@ -305,6 +392,9 @@ public class GitService {
      * <p>
      * This method will include the participation ID in the local path of the repository so
      * JPlag can refer back to the correct participation.
+     * <p>
+     * JPlag only compares the latest files, so the repository is cloned shallowly (without the history). An existing local repository is not updated,
+     * callers should use {@link #resetToOriginHead(Repository)} to fetch the latest commit and start with a clean state.
      *
      * @param participation Participation the remote repository belongs to.
      * @param targetPath    path where the repo is located on disk
@@ -321,12 +411,28 @@ public class GitService {
         String updatedRepoFolderName = repoFolderName.replaceAll("/[a-zA-Z0-9]*-", "/" + participation.getId() + "-");
         Path localPath = Path.of(targetPath, updatedRepoFolderName);
 
-        Repository repository = getOrCheckoutRepository(repoUrl, localPath, true);
+        Repository repository = getOrCheckoutRepository(repoUrl, repoUrl, localPath, false, defaultBranch, true);
         repository.setParticipation(participation);
 
         return repository;
     }
 
+    /**
+     * Get the local repository for a given remote repository URL without its history, e.g. for exports that only contain the latest files.
+     * If the local repo does not exist yet, only the latest commit is cloned. Otherwise, the latest commit is fetched and the repository is hard reset to it.
+     *
+     * @param repoUrl    The remote repository.
+     * @param targetPath path where the repo is located on disk
+     * @param pullOnGet  Fetch the latest commit and reset the checked out repository to it, if it does not need to be cloned.
+     * @return the repository if it could be checked out.
+     * @throws GitAPIException if the repository could not be checked out.
+     * @throws GitException    if the same repository is attempted to be cloned multiple times.
+     */
+    public Repository getOrCheckoutShallowRepository(VcsRepositoryUrl repoUrl, String targetPath, boolean pullOnGet) throws GitAPIException, GitException {
+        Path localPath = getLocalPathOfRepo(targetPath, repoUrl);
+        return getOrCheckoutRepository(repoUrl, repoUrl, localPath, pullOnGet, defaultBranch, true);
+    }
+
     /**
      * Get the local repository for a given remote repository URL. If the local repo does not exist yet, it will be checked out.
      * Saves the repo in the default path
@@ -412,6 +518,29 @@ public class GitService {
      */
     public Repository getOrCheckoutRepository(VcsRepositoryUrl sourceRepoUrl, VcsRepositoryUrl targetRepoUrl, Path localPath, boolean pullOnGet, String defaultBranch)
             throws GitAPIException, GitException, InvalidPathException {
+        return getOrCheckoutRepository(sourceRepoUrl, targetRepoUrl, localPath, pullOnGet, defaultBranch, false);
+    }
+
+    /**
+     * Get the local repository for a given remote repository URL. If the local repo does not exist yet, it will be checked out.
+     * <p>
+     * Shallow repositories only contain the latest commit of the remote branches, which is considerably faster to clone and needs less disk space.
+     * They are updated by fetching the latest commit and resetting to it instead of pulling, as merging requires the history.
+     * A shallow repository that is requested with the full history is deepened before it is used.
+     *
+     * @param sourceRepoUrl The source remote repository.
+     * @param targetRepoUrl The target remote repository.
+     * @param localPath     The local path to clone the repository to.
+     * @param pullOnGet     Pull from the remote on the checked out repository, if it does not need to be cloned.
+     * @param defaultBranch The default branch of the target repository
+     * @param shallow       True if only the latest commit is needed, false if the full history is needed
+     * @return the repository if it could be checked out.
+     * @throws GitAPIException      if the repository could not be checked out.
+     * @throws GitException         if the same repository is attempted to be cloned multiple times.
+     * @throws InvalidPathException if the repository could not be checked out Because it contains unmappable characters.
+     */
+    private Repository getOrCheckoutRepository(VcsRepositoryUrl sourceRepoUrl, VcsRepositoryUrl targetRepoUrl, Path localPath, boolean pullOnGet, String defaultBranch,
+            boolean shallow) throws GitAPIException, GitException, InvalidPathException {
         // First try to just retrieve the git repository from our server, as it might already be checked out.
         // If the sourceRepoUrl differs from the targetRepoUrl, we attempt to clone the source repo into the target directory
         Repository repository = getExistingCheckedOutRepositoryByLocalPath(localPath, targetRepoUrl, defaultBranch);
@@ -419,66 +548,81 @@ public class GitService {
         // Note: in case the actual git repository in the file system is corrupt (e.g. by accident), we will get an exception here
         // the exception will then delete the folder, so that the next attempt would be successful.
         if (repository != null) {
-            if (pullOnGet) {
+            if (!shallow && isShallow(repository)) {
+                unshallow(repository);
+            }
+            if (pullOnGet && shallow) {
+                resetToOriginHead(repository);
+            }
+            else if (pullOnGet) {
                 pull(repository);
             }
             return repository;
         }
         // If the git repository can't be found on our server, clone it from the remote.
         else {
-            waitUntilPathNotBusy(localPath);
+            var clone = new CompletableFuture<Void>();
+            var runningClone = cloneInProgressOperations.putIfAbsent(localPath, clone);
+            if (runningClone != null) {
+                // Another request already clones the repository into the same path, we use its result instead of cloning again
+                waitForClone(localPath, runningClone);
+                return getExistingCheckedOutRepositoryByLocalPath(localPath, targetRepoUrl, defaultBranch);
+            }
 
             // Clone repository.
             try {
                 var gitUriAsString = getGitUriAsString(sourceRepoUrl);
                 log.debug("Cloning from {} to {}", gitUriAsString, localPath);
-                cloneInProgressOperations.put(localPath, localPath);
                 // make sure the directory to copy into is empty
                 FileUtils.deleteDirectory(localPath.toFile());
-                Git git = cloneCommand().setURI(gitUriAsString).setDirectory(localPath.toFile()).call();
-                git.close();
+                cloneTimer.recordCallable(() -> {
+                    CloneCommand cloneCommand = cloneCommand().setURI(gitUriAsString).setDirectory(localPath.toFile());
+                    if (shallow) {
+                        cloneCommand.setDepth(1);
+                    }
+                    Git git = cloneCommand.call();
+                    git.close();
+                    return null;
+                });
+                clone.complete(null);
             }
-            catch (IOException | URISyntaxException | GitAPIException | InvalidPathException e) {
+            catch (Exception e) {
                 // cleanup the folder to avoid problems in the future.
                 // 'deleteQuietly' is the same as 'deleteDirectory' but is not throwing an exception, thus we avoid another try-catch block.
                 FileUtils.deleteQuietly(localPath.toFile());
+                clone.completeExceptionally(e);
                 throw new GitException(e);
             }
             finally {
                 // make sure that cloneInProgress is released
-                cloneInProgressOperations.remove(localPath);
+                cloneInProgressOperations.remove(localPath, clone);
             }
             return getExistingCheckedOutRepositoryByLocalPath(localPath, targetRepoUrl, defaultBranch);
         }
     }
 
     /**
-     * Waits until no clone operation is running for the given path.
-     *
-     * Retries once a second for up to {@link #JGIT_TIMEOUT_IN_SECONDS} seconds before giving up.
+     * Waits until the running clone operation for the given path is finished.
      *
-     * @param localPath The path in which a clone operation should be made.
+     * @param localPath    The path in which the clone operation is running.
+     * @param runningClone The running clone operation.
      * @throws CanceledException If the waiting has been interrupted.
-     * @throws GitException If the path is still busy after the maximum number of retries.
+     * @throws GitException      If the running clone operation failed or did not finish within {@link #CLONE_WAIT_TIMEOUT_IN_SECONDS} seconds.
      */
-    private void waitUntilPathNotBusy(final Path localPath) throws CanceledException, GitException {
-        int remainingSeconds = JGIT_TIMEOUT_IN_SECONDS;
-
-        while (cloneInProgressOperations.containsKey(localPath)) {
-            log.warn("Clone is already in progress. This will lead to an error. Wait for a second");
-            try {
-                Thread.sleep(1000);
-            }
-            catch (InterruptedException ex) {
-                throw new CanceledException("Waiting for local path to be free for cloning got interrupted.");
-            }
-
-            if (remainingSeconds <= 0) {
-                throw new GitException("Cannot clone the same repository multiple times");
-            }
-            else {
-                remainingSeconds--;
-            }
+    private void waitForClone(final Path localPath, final CompletableFuture<Void> runningClone) throws CanceledException, GitException {
+        log.debug("Clone into {} is already in progress, wait for it to finish", localPath);
+        try {
+            runningClone.get(CLONE_WAIT_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CanceledException("Waiting for local path to be free for cloning got interrupted.");
+        }
+        catch (ExecutionException ex) {
+            throw new GitException("The clone of the same repository failed", ex.getCause());
+        }
+        catch (TimeoutException ex) {
+            throw new GitException("Cannot clone the same repository multiple times");
         }
     }
 
@@ -548,14 +692,26 @@ public class GitService {
             if (!Files.exists(localPath)) {
                 // In this case we should remove the repository if cached, because it can't exist anymore.
                 cachedRepositories.remove(localPath);
+                evictedRepositories.remove(localPath);
+                workingCopyLastAccess.remove(localPath);
                 return null;
             }
 
+            recordWorkingCopyAccess(localPath);
             // Check if the repository is already cached in the server's session.
             Repository cachedRepository = cachedRepositories.get(localPath);
             if (cachedRepository != null) {
+                cacheHitCounter.increment();
                 return cachedRepository;
             }
+            // A recently evicted repository has not been closed yet and might still be used by other threads, so we use it again
+            EvictedRepository evictedRepository = evictedRepositories.remove(localPath);
+            if (evictedRepository != null) {
+                cacheHitCounter.increment();
+                cachedRepositories.put(localPath, evictedRepository.repository());
+                return evictedRepository.repository();
+            }
+            cacheMissCounter.increment();
             // Else try to retrieve the git repository from our server. It could e.g. be the case that the folder is there, but there is no .git folder in it!
 
             // Open the repository from the filesystem
@@ -720,10 +876,39 @@ public class GitService {
         try (Git git = new Git(repo)) {
             log.debug("Fetch {}", repo.getLocalPath());
             setRemoteUrl(repo);
-            fetchCommand(git).setForceUpdate(true).setRemoveDeletedRefs(true).call();
+            FetchCommand fetchCommand = fetchCommand(git).setForceUpdate(true).setRemoveDeletedRefs(true);
+            if (isShallow(repo)) {
+                // only fetch the latest commits, otherwise all commits since the clone would be fetched
+                fetchCommand.setDepth(1);
+            }
+            fetchCommand.call();
         }
     }
 
+    /**
+     * Fetches the full history of a shallow repository.
+     *
+     * @param repo Local Repository Object.
+     * @throws GitAPIException if the fetch failed.
+     */
+    private void unshallow(Repository repo) throws GitAPIException {
+        try (Git git = new Git(repo)) {
+            log.debug("Fetch the full history of {}", repo.getLocalPath());
+            setRemoteUrl(repo);
+            fetchCommand(git).setUnshallow(true).call();
+        }
+    }
+
+    /**
+     * Checks whether the repository has been cloned without its full history.
+     *
+     * @param repo Local Repository Object.
+     * @return true if the repository only contains the latest commits
+     */
+    private static boolean isShallow(Repository repo) {
+        return Files.exists(repo.getDirectory().toPath().resolve("shallow"));
+    }
+
     /**
      * Change the remote repository url to the currently used authentication mechanism (either ssh or https)
      *
@@ -1165,6 +1350,8 @@ public class GitService {
     public void deleteLocalRepository(Repository repository) throws IOException {
         Path repoPath = repository.getLocalPath();
         cachedRepositories.remove(repoPath);
+        evictedRepositories.remove(repoPath);
+        workingCopyLastAccess.remove(repoPath);
         // if repository is not closed, it causes weird IO issues when trying to delete the repository again
         // java.io.IOException: Unable to delete file: ...\.git\objects\pack\...
         repository.closeBeforeDelete();
@@ -1209,6 +1396,127 @@ public class GitService {
         }
     }
 
+    /**
+     * Stores the access of the working copy. Accesses of working copies in the shared repoClonePath are also shared with the other servers, at most once per
+     * {@link #RECENTLY_USED_WORKING_COPY_UPDATE_INTERVAL_IN_MILLIS} per working copy to avoid a remote call for every access.
+     *
+     * @param localPath the path of the working copy
+     */
+    private void recordWorkingCopyAccess(Path localPath) {
+        long now = System.currentTimeMillis();
+        Long previousAccess = workingCopyLastAccess.put(localPath, now);
+        if (previousAccess == null || previousAccess < now - RECENTLY_USED_WORKING_COPY_UPDATE_INTERVAL_IN_MILLIS) {
+            getPathRelativeToRepoClonePath(localPath).ifPresent(relativePath -> recentlyUsedWorkingCopies.set(relativePath, now,
+                    WORKING_COPY_MIN_IDLE_TIME_IN_MILLIS + RECENTLY_USED_WORKING_COPY_UPDATE_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * @param localPath the path of a working copy
+     * @return the path relative to the repoClonePath, or empty if the working copy is not in the repoClonePath (e.g. a temporary download)
+     */
+    private Optional<String> getPathRelativeToRepoClonePath(Path localPath) {
+        var repoClonePathRoot = Path.of(repoClonePath).toAbsolutePath().normalize();
+        var absolutePath = localPath.toAbsolutePath().normalize();
+        if (!absolutePath.startsWith(repoClonePathRoot)) {
+            return Optional.empty();
+        }
+        return Optional.of(repoClonePathRoot.relativize(absolutePath).toString());
+    }
+
+    /**
+     * Closes the repositories that were evicted from the cache of opened repositories and have not been requested again since then, so that their file handles are released.
+     */
+    @Scheduled(fixedDelay = 60 * 1000, initialDelay = 60 * 1000) // every minute
+    public void closeEvictedRepositories() {
+        long evictedBefore = System.currentTimeMillis() - EVICTED_REPOSITORY_CLOSE_DELAY_IN_MILLIS;
+        evictedRepositories.forEach((localPath, evictedRepository) -> {
+            if (evictedRepository.evictedAt() < evictedBefore && evictedRepositories.remove(localPath, evictedRepository)) {
+                evictedRepository.repository().close();
+            }
+        });
+    }
+
+    /**
+     * Updates the disk usage of the working copies opened by this server. If a disk quota is configured and exceeded, the least recently used working copies in the
+     * repoClonePath are deleted until the disk usage is below the quota again. This is safe because they are cloned again on the next access. Working copies that have been
+     * accessed recently by any server, that are being cloned or that contain changes not pushed to the remote repository are never deleted.
+     */
+    @Scheduled(fixedDelay = 10 * 60 * 1000, initialDelay = 10 * 60 * 1000) // every 10 minutes
+    public void enforceWorkingCopyDiskQuota() {
+        Map<Path, Long> sizes = new HashMap<>();
+        for (Path path : workingCopyLastAccess.keySet()) {
+            try {
+                sizes.put(path, FileUtils.sizeOfDirectory(path.toFile()));
+            }
+            catch (IllegalArgumentException | UncheckedIOException ex) {
+                // the working copy has been deleted in the meantime
+                workingCopyLastAccess.remove(path);
+            }
+        }
+        long diskUsage = sizes.values().stream().mapToLong(Long::longValue).sum();
+        if (maxWorkingCopyDiskUsage > 0 && diskUsage > maxWorkingCopyDiskUsage) {
+            log.info("Working copies use {} MB, which exceeds the quota of {} MB. Delete the least recently used working copies", diskUsage / FileUtils.ONE_MB,
+                    maxWorkingCopyDiskUsage / FileUtils.ONE_MB);
+            var repoClonePathRoot = Path.of(repoClonePath).toAbsolutePath();
+            long idleSince = System.currentTimeMillis() - WORKING_COPY_MIN_IDLE_TIME_IN_MILLIS;
+            var leastRecentlyUsed = workingCopyLastAccess.entrySet().stream().filter(entry -> entry.getValue() < idleSince && sizes.containsKey(entry.getKey()))
+                    .filter(entry -> entry.getKey().toAbsolutePath().startsWith(repoClonePathRoot)).sorted(Map.Entry.comparingByValue()).toList();
+            for (var entry : leastRecentlyUsed) {
+                if (diskUsage <= maxWorkingCopyDiskUsage) {
+                    break;
+                }
+                if (deleteIdleWorkingCopy(entry.getKey(), entry.getValue())) {
+                    diskUsage -= sizes.get(entry.getKey());
+                }
+            }
+        }
+        workingCopyDiskUsage.set(diskUsage);
+    }
+
+    /**
+     * Deletes a working copy if it has not been accessed since the given time, is not being cloned and does not contain any changes that are not pushed to the remote.
+     *
+     * @param localPath  the path of the working copy
+     * @param lastAccess the last access time of the working copy when it was selected for deletion
+     * @return true if the working copy was deleted
+     */
+    private boolean deleteIdleWorkingCopy(Path localPath, long lastAccess) {
+        try {
+            try (Git git = Git.open(localPath.toFile())) {
+                var trackingStatus = BranchTrackingStatus.of(git.getRepository(), git.getRepository().getBranch());
+                if (trackingStatus == null || trackingStatus.getAheadCount() > 0 || !git.status().call().isClean()) {
+                    return false;
+                }
+            }
+            if (cloneInProgressOperations.containsKey(localPath) || !Objects.equals(workingCopyLastAccess.get(localPath), lastAccess)) {
+                // the working copy is used again
+                return false;
+            }
+            var relativePath = getPathRelativeToRepoClonePath(localPath);
+            if (relativePath.isEmpty() || recentlyUsedWorkingCopies.containsKey(relativePath.get())) {
+                // the working copy has been used by another server recently
+                return false;
+            }
+            Repository repository = cachedRepositories.remove(localPath);
+            EvictedRepository evictedRepository = evictedRepositories.remove(localPath);
+            workingCopyLastAccess.remove(localPath);
+            if (repository != null) {
+                repository.closeBeforeDelete();
+            }
+            if (evictedRepository != null) {
+                evictedRepository.repository().closeBeforeDelete();
+            }
+            FileUtils.deleteDirectory(localPath.toFile());
+            log.debug("Deleted idle working copy at {}", localPath);
+            return true;
+        }
+        catch (IOException | GitAPIException ex) {
+            log.warn("Cannot delete idle working copy at {}: {}", localPath, ex.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Zip the content of a git repository that contains a participation.
      *
@@ -1219,21 +1527,33 @@ public class GitService {
      * @throws IOException if the zipping process failed.
      */
     public Path zipRepositoryWithParticipation(Repository repo, String repositoryDir, boolean hideStudentName) throws IOException, UncheckedIOException {
+        return zipRepository(repo, getExportedRepositoryName(repo, hideStudentName) + ".zip", repositoryDir, null);
+    }
+
+    /**
+     * Get the name under which the repository of a participation is exported, i.e. the name of its zip file or its folder in an export archive.
+     *
+     * @param repo            Local Repository Object.
+     * @param hideStudentName option to hide the student name in the exported name
+     * @return the exported name without file extension
+     */
+    public String getExportedRepositoryName(Repository repo, boolean hideStudentName) {
         var exercise = repo.getParticipation().getProgrammingExercise();
         var courseShortName = exercise.getCourseViaExerciseGroupOrCourseMember().getShortName();
         var participation = (ProgrammingExerciseStudentParticipation) repo.getParticipation();
 
-        // The zip filename is either the student login, team short name or some default string.
+        // The name is either the student login, team short name or some default string.
         var studentTeamOrDefault = Objects.requireNonNullElse(participation.getParticipantIdentifier(), "student-submission" + repo.getParticipation().getId());
 
-        String zipRepoName = fileService.removeIllegalCharacters(courseShortName + "-" + exercise.getTitle() + "-" + participation.getId());
+        String exportedRepoName = fileService.removeIllegalCharacters(courseShortName + "-" + exercise.getTitle() + "-" + participation.getId());
         if (hideStudentName) {
-            zipRepoName += "-student-submission.git.zip";
+            exportedRepoName += "-student-submission.git";
         }
         else {
-            zipRepoName += "-" + studentTeamOrDefault + ".zip";
+            exportedRepoName += "-" + studentTeamOrDefault;
         }
-        return zipRepository(repo, zipRepoName, repositoryDir, null);
+        // Strip whitespaces from name
+        return exportedRepoName.replaceAll("\\s", "");
     }
 
     /**
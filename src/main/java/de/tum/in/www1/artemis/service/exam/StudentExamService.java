@@ -6,14 +6,19 @@ import static de.tum.in.www1.artemis.service.util.TimeLogUtil.formatDurationFrom
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
@@ -48,6 +53,10 @@ public class StudentExamService {
 
     private static final String EXAM_EXERCISE_START_STATUS_TOPIC = "/topic/exams/%s/exercise-start-status";
 
+    private static final long EXERCISE_START_STATUS_INTERVAL_MS = 1000;
+
+    private static final Set<InitializationState> INITIALIZED_STATES = EnumSet.of(InitializationState.INITIALIZED, InitializationState.FINISHED);
+
     private final Logger log = LoggerFactory.getLogger(StudentExamService.class);
 
     private final ParticipationService participationService;
@@ -82,11 +91,19 @@ public class StudentExamService {
 
     private final SimpMessageSendingOperations messagingTemplate;
 
+    private final SubmissionRepository submissionRepository;
+
+    /**
+     * Executor shared by all exams to set up the participations that cannot be created in bulk, e.g. forking and unlocking the repositories of programming exercises.
+     */
+    private final ExecutorService exerciseStartExecutor;
+
     public StudentExamService(StudentExamRepository studentExamRepository, UserRepository userRepository, ParticipationService participationService,
             QuizSubmissionRepository quizSubmissionRepository, TextSubmissionRepository textSubmissionRepository, ModelingSubmissionRepository modelingSubmissionRepository,
             SubmissionVersionService submissionVersionService, ProgrammingExerciseParticipationService programmingExerciseParticipationService, SubmissionService submissionService,
             ProgrammingSubmissionRepository programmingSubmissionRepository, StudentParticipationRepository studentParticipationRepository, ExamQuizService examQuizService,
-            ProgrammingExerciseRepository programmingExerciseRepository, ExamRepository examRepository, CacheManager cacheManager, SimpMessageSendingOperations messagingTemplate) {
+            ProgrammingExerciseRepository programmingExerciseRepository, ExamRepository examRepository, CacheManager cacheManager, SimpMessageSendingOperations messagingTemplate,
+            SubmissionRepository submissionRepository, @Qualifier("examExerciseStartExecutor") ExecutorService exerciseStartExecutor) {
         this.participationService = participationService;
         this.studentExamRepository = studentExamRepository;
         this.userRepository = userRepository;
@@ -103,6 +120,8 @@ public class StudentExamService {
         this.examRepository = examRepository;
         this.cacheManager = cacheManager;
         this.messagingTemplate = messagingTemplate;
+        this.submissionRepository = submissionRepository;
+        this.exerciseStartExecutor = exerciseStartExecutor;
     }
 
     /**
@@ -442,18 +461,38 @@ public class StudentExamService {
      */
     private void setUpExerciseParticipationsAndSubmissionsWithInitializationDate(StudentExam studentExam, List<StudentParticipation> generatedParticipations,
             ZonedDateTime startedDate) {
+        setUpExerciseParticipationsAndSubmissions(studentExam, generatedParticipations, startedDate, this::hasInitializedParticipation);
+    }
+
+    /**
+     * Checks in the database whether the student already has a fully initialized participation in the exercise.
+     *
+     * @param exercise the exercise
+     * @param student  the student
+     * @return true if a participation of the student was found that was already fully initialized
+     */
+    private boolean hasInitializedParticipation(Exercise exercise, User student) {
+        var studentParticipations = participationService.findByExerciseAndStudentId(exercise, student.getId());
+        return studentParticipations.stream().anyMatch(studentParticipation -> studentParticipation.getParticipant().equals(student)
+                && studentParticipation.getInitializationState() != null && studentParticipation.getInitializationState().hasCompletedState(InitializationState.INITIALIZED));
+    }
+
+    /**
+     * Starts all exercises of the student exam in which the student does not have a fully initialized participation yet.
+     *
+     * @param studentExam                 the studentExam for which the new participations should be set up
+     * @param generatedParticipations     the list where the newly generated participations should be added
+     * @param startedDate                 the Date to which the InitializationDate should be set or null
+     * @param hasInitializedParticipation checks whether the given student already has a fully initialized participation in the given exercise
+     */
+    private void setUpExerciseParticipationsAndSubmissions(StudentExam studentExam, List<StudentParticipation> generatedParticipations, ZonedDateTime startedDate,
+            BiPredicate<Exercise, User> hasInitializedParticipation) {
         User student = studentExam.getUser();
 
         for (Exercise exercise : studentExam.getExercises()) {
             SecurityUtils.setAuthorizationObject();
-            // NOTE: it's not ideal to invoke the next line several times (2000 student exams with 10 exercises would lead to 20.000 database calls to find all participations).
-            // One optimization could be that we load all participations per exercise once (or per exercise) into a large list (10 * 2000 = 20.000 participations) and then check if
-            // those participations exist in Java, however this might lead to memory issues and might be more difficult to program (and more difficult to understand)
-            // TODO: directly check in the database if the entry exists for the student, exercise and InitializationState.INITIALIZED
-            var studentParticipations = participationService.findByExerciseAndStudentId(exercise, student.getId());
             // we start the exercise if no participation was found that was already fully initialized
-            if (studentParticipations.stream().noneMatch(studentParticipation -> studentParticipation.getParticipant().equals(student)
-                    && studentParticipation.getInitializationState() != null && studentParticipation.getInitializationState().hasCompletedState(InitializationState.INITIALIZED))) {
+            if (!hasInitializedParticipation.test(exercise, student)) {
                 try {
                     // Load lazy property
                     if (exercise instanceof ProgrammingExercise programmingExercise && !Hibernate.isInitialized(programmingExercise.getTemplateParticipation())) {
@@ -506,27 +545,113 @@ public class StudentExamService {
         var failedExamsCounter = new AtomicInteger(0);
         var startedAt = ZonedDateTime.now();
         var lock = new ReentrantLock();
+        var lastStatusUpdate = new AtomicLong(System.currentTimeMillis());
         sendAndCacheExercisePreparationStatus(examId, 0, 0, studentExams.size(), 0, startedAt, lock);
-        var threadPool = Executors.newFixedThreadPool(10);
-        var futures = studentExams.stream()
-                .map(studentExam -> CompletableFuture.runAsync(() -> setUpExerciseParticipationsAndSubmissions(studentExam, generatedParticipations), threadPool)
-                        .thenRun(() -> sendAndCacheExercisePreparationStatus(examId, finishedExamsCounter.incrementAndGet(), failedExamsCounter.get(), studentExams.size(),
-                                generatedParticipations.size(), startedAt, lock))
-                        .exceptionally(throwable -> {
-                            log.error("Exception while preparing exercises for student exam " + studentExam.getId(), throwable);
-                            sendAndCacheExercisePreparationStatus(examId, finishedExamsCounter.get(), failedExamsCounter.incrementAndGet(), studentExams.size(),
-                                    generatedParticipations.size(), startedAt, lock);
-                            return null;
-                        }))
-                .toList().toArray(new CompletableFuture<?>[studentExams.size()]);
-        return CompletableFuture.allOf(futures).thenApply((emtpy) -> {
-            threadPool.shutdown();
+
+        return CompletableFuture.supplyAsync(() -> prepareParticipations(studentExams, generatedParticipations), exerciseStartExecutor).thenCompose(initializedStudentIds -> {
+            // Set up the remaining participations (e.g. the repositories of programming exercises) per student exam, students with an initialized participation are skipped
+            BiPredicate<Exercise, User> isInitialized = (exercise, student) -> initializedStudentIds.get(exercise.getId()).contains(student.getId());
+            var futures = studentExams.stream()
+                    .map(studentExam -> CompletableFuture.runAsync(() -> setUpExerciseParticipationsAndSubmissions(studentExam, generatedParticipations, null, isInitialized),
+                            exerciseStartExecutor)
+                            .thenRun(() -> {
+                                finishedExamsCounter.incrementAndGet();
+                                sendExercisePreparationStatusPeriodically(examId, finishedExamsCounter, failedExamsCounter, studentExams.size(), generatedParticipations, startedAt,
+                                        lock, lastStatusUpdate);
+                            }).exceptionally(throwable -> {
+                                log.error("Exception while preparing exercises for student exam " + studentExam.getId(), throwable);
+                                failedExamsCounter.incrementAndGet();
+                                sendExercisePreparationStatusPeriodically(examId, finishedExamsCounter, failedExamsCounter, studentExams.size(), generatedParticipations, startedAt,
+                                        lock, lastStatusUpdate);
+                                return null;
+                            }))
+                    .toArray(CompletableFuture<?>[]::new);
+            return CompletableFuture.allOf(futures);
+        }).thenApply(empty -> {
             sendAndCacheExercisePreparationStatus(examId, finishedExamsCounter.get(), failedExamsCounter.get(), studentExams.size(), generatedParticipations.size(), startedAt,
                     lock);
             return generatedParticipations.size();
         });
     }
 
+    /**
+     * Prepares the participations of all student exams of an exam with few database calls:
+     * <ol>
+     * <li>loads the students that already have an initialized participation with one query per exercise (instead of one query per student exam and exercise)</li>
+     * <li>creates the missing participations and initial submissions of all exercises except programming exercises in bulk</li>
+     * </ol>
+     *
+     * @param studentExams            the student exams of the exam
+     * @param generatedParticipations the list where the newly generated participations should be added
+     * @return the ids of the students with an initialized participation by exercise id, including the participations created in bulk
+     */
+    private Map<Long, Set<Long>> prepareParticipations(Set<StudentExam> studentExams, List<StudentParticipation> generatedParticipations) {
+        SecurityUtils.setAuthorizationObject();
+        var exercises = studentExams.stream().flatMap(studentExam -> studentExam.getExercises().stream())
+                .collect(Collectors.toMap(Exercise::getId, Function.identity(), (exercise, duplicate) -> exercise));
+        Map<Long, Set<Long>> initializedStudentIds = new HashMap<>();
+        for (Exercise exercise : exercises.values()) {
+            Set<Long> studentIds = ConcurrentHashMap.newKeySet();
+            studentIds.addAll(studentParticipationRepository.findStudentIdsByExerciseIdAndInitializationStateIn(exercise.getId(), INITIALIZED_STATES));
+            initializedStudentIds.put(exercise.getId(), studentIds);
+            if (!(exercise instanceof ProgrammingExercise)) {
+                try {
+                    var participations = createParticipationsAndSubmissions(exercise, studentExams);
+                    participations.forEach(participation -> studentIds.add(participation.getStudent().get().getId()));
+                    generatedParticipations.addAll(participations);
+                }
+                catch (Exception ex) {
+                    // the participations are then created one by one for each student exam
+                    log.warn("FAILED: Create participations in bulk for exercise {} with exception: {}", exercise.getId(), ex.getMessage(), ex);
+                }
+            }
+        }
+        return initializedStudentIds;
+    }
+
+    /**
+     * Creates an initialized participation with an initial (empty) submission for all students of the given student exams that contain the exercise and do not have any
+     * participation in it yet. Students with an existing, but not yet initialized participation are not considered here.
+     *
+     * @param exercise     the exercise, must not be a programming exercise
+     * @param studentExams the student exams of the exam
+     * @return the created participations
+     */
+    private List<StudentParticipation> createParticipationsAndSubmissions(Exercise exercise, Set<StudentExam> studentExams) {
+        var studentIdsWithParticipation = studentParticipationRepository.findStudentIdsByExerciseId(exercise.getId());
+        var initializationDate = ZonedDateTime.now();
+        var participations = studentExams.stream().filter(studentExam -> studentExam.getUser() != null && studentExam.getExercises().contains(exercise))
+                .map(StudentExam::getUser).filter(student -> !studentIdsWithParticipation.contains(student.getId())).distinct().map(student -> {
+                    var participation = new StudentParticipation();
+                    participation.setInitializationState(InitializationState.INITIALIZED);
+                    participation.setInitializationDate(initializationDate);
+                    participation.setExercise(exercise);
+                    participation.setParticipant(student);
+                    return participation;
+                }).toList();
+        if (participations.isEmpty()) {
+            return participations;
+        }
+        var savedParticipations = studentParticipationRepository.saveAll(participations);
+        var submissions = savedParticipations.stream().map(participation -> submissionRepository.createSubmission(participation, exercise, null)).toList();
+        submissionRepository.saveAll(submissions);
+        submissions.forEach(submission -> submission.getParticipation().addSubmission(submission));
+        log.info("SUCCESS: Created {} participations in bulk for exercise {}", savedParticipations.size(), exercise.getId());
+        return savedParticipations;
+    }
+
+    /**
+     * Sends and caches the current preparation status at most once per {@link #EXERCISE_START_STATUS_INTERVAL_MS} instead of once per prepared student exam.
+     */
+    private void sendExercisePreparationStatusPeriodically(Long examId, AtomicInteger finished, AtomicInteger failed, int overall, List<StudentParticipation> participations,
+            ZonedDateTime startTime, ReentrantLock lock, AtomicLong lastStatusUpdate) {
+        long now = System.currentTimeMillis();
+        long last = lastStatusUpdate.get();
+        if (now - last >= EXERCISE_START_STATUS_INTERVAL_MS && lastStatusUpdate.compareAndSet(last, now)) {
+            sendAndCacheExercisePreparationStatus(examId, finished.get(), failed.get(), overall, participations.size(), startTime, lock);
+        }
+    }
+
     private void sendAndCacheExercisePreparationStatus(Long examId, int finished, int failed, int overall, int participations, ZonedDateTime startTime, ReentrantLock lock) {
         // Synchronizing and comparing to avoid race conditions here
         // Otherwise it can happen that a status with less completed exams is sent after one with a higher value
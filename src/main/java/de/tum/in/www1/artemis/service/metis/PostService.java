@@ -1,6 +1,8 @@
 package de.tum.in.www1.artemis.service.metis;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
@@ -14,8 +16,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 
-import com.google.common.collect.Lists;
-
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.Lecture;
@@ -535,14 +535,31 @@ public class PostService extends PostingService {
      * @return list of similar posts
      */
     public List<Post> getSimilarPosts(Long courseId, Post post) {
-        PostContextFilter postContextFilter = new PostContextFilter();
-        postContextFilter.setCourseId(courseId);
-        List<Post> coursePosts = this.getCoursePosts(postContextFilter, false, null).stream().collect(Collectors.toCollection(ArrayList::new));
-
-        // sort course posts by calculated similarity scores
-        coursePosts.sort(Comparator.comparing(coursePost -> postContentCompareStrategy.performSimilarityCheck(post, coursePost)));
-        setAuthorRoleOfPostings(coursePosts);
-        return Lists.reverse(coursePosts).stream().limit(TOP_K_SIMILARITY_RESULTS).toList();
+        final User user = userRepository.getUserWithGroupsAndAuthorities();
+        preCheckUserAndCourse(user, courseId);
+
+        // score every post of the course only once and only keep the k most similar ones, the post with the lowest score of them is at the head of the queue
+        ToDoubleFunction<Post> similarityCheck = postContentCompareStrategy.prepareSimilarityCheck(post);
+        PriorityQueue<ScoredPost> mostSimilarPosts = new PriorityQueue<>(TOP_K_SIMILARITY_RESULTS + 1, Comparator.comparingDouble(ScoredPost::score));
+        for (Post coursePost : postRepository.findPostTitlesAndContentsForCourse(courseId)) {
+            mostSimilarPosts.add(new ScoredPost(coursePost.getId(), similarityCheck.applyAsDouble(coursePost)));
+            if (mostSimilarPosts.size() > TOP_K_SIMILARITY_RESULTS) {
+                mostSimilarPosts.poll();
+            }
+        }
+        List<Long> similarPostIds = mostSimilarPosts.stream().sorted(Comparator.comparingDouble(ScoredPost::score).reversed()).map(ScoredPost::postId).toList();
+
+        // only the most similar posts are loaded completely
+        Map<Long, Post> similarPostsById = postRepository.findAllById(similarPostIds).stream().collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<Post> similarPosts = similarPostIds.stream().map(similarPostsById::get).filter(Objects::nonNull).collect(Collectors.toCollection(ArrayList::new));
+
+        // protect sample solution, grading instructions, etc.
+        similarPosts.stream().map(Post::getExercise).filter(Objects::nonNull).forEach(Exercise::filterSensitiveInformation);
+        setAuthorRoleOfPostings(similarPosts);
+        return similarPosts;
+    }
+
+    private record ScoredPost(long postId, double score) {
     }
 
     /**
@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.service.metis.similarity;
 
+import java.util.function.ToDoubleFunction;
+
 import de.tum.in.www1.artemis.domain.metis.Post;
 
 /**
@@ -15,4 +17,13 @@ public interface PostSimilarityComparisonStrategy {
      * @return the calculated similarity score
      */
     Double performSimilarityCheck(Post post1, Post post2);
+
+    /**
+     * Prepares the comparison of one post with many other posts. Strategies can override this method to process the given post only once instead of for every comparison.
+     * @param post post object that all other posts are compared against
+     * @return a function that calculates the similarity score of another post and the given post
+     */
+    default ToDoubleFunction<Post> prepareSimilarityCheck(Post post) {
+        return otherPost -> performSimilarityCheck(post, otherPost);
+    }
 }
@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.service.metis.similarity;
 
+import java.util.function.ToDoubleFunction;
+
 import org.apache.commons.text.similarity.JaccardSimilarity;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
@@ -18,13 +20,20 @@ public class TitleJaccardSimilarityCompareStrategy implements PostSimilarityComp
 
     @Override
     public Double performSimilarityCheck(Post post1, Post post2) {
+        return prepareSimilarityCheck(post1).applyAsDouble(post2);
+    }
+
+    @Override
+    public ToDoubleFunction<Post> prepareSimilarityCheck(Post post) {
         JaccardSimilarity jaccardSimilarity = new JaccardSimilarity();
-        Double similarityScore = 0.0;
+        String title = post.getTitle() != null ? post.getTitle().toLowerCase() : null;
 
-        // we only compute a similarity score if the title of both posts are defined
-        if (post1.getTitle() != null && post2.getTitle() != null) {
-            similarityScore = jaccardSimilarity.apply(post1.getTitle().toLowerCase(), post2.getTitle().toLowerCase());
-        }
-        return similarityScore;
+        return otherPost -> {
+            // we only compute a similarity score if the title of both posts are defined
+            if (title == null || otherPost.getTitle() == null) {
+                return 0.0;
+            }
+            return jaccardSimilarity.apply(title, otherPost.getTitle().toLowerCase());
+        };
     }
 }
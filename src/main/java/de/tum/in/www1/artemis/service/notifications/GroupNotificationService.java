@@ -371,8 +371,7 @@ public class GroupNotificationService {
      */
     public void prepareGroupNotificationEmail(GroupNotification notification, List<User> users, Object notificationSubject) {
         // find the users that have this notification type & email communication channel activated
-        List<User> usersThatShouldReceiveAnEmail = users.stream()
-                .filter(user -> notificationSettingsService.checkIfNotificationOrEmailIsAllowedBySettingsForGivenUser(notification, user, EMAIL)).toList();
+        List<User> usersThatShouldReceiveAnEmail = notificationSettingsService.filterUsersByNotificationOrEmailSettings(notification, users, EMAIL);
 
         if (!usersThatShouldReceiveAnEmail.isEmpty()) {
             mailService.sendNotificationEmailForMultipleUsers(notification, usersThatShouldReceiveAnEmail, notificationSubject);
@@ -144,8 +144,38 @@ public class NotificationSettingsService {
      */
     public boolean checkIfNotificationOrEmailIsAllowedBySettingsForGivenUser(Notification notification, User user, NotificationSettingsCommunicationChannel communicationChannel) {
         NotificationType type = findCorrespondingNotificationType(notification.getTitle());
-
         Set<NotificationSetting> decidedNotificationSettings = notificationSettingRepository.findAllNotificationSettingsForRecipientWithId(user.getId());
+        return isNotificationTypeAllowedBySettings(type, decidedNotificationSettings, communicationChannel);
+    }
+
+    /**
+     * Filters the provided users by their notification settings, i.e. keeps the users that allow the notification (i.e. its type based on title)
+     * The notification settings of all users are loaded with one query, so this should be preferred to checking every user on its own
+     * @param notification which type (based on title) should be checked
+     * @param users whose notification settings will be used for filtering
+     * @param communicationChannel which channel to use (e.g. email or webapp)
+     * @return the users whose settings allow the notification type, in the order of the provided users
+     */
+    public List<User> filterUsersByNotificationOrEmailSettings(Notification notification, Collection<User> users, NotificationSettingsCommunicationChannel communicationChannel) {
+        NotificationType type = findCorrespondingNotificationType(notification.getTitle());
+        Set<Long> userIds = users.stream().map(User::getId).collect(Collectors.toSet());
+        Map<Long, Set<NotificationSetting>> decidedNotificationSettingsPerUser = userIds.isEmpty() ? Map.of()
+                : notificationSettingRepository.findAllNotificationSettingsForRecipientsWithIds(userIds).stream()
+                        .collect(Collectors.groupingBy(setting -> setting.getUser().getId(), Collectors.toSet()));
+
+        return users.stream()
+                .filter(user -> isNotificationTypeAllowedBySettings(type, decidedNotificationSettingsPerUser.getOrDefault(user.getId(), Set.of()), communicationChannel)).toList();
+    }
+
+    /**
+     * Checks if the notification type is allowed by the notification settings that a user decided on and the default settings for all other notification types
+     * @param type of the notification
+     * @param decidedNotificationSettings the notification settings that the user explicitly set
+     * @param communicationChannel which channel to use (e.g. email or webapp)
+     * @return true if the type is allowed else false
+     */
+    private boolean isNotificationTypeAllowedBySettings(NotificationType type, Set<NotificationSetting> decidedNotificationSettings,
+            NotificationSettingsCommunicationChannel communicationChannel) {
         Set<NotificationSetting> notificationSettings = new HashSet<>(decidedNotificationSettings);
 
         // for those notification types that are not explicitly set by the user, we use the default settings
@@ -6,6 +6,7 @@ import static de.tum.in.www1.artemis.domain.notification.TutorialGroupNotificati
 import static de.tum.in.www1.artemis.service.notifications.NotificationSettingsCommunicationChannel.EMAIL;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -94,7 +95,7 @@ public class TutorialGroupNotificationService {
         if (tutorialGroup.getTeachingAssistant() != null && notifyTutor) {
             potentiallyInterestedUsers = Stream.concat(potentiallyInterestedUsers, Stream.of(tutorialGroup.getTeachingAssistant()));
         }
-        return potentiallyInterestedUsers.filter(user -> StringUtils.hasText(user.getEmail()))
-                .filter(user -> notificationSettingsService.checkIfNotificationOrEmailIsAllowedBySettingsForGivenUser(notification, user, EMAIL)).collect(Collectors.toSet());
+        var usersWithEmail = potentiallyInterestedUsers.filter(user -> StringUtils.hasText(user.getEmail())).collect(Collectors.toSet());
+        return new HashSet<>(notificationSettingsService.filterUsersByNotificationOrEmailSettings(notification, usersWithEmail, EMAIL));
     }
 }
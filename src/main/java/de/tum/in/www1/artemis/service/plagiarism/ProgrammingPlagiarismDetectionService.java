@@ -1,21 +1,29 @@
 package de.tum.in.www1.artemis.service.plagiarism;
 
+import static de.tum.in.www1.artemis.config.Constants.PLAGIARISM_RESULT_MAX_COMPARISONS;
+
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -43,10 +51,19 @@ import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismCacheService;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseExportService;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class ProgrammingPlagiarismDetectionService {
 
+    private static final String DOWNLOAD_THROUGHPUT_METER_NAME = "artemis.plagiarism.repository_download.throughput";
+
+    /**
+     * Minimum time between two progress notifications sent to the instructor while downloading repositories
+     */
+    private static final long DOWNLOAD_PROGRESS_NOTIFICATION_INTERVAL_MS = 1000;
+
     @Value("${artemis.repo-download-clone-path}")
     private String repoDownloadClonePath;
 
@@ -62,6 +79,14 @@ public class ProgrammingPlagiarismDetectionService {
 
     private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
 
+    /**
+     * Dedicated pool for cloning repositories, shared by all plagiarism checks so that concurrent checks cannot overload the VCS server
+     * and clones do not block the common fork-join pool
+     */
+    private final ExecutorService repositoryDownloadExecutor;
+
+    private final DistributionSummary downloadThroughput;
+
     private final ProgrammingExerciseExportService programmingExerciseExportService;
 
     private final PlagiarismResultRepository plagiarismResultRepository;
@@ -75,7 +100,7 @@ public class ProgrammingPlagiarismDetectionService {
     public ProgrammingPlagiarismDetectionService(ProgrammingExerciseRepository programmingExerciseRepository, FileService fileService, GitService gitService,
             StudentParticipationRepository studentParticipationRepository, PlagiarismResultRepository plagiarismResultRepository,
             ProgrammingExerciseExportService programmingExerciseExportService, PlagiarismWebsocketService plagiarismWebsocketService, PlagiarismCacheService plagiarismCacheService,
-            UrlService urlService) {
+            UrlService urlService, MeterRegistry meterRegistry, @Qualifier("repositoryDownloadExecutor") ExecutorService repositoryDownloadExecutor) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.fileService = fileService;
         this.gitService = gitService;
@@ -85,6 +110,9 @@ public class ProgrammingPlagiarismDetectionService {
         this.plagiarismWebsocketService = plagiarismWebsocketService;
         this.plagiarismCacheService = plagiarismCacheService;
         this.urlService = urlService;
+        this.repositoryDownloadExecutor = repositoryDownloadExecutor;
+        this.downloadThroughput = DistributionSummary.builder(DOWNLOAD_THROUGHPUT_METER_NAME).baseUnit("repositories/s")
+                .description("Number of repositories downloaded per second for a programming plagiarism check").register(meterRegistry);
     }
 
     /**
@@ -233,7 +261,7 @@ public class ProgrammingPlagiarismDetectionService {
      */
     private void limitAndSavePlagiarismResult(TextPlagiarismResult textPlagiarismResult) {
         // TODO: limit the amount temporarily because of database issues
-        textPlagiarismResult.sortAndLimit(100);
+        textPlagiarismResult.sortAndLimit(PLAGIARISM_RESULT_MAX_COMPARISONS);
         log.info("Limited number of comparisons to {} to avoid performance issues when saving to database", textPlagiarismResult.getComparisons().size());
         plagiarismResultRepository.savePlagiarismResultAndRemovePrevious(textPlagiarismResult);
     }
@@ -349,12 +377,14 @@ public class ProgrammingPlagiarismDetectionService {
         // Used for sending progress notifications
         var topic = plagiarismWebsocketService.getProgrammingExercisePlagiarismCheckTopic(programmingExercise.getId());
 
-        List<Repository> downloadedRepositories = new ArrayList<>();
-        participations.parallelStream().forEach(participation -> {
-            try {
-                var progressMessage = "Downloading repositories: " + (downloadedRepositories.size() + 1) + "/" + participations.size();
-                plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
+        final long start = System.nanoTime();
+        final int total = participations.size();
+        final AtomicInteger finished = new AtomicInteger();
+        final AtomicLong lastNotification = new AtomicLong();
+        List<Repository> downloadedRepositories = Collections.synchronizedList(new ArrayList<>(total + 1));
 
+        var downloads = participations.stream().map(participation -> CompletableFuture.runAsync(() -> {
+            try {
                 Repository repo = gitService.getOrCheckoutRepositoryForJPlag(participation, targetPath);
                 gitService.resetToOriginHead(repo); // start with clean state
                 downloadedRepositories.add(repo);
@@ -363,7 +393,14 @@ public class ProgrammingPlagiarismDetectionService {
                 log.error("Clone student repository {} in exercise '{}' did not work as expected: {}", participation.getVcsRepositoryUrl(), programmingExercise.getTitle(),
                         ex.getMessage());
             }
-        });
+            notifyAboutDownloadProgress(topic, finished.incrementAndGet(), total, lastNotification);
+        }, repositoryDownloadExecutor)).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(downloads).join();
+
+        double seconds = Math.max((System.nanoTime() - start) / 1_000_000_000.0, 0.001);
+        downloadThroughput.record(downloadedRepositories.size() / seconds);
+        log.info("Downloaded {} of {} student repositories for programming exercise {} in {}", downloadedRepositories.size(), total, programmingExercise.getId(),
+                TimeLogUtil.formatDurationFrom(start));
 
         // clone the template repo
         try {
@@ -378,4 +415,21 @@ public class ProgrammingPlagiarismDetectionService {
 
         return downloadedRepositories;
     }
+
+    /**
+     * Sends the download progress to the instructor, but at most once per {@link #DOWNLOAD_PROGRESS_NOTIFICATION_INTERVAL_MS} and always for the last repository.
+     *
+     * @param topic            the websocket topic of the plagiarism check
+     * @param finished         the number of repositories that have been processed so far
+     * @param total            the total number of repositories to download
+     * @param lastNotification the time in milliseconds at which the last progress notification was sent
+     */
+    private void notifyAboutDownloadProgress(String topic, int finished, int total, AtomicLong lastNotification) {
+        long now = System.currentTimeMillis();
+        long last = lastNotification.get();
+        if (finished == total || (now - last >= DOWNLOAD_PROGRESS_NOTIFICATION_INTERVAL_MS && lastNotification.compareAndSet(last, now))) {
+            var progressMessage = "Downloading repositories: " + finished + "/" + total;
+            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
+        }
+    }
 }
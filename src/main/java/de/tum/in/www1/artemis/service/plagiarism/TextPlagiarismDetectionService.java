@@ -1,13 +1,16 @@
 package de.tum.in.www1.artemis.service.plagiarism;
 
+import static de.tum.in.www1.artemis.config.Constants.PLAGIARISM_RESULT_MAX_COMPARISONS;
+
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.time.Instant;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -24,15 +27,26 @@ import de.tum.in.www1.artemis.domain.TextExercise;
 import de.tum.in.www1.artemis.domain.TextSubmission;
 import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismSubmission;
 import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextSubmissionElement;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
 import de.tum.in.www1.artemis.service.TextSubmissionExportService;
 import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismCacheService;
+import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismIndex;
+import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismIndex.IndexedComparison;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 
 @Service
 public class TextPlagiarismDetectionService {
 
+    // TODO: why do we have such a strange folder name?
+    private static final String SUBMISSIONS_FOLDER_NAME = "./tmp/submissions";
+
+    private static final String UNCHANGED_SUBMISSIONS_FOLDER_NAME = "./tmp/unchanged-submissions";
+
     private final Logger log = LoggerFactory.getLogger(TextPlagiarismDetectionService.class);
 
     private final TextSubmissionExportService textSubmissionExportService;
@@ -41,11 +55,14 @@ public class TextPlagiarismDetectionService {
 
     private final PlagiarismCacheService plagiarismCacheService;
 
+    private final PlagiarismResultRepository plagiarismResultRepository;
+
     public TextPlagiarismDetectionService(TextSubmissionExportService textSubmissionExportService, PlagiarismWebsocketService plagiarismWebsocketService,
-            PlagiarismCacheService plagiarismCacheService) {
+            PlagiarismCacheService plagiarismCacheService, PlagiarismResultRepository plagiarismResultRepository) {
         this.textSubmissionExportService = textSubmissionExportService;
         this.plagiarismWebsocketService = plagiarismWebsocketService;
         this.plagiarismCacheService = plagiarismCacheService;
+        this.plagiarismResultRepository = plagiarismResultRepository;
     }
 
     /**
@@ -92,11 +109,6 @@ public class TextPlagiarismDetectionService {
             long start = System.nanoTime();
             String topic = plagiarismWebsocketService.getTextExercisePlagiarismCheckTopic(textExercise.getId());
 
-            // TODO: why do we have such a strange folder name?
-            final var submissionsFolderName = "./tmp/submissions";
-            final var submissionFolderFile = new File(submissionsFolderName);
-            submissionFolderFile.mkdirs();
-
             final List<TextSubmission> textSubmissions = textSubmissionsForComparison(textExercise, minimumScore, minimumSize);
             final var submissionsSize = textSubmissions.size();
             log.info("Save text submissions for JPlag text comparison with {} submissions", submissionsSize);
@@ -106,37 +118,160 @@ public class TextPlagiarismDetectionService {
                 throw new BadRequestAlertException("Insufficient amount of valid and long enough submissions available for comparison", "Plagiarism Check", "notEnoughSubmissions");
             }
 
-            AtomicInteger processedSubmissionCount = new AtomicInteger(1);
-            textSubmissions.forEach(submission -> {
-                var progressMessage = "Getting submission: " + processedSubmissionCount + "/" + textSubmissions.size();
-                plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
-                submission.setResults(new ArrayList<>());
+            final Map<Long, String> contentHashes = textSubmissions.stream()
+                    .collect(Collectors.toMap(TextSubmission::getId, submission -> DigestUtils.sha256Hex(submission.getText())));
+            final var configuration = similarityThreshold + ";" + minimumScore + ";" + minimumSize;
+
+            TextPlagiarismResult textPlagiarismResult = checkPlagiarismIncrementally(textExercise, textSubmissions, contentHashes, configuration, similarityThreshold,
+                    topic);
+            if (textPlagiarismResult == null) {
+                final var submissionFolderFile = saveSubmissionsToFolder(textSubmissions, SUBMISSIONS_FOLDER_NAME, topic);
+                JPlagResult jPlagResult = runJPlag(submissionFolderFile, Set.of(), similarityThreshold);
+
+                textPlagiarismResult = new TextPlagiarismResult();
+                textPlagiarismResult.convertJPlagResult(jPlagResult, textExercise);
+                updatePlagiarismIndex(textExercise.getId(), configuration, contentHashes, toIndexedComparisons(jPlagResult));
+            }
+
+            log.info("JPlag text comparison for {} submissions done in {}", submissionsSize, TimeLogUtil.formatDurationFrom(start));
+            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.COMPLETED, List.of());
+            return textPlagiarismResult;
+        }
+        catch (Exception ex) {
+            log.warn("Text plagiarism detection NOT successful", ex);
+            throw new BadRequestAlertException(ex.getMessage(), "Plagiarism Check", "jplagException");
+        }
+        finally {
+            plagiarismCacheService.setInactivePlagiarismCheck(courseId);
+        }
+    }
+
+    /**
+     * Only compares the submissions that are new or have changed since the last plagiarism check of the exercise and merges the new comparisons into the previous result.
+     * Comparisons between unchanged submissions are taken from the previous result.
+     *
+     * @param textExercise        the exercise to detect plagiarism for
+     * @param textSubmissions     all submissions that should be compared
+     * @param contentHashes       the content hash of every submission by submission id
+     * @param configuration       the parameters of this plagiarism check
+     * @param similarityThreshold ignore comparisons whose similarity is below this threshold (in % between 0 and 100)
+     * @param topic               the websocket topic for progress notifications
+     * @return the updated previous result or null if the plagiarism check has to compare all submissions
+     * @throws ExitException is thrown if JPlag exits unexpectedly
+     */
+    private TextPlagiarismResult checkPlagiarismIncrementally(TextExercise textExercise, List<TextSubmission> textSubmissions, Map<Long, String> contentHashes,
+            String configuration, float similarityThreshold, String topic) throws ExitException {
+        var plagiarismIndex = plagiarismCacheService.getPlagiarismIndex(textExercise.getId());
+        if (plagiarismIndex == null || !plagiarismIndex.getConfiguration().equals(configuration)) {
+            return null;
+        }
+        // the previous result must have been saved after the index was created, otherwise it does not belong to the index
+        var previousResult = plagiarismResultRepository.findFirstByExerciseIdOrderByLastModifiedDateDescOrNull(textExercise.getId());
+        if (!(previousResult instanceof TextPlagiarismResult previousTextResult) || previousResult.getLastModifiedDate() == null
+                || previousResult.getLastModifiedDate().isBefore(plagiarismIndex.getCreatedDate())) {
+            return null;
+        }
+        Set<Long> unchangedSubmissionIds = plagiarismIndex.getUnchangedSubmissionIds(contentHashes);
+        if (unchangedSubmissionIds.isEmpty()) {
+            return null;
+        }
+
+        var changedSubmissions = textSubmissions.stream().filter(submission -> !unchangedSubmissionIds.contains(submission.getId())).toList();
+        log.info("Compare {} new or changed text submissions with {} unchanged submissions of exercise {}", changedSubmissions.size(), unchangedSubmissionIds.size(),
+                textExercise.getId());
+
+        JPlagResult jPlagResult = null;
+        List<IndexedComparison> newComparisons = List.of();
+        if (!changedSubmissions.isEmpty()) {
+            var unchangedSubmissions = textSubmissions.stream().filter(submission -> unchangedSubmissionIds.contains(submission.getId())).toList();
+            var submissionFolderFile = saveSubmissionsToFolder(changedSubmissions, SUBMISSIONS_FOLDER_NAME, topic);
+            var unchangedSubmissionFolderFile = saveSubmissionsToFolder(unchangedSubmissions, UNCHANGED_SUBMISSIONS_FOLDER_NAME, topic);
+            // JPlag compares the old submissions only with the new ones, but not with each other
+            jPlagResult = runJPlag(submissionFolderFile, Set.of(unchangedSubmissionFolderFile), similarityThreshold);
+            newComparisons = toIndexedComparisons(jPlagResult);
+        }
+        var allComparisons = Stream.concat(plagiarismIndex.getComparisonsBetween(unchangedSubmissionIds).stream(), newComparisons.stream()).toList();
+
+        // the previous result only contains the most similar comparisons, all comparisons between unchanged submissions that belong to the new most similar ones must be available
+        var previousComparisons = previousTextResult.getComparisons().stream().collect(Collectors.toMap(TextPlagiarismDetectionService::comparisonKey, comparison -> comparison,
+                (comparison1, comparison2) -> comparison1));
+        var mostSimilarComparisons = allComparisons.stream().sorted(Comparator.comparingDouble(IndexedComparison::similarity).reversed())
+                .limit(PLAGIARISM_RESULT_MAX_COMPARISONS).toList();
+        if (mostSimilarComparisons.stream().anyMatch(comparison -> comparison.isBetween(unchangedSubmissionIds)
+                && !previousComparisons.containsKey(List.of(comparison.submissionIdA(), comparison.submissionIdB())))) {
+            log.info("Previous plagiarism result of exercise {} does not contain all relevant comparisons, compare all submissions again", textExercise.getId());
+            return null;
+        }
+
+        previousTextResult.getComparisons().removeIf(comparison -> !unchangedSubmissionIds.contains(comparison.getSubmissionA().getSubmissionId())
+                || !unchangedSubmissionIds.contains(comparison.getSubmissionB().getSubmissionId()));
+        if (jPlagResult != null) {
+            previousTextResult.addJPlagComparisons(jPlagResult, textExercise);
+            previousTextResult.setDuration(jPlagResult.getDuration());
+        }
+        previousTextResult.setSimilarityDistribution(calculateSimilarityDistribution(allComparisons));
+        // make sure the result is considered as modified after the new index has been created, even if only its comparisons changed
+        previousTextResult.setLastModifiedDate(Instant.now());
+        updatePlagiarismIndex(textExercise.getId(), configuration, contentHashes, allComparisons);
+        return previousTextResult;
+    }
+
+    /**
+     * Saves the given submissions as files into the given folder, so that they can be compared by JPlag
+     *
+     * @param textSubmissions the submissions to save
+     * @param folderName      the folder to save the submissions to
+     * @param topic           the websocket topic for progress notifications
+     * @return the folder containing the submissions
+     */
+    private File saveSubmissionsToFolder(List<TextSubmission> textSubmissions, String folderName, String topic) {
+        final var submissionFolderFile = new File(folderName);
+        submissionFolderFile.mkdirs();
+
+        AtomicInteger processedSubmissionCount = new AtomicInteger(1);
+        textSubmissions.forEach(submission -> {
+            var progressMessage = "Getting submission: " + processedSubmissionCount + "/" + textSubmissions.size();
+            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
+            submission.setResults(new ArrayList<>());
 
-                StudentParticipation participation = (StudentParticipation) submission.getParticipation();
-                participation.setExercise(null);
-                participation.setSubmissions(null);
+            StudentParticipation participation = (StudentParticipation) submission.getParticipation();
+            participation.setExercise(null);
+            participation.setSubmissions(null);
 
-                String participantIdentifier = participation.getParticipantIdentifier();
-                if (participantIdentifier == null) {
-                    participantIdentifier = "unknown";
-                }
+            String participantIdentifier = participation.getParticipantIdentifier();
+            if (participantIdentifier == null) {
+                participantIdentifier = "unknown";
+            }
 
-                try {
-                    textSubmissionExportService.saveSubmissionToFile(submission, participantIdentifier, submissionsFolderName);
-                }
-                catch (IOException e) {
-                    log.error(e.getMessage());
-                }
+            try {
+                textSubmissionExportService.saveSubmissionToFile(submission, participantIdentifier, folderName);
+            }
+            catch (IOException e) {
+                log.error(e.getMessage());
+            }
 
-                processedSubmissionCount.getAndIncrement();
-            });
+            processedSubmissionCount.getAndIncrement();
+        });
 
-            log.info("Saving text submissions done");
+        log.info("Saving text submissions done");
+        return submissionFolderFile;
+    }
 
+    /**
+     * Runs JPlag on the saved submissions and deletes them afterwards
+     *
+     * @param submissionFolderFile     the folder containing the submissions to compare
+     * @param oldSubmissionFolderFiles folders containing submissions that are only compared with the submissions in submissionFolderFile
+     * @param similarityThreshold      ignore comparisons whose similarity is below this threshold (in % between 0 and 100)
+     * @return the JPlag result
+     * @throws ExitException is thrown if JPlag exits unexpectedly
+     */
+    private JPlagResult runJPlag(File submissionFolderFile, Set<File> oldSubmissionFolderFiles, float similarityThreshold) throws ExitException {
+        try {
             // Important: for large courses with more than 1000 students, we might get more than one million results and 10 million files in the file system due to many 0% results,
             // therefore we limit the results to at least 50% or 0.5 similarity, the passed threshold is between 0 and 100%
             Language language = new de.jplag.text.Language();
-            JPlagOptions options = new JPlagOptions(language, Set.of(submissionFolderFile), Set.of())
+            JPlagOptions options = new JPlagOptions(language, Set.of(submissionFolderFile), oldSubmissionFolderFiles)
                     // JPlag expects a value between 0.0 and 1.0
                     .withSimilarityThreshold(similarityThreshold / 100.0).withClusteringOptions(new ClusteringOptions().withEnabled(false));
 
@@ -144,25 +279,58 @@ public class TextPlagiarismDetectionService {
             JPlag jplag = new JPlag(options);
             JPlagResult jPlagResult = jplag.run();
             log.info("JPlag Text comparison finished with {} comparisons. Will limit the number of comparisons to 500", jPlagResult.getAllComparisons().size());
-
+            return jPlagResult;
+        }
+        finally {
             log.info("Delete submission folder");
-            if (submissionFolderFile.exists()) {
-                FileSystemUtils.deleteRecursively(submissionFolderFile);
-            }
-
-            TextPlagiarismResult textPlagiarismResult = new TextPlagiarismResult();
-            textPlagiarismResult.convertJPlagResult(jPlagResult, textExercise);
+            Stream.concat(Stream.of(submissionFolderFile), oldSubmissionFolderFiles.stream()).filter(File::exists).forEach(FileSystemUtils::deleteRecursively);
+        }
+    }
 
-            log.info("JPlag text comparison for {} submissions done in {}", submissionsSize, TimeLogUtil.formatDurationFrom(start));
-            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.COMPLETED, List.of());
-            return textPlagiarismResult;
+    /**
+     * Stores the comparisons of the plagiarism check in the index of the exercise, so that the next check only has to compare new or changed submissions
+     *
+     * @param exerciseId    the exercise the plagiarism check was run for
+     * @param configuration the parameters of the plagiarism check
+     * @param contentHashes the content hash of every compared submission by submission id
+     * @param comparisons   all comparisons above the similarity threshold
+     */
+    private void updatePlagiarismIndex(long exerciseId, String configuration, Map<Long, String> contentHashes, List<IndexedComparison> comparisons) {
+        if (comparisons.size() > PlagiarismIndex.MAXIMUM_NUMBER_OF_COMPARISONS) {
+            log.info("Do not index the {} comparisons of the plagiarism check for exercise {}", comparisons.size(), exerciseId);
+            plagiarismCacheService.removePlagiarismIndex(exerciseId);
         }
-        catch (Exception ex) {
-            log.warn("Text plagiarism detection NOT successful", ex);
-            throw new BadRequestAlertException(ex.getMessage(), "Plagiarism Check", "jplagException");
+        else {
+            plagiarismCacheService.setPlagiarismIndex(exerciseId, new PlagiarismIndex(configuration, contentHashes, comparisons));
         }
-        finally {
-            plagiarismCacheService.setInactivePlagiarismCheck(courseId);
+    }
+
+    private static List<IndexedComparison> toIndexedComparisons(JPlagResult jPlagResult) {
+        // Note: JPlag returns a value between 0 and 1, we store a value between 0 and 100 (percentage)
+        return jPlagResult.getAllComparisons().stream()
+                .map(comparison -> IndexedComparison.of(PlagiarismSubmission.getSubmissionIdFromJPlagSubmission(comparison.firstSubmission()),
+                        PlagiarismSubmission.getSubmissionIdFromJPlagSubmission(comparison.secondSubmission()), comparison.similarity() * 100))
+                .toList();
+    }
+
+    private static List<Long> comparisonKey(PlagiarismComparison<TextSubmissionElement> comparison) {
+        long submissionIdA = comparison.getSubmissionA().getSubmissionId();
+        long submissionIdB = comparison.getSubmissionB().getSubmissionId();
+        return List.of(Math.min(submissionIdA, submissionIdB), Math.max(submissionIdA, submissionIdB));
+    }
+
+    /**
+     * Calculates the similarity distribution in the same way as TextPlagiarismResult#convertJPlagResult does.
+     * Intervals: 0: [0% - 10%), 1: [10% - 20%), 2: [20% - 30%), ..., 9: [90% - 100%]
+     *
+     * @param comparisons all comparisons above the similarity threshold
+     * @return the absolute frequency of comparisons within each interval
+     */
+    private static int[] calculateSimilarityDistribution(List<IndexedComparison> comparisons) {
+        int[] similarityDistribution = new int[10];
+        for (var comparison : comparisons) {
+            similarityDistribution[Math.min((int) (comparison.similarity() / 10), 9)]++;
         }
+        return similarityDistribution;
     }
 }
@@ -1,20 +1,48 @@
 package de.tum.in.www1.artemis.service.plagiarism.cache;
 
 import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_ACTIVE_PLAGIARISM_CHECKS_PER_COURSE_CACHE;
+import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_PLAGIARISM_INDEX_PER_EXERCISE_CACHE;
+
+import javax.annotation.Nullable;
 
 import org.springframework.stereotype.Service;
 
 import com.hazelcast.collection.ISet;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MaxSizePolicy;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
 
 @Service
 public class PlagiarismCacheService {
 
+    // Indexes of exercises that were not checked again within this time are removed, the next plagiarism check of such an exercise compares all submissions again
+    private static final int PLAGIARISM_INDEX_MAX_IDLE_SECONDS = 14 * 24 * 60 * 60;
+
+    // The indexes can become large for exercises with many submissions, so only the indexes of the most recently checked exercises are kept on every node
+    private static final int MAX_PLAGIARISM_INDEXES_PER_NODE = 200;
+
     // Every course in this set is currently doing a plagiarism check
     private final ISet<Long> activePlagiarismChecksPerCourse;
 
+    // The index of the last plagiarism check of every exercise, used to only compare new or changed submissions when the check is run again
+    private final IMap<Long, PlagiarismIndex> plagiarismIndexPerExercise;
+
     public PlagiarismCacheService(HazelcastInstance hazelcastInstance) {
         this.activePlagiarismChecksPerCourse = hazelcastInstance.getSet(HAZELCAST_ACTIVE_PLAGIARISM_CHECKS_PER_COURSE_CACHE);
+        this.plagiarismIndexPerExercise = hazelcastInstance.getMap(HAZELCAST_PLAGIARISM_INDEX_PER_EXERCISE_CACHE);
+    }
+
+    /**
+     * Configures Hazelcast for the PlagiarismCacheService before the HazelcastInstance is created.
+     *
+     * @param config the {@link Config} the plagiarism specific configuration should be added to
+     */
+    public static void configureHazelcast(Config config) {
+        var evictionConfig = new EvictionConfig().setEvictionPolicy(EvictionPolicy.LRU).setMaxSizePolicy(MaxSizePolicy.PER_NODE).setSize(MAX_PLAGIARISM_INDEXES_PER_NODE);
+        config.getMapConfig(HAZELCAST_PLAGIARISM_INDEX_PER_EXERCISE_CACHE).setMaxIdleSeconds(PLAGIARISM_INDEX_MAX_IDLE_SECONDS).setEvictionConfig(evictionConfig);
     }
 
     /**
@@ -41,4 +69,31 @@ public class PlagiarismCacheService {
     public void setInactivePlagiarismCheck(Long courseId) {
         activePlagiarismChecksPerCourse.remove(courseId);
     }
+
+    /**
+     * Returns the index of the last plagiarism check of the exercise.
+     * @param exerciseId the exercise for which the plagiarism check was run
+     * @return the index or null if there is none
+     */
+    @Nullable
+    public PlagiarismIndex getPlagiarismIndex(Long exerciseId) {
+        return plagiarismIndexPerExercise.get(exerciseId);
+    }
+
+    /**
+     * Stores the index of the latest plagiarism check of the exercise, replacing the previous one.
+     * @param exerciseId the exercise for which the plagiarism check was run
+     * @param plagiarismIndex the index of the plagiarism check
+     */
+    public void setPlagiarismIndex(Long exerciseId, PlagiarismIndex plagiarismIndex) {
+        plagiarismIndexPerExercise.set(exerciseId, plagiarismIndex);
+    }
+
+    /**
+     * Removes the index of the exercise, so that the next plagiarism check compares all submissions again. Also used when the plagiarism results or the exercise are deleted.
+     * @param exerciseId the exercise for which the plagiarism check was run
+     */
+    public void removePlagiarismIndex(Long exerciseId) {
+        plagiarismIndexPerExercise.delete(exerciseId);
+    }
 }
@@ -0,0 +1,99 @@
+package de.tum.in.www1.artemis.service.plagiarism.cache;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the last plagiarism check of an exercise, used to only compare new or changed submissions when the check is run again.
+ * <p>
+ * It stores the content hash of every compared submission and all comparisons above the similarity threshold, identified by the submission ids.
+ */
+public class PlagiarismIndex implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Upper bound for the number of comparisons stored in the index to limit the memory used in the distributed cache.
+     * Checks with more comparisons above the similarity threshold are not indexed and always run completely.
+     */
+    public static final int MAXIMUM_NUMBER_OF_COMPARISONS = 100_000;
+
+    private final String configuration;
+
+    private final HashMap<Long, String> contentHashes;
+
+    private final List<IndexedComparison> comparisons;
+
+    private final Instant createdDate = Instant.now();
+
+    /**
+     * A comparison between two submissions, the ids are ordered so that submissionIdA is smaller than submissionIdB.
+     *
+     * @param submissionIdA the id of the first submission
+     * @param submissionIdB the id of the second submission
+     * @param similarity    the similarity of both submissions in percentage (between 0 and 100)
+     */
+    public record IndexedComparison(long submissionIdA, long submissionIdB, double similarity) implements Serializable {
+
+        public static IndexedComparison of(long submissionId1, long submissionId2, double similarity) {
+            return new IndexedComparison(Math.min(submissionId1, submissionId2), Math.max(submissionId1, submissionId2), similarity);
+        }
+
+        /**
+         * @param submissionIds the ids of submissions
+         * @return true if both compared submissions are contained in the given ids
+         */
+        public boolean isBetween(Set<Long> submissionIds) {
+            return submissionIds.contains(submissionIdA) && submissionIds.contains(submissionIdB);
+        }
+    }
+
+    /**
+     * @param configuration the parameters the plagiarism check was run with, a check with different parameters cannot reuse this index
+     * @param contentHashes the content hash of every compared submission by submission id
+     * @param comparisons   all comparisons above the similarity threshold
+     */
+    public PlagiarismIndex(String configuration, Map<Long, String> contentHashes, List<IndexedComparison> comparisons) {
+        this.configuration = configuration;
+        this.contentHashes = new HashMap<>(contentHashes);
+        this.comparisons = List.copyOf(comparisons);
+    }
+
+    public String getConfiguration() {
+        return configuration;
+    }
+
+    public List<IndexedComparison> getComparisons() {
+        return comparisons;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    /**
+     * Find all submissions whose content did not change since the indexed plagiarism check
+     *
+     * @param currentContentHashes the current content hash of every submission to compare by submission id
+     * @return the ids of all submissions that have been compared before with the same content
+     */
+    public Set<Long> getUnchangedSubmissionIds(Map<Long, String> currentContentHashes) {
+        return currentContentHashes.entrySet().stream().filter(entry -> entry.getValue().equals(contentHashes.get(entry.getKey()))).map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * @param submissionIds the ids of submissions
+     * @return all indexed comparisons in which both submissions are contained in the given ids
+     */
+    public List<IndexedComparison> getComparisonsBetween(Set<Long> submissionIds) {
+        return comparisons.stream().filter(comparison -> comparison.isBetween(submissionIds)).toList();
+    }
+}
@@ -4,16 +4,20 @@ import static de.tum.in.www1.artemis.service.util.XmlFileUtils.getDocumentBuilde
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import java.util.zip.ZipOutputStream;
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
@@ -32,6 +36,7 @@ import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.stereotype.Service;
@@ -80,13 +85,15 @@ public class ProgrammingExerciseExportService {
 
     private final ZipFileService zipFileService;
 
+    private final ExecutorService repositoryExportExecutor;
+
     public static final String EXPORTED_EXERCISE_DETAILS_FILE_PREFIX = "Exercise-Details";
 
     public static final String EXPORTED_EXERCISE_PROBLEM_STATEMENT_FILE_PREFIX = "Problem-Statement";
 
     public ProgrammingExerciseExportService(ProgrammingExerciseRepository programmingExerciseRepository, StudentParticipationRepository studentParticipationRepository,
             FileService fileService, GitService gitService, ZipFileService zipFileService, MappingJackson2HttpMessageConverter springMvcJacksonConverter,
-            AuxiliaryRepositoryRepository auxiliaryRepositoryRepository) {
+            AuxiliaryRepositoryRepository auxiliaryRepositoryRepository, @Qualifier("repositoryExportExecutor") ExecutorService repositoryExportExecutor) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.studentParticipationRepository = studentParticipationRepository;
         this.objectMapper = springMvcJacksonConverter.getObjectMapper();
@@ -94,6 +101,7 @@ public class ProgrammingExerciseExportService {
         this.gitService = gitService;
         this.zipFileService = zipFileService;
         this.auxiliaryRepositoryRepository = auxiliaryRepositoryRepository;
+        this.repositoryExportExecutor = repositoryExportExecutor;
     }
 
     /**
@@ -293,7 +301,7 @@ public class ProgrammingExerciseExportService {
         var exercise = exerciseOrEmpty.get();
         String zippedRepoName = getZippedRepoName(exercise, repositoryType.getName());
         var repositoryUrl = exercise.getRepositoryURL(repositoryType);
-        return exportRepository(repositoryUrl, repositoryType.getName(), zippedRepoName, exercise, outputDir, null, exportErrors);
+        return exportRepository(repositoryUrl, repositoryType.getName(), zippedRepoName, exercise, outputDir, null, true, exportErrors);
     }
 
     /**
@@ -313,7 +321,7 @@ public class ProgrammingExerciseExportService {
         var exercise = exerciseOrEmpty.get();
         String zippedRepoName = getZippedRepoName(exercise, auxiliaryRepository.getRepositoryName());
         var repositoryUrl = auxiliaryRepository.getVcsRepositoryUrl();
-        return exportRepository(repositoryUrl, auxiliaryRepository.getName(), zippedRepoName, exercise, outputDir, null, exportErrors);
+        return exportRepository(repositoryUrl, auxiliaryRepository.getName(), zippedRepoName, exercise, outputDir, null, true, exportErrors);
     }
 
     /**
@@ -337,7 +345,7 @@ public class ProgrammingExerciseExportService {
 
         Predicate<Path> gitDirFilter = path -> StreamSupport.stream(path.spliterator(), false).noneMatch(pathPart -> ".git".equalsIgnoreCase(pathPart.toString()));
 
-        return exportRepository(repositoryUrl, repositoryType.getName(), zippedRepoName, exercise, outputDir, gitDirFilter, exportErrors);
+        return exportRepository(repositoryUrl, repositoryType.getName(), zippedRepoName, exercise, outputDir, gitDirFilter, false, exportErrors);
     }
 
     private Optional<ProgrammingExercise> loadExerciseForRepoExport(long exerciseId, String repositoryName, List<String> exportErrors) {
@@ -361,7 +369,7 @@ public class ProgrammingExerciseExportService {
     }
 
     private Optional<File> exportRepository(VcsRepositoryUrl repositoryUrl, String repositoryName, String zippedRepoName, ProgrammingExercise exercise, Path outputDir,
-            @Nullable Predicate<Path> contentFilter, List<String> exportErrors) {
+            @Nullable Predicate<Path> contentFilter, boolean withHistory, List<String> exportErrors) {
         try {
             // It's not guaranteed that the repository url is defined (old courses).
             if (repositoryUrl == null) {
@@ -371,7 +379,7 @@ public class ProgrammingExerciseExportService {
                 return Optional.empty();
             }
 
-            Path zippedRepo = createZipForRepository(repositoryUrl, zippedRepoName, outputDir, contentFilter);
+            Path zippedRepo = createZipForRepository(repositoryUrl, zippedRepoName, outputDir, contentFilter, withHistory);
             if (zippedRepo != null) {
                 return Optional.of(new File(zippedRepo.toString()));
             }
@@ -415,6 +423,114 @@ public class ProgrammingExerciseExportService {
         }
     }
 
+    /**
+     * Get participations of programming exercises of a requested list of students packed together in one zip archive that is written directly to the given stream.
+     * <p>
+     * In contrast to {@link #exportStudentRepositoriesToZipFile}, the repositories are checked out in parallel and each repository is added to the archive as a folder
+     * as soon as it is ready. This way, the first bytes are sent while the remaining repositories are still checked out, and neither a zip file per repository nor a zip
+     * file of the whole archive is written to disk. The checked out repositories are deleted once they have been added to the archive.
+     * <p>
+     * The stream is only opened once the first repository has been checked out, so the caller can still report an error if no repository could be exported at all.
+     * The checkouts only receive the ids of the exercise and the participations and load the entities themselves, so that no entity is shared between threads.
+     *
+     * @param programmingExerciseId   the id of the exercise entity
+     * @param participations          participations that should be exported
+     * @param repositoryExportOptions the options that should be used for the export
+     * @param outputStreamProvider    opens the stream to which the zip archive is written, e.g. the body of the http response
+     * @return the number of repositories that were added to the archive, the stream has not been opened if this is 0
+     * @throws IOException if the archive could not be written to the stream
+     */
+    public int exportStudentRepositoriesToZipStream(long programmingExerciseId, @NotNull List<ProgrammingExerciseStudentParticipation> participations,
+            RepositoryExportOptionsDTO repositoryExportOptions, OutputStreamProvider outputStreamProvider) throws IOException {
+        Path outputDir = fileService.getUniquePath(repoDownloadClonePath);
+        CompletionService<Repository> completionService = new ExecutorCompletionService<>(repositoryExportExecutor);
+        Map<Future<Repository>, ProgrammingExerciseStudentParticipation> participationsByCheckout = new HashMap<>();
+        for (ProgrammingExerciseStudentParticipation participation : participations) {
+            final long participationId = participation.getId();
+            participationsByCheckout.put(
+                    completionService.submit(() -> checkoutRepositoryForExport(programmingExerciseId, participationId, repositoryExportOptions, outputDir)), participation);
+        }
+
+        int exportedRepositories = 0;
+        ZipOutputStream zipOutputStream = null;
+        try {
+            for (int i = 0; i < participationsByCheckout.size(); i++) {
+                Repository repository = takeCheckedOutRepository(completionService, participationsByCheckout, programmingExerciseId);
+                if (repository == null) {
+                    continue;
+                }
+
+                if (zipOutputStream == null) {
+                    zipOutputStream = new ZipOutputStream(outputStreamProvider.open());
+                }
+                String folderName = gitService.getExportedRepositoryName(repository, repositoryExportOptions.isHideStudentNameInZippedFolder());
+                zipFileService.addFolderContentToZip(zipOutputStream, repository.getLocalPath(), folderName, null);
+                // send the repository to the client right away instead of waiting for the buffers to fill up
+                zipOutputStream.flush();
+                exportedRepositories++;
+
+                // only delete clones that were created for this export
+                if (repository.getLocalPath().startsWith(outputDir)) {
+                    gitService.deleteLocalRepository(repository);
+                }
+            }
+            if (zipOutputStream != null) {
+                zipOutputStream.close();
+            }
+        }
+        finally {
+            // stop the remaining checkouts if writing to the stream failed, e.g. because the client closed the connection
+            participationsByCheckout.keySet().forEach(checkout -> checkout.cancel(true));
+            fileService.scheduleForDirectoryDeletion(outputDir, 5);
+        }
+        return exportedRepositories;
+    }
+
+    /**
+     * Opens the stream to which a streaming export is written, see {@link #exportStudentRepositoriesToZipStream}
+     */
+    @FunctionalInterface
+    public interface OutputStreamProvider {
+
+        /**
+         * Opens the stream, this is called at most once per export
+         *
+         * @return the opened stream
+         * @throws IOException if the stream cannot be opened
+         */
+        OutputStream open() throws IOException;
+    }
+
+    /**
+     * Waits for the next repository checkout of a streaming export to complete
+     *
+     * @param completionService         the completion service the checkouts have been submitted to
+     * @param participationsByCheckout  the exported participations by their checkouts
+     * @param programmingExerciseId     the id of the exercise whose repositories are exported
+     * @return the checked out repository with the exported participation or null if the repository could not be checked out
+     * @throws IOException if the thread was interrupted while waiting
+     */
+    private Repository takeCheckedOutRepository(CompletionService<Repository> completionService,
+            Map<Future<Repository>, ProgrammingExerciseStudentParticipation> participationsByCheckout, long programmingExerciseId) throws IOException {
+        try {
+            Future<Repository> checkout = completionService.take();
+            Repository repository = checkout.get();
+            if (repository != null) {
+                // the checkout loaded its own participation, the exported name is built from the participation of this thread
+                repository.setParticipation(participationsByCheckout.get(checkout));
+            }
+            return repository;
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while exporting the repositories of programming exercise " + programmingExerciseId);
+        }
+        catch (ExecutionException ex) {
+            log.error("Failed to export a student repository of programming exercise {}", programmingExerciseId, ex.getCause());
+            return null;
+        }
+    }
+
     /**
      * Zip the participations of programming exercises of a requested list of students separately.
      *
@@ -460,17 +576,20 @@ public class ProgrammingExerciseExportService {
      * @param zipFilename   The name of the zip file
      * @param outputDir The directory used for downloading and zipping the repository
      * @param contentFilter The path filter to exclude some files, can be null to include everything
+     * @param withHistory   True if the history of the repository is needed, false if the contentFilter excludes the .git directory
      * @return The path to the zip file.
      * @throws IOException if the zip file couldn't be created
      * @throws GitAPIException if the repo couldn't get checked out
      */
-    private Path createZipForRepository(VcsRepositoryUrl repositoryUrl, String zipFilename, Path outputDir, @Nullable Predicate<Path> contentFilter)
+    private Path createZipForRepository(VcsRepositoryUrl repositoryUrl, String zipFilename, Path outputDir, @Nullable Predicate<Path> contentFilter, boolean withHistory)
             throws IOException, GitAPIException, GitException, UncheckedIOException {
         var repositoryDir = fileService.getUniquePathString(outputDir.toString());
         Repository repository;
 
-        // Checkout the repository
-        try (Repository repositoryToClose = gitService.getOrCheckoutRepository(repositoryUrl, repositoryDir, true)) {
+        // Checkout the repository, the history is only needed if the .git directory is part of the zip file
+        Repository checkedOutRepository = withHistory ? gitService.getOrCheckoutRepository(repositoryUrl, repositoryDir, true)
+                : gitService.getOrCheckoutShallowRepository(repositoryUrl, repositoryDir, true);
+        try (Repository repositoryToClose = checkedOutRepository) {
             repository = repositoryToClose; // Try-with-resources requires the variable to be declared inside try.
             gitService.resetToOriginHead(repositoryToClose);
         }
@@ -494,14 +613,20 @@ public class ProgrammingExerciseExportService {
         }
 
         log.debug("Create zip file for {} repositorie(s) of programming exercise: {}", pathsToZippedRepos.size(), programmingExercise.getTitle());
-        String filename = programmingExercise.getCourseViaExerciseGroupOrCourseMember().getShortName() + "-" + programmingExercise.getShortName() + "-" + System.currentTimeMillis()
-                + ".zip";
-
-        Path zipFilePath = Path.of(outputDir.toString(), filename);
+        Path zipFilePath = Path.of(outputDir.toString(), getStudentRepositoriesZipFilename(programmingExercise));
         zipFileService.createZipFile(zipFilePath, pathsToZippedRepos, false);
         return new File(zipFilePath.toString());
     }
 
+    /**
+     * @param programmingExercise the programming exercise to which all exported repos belong to
+     * @return the name of the zip file containing the exported student repositories of the given exercise
+     */
+    public String getStudentRepositoriesZipFilename(ProgrammingExercise programmingExercise) {
+        return programmingExercise.getCourseViaExerciseGroupOrCourseMember().getShortName() + "-" + programmingExercise.getShortName() + "-" + System.currentTimeMillis()
+                + ".zip";
+    }
+
     /**
      * Checks out the repository for the given participation, zips it and adds the path to the given list of already
      * zipped repos.
@@ -515,6 +640,48 @@ public class ProgrammingExerciseExportService {
      */
     private Path createZipForRepositoryWithParticipation(final ProgrammingExercise programmingExercise, final ProgrammingExerciseStudentParticipation participation,
             final RepositoryExportOptionsDTO repositoryExportOptions, Path outputDir) throws IOException, UncheckedIOException {
+        Repository repository = checkoutRepositoryForExport(programmingExercise, participation, repositoryExportOptions, outputDir);
+        if (repository == null) {
+            return null;
+        }
+
+        log.debug("Create temporary zip file for repository {}", repository.getLocalPath().toString());
+        return gitService.zipRepositoryWithParticipation(repository, outputDir.toString(), repositoryExportOptions.isHideStudentNameInZippedFolder());
+    }
+
+    /**
+     * Loads the exercise and the participation with its legal submissions and checks out the repository of the participation like
+     * {@link #checkoutRepositoryForExport(ProgrammingExercise, ProgrammingExerciseStudentParticipation, RepositoryExportOptionsDTO, Path)}.
+     * This is used by the parallel checkouts of a streaming export, so that every thread works with its own entities.
+     *
+     * @param programmingExerciseId   the id of the programming exercise of the participation
+     * @param participationId         the id of the participation, for which the repository should get checked out
+     * @param repositoryExportOptions The options, that should get applied to the repo
+     * @param outputDir               The directory used for downloading the repository
+     * @return The checked out repository or null if the repository could not be checked out
+     */
+    private Repository checkoutRepositoryForExport(long programmingExerciseId, long participationId, final RepositoryExportOptionsDTO repositoryExportOptions, Path outputDir) {
+        Optional<ProgrammingExercise> programmingExercise = programmingExerciseRepository
+                .findWithTemplateAndSolutionParticipationTeamAssignmentConfigCategoriesById(programmingExerciseId);
+        Optional<StudentParticipation> participation = studentParticipationRepository.findWithStudentAndTeamAndEagerLegalSubmissionsById(participationId);
+        if (programmingExercise.isEmpty() || participation.isEmpty()) {
+            log.warn("Ignore participation {} for export, because it or its exercise {} does not exist anymore", participationId, programmingExerciseId);
+            return null;
+        }
+        return checkoutRepositoryForExport(programmingExercise.get(), (ProgrammingExerciseStudentParticipation) participation.get(), repositoryExportOptions, outputDir);
+    }
+
+    /**
+     * Checks out the repository for the given participation and applies the given export options (e.g. filtering late submissions or anonymizing commits) to it.
+     *
+     * @param programmingExercise     The programming exercise for the participation
+     * @param participation           The participation, for which the repository should get checked out
+     * @param repositoryExportOptions The options, that should get applied to the repo
+     * @param outputDir               The directory used for downloading the repository
+     * @return The checked out repository or null if the repository could not be checked out
+     */
+    private Repository checkoutRepositoryForExport(final ProgrammingExercise programmingExercise, final ProgrammingExerciseStudentParticipation participation,
+            final RepositoryExportOptionsDTO repositoryExportOptions, Path outputDir) {
         if (participation.getVcsRepositoryUrl() == null) {
             log.warn("Ignore participation {} for export, because its repository URL is null", participation.getId());
             return null;
@@ -559,12 +726,10 @@ public class ProgrammingExerciseExportService {
                     log.warn("Cannot normalize code style in the repository {} due to the following exception: {}", repository.getLocalPath(), ex.getMessage());
                 }
             }
-
-            log.debug("Create temporary zip file for repository {}", repository.getLocalPath().toString());
-            return gitService.zipRepositoryWithParticipation(repository, outputDir.toString(), repositoryExportOptions.isHideStudentNameInZippedFolder());
+            return repository;
         }
         catch (GitAPIException | GitException ex) {
-            log.error("Failed to create zip for participation id {} with exercise id {} because of the following exception ", participation.getId(),
+            log.error("Failed to export repository for participation id {} with exercise id {} because of the following exception ", participation.getId(),
                     participation.getProgrammingExercise().getId(), ex);
             return null;
         }
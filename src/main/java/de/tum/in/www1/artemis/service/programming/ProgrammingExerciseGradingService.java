@@ -5,15 +5,21 @@ import static de.tum.in.www1.artemis.domain.ProgrammingSubmission.createFallback
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.validation.constraints.NotNull;
 
+import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.math3.util.Precision;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
@@ -33,6 +39,7 @@ import de.tum.in.www1.artemis.domain.submissionpolicy.SubmissionPolicy;
 import de.tum.in.www1.artemis.exception.ContinuousIntegrationException;
 import de.tum.in.www1.artemis.exception.VersionControlException;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.*;
 import de.tum.in.www1.artemis.service.connectors.ContinuousIntegrationService;
 import de.tum.in.www1.artemis.service.connectors.VersionControlService;
@@ -85,6 +92,16 @@ public class ProgrammingExerciseGradingService {
 
     private final TestwiseCoverageService testwiseCoverageService;
 
+    /**
+     * Calculates the scores of the results of a chunk in parallel when many results are updated at once, shared by all exercises
+     */
+    private final ExecutorService scoreCalculationExecutor;
+
+    /**
+     * The number of participations whose results are loaded, updated and saved together when many results are updated at once
+     */
+    private final int chunkSize;
+
     public ProgrammingExerciseGradingService(ProgrammingExerciseTestCaseService testCaseService, StudentParticipationRepository studentParticipationRepository,
             ResultRepository resultRepository, Optional<ContinuousIntegrationService> continuousIntegrationService, Optional<VersionControlService> versionControlService,
             ProgrammingTriggerService programmingTriggerService, SimpMessageSendingOperations messagingTemplate, StaticCodeAnalysisService staticCodeAnalysisService,
@@ -92,7 +109,8 @@ public class ProgrammingExerciseGradingService {
             SolutionProgrammingExerciseParticipationRepository solutionProgrammingExerciseParticipationRepository, ProgrammingSubmissionRepository programmingSubmissionRepository,
             AuditEventRepository auditEventRepository, GroupNotificationService groupNotificationService, ResultService resultService, ExerciseDateService exerciseDateService,
             SubmissionPolicyService submissionPolicyService, ProgrammingExerciseRepository programmingExerciseRepository, BuildLogEntryService buildLogService,
-            TestwiseCoverageService testwiseCoverageService) {
+            TestwiseCoverageService testwiseCoverageService, @Qualifier("programmingScoreCalculationExecutor") ExecutorService scoreCalculationExecutor,
+            @Value("${artemis.programming-grading.chunk-size:100}") int chunkSize) {
         this.testCaseService = testCaseService;
         this.studentParticipationRepository = studentParticipationRepository;
         this.continuousIntegrationService = continuousIntegrationService;
@@ -112,6 +130,8 @@ public class ProgrammingExerciseGradingService {
         this.exerciseDateService = exerciseDateService;
         this.buildLogService = buildLogService;
         this.testwiseCoverageService = testwiseCoverageService;
+        this.scoreCalculationExecutor = scoreCalculationExecutor;
+        this.chunkSize = chunkSize;
     }
 
     /**
@@ -389,20 +409,36 @@ public class ProgrammingExerciseGradingService {
      * @return Result with updated feedbacks and score
      */
     public Result calculateScoreForResult(Result result, ProgrammingExercise exercise, boolean isStudentParticipation) {
-        Set<ProgrammingExerciseTestCase> testCases = testCaseService.findActiveByExerciseId(exercise.getId());
+        final ScoreCalculationContext context = createScoreCalculationContext(exercise, isStudentParticipation);
         final Set<ProgrammingExerciseTestCase> testCasesForCurrentDate;
         // We don't filter the test cases for the solution/template participation's results as they are used as indicators for the instructor!
         if (isStudentParticipation) {
-            testCasesForCurrentDate = filterTestCasesForCurrentDate(result.getParticipation(), testCases);
+            exercise.setSubmissionPolicy(context.submissionPolicy());
+            testCasesForCurrentDate = exerciseDateService.isBeforeDueDate(result.getParticipation()) ? context.testCasesBeforeDueDate() : context.testCasesAfterDueDate();
         }
         else {
-            testCasesForCurrentDate = testCases;
+            testCasesForCurrentDate = context.testCases();
         }
-        return calculateScoreForResult(testCases, testCasesForCurrentDate, result, exercise, isStudentParticipation);
+        return calculateScoreForResult(context, testCasesForCurrentDate, result, exercise, isStudentParticipation);
     }
 
     /**
-     * Updates <b>all</b> latest results of the given exercise with the information of the exercises test cases.
+     * Finds the ids of the student participations whose results are updated by {@link #updateAndSaveResultsInChunks}.
+     *
+     * @param exercise                         whose results should be updated.
+     * @param onlyRegularDueDateParticipations true, if only participations without an individual due date should be included.
+     * @return the ids of all student participations of the exercise with results, ordered by id.
+     */
+    public List<Long> findStudentParticipationIdsWithResults(final ProgrammingExercise exercise, boolean onlyRegularDueDateParticipations) {
+        if (onlyRegularDueDateParticipations) {
+            return studentParticipationRepository.findIdsWithResultsByExerciseIdWithoutIndividualDueDate(exercise.getId());
+        }
+        return studentParticipationRepository.findIdsWithResultsByExerciseId(exercise.getId());
+    }
+
+    /**
+     * Updates the latest results of the template and solution participation and of the given student participations with the information of the exercises test cases
+     * and saves them.
      * <p>
      * This update includes:
      * <ul>
@@ -411,101 +447,85 @@ public class ProgrammingExerciseGradingService {
      *     <li>Recalculating the score based on the successful test cases weight vs the total weight of all test cases.</li>
      * </ul>
      *
-     * If there are no test cases stored in the database for the given exercise (i.e. we have a legacy exercise) or the weight has not been changed, then the result will not change.
-     *
-     * @param exercise whose results should be updated.
-     * @return the results of the exercise that have been updated.
-     */
-    public List<Result> updateAllResults(final ProgrammingExercise exercise) {
-        final Set<ProgrammingExerciseTestCase> testCases = testCaseService.findActiveByExerciseId(exercise.getId());
-
-        final Stream<Result> updatedTemplateAndSolutionResult = updateTemplateAndSolutionResults(exercise, testCases);
-
-        final List<StudentParticipation> studentParticipations = new ArrayList<>();
-        // We only update the latest automatic results here, later manual assessments are not affected
-        studentParticipations.addAll(studentParticipationRepository.findByExerciseIdWithLatestAutomaticResultAndFeedbacks(exercise.getId()));
-        // Also update manual results
-        studentParticipations.addAll(studentParticipationRepository.findByExerciseIdWithManualResultAndFeedbacks(exercise.getId()));
-
-        final Stream<Result> updatedStudentResults = updateResults(exercise, testCases, studentParticipations);
-
-        return Stream.concat(updatedTemplateAndSolutionResult, updatedStudentResults).toList();
-    }
-
-    /**
-     * Updates the latest results of all participations that do not have an individual due date. This includes the template and solution participation.
+     * If there are no test cases stored in the database for the given exercise (i.e. we have a legacy exercise) or the weight has not been changed, then the result will
+     * not change.
      * <p>
-     * For details what will be updated for individual results, see {@link ProgrammingExerciseGradingService#updateAllResults}.
-     * @param exercise whose results should be updated.
-     * @return the results of the exercise that have been updated.
+     * The student participations are loaded, updated and saved in chunks, so that the results of exercises with many participations never have to be kept in memory at
+     * once. The test cases and the static code analysis configuration are only loaded once, and the scores of the results of a chunk are calculated in parallel.
+     *
+     * @param exercise                whose results should be updated.
+     * @param studentParticipationIds the ids of the student participations whose results should be updated, see {@link #findStudentParticipationIdsWithResults}.
+     * @param onChunkSaved            called after every saved chunk with the number of student participations processed so far and the updated results of the chunk.
+     * @return the number of updated results.
      */
-    public List<Result> updateResultsOnlyRegularDueDateParticipations(final ProgrammingExercise exercise) {
-        final Set<ProgrammingExerciseTestCase> testCases = testCaseService.findActiveByExerciseId(exercise.getId());
-
-        final Stream<Result> updatedTemplateAndSolutionResult = updateTemplateAndSolutionResults(exercise, testCases);
-
-        final List<StudentParticipation> studentParticipations = new ArrayList<>();
-        // We only update the latest automatic results here, later manual assessments are not affected
-        studentParticipations.addAll(studentParticipationRepository.findByExerciseIdWithLatestAutomaticResultAndFeedbacksWithoutIndividualDueDate(exercise.getId()));
-        // Also update manual results
-        studentParticipations.addAll(studentParticipationRepository.findByExerciseIdWithManualResultAndFeedbacksWithoutIndividualDueDate(exercise.getId()));
-
-        final Stream<Result> updatedStudentResults = updateResults(exercise, testCases, studentParticipations);
-
-        return Stream.concat(updatedTemplateAndSolutionResult, updatedStudentResults).toList();
+    public int updateAndSaveResultsInChunks(final ProgrammingExercise exercise, final List<Long> studentParticipationIds, BiConsumer<Integer, List<Result>> onChunkSaved) {
+        final ScoreCalculationContext context = createScoreCalculationContext(exercise, true);
+
+        final List<Result> updatedTemplateAndSolutionResults = resultRepository.saveAll(updateTemplateAndSolutionResults(exercise, context).toList());
+        onChunkSaved.accept(0, updatedTemplateAndSolutionResults);
+        int updatedResultCount = updatedTemplateAndSolutionResults.size();
+
+        // The scores of the student results are calculated in parallel, so the shared exercise is only changed once before
+        exercise.setSubmissionPolicy(context.submissionPolicy());
+
+        for (int chunkStart = 0; chunkStart < studentParticipationIds.size(); chunkStart += chunkSize) {
+            final List<Long> chunk = studentParticipationIds.subList(chunkStart, Math.min(chunkStart + chunkSize, studentParticipationIds.size()));
+
+            final List<StudentParticipation> studentParticipations = new ArrayList<>();
+            // We only update the latest automatic results here, later manual assessments are not affected
+            studentParticipations.addAll(studentParticipationRepository.findByIdsWithLatestAutomaticResultAndFeedbacks(chunk));
+            // Also update manual results
+            studentParticipations.addAll(studentParticipationRepository.findByIdsWithManualResultAndFeedbacks(chunk));
+
+            final List<CompletableFuture<Optional<Result>>> futures = studentParticipations.stream().map(participation -> CompletableFuture.supplyAsync(() -> {
+                SecurityUtils.setAuthorizationObject();
+                return updateLatestResult(exercise, participation, context, true);
+            }, scoreCalculationExecutor)).toList();
+            final List<Result> updatedResults = futures.stream().map(CompletableFuture::join).flatMap(Optional::stream).toList();
+
+            final List<Result> savedResults = resultRepository.saveAll(updatedResults);
+            updatedResultCount += savedResults.size();
+            onChunkSaved.accept(chunkStart + chunk.size(), savedResults);
+            log.debug("Updated {} results of {} participations of exercise {}", savedResults.size(), chunkStart + chunk.size(), exercise.getId());
+        }
+        return updatedResultCount;
     }
 
     /**
      * Updates the latest result scores of the given participation.
      * <p>
-     * For details what will be updated, see {@link ProgrammingExerciseGradingService#updateAllResults}.
+     * For details what will be updated, see {@link ProgrammingExerciseGradingService#updateAndSaveResultsInChunks}.
      * @param participation for which the results should be updated.
      * @return a list of updated results (maximum two: latest automatic, and latest manual result).
      */
     public List<Result> updateParticipationResults(final ProgrammingExerciseStudentParticipation participation) {
         final ProgrammingExercise exercise = participation.getProgrammingExercise();
-        final Set<ProgrammingExerciseTestCase> testCases = testCaseService.findActiveByExerciseId(exercise.getId());
-        final Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate = filterTestCasesForStudents(testCases, true);
-        final Set<ProgrammingExerciseTestCase> testCasesAfterDueDate = filterTestCasesForStudents(testCases, false);
+        final ScoreCalculationContext context = createScoreCalculationContext(exercise, true);
+        exercise.setSubmissionPolicy(context.submissionPolicy());
 
         final Optional<Result> updatedAutomaticResult = studentParticipationRepository.findByIdWithLatestAutomaticResultAndFeedbacks(participation.getId())
-                .flatMap(studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, true));
+                .flatMap(studentParticipation -> updateLatestResult(exercise, studentParticipation, context, true));
         final Optional<Result> updatedManualResult = studentParticipationRepository.findByIdWithManualResultAndFeedbacks(participation.getId())
-                .flatMap(studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, true));
+                .flatMap(studentParticipation -> updateLatestResult(exercise, studentParticipation, context, true));
 
         return Stream.of(updatedAutomaticResult, updatedManualResult).flatMap(Optional::stream).toList();
     }
 
-    /**
-     * Updates the latest results for the given participations.
-     * @param exercise the participations belong to.
-     * @param allTestCases of the programming exercise.
-     * @param participations for which the latest results should be updated.
-     * @return all results that have been updated.
-     */
-    private Stream<Result> updateResults(final ProgrammingExercise exercise, final Set<ProgrammingExerciseTestCase> allTestCases, final List<StudentParticipation> participations) {
-        final Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate = filterTestCasesForStudents(allTestCases, true);
-        final Set<ProgrammingExerciseTestCase> testCasesAfterDueDate = filterTestCasesForStudents(allTestCases, false);
-
-        return participations.stream().map(participation -> updateLatestResult(exercise, participation, allTestCases, testCasesBeforeDueDate, testCasesAfterDueDate, true))
-                .flatMap(Optional::stream);
-    }
-
     /**
      * Updates the latest results for the template and solution participation.
      * @param exercise the template and solution belong to.
-     * @param testCases of the exercise.
+     * @param context the test cases and the configuration of the exercise.
      * @return a stream of results that have been updated.
      *         (maximum length two; if template and/or solution do not have a results, then fewer)
      */
-    private Stream<Result> updateTemplateAndSolutionResults(final ProgrammingExercise exercise, final Set<ProgrammingExerciseTestCase> testCases) {
+    private Stream<Result> updateTemplateAndSolutionResults(final ProgrammingExercise exercise, final ScoreCalculationContext context) {
         final Optional<Result> templateResult = templateProgrammingExerciseParticipationRepository
                 .findWithEagerResultsAndFeedbacksAndSubmissionsByProgrammingExerciseId(exercise.getId())
-                .flatMap(templateParticipation -> updateLatestResult(exercise, templateParticipation, testCases, testCases, testCases, false));
+                .flatMap(templateParticipation -> updateLatestResult(exercise, templateParticipation, context, false));
 
         final Optional<Result> solutionResult = solutionProgrammingExerciseParticipationRepository
                 .findWithEagerResultsAndFeedbacksAndSubmissionsByProgrammingExerciseId(exercise.getId())
-                .flatMap(solutionParticipation -> updateLatestResult(exercise, solutionParticipation, testCases, testCases, testCases, false));
+                .flatMap(solutionParticipation -> updateLatestResult(exercise, solutionParticipation, context, false));
 
         return Stream.of(templateResult, solutionResult).flatMap(Optional::stream);
     }
@@ -513,24 +533,30 @@ public class ProgrammingExerciseGradingService {
     /**
      * Updates the score for the latest result of the given participation.
      * @param exercise the participation belongs to.
-     * @param participation of a student in the exercise.
-     * @param allTestCases of this exercise.
-     * @param testCasesBeforeDueDate the test cases that are visible to the student before the due date.
-     * @param testCasesAfterDueDate the test cases that are visible to the student after the due date.
-     * @param applySubmissionPolicy true, if submission policies should be taken into account when updating the score.
+     * @param participation of a student in the exercise, or the template or solution participation.
+     * @param context the test cases and the configuration of this exercise.
+     * @param isStudentParticipation true for student participations: the test cases are filtered by their visibility and submission policies are taken into account.
      * @return the latest result with an updated score, or nothing if the participation had no results.
      */
-    private Optional<Result> updateLatestResult(ProgrammingExercise exercise, Participation participation, Set<ProgrammingExerciseTestCase> allTestCases,
-            Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate, Set<ProgrammingExerciseTestCase> testCasesAfterDueDate, boolean applySubmissionPolicy) {
+    private Optional<Result> updateLatestResult(ProgrammingExercise exercise, Participation participation, ScoreCalculationContext context, boolean isStudentParticipation) {
         final Result result = participation.findLatestLegalResult();
         if (result == null) {
             return Optional.empty();
         }
 
-        boolean isBeforeDueDate = exerciseDateService.isBeforeDueDate(participation);
-        final Set<ProgrammingExerciseTestCase> testCasesForCurrentDate = isBeforeDueDate ? testCasesBeforeDueDate : testCasesAfterDueDate;
+        final Set<ProgrammingExerciseTestCase> testCasesForCurrentDate;
+        // We don't filter the test cases for the solution/template participation's results as they are used as indicators for the instructor!
+        if (!isStudentParticipation) {
+            testCasesForCurrentDate = context.testCases();
+        }
+        else if (exerciseDateService.isBeforeDueDate(participation)) {
+            testCasesForCurrentDate = context.testCasesBeforeDueDate();
+        }
+        else {
+            testCasesForCurrentDate = context.testCasesAfterDueDate();
+        }
 
-        calculateScoreForResult(allTestCases, testCasesForCurrentDate, result, exercise, applySubmissionPolicy);
+        calculateScoreForResult(context, testCasesForCurrentDate, result, exercise, isStudentParticipation);
 
         return Optional.of(result);
     }
@@ -540,23 +566,29 @@ public class ProgrammingExerciseGradingService {
      * @param user who triggered the re-evaluation.
      * @param exercise for which the evaluation was triggered.
      * @param course the exercise belongs to.
-     * @param results of the exercise.
+     * @param numberOfResults the number of re-evaluated results of the exercise.
      */
-    public void logReEvaluate(User user, ProgrammingExercise exercise, Course course, List<Result> results) {
+    public void logReEvaluate(User user, ProgrammingExercise exercise, Course course, int numberOfResults) {
         var auditEvent = new AuditEvent(user.getLogin(), Constants.RE_EVALUATE_RESULTS, "exercise=" + exercise.getTitle(), "course=" + course.getTitle(),
-                "results=" + results.size());
+                "results=" + numberOfResults);
         auditEventRepository.add(auditEvent);
-        log.info("User {} triggered a re-evaluation of {} results for exercise {} with id {}", user.getLogin(), results.size(), exercise.getTitle(), exercise.getId());
+        log.info("User {} triggered a re-evaluation of {} results for exercise {} with id {}", user.getLogin(), numberOfResults, exercise.getTitle(), exercise.getId());
     }
 
     /**
-     * Filter all test cases from the score calculation that are never visible or ones with visibility "after due date" if the due date has not yet passed.
-     * @param testCases which should be filtered.
-     * @return testCases, but the ones based on the described visibility criterion removed.
+     * Loads the test cases and the configuration of the exercise that are needed to calculate the scores of its results.
+     * @param exercise the results belong to.
+     * @param withSubmissionPolicy true, if the submission policy of the exercise should be loaded.
+     * @return the context for the score calculation of the results of the exercise.
      */
-    private Set<ProgrammingExerciseTestCase> filterTestCasesForCurrentDate(Participation participation, Set<ProgrammingExerciseTestCase> testCases) {
-        boolean isBeforeDueDate = exerciseDateService.isBeforeDueDate(participation);
-        return filterTestCasesForStudents(testCases, isBeforeDueDate);
+    private ScoreCalculationContext createScoreCalculationContext(ProgrammingExercise exercise, boolean withSubmissionPolicy) {
+        final Set<ProgrammingExerciseTestCase> testCases = testCaseService.findActiveByExerciseId(exercise.getId());
+        SubmissionPolicy submissionPolicy = null;
+        if (withSubmissionPolicy) {
+            submissionPolicy = programmingExerciseRepository.findByIdWithSubmissionPolicyElseThrow(exercise.getId()).getSubmissionPolicy();
+        }
+        return new ScoreCalculationContext(testCases, filterTestCasesForStudents(testCases, true), filterTestCasesForStudents(testCases, false),
+                staticCodeAnalysisService.getCategoriesWithMappingForExercise(exercise), staticCodeAnalysisService.findByExerciseId(exercise.getId()), submissionPolicy);
     }
 
     /**
@@ -571,15 +603,16 @@ public class ProgrammingExerciseGradingService {
 
     /**
      * Calculates the grading for a result and updates the feedbacks
-     * @param testCases All test cases for the exercise
+     * @param context All test cases and the configuration of the exercise
      * @param testCasesForCurrentDate Test cases for the exercise for the current date
      * @param result The result to be updated
-     * @param exercise The current exercise
+     * @param exercise The current exercise, its submission policy has to be set by the caller if submission policies are applied
      * @param applySubmissionPolicy true, if submission policies should be taken into account when updating the score.
      * @return The updated result
      */
-    private Result calculateScoreForResult(Set<ProgrammingExerciseTestCase> testCases, Set<ProgrammingExerciseTestCase> testCasesForCurrentDate, @NotNull Result result,
+    private Result calculateScoreForResult(ScoreCalculationContext context, Set<ProgrammingExerciseTestCase> testCasesForCurrentDate, @NotNull Result result,
             ProgrammingExercise exercise, boolean applySubmissionPolicy) {
+        final Set<ProgrammingExerciseTestCase> testCases = context.testCases();
         List<Feedback> testCaseFeedback = new ArrayList<>();
         List<Feedback> staticCodeAnalysisFeedback = new ArrayList<>();
         for (var feedback : result.getFeedbacks()) {
@@ -596,12 +629,7 @@ public class ProgrammingExerciseGradingService {
         }
 
         // Remove feedback that is in an invisible sca category
-        staticCodeAnalysisFeedback = staticCodeAnalysisService.categorizeScaFeedback(result, staticCodeAnalysisFeedback, exercise);
-
-        if (applySubmissionPolicy) {
-            SubmissionPolicy submissionPolicy = programmingExerciseRepository.findByIdWithSubmissionPolicyElseThrow(exercise.getId()).getSubmissionPolicy();
-            exercise.setSubmissionPolicy(submissionPolicy);
-        }
+        staticCodeAnalysisFeedback = staticCodeAnalysisService.categorizeScaFeedback(result, staticCodeAnalysisFeedback, context.staticCodeAnalysisCategoriesWithMapping());
 
         // Case 1: There are tests and test case feedback, find out which tests were not executed or should only count to the score after the due date.
         if (!testCasesForCurrentDate.isEmpty() && !testCaseFeedback.isEmpty() && !result.getFeedbacks().isEmpty()) {
@@ -623,7 +651,7 @@ public class ProgrammingExerciseGradingService {
 
             // The score is always calculated from ALL (except visibility=never) test cases, regardless of the current date!
             final Set<ProgrammingExerciseTestCase> successfulTestCases = testCasesForCurrentDate.stream().filter(isSuccessful(result)).collect(Collectors.toSet());
-            updateScore(result, testCases, successfulTestCases, staticCodeAnalysisFeedback, exercise, hasDuplicateTestCases, applySubmissionPolicy);
+            updateScore(result, context, successfulTestCases, staticCodeAnalysisFeedback, exercise, hasDuplicateTestCases, applySubmissionPolicy);
             result.setTestCaseCount(testCasesForCurrentDate.size());
             result.setPassedTestCaseCount(successfulTestCases.size());
             result.setCodeIssueCount(staticCodeAnalysisFeedback.size());
@@ -729,19 +757,19 @@ public class ProgrammingExerciseGradingService {
      * Takes weight, bonus multiplier and absolute bonus points into account.
      * All tests in this case do not include ones with visibility=never.
      * @param result                     of the build run.
-     * @param allTestCases               of a given programming exercise.
+     * @param context                    all test cases and the configuration of the given programming exercise.
      * @param successfulTestCases        test cases with positive feedback.
      * @param staticCodeAnalysisFeedback of a given programming exercise.
      * @param programmingExercise        the given programming exercise.
      * @param hasDuplicateTestCases      indicates duplicate test cases.
      */
-    private void updateScore(final Result result, final Set<ProgrammingExerciseTestCase> allTestCases, final Set<ProgrammingExerciseTestCase> successfulTestCases,
+    private void updateScore(final Result result, final ScoreCalculationContext context, final Set<ProgrammingExerciseTestCase> successfulTestCases,
             final List<Feedback> staticCodeAnalysisFeedback, final ProgrammingExercise programmingExercise, boolean hasDuplicateTestCases, boolean applySubmissionPolicy) {
         if (hasDuplicateTestCases) {
             result.setScore(0D);
         }
         else {
-            double score = calculateScore(programmingExercise, allTestCases, result, successfulTestCases, staticCodeAnalysisFeedback, applySubmissionPolicy);
+            double score = calculateScore(programmingExercise, context, result, successfulTestCases, staticCodeAnalysisFeedback, applySubmissionPolicy);
             result.setScore(score, programmingExercise.getCourseViaExerciseGroupOrCourseMember());
         }
 
@@ -755,23 +783,24 @@ public class ProgrammingExerciseGradingService {
     /**
      * Calculates the score of automatic test cases for the given result with possible penalties applied.
      * @param programmingExercise the result belongs to.
-     * @param allTests that should be considered in the score calculation.
+     * @param context all tests that should be considered in the score calculation and the configuration of the exercise.
      * @param result for which a score should be calculated.
      * @param successfulTestCases all test cases that passed for the submission.
      * @param staticCodeAnalysisFeedback that has been created for the submission.
      * @param applySubmissionPolicy true, if penalties from submission policies should be applied.
      * @return the final total score that should be given to the result.
      */
-    private double calculateScore(final ProgrammingExercise programmingExercise, final Set<ProgrammingExerciseTestCase> allTests, final Result result,
+    private double calculateScore(final ProgrammingExercise programmingExercise, final ScoreCalculationContext context, final Result result,
             final Set<ProgrammingExerciseTestCase> successfulTestCases, final List<Feedback> staticCodeAnalysisFeedback, boolean applySubmissionPolicy) {
         if (successfulTestCases.isEmpty()) {
             return 0;
         }
 
+        final Set<ProgrammingExerciseTestCase> allTests = context.testCases();
         final double weightSum = allTests.stream().filter(testCase -> !testCase.isInvisible()).mapToDouble(ProgrammingExerciseTestCase::getWeight).sum();
 
         double successfulTestPoints = calculateSuccessfulTestPoints(programmingExercise, result, successfulTestCases, allTests.size(), weightSum);
-        successfulTestPoints -= calculateTotalPenalty(programmingExercise, result.getParticipation(), staticCodeAnalysisFeedback, applySubmissionPolicy);
+        successfulTestPoints -= calculateTotalPenalty(programmingExercise, context, result.getParticipation(), staticCodeAnalysisFeedback, applySubmissionPolicy);
 
         if (successfulTestPoints < 0) {
             successfulTestPoints = 0;
@@ -884,18 +913,19 @@ public class ProgrammingExerciseGradingService {
      * This includes the penalties from static code analysis and of submission policies.
      *
      * @param programmingExercise the participation belongs to.
+     * @param context the static code analysis categories of the exercise.
      * @param participation for which should be checked for possible penalties.
      * @param staticCodeAnalysisFeedback automatic feedback from static code analysis.
      * @param applySubmissionPolicy determines if the submission policy should be applied.
      * @return a total penalty that should be deducted from the score.
      */
-    private double calculateTotalPenalty(final ProgrammingExercise programmingExercise, final Participation participation, final List<Feedback> staticCodeAnalysisFeedback,
-            boolean applySubmissionPolicy) {
+    private double calculateTotalPenalty(final ProgrammingExercise programmingExercise, final ScoreCalculationContext context, final Participation participation,
+            final List<Feedback> staticCodeAnalysisFeedback, boolean applySubmissionPolicy) {
         double penalty = 0;
 
         int maxStaticCodeAnalysisPenalty = Optional.ofNullable(programmingExercise.getMaxStaticCodeAnalysisPenalty()).orElse(100);
         if (Boolean.TRUE.equals(programmingExercise.isStaticCodeAnalysisEnabled()) && maxStaticCodeAnalysisPenalty > 0) {
-            penalty += calculateStaticCodeAnalysisPenalty(staticCodeAnalysisFeedback, programmingExercise);
+            penalty += calculateStaticCodeAnalysisPenalty(staticCodeAnalysisFeedback, programmingExercise, context.staticCodeAnalysisCategories());
         }
 
         if (applySubmissionPolicy && programmingExercise.getSubmissionPolicy() instanceof SubmissionPenaltyPolicy penaltyPolicy) {
@@ -909,13 +939,15 @@ public class ProgrammingExerciseGradingService {
      * Calculates the total penalty over all static code analysis issues
      * @param staticCodeAnalysisFeedback The list of static code analysis feedback
      * @param programmingExercise The current exercise
+     * @param categories The static code analysis categories of the exercise
      * @return The sum of all penalties, capped at the maximum allowed penalty
      */
-    private double calculateStaticCodeAnalysisPenalty(final List<Feedback> staticCodeAnalysisFeedback, final ProgrammingExercise programmingExercise) {
+    private double calculateStaticCodeAnalysisPenalty(final List<Feedback> staticCodeAnalysisFeedback, final ProgrammingExercise programmingExercise,
+            final Set<StaticCodeAnalysisCategory> categories) {
         final var feedbackByCategory = staticCodeAnalysisFeedback.stream().collect(Collectors.groupingBy(Feedback::getStaticCodeAnalysisCategory));
         double codeAnalysisPenaltyPoints = 0;
 
-        for (var category : staticCodeAnalysisService.findByExerciseId(programmingExercise.getId())) {
+        for (var category : categories) {
             if (!category.getState().equals(CategoryState.GRADED)) {
                 continue;
             }
@@ -1067,4 +1099,20 @@ public class ProgrammingExerciseGradingService {
             testCaseStatsMap.get(testName).updateWithFeedback(feedback);
         }
     }
+
+    /**
+     * The test cases and the configuration of an exercise that are needed to calculate the scores of its results, loaded once for all results that are updated together.
+     *
+     * @param testCases                               the active test cases of the exercise
+     * @param testCasesBeforeDueDate                  the test cases that are visible to students before the due date
+     * @param testCasesAfterDueDate                   the test cases that are visible to students after the due date
+     * @param staticCodeAnalysisCategoriesWithMapping the static code analysis categories with the mappings of the issues of the analysis tools
+     * @param staticCodeAnalysisCategories            all static code analysis categories of the exercise
+     * @param submissionPolicy                        the submission policy of the exercise, null if there is none or if it was not loaded
+     */
+    private record ScoreCalculationContext(Set<ProgrammingExerciseTestCase> testCases, Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate,
+            Set<ProgrammingExerciseTestCase> testCasesAfterDueDate,
+            List<ImmutablePair<StaticCodeAnalysisCategory, List<StaticCodeAnalysisDefaultCategory.CategoryMapping>>> staticCodeAnalysisCategoriesWithMapping,
+            Set<StaticCodeAnalysisCategory> staticCodeAnalysisCategories, SubmissionPolicy submissionPolicy) {
+    }
 }
@@ -0,0 +1,267 @@
+package de.tum.in.www1.artemis.service.programming;
+
+import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_ACTIVE_RE_EVALUATION_JOB_PER_EXERCISE_CACHE;
+import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_RE_EVALUATION_JOBS_CACHE;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseReEvaluationJobDTO;
+import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseReEvaluationJobDTO.Status;
+import de.tum.in.www1.artemis.web.rest.errors.ConflictException;
+
+/**
+ * Re-evaluates all results of a programming exercise, e.g. after the weights of its test cases changed.
+ * <p>
+ * The results are updated chunk by chunk, see {@link ProgrammingExerciseGradingService#updateAndSaveResultsInChunks}. Re-evaluations can also run in the background as
+ * jobs, whose progress is stored in the distributed cache, so that it can be requested from every instance.
+ * <p>
+ * Every re-evaluation holds a lease on its exercise in the distributed cache, so that an exercise is never re-evaluated multiple times at the same time. The lease expires
+ * shortly after the instance running the re-evaluation stopped renewing it, e.g. because the instance crashed. Jobs that are still running without a lease are failed.
+ */
+@Service
+public class ProgrammingExerciseReEvaluationService {
+
+    private final Logger log = LoggerFactory.getLogger(ProgrammingExerciseReEvaluationService.class);
+
+    /**
+     * Finished jobs are removed from the cache after this time
+     */
+    private static final long JOB_RETENTION_HOURS = 24;
+
+    /**
+     * The lease of a re-evaluation expires after this time unless it is renewed
+     */
+    private static final long LEASE_DURATION_SECONDS = 60;
+
+    private static final long LEASE_RENEWAL_INTERVAL_MILLIS = 15 * 1000;
+
+    /**
+     * A re-evaluation that has to wait for a running re-evaluation of the same exercise is tried again after this time, at most {@link #MAXIMUM_RE_EVALUATION_RETRIES} times
+     */
+    private static final long RE_EVALUATION_RETRY_DELAY_SECONDS = 60;
+
+    private static final int MAXIMUM_RE_EVALUATION_RETRIES = 120;
+
+    private static final String ENTITY_NAME = "programmingExercise";
+
+    private final ProgrammingExerciseGradingService programmingExerciseGradingService;
+
+    /**
+     * Executor shared by all exercises to run the re-evaluation jobs in the background
+     */
+    private final ExecutorService reEvaluationExecutor;
+
+    private final TaskScheduler scheduler;
+
+    private final IMap<String, ProgrammingExerciseReEvaluationJobDTO> jobs;
+
+    // The id of the re-evaluation that currently holds the lease of every exercise
+    private final IMap<Long, String> activeJobIdPerExercise;
+
+    // The exercise ids of the re-evaluations running on this instance, by the id of the re-evaluation, their leases are renewed periodically
+    private final Map<String, Long> leasedExerciseIdPerJobId = new ConcurrentHashMap<>();
+
+    public ProgrammingExerciseReEvaluationService(ProgrammingExerciseGradingService programmingExerciseGradingService, HazelcastInstance hazelcastInstance,
+            @Qualifier("programmingReEvaluationExecutor") ExecutorService reEvaluationExecutor, @Qualifier("taskScheduler") TaskScheduler scheduler) {
+        this.programmingExerciseGradingService = programmingExerciseGradingService;
+        this.reEvaluationExecutor = reEvaluationExecutor;
+        this.scheduler = scheduler;
+        this.jobs = hazelcastInstance.getMap(HAZELCAST_RE_EVALUATION_JOBS_CACHE);
+        this.activeJobIdPerExercise = hazelcastInstance.getMap(HAZELCAST_ACTIVE_RE_EVALUATION_JOB_PER_EXERCISE_CACHE);
+    }
+
+    /**
+     * Re-evaluates and saves the latest results of the given exercise in the calling thread.
+     *
+     * @param exercise                         whose results should be re-evaluated.
+     * @param onlyRegularDueDateParticipations true, if only the results of participations without an individual due date should be re-evaluated.
+     * @return the number of updated results.
+     * @throws ConflictException if the results of the exercise are already re-evaluated.
+     */
+    public int reEvaluateResults(ProgrammingExercise exercise, boolean onlyRegularDueDateParticipations) {
+        final String reEvaluationId = UUID.randomUUID().toString();
+        if (!acquireLease(exercise.getId(), reEvaluationId)) {
+            throw new ConflictException("The results of the exercise are already re-evaluated", ENTITY_NAME, "reEvaluationRunning");
+        }
+        try {
+            final List<Long> participationIds = programmingExerciseGradingService.findStudentParticipationIdsWithResults(exercise, onlyRegularDueDateParticipations);
+            return programmingExerciseGradingService.updateAndSaveResultsInChunks(exercise, participationIds,
+                    (processedParticipations, updatedResults) -> checkLease(exercise.getId(), reEvaluationId));
+        }
+        finally {
+            releaseLease(exercise.getId(), reEvaluationId);
+        }
+    }
+
+    /**
+     * Re-evaluates and saves the latest results of the given exercise in the calling thread like {@link #reEvaluateResults}, but tries again later instead of failing if the
+     * exercise is already re-evaluated. This is used for the score update after the due date, which must not be skipped. The calling thread does not wait for the running
+     * re-evaluation, the next attempt is scheduled on the task scheduler instead. After {@link #MAXIMUM_RE_EVALUATION_RETRIES} attempts, the update is given up.
+     *
+     * @param exercise                         whose results should be re-evaluated.
+     * @param onlyRegularDueDateParticipations true, if only the results of participations without an individual due date should be re-evaluated.
+     */
+    public void reEvaluateResultsAfterRunningReEvaluation(ProgrammingExercise exercise, boolean onlyRegularDueDateParticipations) {
+        reEvaluateResultsOrRetryLater(exercise, onlyRegularDueDateParticipations, 0);
+    }
+
+    private void reEvaluateResultsOrRetryLater(ProgrammingExercise exercise, boolean onlyRegularDueDateParticipations, int retries) {
+        try {
+            reEvaluateResults(exercise, onlyRegularDueDateParticipations);
+        }
+        catch (ConflictException ex) {
+            if (retries >= MAXIMUM_RE_EVALUATION_RETRIES) {
+                log.error("Gave up re-evaluating the results of exercise {}, because another re-evaluation was still running after {} attempts", exercise.getId(), retries + 1);
+                return;
+            }
+            log.info("The results of exercise {} are already re-evaluated, trying again in {} seconds", exercise.getId(), RE_EVALUATION_RETRY_DELAY_SECONDS);
+            scheduler.schedule(() -> {
+                SecurityUtils.setAuthorizationObject();
+                reEvaluateResultsOrRetryLater(exercise, onlyRegularDueDateParticipations, retries + 1);
+            }, Instant.now().plusSeconds(RE_EVALUATION_RETRY_DELAY_SECONDS));
+        }
+    }
+
+    /**
+     * Starts a job that re-evaluates all latest results of the given exercise in the background. If the exercise is already re-evaluated by a running job, no new
+     * job is started.
+     *
+     * @param exercise whose results should be re-evaluated.
+     * @param user     who triggered the re-evaluation.
+     * @param course   the exercise belongs to.
+     * @return the started job, or the job that is already running for the exercise.
+     * @throws ConflictException if the results of the exercise are already re-evaluated in the foreground.
+     */
+    public ProgrammingExerciseReEvaluationJobDTO startReEvaluationJob(ProgrammingExercise exercise, User user, Course course) {
+        final String jobId = UUID.randomUUID().toString();
+        if (!acquireLease(exercise.getId(), jobId)) {
+            final String activeJobId = activeJobIdPerExercise.get(exercise.getId());
+            final ProgrammingExerciseReEvaluationJobDTO activeJob = activeJobId != null ? jobs.get(activeJobId) : null;
+            if (activeJob != null) {
+                return activeJob;
+            }
+            throw new ConflictException("The results of the exercise are already re-evaluated", ENTITY_NAME, "reEvaluationRunning");
+        }
+
+        final var job = new ProgrammingExerciseReEvaluationJobDTO(jobId, exercise.getId(), Status.RUNNING, 0, 0, 0, ZonedDateTime.now(), null);
+        saveJob(job);
+        CompletableFuture.runAsync(() -> runReEvaluationJob(job, exercise, user, course), reEvaluationExecutor);
+        return job;
+    }
+
+    /**
+     * Get the progress of a re-evaluation job. Running jobs whose lease expired are failed, because the instance running them stopped.
+     *
+     * @param jobId the id of the job
+     * @return the job, or an empty optional if it does not exist (anymore)
+     */
+    public Optional<ProgrammingExerciseReEvaluationJobDTO> getReEvaluationJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(this::failJobIfOrphaned);
+    }
+
+    /**
+     * Renews the leases of all re-evaluations running on this instance. Leases that were lost (e.g. because the renewal was delayed for too long) are not acquired again,
+     * the re-evaluation stops after its current chunk in that case.
+     */
+    @Scheduled(fixedRate = LEASE_RENEWAL_INTERVAL_MILLIS)
+    public void renewLeases() {
+        leasedExerciseIdPerJobId.forEach((jobId, exerciseId) -> {
+            if (jobId.equals(activeJobIdPerExercise.get(exerciseId))) {
+                activeJobIdPerExercise.setTtl(exerciseId, LEASE_DURATION_SECONDS, TimeUnit.SECONDS);
+            }
+            else {
+                log.warn("The re-evaluation {} of exercise {} lost its lease", jobId, exerciseId);
+            }
+        });
+    }
+
+    private void runReEvaluationJob(ProgrammingExerciseReEvaluationJobDTO job, ProgrammingExercise exercise, User user, Course course) {
+        SecurityUtils.setAuthorizationObject();
+        final AtomicReference<ProgrammingExerciseReEvaluationJobDTO> progress = new AtomicReference<>(job);
+        try {
+            final List<Long> participationIds = programmingExerciseGradingService.findStudentParticipationIdsWithResults(exercise, false);
+            saveJob(progress.updateAndGet(current -> current.withProgress(0, participationIds.size(), 0)));
+
+            final int updatedResults = programmingExerciseGradingService.updateAndSaveResultsInChunks(exercise, participationIds, (processedParticipations, chunkResults) -> {
+                checkLease(exercise.getId(), job.id());
+                saveJob(progress.updateAndGet(
+                        current -> current.withProgress(processedParticipations, current.totalParticipations(), current.updatedResults() + chunkResults.size())));
+            });
+
+            programmingExerciseGradingService.logReEvaluate(user, exercise, course, updatedResults);
+            checkLease(exercise.getId(), job.id());
+            saveJob(progress.updateAndGet(current -> current.withStatus(Status.FINISHED)));
+        }
+        catch (Exception ex) {
+            log.error("Failed to re-evaluate the results of exercise {} in job {}", exercise.getId(), job.id(), ex);
+            saveJob(progress.updateAndGet(current -> current.withStatus(Status.FAILED)));
+        }
+        finally {
+            releaseLease(exercise.getId(), job.id());
+        }
+    }
+
+    private boolean acquireLease(long exerciseId, String jobId) {
+        if (activeJobIdPerExercise.putIfAbsent(exerciseId, jobId, LEASE_DURATION_SECONDS, TimeUnit.SECONDS) != null) {
+            return false;
+        }
+        leasedExerciseIdPerJobId.put(jobId, exerciseId);
+        return true;
+    }
+
+    private void releaseLease(long exerciseId, String jobId) {
+        leasedExerciseIdPerJobId.remove(jobId);
+        activeJobIdPerExercise.remove(exerciseId, jobId);
+    }
+
+    /**
+     * Stops a re-evaluation that lost its lease, because its job might already be failed and the exercise might be re-evaluated by another instance.
+     */
+    private void checkLease(long exerciseId, String jobId) {
+        if (!jobId.equals(activeJobIdPerExercise.get(exerciseId))) {
+            throw new IllegalStateException("The re-evaluation " + jobId + " of exercise " + exerciseId + " lost its lease");
+        }
+    }
+
+    private ProgrammingExerciseReEvaluationJobDTO failJobIfOrphaned(ProgrammingExerciseReEvaluationJobDTO job) {
+        if (job.status() != Status.RUNNING || job.id().equals(activeJobIdPerExercise.get(job.exerciseId()))) {
+            return job;
+        }
+        // the job is only replaced if it did not change in the meantime, e.g. because it just finished and released its lease
+        final var failedJob = job.withStatus(Status.FAILED);
+        if (jobs.replace(job.id(), job, failedJob)) {
+            log.warn("The re-evaluation job {} of exercise {} was failed, because the instance running it stopped renewing its lease", job.id(), job.exerciseId());
+            jobs.setTtl(job.id(), JOB_RETENTION_HOURS, TimeUnit.HOURS);
+            return failedJob;
+        }
+        return Optional.ofNullable(jobs.get(job.id())).orElse(failedJob);
+    }
+
+    private void saveJob(ProgrammingExerciseReEvaluationJobDTO job) {
+        jobs.set(job.id(), job, JOB_RETENTION_HOURS, TimeUnit.HOURS);
+    }
+}
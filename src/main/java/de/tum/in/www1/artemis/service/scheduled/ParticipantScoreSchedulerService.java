@@ -1,11 +1,11 @@
 package de.tum.in.www1.artemis.service.scheduled;
 
 import java.time.Instant;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -25,12 +25,18 @@ import de.tum.in.www1.artemis.domain.Team;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.participation.Participant;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.scores.ParticipantResultEntry;
 import de.tum.in.www1.artemis.domain.scores.ParticipantScore;
 import de.tum.in.www1.artemis.domain.scores.StudentScore;
 import de.tum.in.www1.artemis.domain.scores.TeamScore;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.CourseScoreCalculationService;
 import de.tum.in.www1.artemis.service.util.RoundingUtil;
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Scheduled service for the calculation of the participant scores.
@@ -40,17 +46,44 @@ import de.tum.in.www1.artemis.service.util.RoundingUtil;
  * Using a listener on the {@link Result} entity, changes are detected and forwarded (via the broker if not on the main instance) to this service.
  * This method is fast, but not 100% reliable. Therefore, a cron job regularly checks for invalid participant scores and updates them.
  * In all cases, using asynchronous scheduled tasks speeds up all requests that modify results.
+ * <p>
+ * Updates are queued per exercise and participant, so that multiple changes of the same participant score within a short time are coalesced into one update.
+ * The queue is drained in batches per exercise, which allows loading the participants, their scores and their results with a fixed number of queries.
  * @see de.tum.in.www1.artemis.service.listeners.ResultListener
  */
 @Service
 @Profile("scheduling")
 public class ParticipantScoreSchedulerService {
 
+    public static final String QUEUE_SIZE_METER_NAME = "artemis.scheduled.participant_scores.queue_size";
+
+    public static final String LATENCY_METER_NAME = "artemis.scheduled.participant_scores.latency";
+
+    public static final String DRAIN_DURATION_METER_NAME = "artemis.scheduled.participant_scores.drain_duration";
+
+    /**
+     * The delay after which queued updates are processed. Updates for the same exercise and participant within this delay are coalesced into one.
+     */
+    private static final long DRAIN_DELAY_MILLIS = 500;
+
+    /**
+     * The maximum number of participants whose scores are updated together with one set of queries
+     */
+    private static final int BATCH_SIZE = 500;
+
     private final Logger logger = LoggerFactory.getLogger(ParticipantScoreSchedulerService.class);
 
     private final TaskScheduler scheduler;
 
-    private final Map<Integer, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
+    /**
+     * The queued updates, only the latest update is kept for every exercise and participant combination
+     */
+    private final Map<ParticipantScoreId, QueuedUpdate> queuedUpdates = new ConcurrentHashMap<>();
+
+    /**
+     * The currently scheduled or running task that drains the queue, null if the queue is not being processed
+     */
+    private ScheduledFuture<?> drainTask;
 
     private Optional<Instant> lastScheduledRun = Optional.empty();
 
@@ -68,9 +101,15 @@ public class ParticipantScoreSchedulerService {
 
     private final TeamRepository teamRepository;
 
+    private final CourseScoreCalculationService courseScoreCalculationService;
+
+    private final Timer latencyTimer;
+
+    private final Timer drainDurationTimer;
+
     public ParticipantScoreSchedulerService(@Qualifier("taskScheduler") TaskScheduler scheduler, ParticipantScoreRepository participantScoreRepository,
             StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository, ExerciseRepository exerciseRepository, ResultRepository resultRepository,
-            UserRepository userRepository, TeamRepository teamRepository) {
+            UserRepository userRepository, TeamRepository teamRepository, CourseScoreCalculationService courseScoreCalculationService, MeterRegistry meterRegistry) {
         this.scheduler = scheduler;
         this.participantScoreRepository = participantScoreRepository;
         this.studentScoreRepository = studentScoreRepository;
@@ -79,14 +118,18 @@ public class ParticipantScoreSchedulerService {
         this.resultRepository = resultRepository;
         this.userRepository = userRepository;
         this.teamRepository = teamRepository;
+        this.courseScoreCalculationService = courseScoreCalculationService;
+        Gauge.builder(QUEUE_SIZE_METER_NAME, queuedUpdates, Map::size).description("Number of participant scores waiting to be updated").register(meterRegistry);
+        this.latencyTimer = Timer.builder(LATENCY_METER_NAME).description("Time between queueing and processing a participant score update").register(meterRegistry);
+        this.drainDurationTimer = Timer.builder(DRAIN_DURATION_METER_NAME).description("Time needed to process all queued participant score updates").register(meterRegistry);
     }
 
     /**
      * Check if the scheduler has tasks to be executed or is idle.
      * @return true if the scheduler is idle, false otherwise
      */
-    public boolean isIdle() {
-        return scheduledTasks.isEmpty();
+    public synchronized boolean isIdle() {
+        return queuedUpdates.isEmpty() && drainTask == null;
     }
 
     /**
@@ -101,12 +144,13 @@ public class ParticipantScoreSchedulerService {
      * Before shutdown, cancel all running or scheduled tasks.
      */
     @PreDestroy
-    public void shutdown() {
+    public synchronized void shutdown() {
         // Stop all running tasks, we will reschedule them on startup again
-        scheduledTasks.values().forEach(future -> {
-            future.cancel(true);
-        });
-        scheduledTasks.clear();
+        if (drainTask != null) {
+            drainTask.cancel(true);
+            drainTask = null;
+        }
+        queuedUpdates.clear();
     }
 
     /**
@@ -157,40 +201,75 @@ public class ParticipantScoreSchedulerService {
     }
 
     /**
-     * Schedule a task to update the participant score for the given combination of exercise and participant.
+     * Queue an update of the participant score for the given combination of exercise and participant.
+     * If an update for this combination is already queued, it is replaced with the latest one.
      * @param exerciseId the id of the exercise
      * @param participantId the id of the participant (user or team, determined by the exercise)
      * @param resultLastModified the last modified date of the result that triggered the update
      * @param resultIdToBeDeleted the id of the result that is about to be deleted (or null, if result is created/updated)
      */
     private void scheduleTask(Long exerciseId, Long participantId, Instant resultLastModified, Long resultIdToBeDeleted) {
-        final int participantScoreHash = new ParticipantScoreId(exerciseId, participantId).hashCode();
-        var task = scheduledTasks.get(participantScoreHash);
-        if (task != null) {
-            // If a task is already scheduled, cancel it and reschedule it with the latest result
-            task.cancel(true);
-            scheduledTasks.remove(participantScoreHash);
-        }
+        queuedUpdates.put(new ParticipantScoreId(exerciseId, participantId), new QueuedUpdate(resultLastModified, resultIdToBeDeleted, System.nanoTime()));
+        scheduleDrainTask();
+        logger.debug("Queued update for exercise {} and participant {}.", exerciseId, participantId);
+    }
 
-        var schedulingTime = ZonedDateTime.now().plus(500, ChronoUnit.MILLIS);
-        var future = scheduler.schedule(() -> this.executeTask(exerciseId, participantId, resultLastModified, resultIdToBeDeleted), schedulingTime.toInstant());
-        scheduledTasks.put(participantScoreHash, future);
-        logger.debug("Scheduled task for exercise {} and participant {} at {}.", exerciseId, participantId, schedulingTime);
+    /**
+     * Schedules the processing of the queue, unless it is already scheduled or running.
+     */
+    private synchronized void scheduleDrainTask() {
+        if (drainTask == null) {
+            drainTask = scheduler.schedule(this::drainQueue, Instant.now().plusMillis(DRAIN_DELAY_MILLIS));
+        }
     }
 
     /**
-     * Execute the task to update the participant score for the given combination of exercise and participant.
-     * @param exerciseId the id of the exercise
-     * @param participantId the id of the participant (user or team, determined by the exercise)
-     * @param resultLastModified the last modified date of the result that triggered the update
-     * @param resultIdToBeDeleted the id of the result that is about to be deleted (optional)
+     * Process all queued updates, grouped by exercise and in batches of {@link #BATCH_SIZE} participants.
      */
-    private void executeTask(Long exerciseId, Long participantId, Instant resultLastModified, Long resultIdToBeDeleted) {
-        long start = System.currentTimeMillis();
-        logger.info("Processing exercise {} and participant {} to update participant scores.", exerciseId, participantId);
+    private void drainQueue() {
+        long start = System.nanoTime();
+        int numberOfUpdates = 0;
         try {
             SecurityUtils.setAuthorizationObject();
+            Map<Long, Map<Long, QueuedUpdate>> updatesByExercise = new HashMap<>();
+            for (var participantScoreId : List.copyOf(queuedUpdates.keySet())) {
+                var update = queuedUpdates.remove(participantScoreId);
+                if (update != null) {
+                    updatesByExercise.computeIfAbsent(participantScoreId.exerciseId(), exerciseId -> new HashMap<>()).put(participantScoreId.participantId(), update);
+                    numberOfUpdates++;
+                }
+            }
+            for (var exerciseEntry : updatesByExercise.entrySet()) {
+                List<Long> participantIds = new ArrayList<>(exerciseEntry.getValue().keySet());
+                for (int fromIndex = 0; fromIndex < participantIds.size(); fromIndex += BATCH_SIZE) {
+                    var batch = participantIds.subList(fromIndex, Math.min(fromIndex + BATCH_SIZE, participantIds.size()));
+                    Map<Long, QueuedUpdate> updatesOfBatch = new HashMap<>();
+                    batch.forEach(participantId -> updatesOfBatch.put(participantId, exerciseEntry.getValue().get(participantId)));
+                    executeBatch(exerciseEntry.getKey(), updatesOfBatch);
+                }
+            }
+        }
+        finally {
+            synchronized (this) {
+                drainTask = null;
+                // Updates that were queued while we processed the queue need another run
+                if (!queuedUpdates.isEmpty()) {
+                    scheduleDrainTask();
+                }
+            }
+        }
+        drainDurationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logger.info("Updating {} participant scores took {}.", numberOfUpdates, TimeLogUtil.formatDurationFrom(start));
+    }
 
+    /**
+     * Update the participant scores for the given exercise and participants with a fixed number of queries.
+     * @param exerciseId the id of the exercise
+     * @param updates the queued updates mapped by the id of the participant (user or team, determined by the exercise)
+     */
+    private void executeBatch(Long exerciseId, Map<Long, QueuedUpdate> updates) {
+        logger.debug("Processing exercise {} and {} participants to update participant scores.", exerciseId, updates.size());
+        try {
             var exercise = exerciseRepository.findById(exerciseId).orElse(null);
             if (exercise == null) {
                 // If the exercise was deleted, we can delete all participant scores for it as well and skip
@@ -199,181 +278,154 @@ public class ParticipantScoreSchedulerService {
                 return;
             }
 
-            Participant participant;
-            Optional<ParticipantScore> participantScore;
+            Map<Long, Participant> participants = new HashMap<>();
+            Map<Long, ParticipantScore> participantScores = new HashMap<>();
+            Map<Long, List<ParticipantResultEntry>> resultEntries = Map.of();
             if (exercise.isTeamMode()) {
-                // Fetch the team and its score for the given exercise
-                participant = teamRepository.findById(participantId).orElse(null);
-                if (participant == null) {
-                    // If the team was deleted, we can delete all participant scores for it as well and skip
-                    logger.debug("Team {} no longer exists, deleting all participant scores for it.", participantId);
-                    teamScoreRepository.deleteAllByTeamId(participantId);
-                    return;
-                }
-                participantScore = teamScoreRepository.findByExercise_IdAndTeam_Id(exerciseId, participantId).map(score -> score);
+                // Fetch the teams and their scores for the given exercise
+                teamRepository.findAllById(updates.keySet()).forEach(team -> participants.put(team.getId(), team));
             }
             else {
-                // Fetch the student and its score for the given exercise
-                participant = userRepository.findById(participantId).orElse(null);
+                // Fetch the students and their scores for the given exercise
+                userRepository.findAllById(updates.keySet()).forEach(user -> participants.put(user.getId(), user));
+            }
+            // Fetch the existing scores and all results of the participants for the given exercise (if not all of them were deleted)
+            if (!participants.isEmpty() && exercise.isTeamMode()) {
+                teamScoreRepository.findAllByExercise_IdAndTeam_IdIn(exerciseId, participants.keySet()).forEach(score -> participantScores.put(score.getTeam().getId(), score));
+                resultEntries = groupByParticipant(
+                        resultRepository.getResultEntriesOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeams(exerciseId, participants.keySet()));
+            }
+            else if (!participants.isEmpty()) {
+                studentScoreRepository.findAllByExercise_IdAndUser_IdIn(exerciseId, participants.keySet()).forEach(score -> participantScores.put(score.getUser().getId(), score));
+                resultEntries = groupByParticipant(
+                        resultRepository.getResultEntriesOrderedByParticipationIdLegalSubmissionIdResultIdDescForStudents(exerciseId, participants.keySet()));
+            }
+
+            List<ParticipantScore> scoresToSave = new ArrayList<>();
+            List<ParticipantScore> scoresToDelete = new ArrayList<>();
+            List<Long> updatedParticipantIds = new ArrayList<>();
+            for (var updateEntry : updates.entrySet()) {
+                Long participantId = updateEntry.getKey();
+                QueuedUpdate update = updateEntry.getValue();
+                latencyTimer.record(System.nanoTime() - update.queuedAt(), TimeUnit.NANOSECONDS);
+
+                Participant participant = participants.get(participantId);
                 if (participant == null) {
-                    // If the user was deleted, we can delete all participant scores for it as well and skip
-                    logger.debug("User {} no longer exists, deleting all participant scores for them.", participantId);
-                    studentScoreRepository.deleteAllByUserId(participantId);
-                    return;
+                    // If the participant was deleted, we can delete all participant scores for it as well and skip
+                    logger.debug("Participant {} no longer exists, deleting all participant scores for it.", participantId);
+                    if (exercise.isTeamMode()) {
+                        teamScoreRepository.deleteAllByTeamId(participantId);
+                    }
+                    else {
+                        studentScoreRepository.deleteAllByUserId(participantId);
+                    }
+                    continue;
                 }
-                participantScore = studentScoreRepository.findByExercise_IdAndUser_Id(exerciseId, participantId).map(score -> score);
-            }
 
-            if (participantScore.isPresent()) {
-                var lastModified = participantScore.get().getLastModifiedDate();
-                if (lastModified != null && lastModified.isAfter(resultLastModified)) {
-                    // The participant score was already updated after the last modified date of the result that this task
-                    // We assume we already processed the result with the last task that ran and therefore skip the processing
-                    logger.debug("Participant score {} is already up-to-date, skipping.", participantScore.get().getId());
-                    return;
+                ParticipantScore participantScore = participantScores.get(participantId);
+                if (participantScore != null) {
+                    var lastModified = participantScore.getLastModifiedDate();
+                    if (lastModified != null && lastModified.isAfter(update.resultLastModified())) {
+                        // The participant score was already updated after the last modified date of the result that triggered this update
+                        // We assume we already processed the result with the last task that ran and therefore skip the processing
+                        logger.debug("Participant score {} is already up-to-date, skipping.", participantScore.getId());
+                        continue;
+                    }
                 }
-            }
-            else {
-                if (resultIdToBeDeleted != null) {
-                    // A participant score for this exercise/participant combination does not exist and this task was triggered because a result will be deleted
-                    // It is very likely that the whole participation or exercise is about to be deleted and their participant scores were already removed
-                    // We do not need to do anything in that case
-                    logger.debug("Result {} will be deleted and participant score for its participation is already gone, skipping.", resultIdToBeDeleted);
-                    return;
+                else {
+                    if (update.resultIdToBeDeleted() != null) {
+                        // A participant score for this exercise/participant combination does not exist and this task was triggered because a result will be deleted
+                        // It is very likely that the whole participation or exercise is about to be deleted and their participant scores were already removed
+                        // We do not need to do anything in that case
+                        logger.debug("Result {} will be deleted and participant score for its participation is already gone, skipping.", update.resultIdToBeDeleted());
+                        continue;
+                    }
+                    // Create a new participant score
+                    participantScore = createParticipantScore(participant, exercise);
                 }
-            }
 
-            // Either use the existing participant score or create a new one
-            var score = participantScore.orElseGet(() -> {
-                if (participant instanceof Team team) {
-                    var teamScore = new TeamScore();
-                    teamScore.setTeam(team);
-                    teamScore.setExercise(exercise);
-                    return teamScore;
-                }
-                else if (participant instanceof User user) {
-                    var studentScore = new StudentScore();
-                    studentScore.setUser(user);
-                    studentScore.setExercise(exercise);
-                    return studentScore;
+                // Now do the heavy lifting and calculate the latest score based on all results for this exercise
+                // The result that is about to be deleted is excluded from the calculation
+                updateParticipantScore(participantScore, resultEntries.getOrDefault(participantId, List.of()), update.resultIdToBeDeleted());
+
+                // Persist the changes or delete the participant score if it is not needed anymore
+                if (participantScore.getLastRatedResult() == null && participantScore.getLastResult() == null) {
+                    if (participantScore.getId() != null) {
+                        // Delete the participant score if it exists in the database
+                        scoresToDelete.add(participantScore);
+                    }
                 }
                 else {
-                    return null;
+                    scoresToSave.add(participantScore);
                 }
-            });
+                updatedParticipantIds.add(participantId);
+            }
+            participantScoreRepository.saveAll(scoresToSave);
+            participantScoreRepository.deleteAll(scoresToDelete);
+            logger.debug("Updated {} and deleted {} participant scores for exercise {}.", scoresToSave.size(), scoresToDelete.size(), exerciseId);
 
-            // Now do the heavy lifting and calculate the latest score based on all results for this exercise
-            // The result that is about to be deleted is excluded from the calculation
-            if (resultIdToBeDeleted != null) {
-                updateParticipantScore(score, resultIdToBeDeleted);
+            // The course scores of the participants depend on their results as well, so they are calculated again the next time they are used
+            courseScoreCalculationService.invalidateCourseScoresOfParticipants(exercise, updatedParticipantIds);
+        }
+        catch (Exception e) {
+            if (updates.size() > 1) {
+                // Do not lose the updates of all participants because of one failing participant, instead update each participant on its own
+                logger.warn("Exception while processing participant scores for exercise {} in a batch, updating each participant separately:", exerciseId, e);
+                updates.forEach((participantId, update) -> executeBatch(exerciseId, Map.of(participantId, update)));
             }
             else {
-                updateParticipantScore(score);
+                logger.error("Exception while processing participant scores for exercise {} and participants {}:", exerciseId, updates.keySet(), e);
             }
         }
-        catch (Exception e) {
-            logger.error("Exception while processing participant score for exercise {} and participant {} for participant scores:", exerciseId, participantId, e);
-        }
-        finally {
-            scheduledTasks.remove(new ParticipantScoreId(exerciseId, participantId).hashCode());
-        }
-        long end = System.currentTimeMillis();
-        logger.info("Updating the participant score for exercise {} and participant {} took {} ms.", exerciseId, participantId, end - start);
     }
 
-    /**
-     * Updates the given participant score by fetching the last (rated) results from the database.
-     * If both no result and no rated result is found, the participant score is deleted.
-     * @param participantScore The participant score to update (with the exercise eager loaded)
-     * @param resultIdsToIgnore A list of result ids to ignore when calculating the score
-     */
-    private void updateParticipantScore(ParticipantScore participantScore, Long... resultIdsToIgnore) {
-        var lastRatedResult = getLastRatedResultForParticipantScore(participantScore, resultIdsToIgnore).orElse(null);
-        setLastRatedAttributes(participantScore, lastRatedResult, participantScore.getExercise());
-
-        var lastResult = getLastResultForParticipantScore(participantScore, resultIdsToIgnore).orElse(null);
-        setLastAttributes(participantScore, lastResult, participantScore.getExercise());
-
-        // Persist the changes or delete the participant score if it is not needed anymore
-        if (participantScore.getLastRatedResult() == null && participantScore.getLastResult() == null) {
-            if (participantScore.getId() != null) {
-                // Delete the participant score if it exists in the database
-                participantScoreRepository.delete(participantScore);
-                logger.debug("Deleted participant score {}.", participantScore.getId());
-            }
-        }
-        else {
-            participantScoreRepository.save(participantScore);
-            logger.debug("Updated participant score {}.", participantScore.getId());
-        }
+    private static Map<Long, List<ParticipantResultEntry>> groupByParticipant(List<ParticipantResultEntry> resultEntries) {
+        // groupingBy keeps the order of the results for each participant
+        return resultEntries.stream().collect(Collectors.groupingBy(ParticipantResultEntry::participantId));
     }
 
-    /**
-     * Get the result that can replace the currently set last result for a participant score
-     *
-     * @author Stefan Waldhauser
-     * @param participantScore the participant score to update (user/team and exercise must be set)
-     * @param resultIdsToIgnore a list of ids to ignore when fetching the last result
-     * @return optional of new result
-     */
-    private Optional<Result> getLastResultForParticipantScore(ParticipantScore participantScore, Long[] resultIdsToIgnore) {
-        // the new last result (result with the highest id of submission with the highest id) will be at the beginning of the list
-        Optional<Result> resultOrdered;
-        if (participantScore instanceof StudentScore studentScore) {
-            resultOrdered = resultRepository
-                    .getResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForStudent(participantScore.getExercise().getId(), studentScore.getUser().getId()).stream()
-                    .filter(result -> Arrays.stream(resultIdsToIgnore).noneMatch(id -> id.equals(result.getId()))).findFirst();
-        }
-        else if (participantScore instanceof TeamScore teamScore) {
-            resultOrdered = resultRepository
-                    .getResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeam(participantScore.getExercise().getId(), teamScore.getTeam().getId()).stream()
-                    .filter(result -> Arrays.stream(resultIdsToIgnore).noneMatch(id -> id.equals(result.getId()))).findFirst();
+    private static ParticipantScore createParticipantScore(Participant participant, Exercise exercise) {
+        if (participant instanceof Team team) {
+            var teamScore = new TeamScore();
+            teamScore.setTeam(team);
+            teamScore.setExercise(exercise);
+            return teamScore;
         }
-        else {
-            return Optional.empty();
-        }
-        return resultOrdered;
+        var studentScore = new StudentScore();
+        studentScore.setUser((User) participant);
+        studentScore.setExercise(exercise);
+        return studentScore;
     }
 
     /**
-     * Get the result that can replace the currently set last rated result for a participant score
-     *
-     * @author Stefan Waldhauser
-     * @param participantScore the participant score to update (user/team and exercise must be set)
-     * @param resultIdsToIgnore a list of ids to ignore when fetching the last rated result
-     * @return optional of new result
+     * Updates the given participant score with the last (rated) result of the participant.
+     * @param participantScore The participant score to update (with the exercise eager loaded)
+     * @param resultEntries All results of the participant for the exercise, the new last result (result with the highest id of submission with the highest id) comes first
+     * @param resultIdToIgnore The id of a result to ignore when calculating the score (or null)
      */
-    private Optional<Result> getLastRatedResultForParticipantScore(ParticipantScore participantScore, Long[] resultIdsToIgnore) {
-        // the new last rated result (rated result with the highest id of submission with the highest id) will be at the beginning of the list
-        Optional<Result> ratedResultsOrdered;
-        if (participantScore instanceof StudentScore studentScore) {
-            ratedResultsOrdered = resultRepository
-                    .getRatedResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForStudent(participantScore.getExercise().getId(), studentScore.getUser().getId()).stream()
-                    .filter(result -> Arrays.stream(resultIdsToIgnore).noneMatch(id -> id.equals(result.getId()))).findFirst();
-        }
-        else if (participantScore instanceof TeamScore teamScore) {
-            ratedResultsOrdered = resultRepository
-                    .getRatedResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeam(participantScore.getExercise().getId(), teamScore.getTeam().getId()).stream()
-                    .filter(result -> Arrays.stream(resultIdsToIgnore).noneMatch(id -> id.equals(result.getId()))).findFirst();
-        }
-        else {
-            return Optional.empty();
-        }
-        return ratedResultsOrdered;
+    private void updateParticipantScore(ParticipantScore participantScore, List<ParticipantResultEntry> resultEntries, Long resultIdToIgnore) {
+        var relevantResultEntries = resultEntries.stream().filter(entry -> !entry.resultId().equals(resultIdToIgnore)).toList();
+
+        var lastRatedResult = relevantResultEntries.stream().filter(entry -> Boolean.TRUE.equals(entry.rated())).findFirst().orElse(null);
+        setLastRatedAttributes(participantScore, lastRatedResult, participantScore.getExercise());
+
+        var lastResult = relevantResultEntries.stream().findFirst().orElse(null);
+        setLastAttributes(participantScore, lastResult, participantScore.getExercise());
     }
 
     /**
      * @author Stefan Waldhauser
      */
-    private void setLastAttributes(ParticipantScore associatedParticipantScore, Result newLastResult, Exercise exercise) {
-        associatedParticipantScore.setLastResult(newLastResult);
+    private void setLastAttributes(ParticipantScore associatedParticipantScore, ParticipantResultEntry newLastResult, Exercise exercise) {
         if (newLastResult == null) {
+            associatedParticipantScore.setLastResult(null);
             associatedParticipantScore.setLastScore(null);
             associatedParticipantScore.setLastPoints(null);
         }
         else {
-            associatedParticipantScore.setLastScore(newLastResult.getScore());
-            associatedParticipantScore.setLastPoints(RoundingUtil.roundScoreSpecifiedByCourseSettings(newLastResult.getScore() * 0.01 * exercise.getMaxPoints(),
+            associatedParticipantScore.setLastResult(resultRepository.getReferenceById(newLastResult.resultId()));
+            associatedParticipantScore.setLastScore(newLastResult.score());
+            associatedParticipantScore.setLastPoints(RoundingUtil.roundScoreSpecifiedByCourseSettings(newLastResult.score() * 0.01 * exercise.getMaxPoints(),
                     exercise.getCourseViaExerciseGroupOrCourseMember()));
         }
     }
@@ -381,15 +433,16 @@ public class ParticipantScoreSchedulerService {
     /**
      * @author Stefan Waldhauser
      */
-    private void setLastRatedAttributes(ParticipantScore associatedParticipantScore, Result newLastRatedResult, Exercise exercise) {
-        associatedParticipantScore.setLastRatedResult(newLastRatedResult);
+    private void setLastRatedAttributes(ParticipantScore associatedParticipantScore, ParticipantResultEntry newLastRatedResult, Exercise exercise) {
         if (newLastRatedResult == null) {
+            associatedParticipantScore.setLastRatedResult(null);
             associatedParticipantScore.setLastRatedScore(null);
             associatedParticipantScore.setLastRatedPoints(null);
         }
         else {
-            associatedParticipantScore.setLastRatedScore(newLastRatedResult.getScore());
-            associatedParticipantScore.setLastRatedPoints(RoundingUtil.roundScoreSpecifiedByCourseSettings(newLastRatedResult.getScore() * 0.01 * exercise.getMaxPoints(),
+            associatedParticipantScore.setLastRatedResult(resultRepository.getReferenceById(newLastRatedResult.resultId()));
+            associatedParticipantScore.setLastRatedScore(newLastRatedResult.score());
+            associatedParticipantScore.setLastRatedPoints(RoundingUtil.roundScoreSpecifiedByCourseSettings(newLastRatedResult.score() * 0.01 * exercise.getMaxPoints(),
                     exercise.getCourseViaExerciseGroupOrCourseMember()));
         }
     }
@@ -401,4 +454,13 @@ public class ParticipantScoreSchedulerService {
      */
     public record ParticipantScoreId(Long exerciseId, Long participantId) {
     }
+
+    /**
+     * A queued update of a participant score.
+     * @param resultLastModified the last modified date of the result that triggered the update
+     * @param resultIdToBeDeleted the id of the result that is about to be deleted (or null, if result is created/updated)
+     * @param queuedAt the time (in nanoseconds, see {@link System#nanoTime()}) when the update was queued
+     */
+    private record QueuedUpdate(Instant resultLastModified, Long resultIdToBeDeleted, long queuedAt) {
+    }
 }
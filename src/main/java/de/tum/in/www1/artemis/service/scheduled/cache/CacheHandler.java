@@ -3,6 +3,7 @@ package de.tum.in.www1.artemis.service.scheduled.cache;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.UnaryOperator;
 
 import org.slf4j.Logger;
@@ -11,17 +12,26 @@ import org.slf4j.LoggerFactory;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 public abstract class CacheHandler<K> {
 
+    public static final String LOCK_WAIT_METER_NAME = "artemis.cache.lock.wait";
+
     private final Logger logger = LoggerFactory.getLogger(CacheHandler.class);
 
     protected final HazelcastInstance hazelcastInstance;
 
     protected final IMap<K, Cache> cache;
 
-    protected CacheHandler(HazelcastInstance hazelcastInstance, String name) {
+    private final Timer lockWaitTimer;
+
+    protected CacheHandler(HazelcastInstance hazelcastInstance, String name, MeterRegistry meterRegistry) {
         this.hazelcastInstance = hazelcastInstance;
         this.cache = hazelcastInstance.getMap(name);
+        this.lockWaitTimer = Timer.builder(LOCK_WAIT_METER_NAME).description("Time spent waiting for the cluster-wide lock of a cache entry").tag("cache", name)
+                .register(meterRegistry);
     }
 
     /**
@@ -86,26 +96,13 @@ public abstract class CacheHandler<K> {
         if (cached != null) {
             return cached;
         }
-        // Otherwise, lock the cache for this specific key
-        cache.lock(key);
-        try {
-            // Check again, if no existing cache can be found
-            cached = cache.get(key);
-            // If it is now not null anymore, a concurrent process created a new one in the meantime before the lock. Return that one.
-            if (cached != null) {
-                return cached;
-            }
-            // Create a new QuizExerciseDistributedCache object and initialize it.
-            var newCached = createDistributedCacheValue(key);
-            // Place the new cache object in the distributed map (this will apparently *not* place it in the near OBJECT cache)
-            cache.set(key, newCached);
-            // Return the new deserialized, new cached object returned by get()
-            // (this is not the newCachedQuiz object anymore, although we use near caching in OBJECT in-memory format, because Hazelcast.)
-            return cache.get(key);
-        }
-        finally {
-            cache.unlock(key);
-        }
+        // Otherwise, place a new cache object in the distributed map. This does not need the lock: putIfAbsent is atomic, so if a concurrent process created a cache object in the
+        // meantime, that one is kept and the new object is simply discarded.
+        // (this will apparently *not* place it in the near OBJECT cache)
+        cache.putIfAbsent(key, createDistributedCacheValue(key));
+        // Return the new deserialized, new cached object returned by get()
+        // (this is not the object created above anymore, although we use near caching in OBJECT in-memory format, because Hazelcast.)
+        return cache.get(key);
     }
 
     /**
@@ -118,7 +115,7 @@ public abstract class CacheHandler<K> {
      * @implNote This operation locks the cache for the given <code>quizExerciseId</code> while the operation is executed. This prevents simultaneous writes.
      */
     public void performCacheWrite(K key, UnaryOperator<Cache> writeOperation) {
-        cache.lock(key);
+        lock(key);
         try {
             logger.info("Write cache {}", key);
             cache.set(key, writeOperation.apply(getTransientWriteCacheFor(key)));
@@ -140,7 +137,7 @@ public abstract class CacheHandler<K> {
      * @implNote This operation locks the cache for the given <code>quizExerciseId</code> while the operation is executed. This prevents simultaneous writes.
      */
     public void performCacheWriteIfPresent(K key, UnaryOperator<Cache> writeOperation) {
-        cache.lock(key);
+        lock(key);
         try {
             Cache cached = cache.get(key);
             if (cached != null) {
@@ -155,6 +152,17 @@ public abstract class CacheHandler<K> {
         }
     }
 
+    /**
+     * Acquires the cluster-wide lock for the given key and records the time spent waiting for it.
+     *
+     * @param key the id of the cache to lock
+     */
+    private void lock(K key) {
+        long start = System.nanoTime();
+        cache.lock(key);
+        lockWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
     /**
      * This removes the cache of given id from the cache, if possible.
      * <p>
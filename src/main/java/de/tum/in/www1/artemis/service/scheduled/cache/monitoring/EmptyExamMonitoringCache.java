@@ -1,12 +1,13 @@
 package de.tum.in.www1.artemis.service.scheduled.cache.monitoring;
 
-import java.util.Map;
-import java.util.function.UnaryOperator;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import de.tum.in.www1.artemis.domain.exam.monitoring.ExamActivity;
+import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
 
 /**
  * Empty cache exam monitoring object representing a cache miss.
@@ -29,12 +30,28 @@ public class EmptyExamMonitoringCache extends ExamMonitoringCache {
     }
 
     @Override
-    Map<Long, ExamActivity> getActivities() {
-        return Map.of();
+    Set<Long> getStudentExamIds() {
+        return Set.of();
     }
 
     @Override
-    void updateActivity(Long activityId, UnaryOperator<ExamActivity> writeOperation) {
+    void addAction(Long studentExamId, ExamAction action) {
+        logger.error("EmptyExamMonitoringCache cannot be updated");
+        throwModificationAttemptException();
+    }
+
+    @Override
+    Collection<ExamAction> removeActions(Long studentExamId) {
+        return List.of();
+    }
+
+    @Override
+    String getStudentLogin(Long studentExamId) {
+        return null;
+    }
+
+    @Override
+    void setStudentLogin(Long studentExamId, String login) {
         logger.error("EmptyExamMonitoringCache cannot be updated");
         throwModificationAttemptException();
     }
@@ -8,6 +8,7 @@ import com.hazelcast.core.HazelcastInstance;
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.service.scheduled.cache.Cache;
 import de.tum.in.www1.artemis.service.scheduled.cache.CacheHandler;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * This class manages all {@link ExamMonitoringCache}s for all cached exams.
@@ -25,8 +26,8 @@ import de.tum.in.www1.artemis.service.scheduled.cache.CacheHandler;
  */
 final class ExamCache extends CacheHandler<Long> {
 
-    public ExamCache(HazelcastInstance hazelcastInstance) {
-        super(hazelcastInstance, Constants.HAZELCAST_MONITORING_CACHE);
+    public ExamCache(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        super(hazelcastInstance, Constants.HAZELCAST_MONITORING_CACHE, meterRegistry);
     }
 
     @Override
@@ -41,6 +42,7 @@ final class ExamCache extends CacheHandler<Long> {
      */
     static void configureHazelcast(Config config) {
         ExamMonitoringCache.registerSerializers(config);
+        ExamMonitoringCache.configureActions(config);
     }
 
     @Override
@@ -1,12 +1,12 @@
 package de.tum.in.www1.artemis.service.scheduled.cache.monitoring;
 
-import java.util.Map;
+import java.util.Collection;
 import java.util.Objects;
-import java.util.function.UnaryOperator;
+import java.util.Set;
 
 import com.hazelcast.config.Config;
 
-import de.tum.in.www1.artemis.domain.exam.monitoring.ExamActivity;
+import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
 import de.tum.in.www1.artemis.service.scheduled.cache.Cache;
 
 /**
@@ -32,16 +32,39 @@ abstract class ExamMonitoringCache implements Cache {
     }
 
     /**
-     * ExamActivity by student exam id
+     * Returns the ids of all student exams with actions that are not yet saved.
+     * @return the student exam ids (keys of the actions)
      */
-    abstract Map<Long, ExamActivity> getActivities();
+    abstract Set<Long> getStudentExamIds();
 
     /**
-     * Updates a specific activity without locking the entire exam cache.
-     * @param activityId activity to update
-     * @param writeOperation performs the operation on the exam activity
+     * Appends an action of a student exam without locking the exam cache or the student exam.
+     * @param studentExamId the student exam the action belongs to
+     * @param action the action to append
      */
-    abstract void updateActivity(Long activityId, UnaryOperator<ExamActivity> writeOperation);
+    abstract void addAction(Long studentExamId, ExamAction action);
+
+    /**
+     * Atomically removes all actions of a student exam, e.g. to save them in the database.
+     * Actions added concurrently are either returned or stay in the cache, they are never lost.
+     * @param studentExamId the student exam the actions belong to
+     * @return the removed actions in the order they were added
+     */
+    abstract Collection<ExamAction> removeActions(Long studentExamId);
+
+    /**
+     * Returns the login of the student a student exam of this exam belongs to, if it was already verified.
+     * @param studentExamId the id of the student exam
+     * @return the login of the student or null if the student exam was not verified yet
+     */
+    abstract String getStudentLogin(Long studentExamId);
+
+    /**
+     * Remembers that a student exam belongs to this exam and the student with the given login, so that the actions of the student exam do not have to be verified again.
+     * @param studentExamId the id of the student exam
+     * @param login the login of the student the student exam belongs to
+     */
+    abstract void setStudentLogin(Long studentExamId, String login);
 
     @Override
     public final int hashCode() {
@@ -77,4 +100,8 @@ abstract class ExamMonitoringCache implements Cache {
     static void registerSerializers(Config config) {
         ExamMonitoringDistributedCache.registerSerializer(config);
     }
+
+    static void configureActions(Config config) {
+        ExamMonitoringDistributedCache.configureActions(config);
+    }
 }
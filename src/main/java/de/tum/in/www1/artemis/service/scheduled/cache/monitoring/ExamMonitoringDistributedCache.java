@@ -1,9 +1,9 @@
 package de.tum.in.www1.artemis.service.scheduled.cache.monitoring;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.Collection;
 import java.util.Objects;
-import java.util.function.UnaryOperator;
+import java.util.Set;
 
 import javax.validation.constraints.NotNull;
 
@@ -11,16 +11,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.config.MultiMapConfig;
 import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.HazelcastInstanceAware;
 import com.hazelcast.map.IMap;
+import com.hazelcast.multimap.MultiMap;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.StreamSerializer;
 
 import de.tum.in.www1.artemis.config.Constants;
-import de.tum.in.www1.artemis.domain.exam.monitoring.ExamActivity;
+import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
 
 /**
  * This class represents the cache for a single exam monitoring.
@@ -30,13 +32,25 @@ public class ExamMonitoringDistributedCache extends ExamMonitoringCache implemen
 
     private final Logger logger = LoggerFactory.getLogger(ExamMonitoringDistributedCache.class);
 
-    private static final String HAZELCAST_CACHE_ACTIVITIES = "-activities";
+    private static final String HAZELCAST_CACHE_ACTIONS = "-actions";
+
+    private static final String HAZELCAST_CACHE_STUDENT_LOGINS = "-student-logins";
 
     /**
-     * This IMap is a distributed Hazelcast object and must not be (de-)serialized, it is set in the
+     * This MultiMap is a distributed Hazelcast object and must not be (de-)serialized, it is set in the
      * setHazelcastInstance method.
+     * <p>
+     * It is an append-only buffer of the actions by student exam id. The entries are partitioned by student exam id, so adding an action only involves the partition of the
+     * student exam and does not need any lock.
      */
-    private transient IMap<Long, ExamActivity> activities;
+    private transient MultiMap<Long, ExamAction> actions;
+
+    /**
+     * This IMap is a distributed Hazelcast object and must not be (de-)serialized, it is set in the setHazelcastInstance method.
+     * <p>
+     * It contains the logins of the students by the ids of their student exams, for all student exams that were already verified to belong to the exam.
+     */
+    private transient IMap<Long, String> studentLogins;
 
     public ExamMonitoringDistributedCache(Long examId) {
         super(Objects.requireNonNull(examId, "examId must not be null"));
@@ -44,17 +58,38 @@ public class ExamMonitoringDistributedCache extends ExamMonitoringCache implemen
     }
 
     @Override
-    Map<Long, ExamActivity> getActivities() {
-        return activities;
+    Set<Long> getStudentExamIds() {
+        return actions.keySet();
+    }
+
+    @Override
+    void addAction(Long studentExamId, ExamAction action) {
+        actions.put(studentExamId, action);
+    }
+
+    @Override
+    Collection<ExamAction> removeActions(Long studentExamId) {
+        return actions.remove(studentExamId);
+    }
+
+    @Override
+    String getStudentLogin(Long studentExamId) {
+        return studentLogins.get(studentExamId);
+    }
+
+    @Override
+    void setStudentLogin(Long studentExamId, String login) {
+        studentLogins.set(studentExamId, login);
     }
 
     @Override
     public void clear() {
-        int activitiesSize = activities.size();
-        if (activitiesSize > 0) {
-            logger.warn("Cache for Exam {} destroyed with {} activities cached", getExamId(), activitiesSize);
+        int actionsSize = actions.size();
+        if (actionsSize > 0) {
+            logger.warn("Cache for Exam {} destroyed with {} actions cached", getExamId(), actionsSize);
         }
-        activities.destroy();
+        actions.destroy();
+        studentLogins.destroy();
     }
 
     @Override
@@ -63,7 +98,8 @@ public class ExamMonitoringDistributedCache extends ExamMonitoringCache implemen
          * Distributed Hazelcast objects will be automatically created and set up by Hazelcast, and are cached by the Hazelcast instance itself globally. This is a relatively
          * lightweight operation.
          */
-        activities = hazelcastInstance.getMap(Constants.HAZELCAST_MONITORING_PREFIX + getExamId() + HAZELCAST_CACHE_ACTIVITIES);
+        actions = hazelcastInstance.getMultiMap(Constants.HAZELCAST_MONITORING_PREFIX + getExamId() + HAZELCAST_CACHE_ACTIONS);
+        studentLogins = hazelcastInstance.getMap(Constants.HAZELCAST_MONITORING_PREFIX + getExamId() + HAZELCAST_CACHE_STUDENT_LOGINS);
     }
 
     static class ExamMonitoringDistributedCacheStreamSerializer implements StreamSerializer<ExamMonitoringDistributedCache> {
@@ -92,14 +128,8 @@ public class ExamMonitoringDistributedCache extends ExamMonitoringCache implemen
         config.getSerializationConfig().addSerializerConfig(serializerConfig);
     }
 
-    @Override
-    public void updateActivity(Long activityId, UnaryOperator<ExamActivity> writeOperation) {
-        activities.lock(activityId);
-        try {
-            activities.set(activityId, writeOperation.apply(activities.get(activityId)));
-        }
-        finally {
-            activities.unlock(activityId);
-        }
+    static void configureActions(Config config) {
+        // keep all actions in the order they were added (the default SET would drop actions with the same content)
+        config.getMultiMapConfig(Constants.HAZELCAST_MONITORING_PREFIX + "*" + HAZELCAST_CACHE_ACTIONS).setValueCollectionType(MultiMapConfig.ValueCollectionType.LIST);
     }
 }
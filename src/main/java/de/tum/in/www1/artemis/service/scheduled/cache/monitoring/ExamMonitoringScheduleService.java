@@ -1,7 +1,11 @@
 package de.tum.in.www1.artemis.service.scheduled.cache.monitoring;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledFuture;
 
 import javax.annotation.PostConstruct;
@@ -9,7 +13,9 @@ import javax.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
@@ -22,23 +28,33 @@ import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
 import de.tum.in.www1.artemis.domain.exam.monitoring.ExamActivity;
+import de.tum.in.www1.artemis.repository.ExamActionRepository;
 import de.tum.in.www1.artemis.repository.ExamRepository;
 import de.tum.in.www1.artemis.repository.StudentExamRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.WebsocketMessagingService;
 import de.tum.in.www1.artemis.service.scheduled.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
  * For all {@link Exam}s where monitoring is enabled, the scheduling service schedules the cache reset after another 30 minutes {@link Constants}
  * after the last {@link StudentExam} is completed. In addition, it takes care of adding new {@link ExamAction}s per {@link ExamActivity} and {@link Exam}.
  * The service works as an interface for the distributed hazelcast exam monitoring cache;
+ * <p>
+ * New actions are appended to the cache per student exam without any lock. Every instance sends the actions it received to the subscribers once per
+ * {@link Constants#MONITORING_ACTION_BROADCAST_DELAY} and the instance with the scheduling profile periodically saves the buffered actions in the database.
  */
 @Service
 public class ExamMonitoringScheduleService {
 
     private final Logger logger = LoggerFactory.getLogger(ExamMonitoringScheduleService.class);
 
+    private static final int EXAM_ACTION_PAGE_SIZE = 1000;
+
+    @Value("${artemis.exam-monitoring.action-save-interval:10}")
+    private long actionSaveInterval;
+
     private final ExamCache examCache;
 
     private final TaskScheduler scheduler;
@@ -53,14 +69,22 @@ public class ExamMonitoringScheduleService {
 
     private final WebsocketMessagingService messagingService;
 
+    private final ExamActionRepository examActionRepository;
+
+    /**
+     * The actions received by this instance that have not been sent to the subscribers yet, by exam id.
+     */
+    private final Map<Long, Queue<ExamAction>> pendingBroadcasts = new ConcurrentHashMap<>();
+
     public ExamMonitoringScheduleService(HazelcastInstance hazelcastInstance, @Qualifier("taskScheduler") TaskScheduler scheduler, Environment env, ExamRepository examRepository,
-            StudentExamRepository studentExamRepository, WebsocketMessagingService messagingService) {
-        this.examCache = new ExamCache(hazelcastInstance);
+            StudentExamRepository studentExamRepository, WebsocketMessagingService messagingService, MeterRegistry meterRegistry, ExamActionRepository examActionRepository) {
+        this.examCache = new ExamCache(hazelcastInstance, meterRegistry);
         this.scheduler = scheduler;
         this.env = env;
         this.examRepository = examRepository;
         this.studentExamRepository = studentExamRepository;
         this.messagingService = messagingService;
+        this.examActionRepository = examActionRepository;
     }
 
     /**
@@ -77,6 +101,8 @@ public class ExamMonitoringScheduleService {
      */
     @PostConstruct
     public void startSchedule() {
+        // Every instance sends the actions it received itself, independent of the active profiles
+        scheduler.scheduleWithFixedDelay(this::broadcastPendingExamActions, Duration.ofMillis(Constants.MONITORING_ACTION_BROADCAST_DELAY));
         try {
             Collection<String> activeProfiles = Arrays.asList(env.getActiveProfiles());
             if (activeProfiles.contains(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)) {
@@ -92,6 +118,9 @@ public class ExamMonitoringScheduleService {
 
             SecurityUtils.setAuthorizationObject();
 
+            var saveInterval = Duration.ofSeconds(actionSaveInterval);
+            scheduler.scheduleWithFixedDelay(this::saveAllExamActions, Instant.now().plus(saveInterval), saveInterval);
+
             List<Exam> exams = examRepository.findAllCurrentAndUpcomingExams().stream().filter(Exam::isMonitoring).toList();
             logger.info("Found {} exams that are not yet ended or are scheduled to start in the future", exams.size());
             for (Exam exam : exams) {
@@ -104,34 +133,84 @@ public class ExamMonitoringScheduleService {
     }
 
     /**
-     * Used to handle the received actions.
+     * Used to handle the received actions. Actions of student exams that do not exist or do not belong to the exam and the user are ignored,
+     * so that every buffered action can be saved.
+     * <p>
+     * The student exam is only verified in the database for the first action, afterwards the login of its student is taken from the exam cache.
      *
      * @param examId    identifies the cache
      * @param action    new exam action
+     * @param login     the login of the user who performed the action
      */
-    public void addExamActions(Long examId, ExamAction action) {
+    public void addExamActions(Long examId, ExamAction action, String login) {
         if (action != null && action.getStudentExamId() != null) {
             Long studentExamId = action.getStudentExamId();
+            var cachedMonitoring = (ExamMonitoringCache) examCache.getTransientWriteCacheFor(examId);
+            if (!belongsToStudent(cachedMonitoring, examId, studentExamId, login)) {
+                logger.warn("Ignoring exam action of user {} for student exam {} that does not belong to the user and exam {}", login, studentExamId, examId);
+                return;
+            }
 
-            ((ExamMonitoringCache) examCache.getTransientWriteCacheFor(examId)).updateActivity(studentExamId, activity -> {
-                if (activity == null) {
-                    activity = new ExamActivity();
-                    activity.setStudentExamId(studentExamId);
-                    // Since we don't store the activity in the database at the moment, we reuse the student exam id
-                    activity.setId(studentExamId);
-                    // TODO: Save Activity
-                }
-
-                // Connect action and activity
-                action.setExamActivityId(activity.getId());
+            // The id is generated when the action is saved, a received id must not overwrite an existing action
+            action.setId(null);
+            // Since we don't store the activity in the database, we reuse the student exam id to connect action and activity
+            action.setExamActivityId(studentExamId);
 
-                activity.addExamAction(action);
+            cachedMonitoring.addAction(studentExamId, action);
 
-                return activity;
+            // the action is sent to the subscribers together with the other actions of the exam received in the same interval
+            pendingBroadcasts.compute(examId, (id, pendingActions) -> {
+                var actions = pendingActions != null ? pendingActions : new ConcurrentLinkedQueue<ExamAction>();
+                actions.add(action);
+                return actions;
             });
+        }
+    }
+
+    /**
+     * Checks if the student exam belongs to the exam and the user. A student exam belongs to exactly one user, so only the first check of a student exam queries the database,
+     * the login of its user is remembered in the exam cache afterwards.
+     *
+     * @param cachedMonitoring the cache of the exam
+     * @param examId           the id of the exam
+     * @param studentExamId    the id of the student exam
+     * @param login            the login of the user who performed an action
+     * @return true if the student exam exists and belongs to the exam and the user
+     */
+    private boolean belongsToStudent(ExamMonitoringCache cachedMonitoring, Long examId, Long studentExamId, String login) {
+        String studentLogin = cachedMonitoring.getStudentLogin(studentExamId);
+        if (studentLogin != null) {
+            return studentLogin.equals(login);
+        }
+        if (!studentExamRepository.existsByIdAndExamIdAndUserLogin(studentExamId, examId, login)) {
+            return false;
+        }
+        cachedMonitoring.setStudentLogin(studentExamId, login);
+        return true;
+    }
 
-            // send message to subscribers
-            messagingService.sendMessage("/topic/exam-monitoring/" + examId + "/action", action);
+    /**
+     * Sends all actions received by this instance since the last call to the subscribers, using one message per exam.
+     * Exams without new actions are removed, so that the pending broadcasts of ended exams do not remain on any instance.
+     */
+    public void broadcastPendingExamActions() {
+        try {
+            pendingBroadcasts.forEach((examId, pendingActions) -> {
+                List<ExamAction> examActions = new ArrayList<>();
+                ExamAction examAction;
+                while ((examAction = pendingActions.poll()) != null) {
+                    examActions.add(examAction);
+                }
+                if (!examActions.isEmpty()) {
+                    messagingService.sendMessage("/topic/exam-monitoring/" + examId + "/action", examActions);
+                }
+                // actions are only added inside compute, so no action can be added to a queue after it was removed
+                pendingBroadcasts.computeIfPresent(examId, (id, actions) -> actions.isEmpty() ? null : actions);
+            });
+        }
+        catch (Exception e) {
+            // we must not throw here, otherwise the scheduled task is not executed again
+            logger.error("Failed to send exam actions to the subscribers", e);
         }
     }
 
@@ -147,17 +226,26 @@ public class ExamMonitoringScheduleService {
 
     /**
      * Returns all exam actions.
+     * <p>
+     * The buffered actions of the exam are saved first, afterwards all actions are loaded from the database page by page.
      *
      * @param examId identifies the cache
      * @return all exam actions of the exam
      */
     public List<ExamAction> getAllExamActions(Long examId) {
-        var examActivities = ((ExamMonitoringCache) examCache.getTransientWriteCacheFor(examId)).getActivities();
-        var examActions = new ArrayList<ExamAction>();
+        saveExamActions(examId);
 
-        for (var examActivity : examActivities.values()) {
-            examActions.addAll(examActivity.getExamActions());
+        var examActions = new ArrayList<ExamAction>();
+        List<ExamAction> page;
+        long lastId = 0;
+        do {
+            page = examActionRepository.findByExamIdAndIdGreaterThan(examId, lastId, Pageable.ofSize(EXAM_ACTION_PAGE_SIZE));
+            examActions.addAll(page);
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
         }
+        while (page.size() == EXAM_ACTION_PAGE_SIZE);
 
         return examActions;
     }
@@ -222,35 +310,79 @@ public class ExamMonitoringScheduleService {
 
     /**
      * Saves the exam activities and actions into the database (after the end of the exam) for a specific exam.
+     * Afterwards, the cache of the exam is removed, which destroys its distributed buffer of actions and the remembered logins of the students.
      *
      * @param examId specific exam
      */
     public void executeExamActivitySaveTask(Long examId) {
-        // TODO: Save actions in future PR in database
-        // examActivityService.saveAll(cache.getActivities().values());
-        examCache.performCacheWriteIfPresent(examId, cachedMonitoring -> {
-            ((ExamMonitoringCache) cachedMonitoring).getActivities().clear();
-            return cachedMonitoring;
-        });
+        broadcastPendingExamActions();
+        pendingBroadcasts.remove(examId);
+        saveExamActions(examId);
+        examCache.removeAndClear(examId);
     }
 
     /**
-     * Clears all cached exam monitoring data.
-     * <p>
-     * This will cause cached exam activity to be lost.
+     * Saves the buffered actions of all cached exams into the database.
      */
-    public void clearAllExamMonitoringData() {
-        examCache.clear();
+    private void saveAllExamActions() {
+        try {
+            for (Cache cachedMonitoring : examCache.getAllCaches()) {
+                saveExamActions(((ExamMonitoringCache) cachedMonitoring).getExamId());
+            }
+        }
+        catch (Exception e) {
+            // we must not throw here, otherwise the scheduled task is not executed again
+            logger.error("Failed to save exam actions", e);
+        }
     }
 
     /**
-     * Returns the exam activity for a specific exam and student exam.
+     * Removes the buffered actions of an exam from the cache and saves them into the database in one batch.
+     * The actions of each student exam are removed atomically, so concurrently added actions are saved with the next call.
+     * If the batch cannot be saved (e.g. because a student exam was deleted in the meantime), the actions are saved one by one, so that only the invalid actions are lost.
      *
-     * @param examId        id of the current exam
-     * @param studentExamId id of the student exam
-     * @return ExamActivity performed by the student
+     * @param examId specific exam
+     */
+    private void saveExamActions(Long examId) {
+        var cachedMonitoring = (ExamMonitoringCache) examCache.getReadCacheFor(examId);
+        var examActions = new ArrayList<ExamAction>();
+        for (Long studentExamId : cachedMonitoring.getStudentExamIds()) {
+            examActions.addAll(cachedMonitoring.removeActions(studentExamId));
+        }
+        if (examActions.isEmpty()) {
+            return;
+        }
+        try {
+            examActionRepository.saveAll(examActions);
+            logger.debug("Saved {} exam actions of exam {}", examActions.size(), examId);
+        }
+        catch (Exception e) {
+            logger.warn("Failed to save {} exam actions of exam {} in one batch, saving each action separately:", examActions.size(), examId, e);
+            int failedActions = 0;
+            for (ExamAction examAction : examActions) {
+                try {
+                    // the id might have been generated by the failed batch
+                    examAction.setId(null);
+                    examActionRepository.save(examAction);
+                }
+                catch (Exception actionException) {
+                    failedActions++;
+                    logger.debug("Failed to save exam action of student exam {}", examAction.getStudentExamId(), actionException);
+                }
+            }
+            if (failedActions > 0) {
+                logger.error("Failed to save {} of {} exam actions of exam {}", failedActions, examActions.size(), examId);
+            }
+        }
+    }
+
+    /**
+     * Clears all cached exam monitoring data.
+     * <p>
+     * This will cause cached exam activity to be lost.
      */
-    public ExamActivity getExamActivityFromCache(Long examId, Long studentExamId) {
-        return ((ExamMonitoringCache) examCache.getReadCacheFor(examId)).getActivities().getOrDefault(studentExamId, null);
+    public void clearAllExamMonitoringData() {
+        pendingBroadcasts.clear();
+        examCache.clear();
     }
 }
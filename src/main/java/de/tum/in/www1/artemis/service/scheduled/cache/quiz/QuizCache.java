@@ -14,6 +14,7 @@ import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.service.scheduled.cache.Cache;
 import de.tum.in.www1.artemis.service.scheduled.cache.CacheHandler;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * This class manages all {@link QuizExerciseCache}s for all cached quiz exercises.
@@ -35,8 +36,8 @@ final class QuizCache extends CacheHandler<Long> {
 
     private final ITopic<QuizExercise> cachedQuizExerciseUpdates;
 
-    public QuizCache(HazelcastInstance hazelcastInstance) {
-        super(hazelcastInstance, Constants.HAZELCAST_EXERCISE_CACHE);
+    public QuizCache(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        super(hazelcastInstance, Constants.HAZELCAST_EXERCISE_CACHE, meterRegistry);
         this.cachedQuizExerciseUpdates = hazelcastInstance.getTopic(HAZELCAST_CACHED_EXERCISE_UPDATE_TOPIC);
         this.cachedQuizExerciseUpdates.addMessageListener(newQuizExerciseMessage -> updateQuizExerciseLocally(newQuizExerciseMessage.getMessageObject()));
     }
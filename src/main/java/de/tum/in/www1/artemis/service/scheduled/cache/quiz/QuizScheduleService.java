@@ -7,16 +7,17 @@ import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 
-import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 
@@ -33,15 +34,13 @@ import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
 import de.tum.in.www1.artemis.domain.enumeration.QuizMode;
 import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
-import de.tum.in.www1.artemis.domain.quiz.QuizBatch;
-import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
-import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
-import de.tum.in.www1.artemis.domain.quiz.SubmittedAnswer;
+import de.tum.in.www1.artemis.domain.quiz.*;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.QuizMessagingService;
 import de.tum.in.www1.artemis.service.QuizStatisticService;
 import de.tum.in.www1.artemis.service.scheduled.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class QuizScheduleService {
@@ -50,6 +49,11 @@ public class QuizScheduleService {
 
     private static final String HAZELCAST_PROCESS_CACHE_HANDLER = QuizProcessCacheTask.HAZELCAST_PROCESS_CACHE_TASK + "-handler";
 
+    /**
+     * Maximum number of processed quiz submissions which are saved together, this bounds the size of the IN clauses and of the persistence context
+     */
+    static final int QUIZ_SUBMISSION_SAVE_BATCH_SIZE = 500;
+
     private final IScheduledExecutorService threadPoolTaskScheduler;
 
     private final IAtomicReference<ScheduledTaskHandler> scheduledProcessQuizSubmissions;
@@ -72,7 +76,7 @@ public class QuizScheduleService {
 
     public QuizScheduleService(SimpMessageSendingOperations messagingTemplate, StudentParticipationRepository studentParticipationRepository, UserRepository userRepository,
             QuizSubmissionRepository quizSubmissionRepository, HazelcastInstance hazelcastInstance, QuizExerciseRepository quizExerciseRepository,
-            QuizMessagingService quizMessagingService, QuizStatisticService quizStatisticService) {
+            QuizMessagingService quizMessagingService, QuizStatisticService quizStatisticService, MeterRegistry meterRegistry) {
         this.messagingTemplate = messagingTemplate;
         this.studentParticipationRepository = studentParticipationRepository;
         this.userRepository = userRepository;
@@ -82,7 +86,7 @@ public class QuizScheduleService {
         this.quizStatisticService = quizStatisticService;
         this.scheduledProcessQuizSubmissions = hazelcastInstance.getCPSubsystem().getAtomicReference(HAZELCAST_PROCESS_CACHE_HANDLER);
         this.threadPoolTaskScheduler = hazelcastInstance.getScheduledExecutorService(Constants.HAZELCAST_QUIZ_SCHEDULER);
-        this.quizCache = new QuizCache(hazelcastInstance);
+        this.quizCache = new QuizCache(hazelcastInstance, meterRegistry);
     }
 
     /**
@@ -571,6 +575,9 @@ public class QuizScheduleService {
     /**
      * check if the user submitted the submission or if the quiz has ended: if true: -> Create Participation and Result and save to Database (DB Write) Remove processed Submissions
      * from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
+     * <p>
+     * The processed submissions are saved in batches of {@link #QUIZ_SUBMISSION_SAVE_BATCH_SIZE}: the users of a batch are resolved with one query and the participations and
+     * submissions (including results and submitted answers) are saved together. Only if a batch fails, its entries are saved individually.
      *
      * @param quizExercise      the quiz which should be checked
      * @param userSubmissionMap a Map with all submissions for the given quizExercise mapped by the username
@@ -580,109 +587,242 @@ public class QuizScheduleService {
      */
     private int saveQuizSubmissionWithParticipationAndResultToDatabase(@NotNull QuizExercise quizExercise, Map<String, QuizSubmission> userSubmissionMap, Map<String, Long> userBatchMap, Map<Long, QuizBatch> batchCache) {
 
-        int count = 0;
+        Map<String, QuizSubmission> processedSubmissions = new LinkedHashMap<>();
 
-        for (String username : userSubmissionMap.keySet()) {
-            try {
-                // first case: the user submitted the quizSubmission
-                QuizSubmission quizSubmission = userSubmissionMap.get(username);
-                QuizBatch quizBatch = batchCache.get(userBatchMap.getOrDefault(username, 0L));
-                if (quizSubmission.isSubmitted()) {
-                    if (quizSubmission.getType() == null) {
-                        quizSubmission.setType(SubmissionType.MANUAL);
-                    }
-                } // second case: the quiz or batch has ended
-                else if (quizExercise.isQuizEnded() || quizBatch != null && quizBatch.isEnded()) {
-                    quizSubmission.setSubmitted(true);
-                    quizSubmission.setType(SubmissionType.TIMEOUT);
-                    quizSubmission.setSubmissionDate(ZonedDateTime.now());
-                }
-                else {
-                    // the quiz is running and the submission was not yet submitted.
-                    continue;
+        for (Entry<String, QuizSubmission> entry : userSubmissionMap.entrySet()) {
+            String username = entry.getKey();
+            // first case: the user submitted the quizSubmission
+            QuizSubmission quizSubmission = entry.getValue();
+            QuizBatch quizBatch = batchCache.get(userBatchMap.getOrDefault(username, 0L));
+            if (quizSubmission.isSubmitted()) {
+                if (quizSubmission.getType() == null) {
+                    quizSubmission.setType(SubmissionType.MANUAL);
                 }
+            } // second case: the quiz or batch has ended
+            else if (quizExercise.isQuizEnded() || quizBatch != null && quizBatch.isEnded()) {
+                quizSubmission.setSubmitted(true);
+                quizSubmission.setType(SubmissionType.TIMEOUT);
+                quizSubmission.setSubmissionDate(ZonedDateTime.now());
+            }
+            else {
+                // the quiz is running and the submission was not yet submitted.
+                continue;
+            }
 
-                if (quizBatch != null) {
-                    // record which batch the submission belongs to
-                    quizSubmission.setQuizBatch(quizBatch.getId());
-                }
+            if (quizBatch != null) {
+                // record which batch the submission belongs to
+                quizSubmission.setQuizBatch(quizBatch.getId());
+            }
+            processedSubmissions.put(username, quizSubmission);
+        }
 
-                count++;
-                // Create Participation and Result and save to Database (DB Write)
-                // Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
-
-                StudentParticipation participation = new StudentParticipation();
-                // TODO: when this is set earlier for the individual quiz start of a student, we don't need to set this here anymore
-                participation.setInitializationDate(quizSubmission.getSubmissionDate());
-                Optional<User> user = userRepository.findOneByLogin(username);
-                user.ifPresent(participation::setParticipant);
-                // add the quizExercise to the participation
-                participation.setExercise(quizExercise);
-                participation.setInitializationState(InitializationState.FINISHED);
-
-                // create new result
-                Result result = new Result().participation(participation);
-                result.setRated(true);
-                result.setAssessmentType(AssessmentType.AUTOMATIC);
-                result.setCompletionDate(quizSubmission.getSubmissionDate());
-                result.setSubmission(quizSubmission);
-
-                // calculate scores and update result and submission accordingly
-                quizSubmission.calculateAndUpdateScores(quizExercise);
-                result.evaluateQuizSubmission();
-
-                // add result to participation
-                participation.addResult(result);
-
-                // add submission to participation
-                participation.setSubmissions(Set.of(quizSubmission));
-
-                // NOTE: we save (1) participation and (2) submission (in this particular order) here individually so that one exception (e.g. duplicated key) cannot
-                // destroy multiple student answers
-                participation = studentParticipationRepository.save(participation);
-                quizSubmission.addResult(result);
-                quizSubmission.setParticipation(participation);
-                // this automatically saves the results due to CascadeType.ALL
-                quizSubmission = quizSubmissionRepository.save(quizSubmission);
-
-                log.info("Successfully saved submission in quiz {} for user {}", quizExercise.getTitle(), username);
-
-                // reconnect entities after save
-                participation.setSubmissions(Set.of(quizSubmission));
-                participation.setResults(Set.of(result));
-                result.setSubmission(quizSubmission);
-                result.setParticipation(participation);
-
-                // no point in keeping the participation around for non-synchronized modes where the due date may only be in a week
-                if (quizExercise.getQuizMode() == QuizMode.SYNCHRONIZED) {
-                    // add the participation to the participationHashMap for the send out at the end of the quiz
-                    addParticipation(quizExercise.getId(), participation);
-                }
+        List<String> usernames = new ArrayList<>(processedSubmissions.keySet());
+        for (int fromIndex = 0; fromIndex < usernames.size(); fromIndex += QUIZ_SUBMISSION_SAVE_BATCH_SIZE) {
+            List<String> usernamesOfBatch = usernames.subList(fromIndex, Math.min(fromIndex + QUIZ_SUBMISSION_SAVE_BATCH_SIZE, usernames.size()));
+            Map<String, QuizSubmission> submissionsOfBatch = new LinkedHashMap<>();
+            usernamesOfBatch.forEach(username -> submissionsOfBatch.put(username, processedSubmissions.get(username)));
+            try {
+                saveQuizSubmissionBatch(quizExercise, submissionsOfBatch, userSubmissionMap, userBatchMap);
+            }
+            catch (Exception e) {
+                log.error("Exception in saveQuizSubmissionWithParticipationAndResultToDatabase() for {} users in quiz {}: {}", submissionsOfBatch.size(), quizExercise.getId(),
+                        e.getMessage(), e);
+            }
+        }
+        return processedSubmissions.size();
+    }
+
+    /**
+     * Create Participations and Results for the given submissions and save them to the database (DB Write).
+     * Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
+     *
+     * @param quizExercise      the quiz the submissions belong to
+     * @param submissions       the processed (submitted or timed out) submissions of this batch mapped by the username
+     * @param userSubmissionMap a Map with all submissions for the given quizExercise mapped by the username
+     * @param userBatchMap      a Map of the username to quiz batch id for the given quizExercise
+     */
+    private void saveQuizSubmissionBatch(QuizExercise quizExercise, Map<String, QuizSubmission> submissions, Map<String, QuizSubmission> userSubmissionMap,
+            Map<String, Long> userBatchMap) {
+        // The "User-Quiz" pair might already be saved in the database, but for some reason was not removed from the maps
+        // We remove it from the maps now so that it does not let the whole batch fail with a constraint violation
+        // We do NOT add it to the participation map, as this should have been done already earlier (when the entry was added to the database)
+        Set<String> alreadySavedUsernames = studentParticipationRepository.findStudentLoginsByExerciseIdAndStudentLogins(quizExercise.getId(), submissions.keySet());
+        for (String username : alreadySavedUsernames) {
+            log.error("Submission in quiz {} for user {} was already saved to the database, but not removed from the cache", quizExercise.getId(), username);
+            submissions.remove(username);
+            removeProcessedSubmission(username, userSubmissionMap, userBatchMap);
+        }
+        if (submissions.isEmpty()) {
+            return;
+        }
+
+        Map<String, User> usersByLogin = userRepository.findAllByLogins(submissions.keySet()).stream().collect(Collectors.toMap(User::getLogin, Function.identity()));
+        Map<String, StudentParticipation> participations = new LinkedHashMap<>();
+        submissions.forEach((username, quizSubmission) -> participations.put(username, createParticipationWithResult(quizExercise, quizSubmission, usersByLogin.get(username))));
+
+        // NOTE: we save (1) participations and (2) submissions (in this particular order) here. If one of the batches fails (e.g. due to a duplicated key), we fall back to saving
+        // its entries individually so that one exception cannot destroy multiple student answers
+        try {
+            studentParticipationRepository.saveAll(participations.values());
+        }
+        catch (DataIntegrityViolationException batchException) {
+            log.warn("Could not save {} participations in quiz {} in one batch, saving them individually: {}", participations.size(), quizExercise.getId(),
+                    batchException.getMessage());
+            saveParticipationsIndividually(quizExercise, participations, userSubmissionMap, userBatchMap);
+        }
+
+        List<QuizSubmission> submissionsToSave = new ArrayList<>();
+        participations.forEach((username, participation) -> {
+            QuizSubmission quizSubmission = submissions.get(username);
+            quizSubmission.addResult(participation.getResults().iterator().next());
+            quizSubmission.setParticipation(participation);
+            submissionsToSave.add(quizSubmission);
+        });
+        try {
+            // this automatically saves the results and submitted answers due to CascadeType.ALL
+            quizSubmissionRepository.saveAll(submissionsToSave);
+        }
+        catch (Exception batchException) {
+            log.warn("Could not save {} submissions in quiz {} in one batch, saving them individually: {}", submissionsToSave.size(), quizExercise.getId(),
+                    batchException.getMessage());
+            saveSubmissionsIndividually(quizExercise, participations, submissions);
+        }
+
+        participations.forEach((username, participation) -> {
+            QuizSubmission quizSubmission = submissions.get(username);
+            Result result = participation.getResults().iterator().next();
 
-                // remove the submission only after the participation has been added to the participation hashmap to avoid duplicated key exceptions for multiple participations for
-                // the same user
-                userSubmissionMap.remove(username);
-                // clean up the batch association
-                userBatchMap.remove(username);
+            // reconnect entities after save
+            participation.setSubmissions(Set.of(quizSubmission));
+            participation.setResults(Set.of(result));
+            result.setSubmission(quizSubmission);
+            result.setParticipation(participation);
 
-                // add the result of the participation resultHashMap for the statistic-Update
-                addResultForStatisticUpdate(quizExercise.getId(), result);
+            // no point in keeping the participation around for non-synchronized modes where the due date may only be in a week
+            if (quizExercise.getQuizMode() == QuizMode.SYNCHRONIZED) {
+                // add the participation to the participationHashMap for the send out at the end of the quiz
+                addParticipation(quizExercise.getId(), participation);
             }
-            catch (ConstraintViolationException constraintViolationException) {
-                log.error("ConstraintViolationException in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), constraintViolationException.getMessage(), constraintViolationException);
+
+            // remove the submission only after the participation has been added to the participation hashmap to avoid duplicated key exceptions for multiple participations for
+            // the same user
+            removeProcessedSubmission(username, userSubmissionMap, userBatchMap);
+
+            // add the result of the participation resultHashMap for the statistic-Update
+            addResultForStatisticUpdate(quizExercise.getId(), result);
+        });
+        log.info("Successfully saved {} submissions in quiz {}", participations.size(), quizExercise.getTitle());
+    }
+
+    /**
+     * Creates a new participation for the given user together with the (not yet saved) result of the given submission
+     *
+     * @param quizExercise   the quiz the submission belongs to
+     * @param quizSubmission the processed submission
+     * @param user           the user who participated, can be null if the user could not be found
+     * @return the new participation containing the new result
+     */
+    private StudentParticipation createParticipationWithResult(QuizExercise quizExercise, QuizSubmission quizSubmission, @Nullable User user) {
+        StudentParticipation participation = new StudentParticipation();
+        // TODO: when this is set earlier for the individual quiz start of a student, we don't need to set this here anymore
+        participation.setInitializationDate(quizSubmission.getSubmissionDate());
+        participation.setParticipant(user);
+        // add the quizExercise to the participation
+        participation.setExercise(quizExercise);
+        participation.setInitializationState(InitializationState.FINISHED);
+
+        // create new result
+        Result result = new Result().participation(participation);
+        result.setRated(true);
+        result.setAssessmentType(AssessmentType.AUTOMATIC);
+        result.setCompletionDate(quizSubmission.getSubmissionDate());
+        result.setSubmission(quizSubmission);
+
+        // calculate scores and update result and submission accordingly
+        quizSubmission.calculateAndUpdateScores(quizExercise);
+        result.evaluateQuizSubmission();
+
+        // add result to participation
+        participation.addResult(result);
+
+        // add submission to participation
+        participation.setSubmissions(Set.of(quizSubmission));
+        return participation;
+    }
+
+    /**
+     * Fallback if saving the participations of a batch failed: saves each participation on its own and drops the ones which cannot be saved from the given map
+     */
+    private void saveParticipationsIndividually(QuizExercise quizExercise, Map<String, StudentParticipation> participations, Map<String, QuizSubmission> userSubmissionMap,
+            Map<String, Long> userBatchMap) {
+        var iterator = participations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            String username = entry.getKey();
+            StudentParticipation participation = entry.getValue();
+            // the id might have been set before the batch was rolled back
+            participation.setId(null);
+            try {
+                studentParticipationRepository.save(participation);
+            }
+            catch (DataIntegrityViolationException constraintViolationException) {
+                log.error("ConstraintViolationException in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(),
+                        constraintViolationException.getMessage(), constraintViolationException);
                 // We got a ConstraintViolationException -> The "User-Quiz" pair is already saved in the database, but for some reason was not removed from the maps
                 // We remove it from the maps now to prevent this error from occurring again
                 // We do NOT add it to the participation map, as this should have been done already earlier (when the entry was added to the database)
+                removeProcessedSubmission(username, userSubmissionMap, userBatchMap);
+                iterator.remove();
+            }
+            catch (Exception e) {
+                log.error("Exception in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), e.getMessage(), e);
+                iterator.remove();
+            }
+        }
+    }
 
-                userSubmissionMap.remove(username);
-
-                // clean up the batch association
-                userBatchMap.remove(username);
+    /**
+     * Fallback if saving the submissions of a batch failed: saves each submission on its own and drops the participations whose submission cannot be saved from the given map.
+     * Those submissions stay in the SubmissionHashMap.
+     */
+    private void saveSubmissionsIndividually(QuizExercise quizExercise, Map<String, StudentParticipation> participations, Map<String, QuizSubmission> submissions) {
+        var iterator = participations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            String username = iterator.next().getKey();
+            QuizSubmission quizSubmission = submissions.get(username);
+            resetGeneratedIds(quizSubmission);
+            try {
+                quizSubmissionRepository.save(quizSubmission);
             }
             catch (Exception e) {
                 log.error("Exception in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), e.getMessage(), e);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes the ids which were generated for the submission and its cascaded entities during a batch that was rolled back afterwards
+     *
+     * @param quizSubmission the submission which should be saved again
+     */
+    private static void resetGeneratedIds(QuizSubmission quizSubmission) {
+        quizSubmission.setId(null);
+        quizSubmission.getResults().forEach(result -> result.setId(null));
+        for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+            submittedAnswer.setId(null);
+            if (submittedAnswer instanceof DragAndDropSubmittedAnswer dragAndDropSubmittedAnswer) {
+                dragAndDropSubmittedAnswer.getMappings().forEach(mapping -> mapping.setId(null));
+            }
+            else if (submittedAnswer instanceof ShortAnswerSubmittedAnswer shortAnswerSubmittedAnswer) {
+                shortAnswerSubmittedAnswer.getSubmittedTexts().forEach(submittedText -> submittedText.setId(null));
             }
         }
-        return count;
+    }
+
+    private static void removeProcessedSubmission(String username, Map<String, QuizSubmission> userSubmissionMap, Map<String, Long> userBatchMap) {
+        userSubmissionMap.remove(username);
+        // clean up the batch association
+        userBatchMap.remove(username);
     }
 }
@@ -1,5 +1,6 @@
 package de.tum.in.www1.artemis.web.rest;
 
+import java.security.Principal;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
 import de.tum.in.www1.artemis.repository.ExamRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.exam.ExamAccessService;
 import de.tum.in.www1.artemis.service.feature.Feature;
 import de.tum.in.www1.artemis.service.feature.FeatureToggle;
@@ -43,15 +45,18 @@ public class ExamActivityResource {
     }
 
     /**
-     * Adds the performed actions by the user into the cache. This method does not perform any authorization and validation checks.
+     * Adds the performed actions by the user into the cache. Actions of student exams that do not belong to the exam and the user are ignored.
      *
      * @param examId    the exam to which the student exams belong to
      * @param action    action performed by the user
+     * @param principal the user who performed the action
      */
     @MessageMapping("/topic/exam-monitoring/{examId}/actions")
     @FeatureToggle(Feature.ExamLiveStatistics)
-    public void updatePerformedExamActions(@DestinationVariable Long examId, @Payload ExamAction action) {
-        examMonitoringScheduleService.addExamActions(examId, action);
+    public void updatePerformedExamActions(@DestinationVariable Long examId, @Payload ExamAction action, Principal principal) {
+        // Without this, custom jpa repository methods don't work in websocket channel.
+        SecurityUtils.setAuthorizationObject();
+        examMonitoringScheduleService.addExamActions(examId, action, principal.getName());
     }
 
     /**
@@ -34,7 +34,9 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.FilePathService;
+import de.tum.in.www1.artemis.service.FileResourceService;
 import de.tum.in.www1.artemis.service.FileService;
+import de.tum.in.www1.artemis.service.MergedLecturePdfService;
 import de.tum.in.www1.artemis.service.ResourceLoaderService;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
@@ -67,9 +69,14 @@ public class FileResource {
 
     private final UserRepository userRepository;
 
+    private final FileResourceService fileResourceService;
+
+    private final MergedLecturePdfService mergedLecturePdfService;
+
     public FileResource(FileService fileService, ResourceLoaderService resourceLoaderService, LectureRepository lectureRepository,
             FileUploadSubmissionRepository fileUploadSubmissionRepository, FileUploadExerciseRepository fileUploadExerciseRepository, AttachmentRepository attachmentRepository,
-            AttachmentUnitRepository attachmentUnitRepository, AuthorizationCheckService authCheckService, UserRepository userRepository) {
+            AttachmentUnitRepository attachmentUnitRepository, AuthorizationCheckService authCheckService, UserRepository userRepository, FileResourceService fileResourceService,
+            MergedLecturePdfService mergedLecturePdfService) {
         this.fileService = fileService;
         this.resourceLoaderService = resourceLoaderService;
         this.lectureRepository = lectureRepository;
@@ -79,6 +86,8 @@ public class FileResource {
         this.attachmentUnitRepository = attachmentUnitRepository;
         this.authCheckService = authCheckService;
         this.userRepository = userRepository;
+        this.fileResourceService = fileResourceService;
+        this.mergedLecturePdfService = mergedLecturePdfService;
     }
 
     /**
@@ -113,7 +122,7 @@ public class FileResource {
      */
     @GetMapping("files/temp/{filename:.+}")
     @PreAuthorize("hasRole('TA')")
-    public ResponseEntity<byte[]> getTempFile(@PathVariable String filename) {
+    public ResponseEntity<Resource> getTempFile(@PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getTempFilePath(), filename);
     }
@@ -147,7 +156,7 @@ public class FileResource {
      */
     @GetMapping("files/markdown/{filename:.+}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<byte[]> getMarkdownFile(@PathVariable String filename) {
+    public ResponseEntity<Resource> getMarkdownFile(@PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return buildFileResponse(FilePathService.getMarkdownFilePath(), filename);
     }
@@ -196,7 +205,7 @@ public class FileResource {
      */
     @GetMapping("files/drag-and-drop/backgrounds/{questionId}/{filename:.+}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<byte[]> getDragAndDropBackgroundFile(@PathVariable Long questionId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getDragAndDropBackgroundFile(@PathVariable Long questionId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getDragAndDropBackgroundFilePath(), filename);
     }
@@ -210,7 +219,7 @@ public class FileResource {
      */
     @GetMapping("files/drag-and-drop/drag-items/{dragItemId}/{filename:.+}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<byte[]> getDragItemFile(@PathVariable Long dragItemId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getDragItemFile(@PathVariable Long dragItemId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getDragItemFilePath(), filename);
     }
@@ -225,7 +234,7 @@ public class FileResource {
      */
     @GetMapping("files/file-upload-exercises/{exerciseId}/submissions/{submissionId}/{filename:.+}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<byte[]> getFileUploadSubmission(@PathVariable Long exerciseId, @PathVariable Long submissionId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getFileUploadSubmission(@PathVariable Long exerciseId, @PathVariable Long submissionId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
 
         FileUploadSubmission submission = fileUploadSubmissionRepository.findByIdElseThrow(submissionId);
@@ -259,7 +268,7 @@ public class FileResource {
      */
     @GetMapping("files/course/icons/{courseId}/{filename:.+}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<byte[]> getCourseIcon(@PathVariable Long courseId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getCourseIcon(@PathVariable Long courseId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getCourseIconFilePath(), filename);
     }
@@ -273,7 +282,7 @@ public class FileResource {
      */
     @GetMapping("files/attachments/lecture/{lectureId}/{filename:.+}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<byte[]> getLectureAttachment(@PathVariable Long lectureId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getLectureAttachment(@PathVariable Long lectureId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
 
         List<Attachment> lectureAttachments = attachmentRepository.findAllByLectureId(lectureId);
@@ -302,7 +311,7 @@ public class FileResource {
      */
     @GetMapping("files/attachments/lecture/{lectureId}/merge-pdf")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<byte[]> getLecturePdfAttachmentsMerged(@PathVariable Long lectureId) {
+    public ResponseEntity<Resource> getLecturePdfAttachmentsMerged(@PathVariable Long lectureId) {
         log.debug("REST request to get merged pdf files for a lecture with id : {}", lectureId);
 
         User user = userRepository.getUserWithGroupsAndAuthorities();
@@ -319,13 +328,25 @@ public class FileResource {
                         .toString())
                 .toList();
 
-        Optional<byte[]> file = fileService.mergePdfFiles(attachmentLinks, lectureRepository.getLectureTitle(lectureId));
-        if (file.isEmpty()) {
+        Optional<Path> mergedPdfPath = mergedLecturePdfService.getMergedPdf(lectureId, lectureRepository.getLectureTitle(lectureId), attachmentLinks);
+        if (mergedPdfPath.isEmpty()) {
             log.error("Failed to merge PDF lecture units for lecture with id {}", lectureId);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
 
-        return ResponseEntity.ok().contentType(MediaType.APPLICATION_PDF).body(file.get());
+        try {
+            var file = fileResourceService.getFileResource(mergedPdfPath.get());
+            if (file.isEmpty()) {
+                // the merged file has been deleted in the meantime, because an attachment unit of the lecture changed
+                log.warn("The merged PDF of lecture {} was deleted before it could be sent", lectureId);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+            return okWithCacheValidation(file.get()).contentType(MediaType.APPLICATION_PDF).body(file.get());
+        }
+        catch (IOException ex) {
+            log.error("Failed to download the merged PDF of lecture {}", lectureId, ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
     }
 
     /**
@@ -337,7 +358,7 @@ public class FileResource {
      */
     @GetMapping("files/attachments/attachment-unit/{attachmentUnitId}/{filename:.+}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<byte[]> getAttachmentUnitAttachment(@PathVariable Long attachmentUnitId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getAttachmentUnitAttachment(@PathVariable Long attachmentUnitId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         AttachmentUnit attachmentUnit = attachmentUnitRepository.findByIdElseThrow(attachmentUnitId);
 
@@ -360,11 +381,10 @@ public class FileResource {
      * @param filename the name of the file
      * @return response entity
      */
-    private ResponseEntity<byte[]> buildFileResponse(String path, String filename) {
+    private ResponseEntity<Resource> buildFileResponse(String path, String filename) {
         try {
-            var actualPath = Path.of(path, filename).toString();
-            var file = fileService.getFileForPath(actualPath);
-            if (file == null) {
+            var file = fileResourceService.getFileResource(Path.of(path, filename));
+            if (file.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
@@ -386,7 +406,7 @@ public class FileResource {
                 MimetypesFileTypeMap fileTypeMap = new MimetypesFileTypeMap();
                 mimeType = fileTypeMap.getContentType(filename);
             }
-            return ResponseEntity.ok().headers(headers).contentType(MediaType.parseMediaType(mimeType)).header("filename", filename).body(file);
+            return okWithCacheValidation(file.get()).headers(headers).contentType(MediaType.parseMediaType(mimeType)).header("filename", filename).body(file.get());
         }
         catch (IOException ex) {
             log.error("Failed to download file: {} on path: {}", filename, path, ex);
@@ -411,24 +431,39 @@ public class FileResource {
     }
 
     /**
-     * Reads the file and turns it into a ResponseEntity
+     * Turns the file into a ResponseEntity, the file is streamed from disk (or the file cache) and supports range requests
      *
      * @param path the path for the file to read
      * @return ResponseEntity with status 200 and the file as byte stream, status 404 if the file doesn't exist, or status 500 if there is an error while reading the file
      */
-    private ResponseEntity<byte[]> responseEntityForFilePath(String path, String filename) {
+    private ResponseEntity<Resource> responseEntityForFilePath(String path, String filename) {
         try {
-            var actualPath = Path.of(path, filename).toString();
-            var file = fileService.getFileForPath(actualPath);
-            if (file == null) {
+            var file = fileResourceService.getFileResource(Path.of(path, filename));
+            if (file.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
-            return ResponseEntity.ok(file);
+            // the files were previously always sent as byte stream, keep this to not let browsers render uploaded html or svg files inline
+            return okWithCacheValidation(file.get()).contentType(MediaType.APPLICATION_OCTET_STREAM).body(file.get());
         }
         catch (IOException e) {
-            e.printStackTrace();
+            log.error("Failed to download file: {} on path: {}", filename, path, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Creates a response builder with an ETag and the last modification date of the given file, so that clients can revalidate their cached copy and
+     * get a 304 (Not Modified) response instead of the whole file if it did not change.
+     * Clients are allowed to cache the file privately, but have to revalidate it for every request, because access to the file may be revoked.
+     *
+     * @param file the file that is sent in the response
+     * @return a response builder with status 200 and the cache validation headers
+     * @throws IOException if the file can't be accessed
+     */
+    private static ResponseEntity.BodyBuilder okWithCacheValidation(Resource file) throws IOException {
+        long lastModified = file.lastModified();
+        String eTag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(file.contentLength()) + "\"";
+        return ResponseEntity.ok().eTag(eTag).lastModified(lastModified).cacheControl(CacheControl.noCache().cachePrivate());
+    }
+
 }
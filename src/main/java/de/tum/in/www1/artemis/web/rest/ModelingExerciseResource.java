@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.web.rest;
 
+import static de.tum.in.www1.artemis.config.Constants.PLAGIARISM_RESULT_MAX_COMPARISONS;
+
 import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -379,7 +381,7 @@ public class ModelingExerciseResource {
         log.info("Finished modelingPlagiarismDetectionService.checkPlagiarism call for {} comparisons in {}", plagiarismResult.getComparisons().size(),
                 TimeLogUtil.formatDurationFrom(start));
         // TODO: limit the amount temporarily because of database issues
-        plagiarismResult.sortAndLimit(100);
+        plagiarismResult.sortAndLimit(PLAGIARISM_RESULT_MAX_COMPARISONS);
         log.info("Limited number of comparisons to {} to avoid performance issues when saving to database", plagiarismResult.getComparisons().size());
         start = System.nanoTime();
         plagiarismResultRepository.savePlagiarismResultAndRemovePrevious(plagiarismResult);
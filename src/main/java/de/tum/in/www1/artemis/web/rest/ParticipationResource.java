@@ -109,6 +109,8 @@ public class ParticipationResource {
 
     private final GroupNotificationService groupNotificationService;
 
+    private final CourseScoreCalculationService courseScoreCalculationService;
+
     public ParticipationResource(ParticipationService participationService, ProgrammingExerciseParticipationService programmingExerciseParticipationService,
             CourseRepository courseRepository, QuizExerciseRepository quizExerciseRepository, ExerciseRepository exerciseRepository,
             ProgrammingExerciseRepository programmingExerciseRepository, AuthorizationCheckService authCheckService,
@@ -116,7 +118,8 @@ public class ParticipationResource {
             AuditEventRepository auditEventRepository, GuidedTourConfiguration guidedTourConfiguration, TeamRepository teamRepository, FeatureToggleService featureToggleService,
             ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository, SubmissionRepository submissionRepository,
             ResultRepository resultRepository, ExerciseDateService exerciseDateService, InstanceMessageSendService instanceMessageSendService, QuizBatchService quizBatchService,
-            QuizScheduleService quizScheduleService, SubmittedAnswerRepository submittedAnswerRepository, GroupNotificationService groupNotificationService) {
+            QuizScheduleService quizScheduleService, SubmittedAnswerRepository submittedAnswerRepository, GroupNotificationService groupNotificationService,
+            CourseScoreCalculationService courseScoreCalculationService) {
         this.participationService = participationService;
         this.programmingExerciseParticipationService = programmingExerciseParticipationService;
         this.quizExerciseRepository = quizExerciseRepository;
@@ -140,6 +143,7 @@ public class ParticipationResource {
         this.quizScheduleService = quizScheduleService;
         this.submittedAnswerRepository = submittedAnswerRepository;
         this.groupNotificationService = groupNotificationService;
+        this.courseScoreCalculationService = courseScoreCalculationService;
     }
 
     /**
@@ -397,6 +401,10 @@ public class ParticipationResource {
         }
 
         Participation updatedParticipation = studentParticipationRepository.saveAndFlush(participation);
+        if (!Objects.equals(currentParticipation.getPresentationScore(), participation.getPresentationScore())) {
+            // the presentation scores are part of the stored course scores
+            courseScoreCalculationService.invalidateCourseScoresOfParticipants(originalParticipation.getExercise(), List.of(originalParticipation.getParticipant().getId()));
+        }
         return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, participation.getParticipant().getName()))
                 .body(updatedParticipation);
     }
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.NotNull;
 
 import org.slf4j.Logger;
@@ -298,6 +299,9 @@ public class ProgrammingExerciseExportImportResource {
      * @param exerciseId              the id of the exercise to get the repos from
      * @param participantIdentifiers  the identifiers of the participants (student logins or team short names) for whom to zip the submissions, separated by commas
      * @param repositoryExportOptions the options that should be used for the export
+     * @param streaming               whether the repositories should be checked out in parallel and streamed to the client in one zip file (one folder per repository)
+     *                                    instead of one zip file per repository wrapped in another zip file
+     * @param response                the http response to which the zip file is streamed
      * @return ResponseEntity with status
      * @throws IOException if something during the zip process went wrong
      */
@@ -305,7 +309,8 @@ public class ProgrammingExerciseExportImportResource {
     @PreAuthorize("hasRole('TA')")
     @FeatureToggle({ Feature.ProgrammingExercises, Feature.Exports })
     public ResponseEntity<Resource> exportSubmissionsByStudentLogins(@PathVariable long exerciseId, @PathVariable String participantIdentifiers,
-            @RequestBody RepositoryExportOptionsDTO repositoryExportOptions) throws IOException {
+            @RequestBody RepositoryExportOptionsDTO repositoryExportOptions, @RequestParam(defaultValue = "false") boolean streaming, HttpServletResponse response)
+            throws IOException {
         var programmingExercise = programmingExerciseRepository.findByIdWithStudentParticipationsAndLegalSubmissionsElseThrow(exerciseId);
         User user = userRepository.getUserWithGroupsAndAuthorities();
         authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.TEACHING_ASSISTANT, programmingExercise, user);
@@ -334,7 +339,7 @@ public class ProgrammingExerciseExportImportResource {
                 exportedStudentParticipations.add(programmingStudentParticipation);
             }
         }
-        return provideZipForParticipations(exportedStudentParticipations, programmingExercise, repositoryExportOptions);
+        return provideZipForParticipations(exportedStudentParticipations, programmingExercise, repositoryExportOptions, streaming, response);
     }
 
     /**
@@ -343,6 +348,9 @@ public class ProgrammingExerciseExportImportResource {
      * @param exerciseId              the id of the exercise to get the repos from
      * @param participationIds        the participationIds seperated via semicolon to get their submissions (used for double-blind assessment)
      * @param repositoryExportOptions the options that should be used for the export. Export all students is not supported here!
+     * @param streaming               whether the repositories should be checked out in parallel and streamed to the client in one zip file (one folder per repository)
+     *                                    instead of one zip file per repository wrapped in another zip file
+     * @param response                the http response to which the zip file is streamed
      * @return ResponseEntity with status
      * @throws IOException if submissions can't be zippedRequestBody
      */
@@ -350,7 +358,8 @@ public class ProgrammingExerciseExportImportResource {
     @PreAuthorize("hasRole('TA')")
     @FeatureToggle({ Feature.ProgrammingExercises, Feature.Exports })
     public ResponseEntity<Resource> exportSubmissionsByParticipationIds(@PathVariable long exerciseId, @PathVariable String participationIds,
-            @RequestBody RepositoryExportOptionsDTO repositoryExportOptions) throws IOException {
+            @RequestBody RepositoryExportOptionsDTO repositoryExportOptions, @RequestParam(defaultValue = "false") boolean streaming, HttpServletResponse response)
+            throws IOException {
         var programmingExercise = programmingExerciseRepository.findByIdWithStudentParticipationsAndLegalSubmissionsElseThrow(exerciseId);
         authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.TEACHING_ASSISTANT, programmingExercise, null);
 
@@ -369,11 +378,11 @@ public class ProgrammingExerciseExportImportResource {
         // Select the participations that should be exported
         List<ProgrammingExerciseStudentParticipation> exportedStudentParticipations = programmingExercise.getStudentParticipations().stream()
                 .filter(participation -> participationIdSet.contains(participation.getId())).map(participation -> (ProgrammingExerciseStudentParticipation) participation).toList();
-        return provideZipForParticipations(exportedStudentParticipations, programmingExercise, repositoryExportOptions);
+        return provideZipForParticipations(exportedStudentParticipations, programmingExercise, repositoryExportOptions, streaming, response);
     }
 
     private ResponseEntity<Resource> provideZipForParticipations(@NotNull List<ProgrammingExerciseStudentParticipation> exportedStudentParticipations,
-            ProgrammingExercise programmingExercise, RepositoryExportOptionsDTO repositoryExportOptions) throws IOException {
+            ProgrammingExercise programmingExercise, RepositoryExportOptionsDTO repositoryExportOptions, boolean streaming, HttpServletResponse response) throws IOException {
 
         long start = System.nanoTime();
 
@@ -384,6 +393,10 @@ public class ProgrammingExerciseExportImportResource {
                     .body(null);
         }
 
+        if (streaming) {
+            return streamZipForParticipations(exportedStudentParticipations, programmingExercise, repositoryExportOptions, response, start);
+        }
+
         File zipFile = programmingExerciseExportService.exportStudentRepositoriesToZipFile(programmingExercise.getId(), exportedStudentParticipations, repositoryExportOptions);
         if (zipFile == null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert(applicationName, true, ENTITY_NAME, "internalServerError",
@@ -398,6 +411,30 @@ public class ProgrammingExerciseExportImportResource {
         return ResponseEntity.ok().contentLength(zipFile.length()).contentType(MediaType.APPLICATION_OCTET_STREAM).header("filename", zipFile.getName()).body(resource);
     }
 
+    private ResponseEntity<Resource> streamZipForParticipations(List<ProgrammingExerciseStudentParticipation> exportedStudentParticipations,
+            ProgrammingExercise programmingExercise, RepositoryExportOptionsDTO repositoryExportOptions, HttpServletResponse response, long start) throws IOException {
+        String filename = programmingExerciseExportService.getStudentRepositoriesZipFilename(programmingExercise);
+        int exportedRepositories = programmingExerciseExportService.exportStudentRepositoriesToZipStream(programmingExercise.getId(), exportedStudentParticipations,
+                repositoryExportOptions, () -> {
+                    // The headers have to be set before the first repository is written, because the response is committed afterwards
+                    response.setStatus(HttpServletResponse.SC_OK);
+                    response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+                    response.setHeader("filename", filename);
+                    return response.getOutputStream();
+                });
+
+        if (exportedRepositories == 0) {
+            // nothing has been written to the response yet, so the error can still be reported
+            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert(applicationName, true, ENTITY_NAME, "internalServerError",
+                    "There was an error on the server and none of the repositories could be exported.")).body(null);
+        }
+
+        log.info("Streaming export of {} of {} student repositories of programming exercise {} with title '{}' was successful in {}.", exportedRepositories,
+                exportedStudentParticipations.size(), programmingExercise.getId(), programmingExercise.getTitle(), formatDurationFrom(start));
+        // the response has already been written, returning null tells Spring that the request has been handled
+        return null;
+    }
+
     /**
      * GET /programming-exercises/:exerciseId/export-solution-repository : sends a solution repository as a zip file without .git directory.
      *
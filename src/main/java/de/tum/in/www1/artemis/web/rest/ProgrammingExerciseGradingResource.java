@@ -1,7 +1,5 @@
 package de.tum.in.www1.artemis.web.rest;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -10,12 +8,14 @@ import org.springframework.web.bind.annotation.*;
 
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
-import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseGradingService;
+import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseReEvaluationService;
 import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseGradingStatisticsDTO;
+import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseReEvaluationJobDTO;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 /**
  * REST controller for managing ProgrammingExerciseTestCase. Test cases are created automatically from build run results which is why there are no endpoints available for POST,
@@ -27,6 +27,10 @@ public class ProgrammingExerciseGradingResource {
 
     public static final String RE_EVALUATE = "/programming-exercises/{exerciseId}/grading/re-evaluate";
 
+    public static final String RE_EVALUATION_JOBS = "/programming-exercises/{exerciseId}/grading/re-evaluation-jobs";
+
+    public static final String RE_EVALUATION_JOB = RE_EVALUATION_JOBS + "/{jobId}";
+
     public static final String STATISTICS = "/programming-exercises/{exerciseId}/grading/statistics";
 
     private final Logger log = LoggerFactory.getLogger(ProgrammingExerciseGradingResource.class);
@@ -39,19 +43,21 @@ public class ProgrammingExerciseGradingResource {
 
     private final UserRepository userRepository;
 
-    private final ResultRepository resultRepository;
+    private final ProgrammingExerciseReEvaluationService programmingExerciseReEvaluationService;
 
     public ProgrammingExerciseGradingResource(ProgrammingExerciseGradingService programmingExerciseGradingService, ProgrammingExerciseRepository programmingExerciseRepository,
-            AuthorizationCheckService authCheckService, UserRepository userRepository, ResultRepository resultRepository) {
+            AuthorizationCheckService authCheckService, UserRepository userRepository,
+            ProgrammingExerciseReEvaluationService programmingExerciseReEvaluationService) {
         this.programmingExerciseGradingService = programmingExerciseGradingService;
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.authCheckService = authCheckService;
         this.userRepository = userRepository;
-        this.resultRepository = resultRepository;
+        this.programmingExerciseReEvaluationService = programmingExerciseReEvaluationService;
     }
 
     /**
      * Use with care: Re-evaluates all latest automatic results for the given programming exercise.
+     * The request is answered when all results are re-evaluated, use {@link #startReEvaluationJob} for exercises with many participations.
      *
      * @param exerciseId the id of the exercise to re-evaluate the test case weights of.
      * @return the number of results that were updated.
@@ -66,11 +72,50 @@ public class ProgrammingExerciseGradingResource {
 
         authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.INSTRUCTOR, programmingExercise, user);
 
-        List<Result> updatedResults = programmingExerciseGradingService.updateAllResults(programmingExercise);
+        int updatedResults = programmingExerciseReEvaluationService.reEvaluateResults(programmingExercise, false);
 
         programmingExerciseGradingService.logReEvaluate(user, programmingExercise, course, updatedResults);
-        resultRepository.saveAll(updatedResults);
-        return ResponseEntity.ok(updatedResults.size());
+        return ResponseEntity.ok(updatedResults);
+    }
+
+    /**
+     * Use with care: Starts a job that re-evaluates all latest automatic results for the given programming exercise in the background.
+     * If the results of the exercise are already re-evaluated by a running job, the running job is returned.
+     *
+     * @param exerciseId the id of the exercise to re-evaluate the test case weights of.
+     * @return the started job, its progress can be requested with {@link #getReEvaluationJob}.
+     */
+    @PostMapping(RE_EVALUATION_JOBS)
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<ProgrammingExerciseReEvaluationJobDTO> startReEvaluationJob(@PathVariable Long exerciseId) {
+        log.debug("REST request to start a job re-evaluating the graded results of exercise {}", exerciseId);
+        ProgrammingExercise programmingExercise = programmingExerciseRepository.findByIdWithTemplateAndSolutionParticipationWithResultsElseThrow(exerciseId);
+        Course course = programmingExercise.getCourseViaExerciseGroupOrCourseMember();
+        User user = userRepository.getUserWithGroupsAndAuthorities();
+
+        authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.INSTRUCTOR, programmingExercise, user);
+
+        return ResponseEntity.ok(programmingExerciseReEvaluationService.startReEvaluationJob(programmingExercise, user, course));
+    }
+
+    /**
+     * Get the progress of a job re-evaluating the results of the given programming exercise.
+     *
+     * @param exerciseId the id of the re-evaluated exercise.
+     * @param jobId      the id of the job.
+     * @return the job with its progress.
+     */
+    @GetMapping(RE_EVALUATION_JOB)
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<ProgrammingExerciseReEvaluationJobDTO> getReEvaluationJob(@PathVariable Long exerciseId, @PathVariable String jobId) {
+        log.debug("REST request to get the re-evaluation job {} of exercise {}", jobId, exerciseId);
+        ProgrammingExercise programmingExercise = programmingExerciseRepository.findByIdElseThrow(exerciseId);
+
+        authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.INSTRUCTOR, programmingExercise, null);
+
+        ProgrammingExerciseReEvaluationJobDTO job = programmingExerciseReEvaluationService.getReEvaluationJob(jobId)
+                .filter(reEvaluationJob -> reEvaluationJob.exerciseId() == exerciseId).orElseThrow(() -> new EntityNotFoundException("Re-evaluation job", jobId));
+        return ResponseEntity.ok(job);
     }
 
     /**
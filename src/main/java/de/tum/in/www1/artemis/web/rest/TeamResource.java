@@ -28,6 +28,7 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
+import de.tum.in.www1.artemis.service.CourseScoreCalculationService;
 import de.tum.in.www1.artemis.service.ParticipationService;
 import de.tum.in.www1.artemis.service.SubmissionService;
 import de.tum.in.www1.artemis.service.TeamService;
@@ -75,10 +76,12 @@ public class TeamResource {
 
     private final TeamScoreRepository teamScoreRepository;
 
+    private final CourseScoreCalculationService courseScoreCalculationService;
+
     public TeamResource(TeamRepository teamRepository, TeamService teamService, TeamWebsocketService teamWebsocketService, CourseRepository courseRepository,
             ExerciseRepository exerciseRepository, UserRepository userRepository, AuthorizationCheckService authCheckService, ParticipationService participationService,
             SubmissionService submissionService, AuditEventRepository auditEventRepository, StudentParticipationRepository studentParticipationRepository,
-            TeamScoreRepository teamScoreRepository) {
+            TeamScoreRepository teamScoreRepository, CourseScoreCalculationService courseScoreCalculationService) {
         this.teamRepository = teamRepository;
         this.teamService = teamService;
         this.teamWebsocketService = teamWebsocketService;
@@ -91,6 +94,7 @@ public class TeamResource {
         this.auditEventRepository = auditEventRepository;
         this.studentParticipationRepository = studentParticipationRepository;
         this.teamScoreRepository = teamScoreRepository;
+        this.courseScoreCalculationService = courseScoreCalculationService;
     }
 
     /**
@@ -202,6 +206,14 @@ public class TeamResource {
             teamService.updateRepositoryMembersIfNeeded(exerciseId, existingTeam.get(), savedTeam);
         }
 
+        // The points of the team count for the new members and no longer for the removed members
+        Set<Long> previousStudentIds = getStudentIds(List.of(existingTeam.get()));
+        Set<Long> currentStudentIds = getStudentIds(List.of(savedTeam));
+        Set<Long> changedStudentIds = new HashSet<>(previousStudentIds);
+        changedStudentIds.addAll(currentStudentIds);
+        changedStudentIds.removeIf(studentId -> previousStudentIds.contains(studentId) && currentStudentIds.contains(studentId));
+        courseScoreCalculationService.invalidateCourseScores(exercise.getCourseViaExerciseGroupOrCourseMember(), changedStudentIds);
+
         savedTeam.filterSensitiveInformation();
         savedTeam.getStudents().forEach(student -> student.setVisibleRegistrationNumber(student.getRegistrationNumber()));
         var participationsOfSavedTeam = studentParticipationRepository.findByExerciseIdAndTeamIdWithEagerResultsAndLegalSubmissions(exercise.getId(), savedTeam.getId());
@@ -284,6 +296,7 @@ public class TeamResource {
         teamScoreRepository.deleteAllByTeamId(team.getId());
 
         teamRepository.delete(team);
+        courseScoreCalculationService.invalidateCourseScores(exercise.getCourseViaExerciseGroupOrCourseMember(), getStudentIds(List.of(team)));
 
         teamWebsocketService.sendTeamAssignmentUpdate(exercise, team, null);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, Long.toString(teamId))).build();
@@ -357,7 +370,9 @@ public class TeamResource {
         auditEventRepository.add(auditEvent);
 
         // Import teams and return the teams that now belong to the destination exercise
+        List<Team> previousTeams = teamRepository.findAllByExerciseId(exercise.getId());
         List<Team> destinationTeams = teamService.importTeamsFromTeamListIntoExerciseUsingStrategy(exercise, filledTeams, importStrategyType);
+        invalidateCourseScoresOfPurgedTeams(exercise, previousTeams, importStrategyType);
         destinationTeams.forEach(Team::filterSensitiveInformation);
         destinationTeams.forEach(team -> team.getStudents().forEach(student -> student.setVisibleRegistrationNumber(student.getRegistrationNumber())));
 
@@ -403,7 +418,9 @@ public class TeamResource {
         auditEventRepository.add(auditEvent);
 
         // Import teams and return the teams that now belong to the destination exercise
+        List<Team> previousTeams = teamRepository.findAllByExerciseId(destinationExercise.getId());
         List<Team> destinationTeams = teamService.importTeamsFromSourceExerciseIntoDestinationExerciseUsingStrategy(sourceExercise, destinationExercise, importStrategyType);
+        invalidateCourseScoresOfPurgedTeams(destinationExercise, previousTeams, importStrategyType);
         destinationTeams.forEach(Team::filterSensitiveInformation);
         destinationTeams.forEach(team -> team.getStudents().forEach(student -> student.setVisibleRegistrationNumber(student.getRegistrationNumber())));
         // Send out team assignment update via websockets
@@ -493,4 +510,21 @@ public class TeamResource {
         // Send out team assignment update via websockets to each team
         teams.forEach(team -> teamWebsocketService.sendTeamAssignmentUpdate(exercise, null, team, participationsMap.getOrDefault(team.getParticipantIdentifier(), List.of())));
     }
+
+    /**
+     * The participations of all previous teams are deleted if the teams are purged during an import, so their members lose the points of the exercise
+     *
+     * @param exercise           Exercise into which the teams were imported
+     * @param previousTeams      Teams of the exercise before the import
+     * @param importStrategyType Type of strategy that was used for the import
+     */
+    private void invalidateCourseScoresOfPurgedTeams(Exercise exercise, List<Team> previousTeams, TeamImportStrategyType importStrategyType) {
+        if (importStrategyType == TeamImportStrategyType.PURGE_EXISTING) {
+            courseScoreCalculationService.invalidateCourseScores(exercise.getCourseViaExerciseGroupOrCourseMember(), getStudentIds(previousTeams));
+        }
+    }
+
+    private static Set<Long> getStudentIds(Collection<Team> teams) {
+        return teams.stream().flatMap(team -> team.getStudents().stream()).map(User::getId).collect(Collectors.toSet());
+    }
 }
@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.web.rest;
 
+import static de.tum.in.www1.artemis.config.Constants.PLAGIARISM_RESULT_MAX_COMPARISONS;
+
 import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -476,10 +478,11 @@ public class TextExerciseResource {
         log.info("Finished textPlagiarismDetectionService.checkPlagiarism for exercise {} with {} comparisons in {}", exerciseId, plagiarismResult.getComparisons().size(),
                 TimeLogUtil.formatDurationFrom(start));
         // TODO: limit the amount temporarily because of database issues
-        plagiarismResult.sortAndLimit(100);
+        plagiarismResult.sortAndLimit(PLAGIARISM_RESULT_MAX_COMPARISONS);
         log.info("Limited number of comparisons to {} to avoid performance issues when saving to database", plagiarismResult.getComparisons().size());
         start = System.nanoTime();
-        plagiarismResultRepository.savePlagiarismResultAndRemovePrevious(plagiarismResult);
+        // the result might have been updated incrementally, therefore we use the saved instance which contains the ids of all new comparisons
+        plagiarismResult = (TextPlagiarismResult) plagiarismResultRepository.savePlagiarismResultAndRemovePrevious(plagiarismResult);
         log.info("Finished plagiarismResultRepository.savePlagiarismResultAndRemovePrevious call in {}", TimeLogUtil.formatDurationFrom(start));
         plagiarismResultRepository.prepareResultForClient(plagiarismResult);
         return ResponseEntity.ok(plagiarismResult);
@@ -48,14 +48,17 @@ public class AdminCourseResource {
 
     private final OnlineCourseConfigurationService onlineCourseConfigurationService;
 
+    private final CourseScoreCalculationService courseScoreCalculationService;
+
     public AdminCourseResource(UserRepository userRepository, CourseService courseService, CourseRepository courseRepository, AuditEventRepository auditEventRepository,
-            FileService fileService, OnlineCourseConfigurationService onlineCourseConfigurationService) {
+            FileService fileService, OnlineCourseConfigurationService onlineCourseConfigurationService, CourseScoreCalculationService courseScoreCalculationService) {
         this.courseService = courseService;
         this.courseRepository = courseRepository;
         this.auditEventRepository = auditEventRepository;
         this.userRepository = userRepository;
         this.fileService = fileService;
         this.onlineCourseConfigurationService = onlineCourseConfigurationService;
+        this.courseScoreCalculationService = courseScoreCalculationService;
     }
 
     /**
@@ -126,4 +129,18 @@ public class AdminCourseResource {
         courseService.delete(course);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, Course.ENTITY_NAME, course.getTitle())).build();
     }
+
+    /**
+     * POST /courses/:courseId/course-scores/rebuild : calculate the stored course scores of all students of the course again.
+     *
+     * @param courseId the id of the course whose scores should be rebuilt
+     * @return the ResponseEntity with status 200 (OK) and with body the number of stored course scores
+     */
+    @PostMapping("courses/{courseId}/course-scores/rebuild")
+    @EnforceAdmin
+    public ResponseEntity<Integer> rebuildCourseScores(@PathVariable long courseId) {
+        log.info("REST request to rebuild the course scores of course : {}", courseId);
+        courseRepository.findByIdElseThrow(courseId);
+        return ResponseEntity.ok(courseScoreCalculationService.rebuildCourseScores(courseId));
+    }
 }
@@ -0,0 +1,35 @@
+package de.tum.in.www1.artemis.web.rest.dto;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The progress of a re-evaluation of all results of a programming exercise that runs in the background.
+ *
+ * @param id                      the id of the job
+ * @param exerciseId              the id of the re-evaluated exercise
+ * @param status                  whether the job is still running
+ * @param processedParticipations the number of student participations whose results have already been re-evaluated
+ * @param totalParticipations     the number of student participations whose results are re-evaluated
+ * @param updatedResults          the number of results that have been updated and saved so far (including the template and solution results)
+ * @param startDate               when the job was started
+ * @param endDate                 when the job finished or failed
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record ProgrammingExerciseReEvaluationJobDTO(String id, long exerciseId, Status status, int processedParticipations, int totalParticipations, int updatedResults,
+        ZonedDateTime startDate, ZonedDateTime endDate) implements Serializable {
+
+    public enum Status {
+        RUNNING, FINISHED, FAILED
+    }
+
+    public ProgrammingExerciseReEvaluationJobDTO withProgress(int processedParticipations, int totalParticipations, int updatedResults) {
+        return new ProgrammingExerciseReEvaluationJobDTO(id, exerciseId, status, processedParticipations, totalParticipations, updatedResults, startDate, endDate);
+    }
+
+    public ProgrammingExerciseReEvaluationJobDTO withStatus(Status status) {
+        return new ProgrammingExerciseReEvaluationJobDTO(id, exerciseId, status, processedParticipations, totalParticipations, updatedResults, startDate, ZonedDateTime.now());
+    }
+}
@@ -135,7 +135,7 @@ export class ExamActionService implements IExamActionService {
         this.openExamMonitoringWebsocketSubscriptions.set(exam.id!, topic);
 
         this.jhiWebsocketService.subscribe(topic);
-        this.jhiWebsocketService.receive(topic).subscribe((exmAction: ExamAction) => this.updateCachedActions(exam, [exmAction]));
+        this.jhiWebsocketService.receive(topic).subscribe((examActions: ExamAction[]) => this.updateCachedActions(exam, examActions));
     }
 
     /**
@@ -91,7 +91,7 @@ export class ProgrammingAssessmentRepoExportDialogComponent implements OnInit {
             // We anonymize the assessment process ("double-blind").
             this.repositoryExportOptions.addParticipantName = false;
             this.repositoryExportOptions.hideStudentNameInZippedFolder = true;
-            this.repoExportService.exportReposByParticipations(exerciseId, this.participationIdList, this.repositoryExportOptions).subscribe({
+            this.repoExportService.exportReposByParticipations(exerciseId, this.participationIdList, this.repositoryExportOptions, true).subscribe({
                 next: this.handleExportRepoResponse,
                 error: () => {
                     this.exportInProgress = false;
@@ -102,7 +102,7 @@ export class ProgrammingAssessmentRepoExportDialogComponent implements OnInit {
         const participantIdentifierList =
             this.participantIdentifierList !== undefined && this.participantIdentifierList !== '' ? this.participantIdentifierList.split(',').map((e) => e.trim()) : ['ALL'];
 
-        this.repoExportService.exportReposByParticipantIdentifiers(exerciseId, participantIdentifierList, this.repositoryExportOptions).subscribe({
+        this.repoExportService.exportReposByParticipantIdentifiers(exerciseId, participantIdentifierList, this.repositoryExportOptions, true).subscribe({
             next: this.handleExportRepoResponse,
             error: () => {
                 this.exportInProgress = false;
@@ -26,10 +26,17 @@ export class ProgrammingAssessmentRepoExportService {
      * @param {number} exerciseId - Id of the exercise
      * @param {string[]} participantIdentifiers - Identifiers of participants
      * @param {RepositoryExportOptions} repositoryExportOptions
+     * @param {boolean} streaming - Whether the repositories should be checked out in parallel and streamed in one zip file with one folder per repository
      */
-    exportReposByParticipantIdentifiers(exerciseId: number, participantIdentifiers: string[], repositoryExportOptions: RepositoryExportOptions): Observable<HttpResponse<Blob>> {
+    exportReposByParticipantIdentifiers(
+        exerciseId: number,
+        participantIdentifiers: string[],
+        repositoryExportOptions: RepositoryExportOptions,
+        streaming = false,
+    ): Observable<HttpResponse<Blob>> {
         const url = `${this.resourceUrl}/${exerciseId}/export-repos-by-participant-identifiers/${participantIdentifiers}`;
         return this.http.post(url, repositoryExportOptions, {
+            params: { streaming },
             observe: 'response',
             responseType: 'blob',
         });
@@ -40,10 +47,17 @@ export class ProgrammingAssessmentRepoExportService {
      * @param {number} exerciseId - Id of the exercise
      * @param {number[]} participationIds - Ids of participations
      * @param {RepositoryExportOptions} repositoryExportOptions
+     * @param {boolean} streaming - Whether the repositories should be checked out in parallel and streamed in one zip file with one folder per repository
      */
-    exportReposByParticipations(exerciseId: number, participationIds: number[], repositoryExportOptions: RepositoryExportOptions): Observable<HttpResponse<Blob>> {
+    exportReposByParticipations(
+        exerciseId: number,
+        participationIds: number[],
+        repositoryExportOptions: RepositoryExportOptions,
+        streaming = false,
+    ): Observable<HttpResponse<Blob>> {
         const url = `${this.resourceUrl}/${exerciseId}/export-repos-by-participation-ids/${participationIds}`;
         return this.http.post(url, repositoryExportOptions, {
+            params: { streaming },
             observe: 'response',
             responseType: 'blob',
         });
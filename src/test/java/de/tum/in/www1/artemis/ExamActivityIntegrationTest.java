@@ -1,13 +1,17 @@
 package de.tum.in.www1.artemis;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
 
+import java.security.Principal;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,10 +19,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.enumeration.ExamActionType;
@@ -26,6 +34,7 @@ import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
 import de.tum.in.www1.artemis.domain.exam.monitoring.actions.*;
+import de.tum.in.www1.artemis.repository.ExamActionRepository;
 import de.tum.in.www1.artemis.repository.ExamRepository;
 import de.tum.in.www1.artemis.repository.StudentExamRepository;
 import de.tum.in.www1.artemis.service.scheduled.cache.monitoring.ExamMonitoringScheduleService;
@@ -34,6 +43,9 @@ import de.tum.in.www1.artemis.web.rest.ExamActivityResource;
 
 class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
+    // the user of the student exam, who sends the actions via websocket
+    private static final Principal STUDENT = () -> "student1";
+
     @Autowired
     private ExamMonitoringScheduleService examMonitoringScheduleService;
 
@@ -49,6 +61,12 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
     @Autowired
     private ExamActivityResource examActivityResource;
 
+    @Autowired
+    private ExamActionRepository examActionRepository;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
     private Course course;
 
     private Exam exam;
@@ -70,9 +88,24 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
 
     @AfterEach
     void tearDown() throws Exception {
-        database.resetDatabase();
         examMonitoringScheduleService.stopSchedule();
         examMonitoringScheduleService.clearAllExamMonitoringData();
+        database.resetDatabase();
+    }
+
+    /**
+     * Waits until the given actions were sent to the subscribers, the actions can be sent in one or multiple messages.
+     *
+     * @param examActions the actions that should have been sent
+     */
+    @SuppressWarnings("unchecked")
+    private void verifyExamActionsSent(List<ExamAction> examActions) {
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            ArgumentCaptor<Object> messageCaptor = ArgumentCaptor.forClass(Object.class);
+            verify(websocketMessagingService, atLeastOnce()).sendMessage(eq("/topic/exam-monitoring/" + exam.getId() + "/action"), messageCaptor.capture());
+            var sentActions = messageCaptor.getAllValues().stream().flatMap(message -> ((List<ExamAction>) message).stream()).toList();
+            assertThat(sentActions).containsExactlyElementsOf(examActions);
+        });
     }
 
     private ExamAction createExamActionBasedOnType(ExamActionType examActionType) {
@@ -119,8 +152,8 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
     void testCreateExamActivityInCache(ExamActionType examActionType) {
         ExamAction examAction = createExamActionBasedOnType(examActionType);
 
-        examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        examActivityResource.updatePerformedExamActions(exam.getId(), examAction, STUDENT);
+        verifyExamActionsSent(List.of(examAction));
     }
 
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
@@ -129,13 +162,12 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
     void testExamActionPresentInCache(ExamActionType examActionType) {
         ExamAction examAction = createExamActionBasedOnType(examActionType);
 
-        examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        examActivityResource.updatePerformedExamActions(exam.getId(), examAction, STUDENT);
+        verifyExamActionsSent(List.of(examAction));
 
-        var examActivity = examMonitoringScheduleService.getExamActivityFromCache(exam.getId(), studentExam.getId());
-        assertThat(examActivity).isNotNull();
-        assertThat(examActivity.getExamActions().size()).isEqualTo(1);
-        assertThat(new ArrayList<>(examActivity.getExamActions()).get(0).getType()).isEqualTo(examActionType);
+        var examActions = examMonitoringScheduleService.getAllExamActions(exam.getId());
+        assertThat(examActions).hasSize(1);
+        assertThat(examActions.get(0).getType()).isEqualTo(examActionType);
     }
 
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
@@ -144,13 +176,15 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
     void testExamActionNotPresentInCache(ExamActionType examActionType) {
         ExamAction examAction = createExamActionBasedOnType(examActionType);
 
-        examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        examActivityResource.updatePerformedExamActions(exam.getId(), examAction, STUDENT);
+        verifyExamActionsSent(List.of(examAction));
 
         examMonitoringScheduleService.executeExamActivitySaveTask(exam.getId());
 
-        var examActivity = examMonitoringScheduleService.getExamActivityFromCache(exam.getId(), studentExam.getId());
-        assertThat(examActivity).isNull();
+        assertThat(examActionRepository.findAll()).extracting(ExamAction::getType).containsExactly(examActionType);
+        // the cache of the exam is removed together with its distributed buffer of actions and the logins of its students
+        assertThat(hazelcastInstance.getMap(Constants.HAZELCAST_MONITORING_CACHE).containsKey(exam.getId())).isFalse();
+        assertThat(hazelcastInstance.getDistributedObjects()).noneMatch(object -> object.getName().startsWith(Constants.HAZELCAST_MONITORING_PREFIX + exam.getId() + "-"));
     }
 
     @Test
@@ -159,16 +193,72 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
         List<ExamAction> examActions = Arrays.stream(ExamActionType.values()).map(this::createExamActionBasedOnType).toList();
 
         for (ExamAction examAction : examActions) {
-            examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
-            verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+            examActivityResource.updatePerformedExamActions(exam.getId(), examAction, STUDENT);
         }
+        verifyExamActionsSent(examActions);
+
+        examMonitoringScheduleService.executeExamActivitySaveTask(exam.getId());
 
-        var examActivity = examMonitoringScheduleService.getExamActivityFromCache(exam.getId(), studentExam.getId());
+        var savedExamActions = examActionRepository.findAll();
+        assertThat(savedExamActions).hasSameSizeAs(examActions);
+        assertThat(savedExamActions).allSatisfy(savedExamAction -> assertThat(savedExamAction.getStudentExamId()).isEqualTo(studentExam.getId()));
+        assertThat(savedExamActions).extracting(ExamAction::getType).containsExactlyInAnyOrder(ExamActionType.values());
+    }
+
+    @Test
+    @WithMockUser(username = "student2", roles = "USER")
+    void testExamActionsOfOtherStudentExamsAreIgnored() {
+        var otherExam = database.addActiveExamWithRegisteredUser(course, database.getUserByLogin("student2"));
+        var studentExamOfOtherExam = database.addStudentExam(otherExam);
+        studentExamOfOtherExam.setUser(database.getUserByLogin("student2"));
+        studentExamRepository.save(studentExamOfOtherExam);
+
+        // the student exam belongs to another user
+        examActivityResource.updatePerformedExamActions(exam.getId(), createExamActionBasedOnType(ExamActionType.STARTED_EXAM), () -> "student2");
+        // the student exam belongs to another exam
+        var actionOfOtherExam = createExamActionBasedOnType(ExamActionType.STARTED_EXAM);
+        actionOfOtherExam.setStudentExamId(studentExamOfOtherExam.getId());
+        examActivityResource.updatePerformedExamActions(exam.getId(), actionOfOtherExam, () -> "student2");
+        // the student exam does not exist
+        var actionOfMissingStudentExam = createExamActionBasedOnType(ExamActionType.STARTED_EXAM);
+        actionOfMissingStudentExam.setStudentExamId(Long.MAX_VALUE);
+        examActivityResource.updatePerformedExamActions(exam.getId(), actionOfMissingStudentExam, STUDENT);
+
+        assertThat(examMonitoringScheduleService.getAllExamActions(exam.getId())).isEmpty();
+    }
 
-        assertThat(examActivity).isNotNull();
-        assertThat(examActivity.getExamActions().size()).isEqualTo(examActions.size());
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    void testExamActionsOfOtherUserAreIgnoredAfterStudentExamWasVerified() {
+        var examAction = createExamActionBasedOnType(ExamActionType.STARTED_EXAM);
+        examActivityResource.updatePerformedExamActions(exam.getId(), examAction, STUDENT);
+        // the student exam was already verified for its own user, so the action of another user is rejected based on the cached login
+        examActivityResource.updatePerformedExamActions(exam.getId(), createExamActionBasedOnType(ExamActionType.ENDED_EXAM), () -> "student2");
+        var secondExamAction = createExamActionBasedOnType(ExamActionType.HANDED_IN_EARLY);
+        examActivityResource.updatePerformedExamActions(exam.getId(), secondExamAction, STUDENT);
+        verifyExamActionsSent(List.of(examAction, secondExamAction));
+
+        assertThat(examMonitoringScheduleService.getAllExamActions(exam.getId())).extracting(ExamAction::getType).containsExactly(ExamActionType.STARTED_EXAM,
+                ExamActionType.HANDED_IN_EARLY);
+    }
 
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    void testExamActionsAreSavedIfOtherStudentExamWasDeleted() {
+        var deletedStudentExam = database.addStudentExam(exam);
+        deletedStudentExam.setUser(database.getUserByLogin("student2"));
+        studentExamRepository.save(deletedStudentExam);
+        var actionOfDeletedStudentExam = createExamActionBasedOnType(ExamActionType.STARTED_EXAM);
+        actionOfDeletedStudentExam.setStudentExamId(deletedStudentExam.getId());
+        examActivityResource.updatePerformedExamActions(exam.getId(), actionOfDeletedStudentExam, () -> "student2");
+        examActivityResource.updatePerformedExamActions(exam.getId(), createExamActionBasedOnType(ExamActionType.STARTED_EXAM), STUDENT);
+
+        studentExamRepository.deleteById(deletedStudentExam.getId());
         examMonitoringScheduleService.executeExamActivitySaveTask(exam.getId());
+
+        var savedExamActions = examActionRepository.findAll();
+        assertThat(savedExamActions).hasSize(1);
+        assertThat(savedExamActions.get(0).getStudentExamId()).isEqualTo(studentExam.getId());
     }
 
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
@@ -180,15 +270,14 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
         exam.setMonitoring(false);
         examRepository.save(exam);
 
-        examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
+        examActivityResource.updatePerformedExamActions(exam.getId(), examAction, STUDENT);
 
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        verifyExamActionsSent(List.of(examAction));
 
-        // Currently, we don't apply any filtering - so there should be an activity and action in the cache
-        var examActivity = examMonitoringScheduleService.getExamActivityFromCache(exam.getId(), studentExam.getId());
-        assertThat(examActivity).isNotNull();
-        assertThat(examActivity.getExamActions().size()).isEqualTo(1);
-        assertThat(new ArrayList<>(examActivity.getExamActions()).get(0).getType()).isEqualTo(examActionType);
+        // Currently, we don't apply any filtering - so the action should be kept
+        var examActions = examMonitoringScheduleService.getAllExamActions(exam.getId());
+        assertThat(examActions).hasSize(1);
+        assertThat(examActions.get(0).getType()).isEqualTo(examActionType);
     }
 
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
@@ -197,9 +286,9 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
     void testGetInitialExamActions(ExamActionType examActionType) throws Exception {
         ExamAction examAction = createExamActionBasedOnType(examActionType);
 
-        examActivityResource.updatePerformedExamActions(exam.getId(), examAction);
+        examActivityResource.updatePerformedExamActions(exam.getId(), examAction, STUDENT);
 
-        verify(this.websocketMessagingService).sendMessage("/topic/exam-monitoring/" + exam.getId() + "/action", examAction);
+        verifyExamActionsSent(List.of(examAction));
 
         List<ExamAction> examActions = request.getList("/api/exam-monitoring/" + exam.getId() + "/load-actions", HttpStatus.OK, ExamAction.class);
 
@@ -209,8 +298,24 @@ class ExamActivityIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
         // We need to validate those values to be equal.
         assertEquals(examAction.getExamActivityId(), receivedAction.getExamActivityId());
         assertEquals(examAction.getStudentExamId(), receivedAction.getStudentExamId());
-        assertEquals(examAction.getId(), receivedAction.getId());
         assertEquals(examAction.getType(), receivedAction.getType());
+        // the action is saved when the actions are loaded
+        assertThat(receivedAction.getId()).isNotNull();
+        assertThat(examActionRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void testGetInitialExamActionsLoadsAllPages() throws Exception {
+        int numberOfActions = 2500;
+        for (int i = 0; i < numberOfActions; i++) {
+            examActivityResource.updatePerformedExamActions(exam.getId(), createExamActionBasedOnType(ExamActionType.CONNECTION_UPDATED), STUDENT);
+        }
+
+        List<ExamAction> examActions = request.getList("/api/exam-monitoring/" + exam.getId() + "/load-actions", HttpStatus.OK, ExamAction.class);
+
+        assertThat(examActions).hasSize(numberOfActions);
+        assertThat(examActions).extracting(ExamAction::getId).doesNotHaveDuplicates();
     }
 
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
@@ -563,6 +563,31 @@ class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTe
         request.delete("/api/courses/" + course1.getId() + "/exams/" + exam.getId(), HttpStatus.OK);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testStartExercisesTwiceOnlyCreatesParticipationsOnce() throws Exception {
+        Exam exam = database.setupExamWithExerciseGroupsExercisesRegisteredStudents(course1);
+
+        request.postListWithResponseBody("/api/courses/" + course1.getId() + "/exams/" + exam.getId() + "/generate-student-exams", Optional.empty(), StudentExam.class,
+                HttpStatus.OK);
+
+        assertThat(studentExamService.startExercises(exam.getId()).join()).isEqualTo(16);
+
+        List<Participation> studentParticipations = participationTestRepository.findAllWithSubmissions();
+        assertThat(studentParticipations).hasSize(16);
+        // every participation has exactly one initial submission
+        assertThat(studentParticipations).allSatisfy(participation -> assertThat(participation.getSubmissions()).hasSize(1));
+
+        // all participations are already initialized, so starting the exercises again must not create anything
+        assertThat(studentExamService.startExercises(exam.getId()).join()).isZero();
+        assertThat(participationTestRepository.findAllWithSubmissions()).hasSize(16);
+
+        var status = studentExamService.getExerciseStartStatusOfExam(exam.getId());
+        assertThat(status).isPresent();
+        assertThat(status.get().finished()).isEqualTo(studentExamRepository.findByExamId(exam.getId()).size());
+        assertThat(status.get().failed()).isZero();
+    }
+
     @Test
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     void testGenerateStudentExams_testExam() throws Exception {
@@ -2,11 +2,18 @@ package de.tum.in.www1.artemis;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -15,9 +22,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -187,6 +198,30 @@ class FileIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTe
         assertThat(receivedAttachment).isEqualTo("some data");
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testGetLectureAttachmentWithRangeAndETag() throws Exception {
+        Attachment attachment = createLectureWithAttachment("attachment.pdf", HttpStatus.CREATED);
+        String attachmentPath = attachment.getLink();
+
+        // only the requested part of the file is sent for range requests
+        HttpHeaders rangeHeaders = new HttpHeaders();
+        rangeHeaders.setRange(List.of(HttpRange.createByteRange(5, 8)));
+        String partialAttachment = request.get(attachmentPath, HttpStatus.PARTIAL_CONTENT, String.class, rangeHeaders);
+        assertThat(partialAttachment).isEqualTo("data");
+
+        MvcResult result = request.getMvc().perform(MockMvcRequestBuilders.get(new URI(attachmentPath))).andExpect(status().isOk()).andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+        assertThat(result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)).isNotBlank();
+
+        // the file is not sent again if it did not change
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(eTag);
+        String notModifiedAttachment = request.get(attachmentPath, HttpStatus.NOT_MODIFIED, String.class, conditionalHeaders);
+        assertThat(notModifiedAttachment).isNull();
+    }
+
     @Test
     @WithMockUser(username = "tutor1", roles = "TA")
     void testGetUnreleasedLectureAttachmentAsTutor() throws Exception {
@@ -376,6 +411,26 @@ class FileIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTe
         callAndCheckMergeResult(lecture, 5);
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void testGetLecturePdfAttachmentsMerged_MergedOnlyOnceUntilUnitsChange() throws Exception {
+        Lecture lecture = createLectureWithLectureUnits();
+        Path mergedPdfDirectory = Path.of(FilePathService.getMergedLecturePdfFilePath(), String.valueOf(lecture.getId()));
+
+        callAndCheckMergeResult(lecture, 5);
+        callAndCheckMergeResult(lecture, 5);
+        verify(fileService, times(1)).mergePdfFiles(anyList(), anyString(), any(OutputStream.class));
+        assertThat(mergedPdfDirectory).isDirectory();
+
+        // removing a unit deletes the merged document, the next request merges the remaining units again
+        var firstUnit = lecture.getLectureUnits().stream().min(Comparator.comparing(LectureUnit::getId)).orElseThrow();
+        request.delete("/api/lectures/" + lecture.getId() + "/lecture-units/" + firstUnit.getId(), HttpStatus.OK);
+        assertThat(mergedPdfDirectory).doesNotExist();
+
+        callAndCheckMergeResult(lecture, 2);
+        verify(fileService, times(2)).mergePdfFiles(anyList(), anyString(), any(OutputStream.class));
+    }
+
     private void callAndCheckMergeResult(Lecture lecture, int expectedPages) throws Exception {
         byte[] receivedFile = request.get("/api/files/attachments/lecture/" + lecture.getId() + "/merge-pdf", HttpStatus.OK, byte[].class);
 
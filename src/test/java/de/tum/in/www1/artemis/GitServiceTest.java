@@ -5,9 +5,11 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -27,17 +29,25 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import de.tum.in.www1.artemis.domain.File;
 import de.tum.in.www1.artemis.domain.FileType;
 import de.tum.in.www1.artemis.domain.Repository;
 import de.tum.in.www1.artemis.util.GitUtilService;
+import io.micrometer.core.instrument.MeterRegistry;
 
 class GitServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
     @Autowired
     private GitUtilService gitUtilService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${artemis.repo-clone-path}")
+    private String repoClonePath;
+
     @BeforeEach
     void beforeEach() {
         gitUtilService.initRepo();
@@ -86,6 +96,83 @@ class GitServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
         assertThat(gitUtilService.isLocalEqualToRemote()).isTrue();
     }
 
+    @Test
+    void testConcurrentCheckoutsOfRepositoryNotOnServerCloneOnce() throws Exception {
+        var repoUrl = gitUtilService.getRepoUrlByType(GitUtilService.REPOS.REMOTE);
+        gitUtilService.deleteRepo(GitUtilService.REPOS.LOCAL);
+        gitUtilService.reinitializeLocalRepository();
+        var cloneTimer = meterRegistry.get("artemis.git.working_copies.clone").timer();
+        long clonesBefore = cloneTimer.count();
+
+        var checkouts = Stream.generate(() -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return gitService.getOrCheckoutRepository(repoUrl, false);
+            }
+            catch (GitAPIException e) {
+                throw new IllegalStateException(e);
+            }
+        })).limit(4).toList();
+        var repositories = checkouts.stream().map(CompletableFuture::join).toList();
+
+        assertThat(repositories).doesNotContainNull();
+        assertThat(repositories.stream().map(Repository::getLocalPath).distinct()).hasSize(1);
+        assertThat(cloneTimer.count()).isEqualTo(clonesBefore + 1);
+        assertThat(gitUtilService.isLocalEqualToRemote()).isTrue();
+    }
+
+    @Test
+    void testCheckoutShallowRepositoryNotOnServer() throws GitAPIException, IOException {
+        var repoUrl = gitUtilService.getRepoUrlByType(GitUtilService.REPOS.REMOTE);
+        commitTwoChangesToRemote();
+        gitUtilService.deleteRepo(GitUtilService.REPOS.LOCAL);
+        gitUtilService.reinitializeLocalRepository();
+
+        Repository repository = gitService.getOrCheckoutShallowRepository(repoUrl, repoClonePath, true);
+
+        assertThat(gitUtilService.isLocalEqualToRemote()).isTrue();
+        // only the latest of the three commits of the remote repository is cloned
+        assertThat(isShallow(repository)).isTrue();
+        assertThat(getNumberOfCommits(repository)).isEqualTo(1L);
+    }
+
+    @Test
+    void testCheckoutShallowRepositoryAlreadyOnServerFetchesAndResetsToLatestCommit() throws GitAPIException, IOException {
+        var repoUrl = gitUtilService.getRepoUrlByType(GitUtilService.REPOS.REMOTE);
+        gitUtilService.deleteRepo(GitUtilService.REPOS.LOCAL);
+        gitUtilService.reinitializeLocalRepository();
+        gitService.getOrCheckoutShallowRepository(repoUrl, repoClonePath, true);
+
+        String newFileContent = "const a = arr.reduce(sum)";
+        gitUtilService.updateFile(GitUtilService.REPOS.REMOTE, GitUtilService.FILES.FILE1, newFileContent);
+        gitUtilService.stashAndCommitAll(GitUtilService.REPOS.REMOTE);
+        // local changes are discarded by the hard reset
+        gitUtilService.updateFile(GitUtilService.REPOS.LOCAL, GitUtilService.FILES.FILE2, "local change");
+
+        Repository repository = gitService.getOrCheckoutShallowRepository(repoUrl, repoClonePath, true);
+
+        assertThat(gitUtilService.getFileContent(GitUtilService.REPOS.LOCAL, GitUtilService.FILES.FILE1)).isEqualTo(newFileContent);
+        assertThat(gitUtilService.isLocalEqualToRemote()).isTrue();
+        assertThat(isShallow(repository)).isTrue();
+        assertThat(getNumberOfCommits(repository)).isEqualTo(1L);
+    }
+
+    @Test
+    void testCheckoutRepositoryWithHistoryUnshallowsShallowRepository() throws GitAPIException, IOException {
+        var repoUrl = gitUtilService.getRepoUrlByType(GitUtilService.REPOS.REMOTE);
+        commitTwoChangesToRemote();
+        gitUtilService.deleteRepo(GitUtilService.REPOS.LOCAL);
+        gitUtilService.reinitializeLocalRepository();
+        Repository shallowRepository = gitService.getOrCheckoutShallowRepository(repoUrl, repoClonePath, true);
+        assertThat(getNumberOfCommits(shallowRepository)).isEqualTo(1L);
+
+        Repository repository = gitService.getOrCheckoutRepository(repoUrl, false);
+
+        assertThat(repository.getLocalPath()).isEqualTo(shallowRepository.getLocalPath());
+        assertThat(isShallow(repository)).isFalse();
+        assertThat(getNumberOfCommits(repository)).isEqualTo(3L);
+        assertThat(gitUtilService.isLocalEqualToRemote()).isTrue();
+    }
+
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
     @ValueSource(strings = { "master", "main", "someOtherName" })
     void testResetToOriginHead(String defaultBranch) {
@@ -191,6 +278,23 @@ class GitServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
         gitService.deleteLocalRepository(localRepo);
     }
 
+    private void commitTwoChangesToRemote() {
+        gitUtilService.updateFile(GitUtilService.REPOS.REMOTE, GitUtilService.FILES.FILE1, "lorem ipsum");
+        gitUtilService.stashAndCommitAll(GitUtilService.REPOS.REMOTE);
+        gitUtilService.updateFile(GitUtilService.REPOS.REMOTE, GitUtilService.FILES.FILE2, "lorem ipsum solet");
+        gitUtilService.stashAndCommitAll(GitUtilService.REPOS.REMOTE);
+    }
+
+    private static boolean isShallow(Repository repository) {
+        return Files.exists(repository.getDirectory().toPath().resolve("shallow"));
+    }
+
+    private static long getNumberOfCommits(Repository repository) throws GitAPIException {
+        try (Git git = new Git(repository)) {
+            return StreamSupport.stream(git.log().call().spliterator(), false).count();
+        }
+    }
+
     private static Stream<Arguments> getBranchCombinationsToTest() {
         List<String> branchNames = List.of("master", "main", "someOtherName");
 
@@ -9,12 +9,15 @@ import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -28,6 +31,7 @@ import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.enumeration.QuizMode;
 import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
 import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
@@ -35,7 +39,9 @@ import de.tum.in.www1.artemis.domain.quiz.*;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.QuizBatchService;
 import de.tum.in.www1.artemis.service.QuizExerciseService;
+import de.tum.in.www1.artemis.service.QuizStatisticService;
 import de.tum.in.www1.artemis.service.scheduled.cache.quiz.QuizScheduleService;
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.util.ModelFactory;
 import de.tum.in.www1.artemis.web.websocket.QuizSubmissionWebsocketService;
 
@@ -76,6 +82,15 @@ class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBambooBitbu
     @Autowired
     private QuizBatchService quizBatchService;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentParticipationRepository studentParticipationRepository;
+
+    @Autowired
+    private QuizStatisticService quizStatisticService;
+
     private final int multiplier = 10;
 
     @BeforeEach
@@ -186,6 +201,132 @@ class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBambooBitbu
         assertThat(submissionRepository.countByExerciseIdSubmitted(quizExercise.getId())).isEqualTo(numberOfParticipants);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testSaveQuizSubmissionsWithAlreadySavedParticipation() throws Exception {
+        QuizExercise quizExercise = quizExerciseService.save(setupQuizExerciseParameters());
+        // the participation of student1 was already saved, but the submission was not removed from the cache
+        database.createAndSaveParticipationForExercise(quizExercise, "student1");
+
+        int numberOfParticipants = 5;
+        for (int i = 1; i <= numberOfParticipants; i++) {
+            QuizSubmission quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, i, true, ZonedDateTime.now());
+            quizScheduleService.updateSubmission(quizExercise.getId(), "student" + i, quizSubmission);
+        }
+
+        quizScheduleService.processCachedQuizSubmissions();
+
+        // the other submissions of the batch are saved and the submission of student1 is removed from the cache
+        assertThat(submissionRepository.countByExerciseIdSubmitted(quizExercise.getId())).isEqualTo(numberOfParticipants - 1);
+        assertThat(studentParticipationRepository.findByExerciseId(quizExercise.getId())).hasSize(numberOfParticipants);
+        assertThat(quizScheduleService.getQuizSubmission(quizExercise.getId(), "student1").getSubmittedAnswers()).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testSaveQuizSubmissionsIndividuallyIfBatchFails() throws Exception {
+        QuizExercise quizExercise = quizExerciseService.save(setupQuizExerciseParameters());
+
+        int numberOfParticipants = 5;
+        for (int i = 1; i <= numberOfParticipants; i++) {
+            QuizSubmission quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, i, true, ZonedDateTime.now());
+            if (i == 1) {
+                // the submitted texts of student1 are too long to be saved, so saving the submissions of the batch fails
+                quizSubmission.getSubmittedAnswers().stream().filter(ShortAnswerSubmittedAnswer.class::isInstance).map(ShortAnswerSubmittedAnswer.class::cast)
+                        .flatMap(submittedAnswer -> submittedAnswer.getSubmittedTexts().stream())
+                        .forEach(submittedText -> submittedText.setText("a".repeat(Constants.MAX_QUIZ_SHORT_ANSWER_TEXT_LENGTH + 1)));
+            }
+            quizScheduleService.updateSubmission(quizExercise.getId(), "student" + i, quizSubmission);
+        }
+
+        quizScheduleService.processCachedQuizSubmissions();
+
+        // the remaining submissions are saved one by one and only the invalid submission stays in the cache
+        assertThat(submissionRepository.countByExerciseIdSubmitted(quizExercise.getId())).isEqualTo(numberOfParticipants - 1);
+        assertThat(quizScheduleService.getQuizSubmission(quizExercise.getId(), "student1").getSubmittedAnswers()).isNotEmpty();
+        for (int i = 2; i <= numberOfParticipants; i++) {
+            assertThat(quizScheduleService.getQuizSubmission(quizExercise.getId(), "student" + i).getSubmittedAnswers()).isEmpty();
+        }
+    }
+
+    /**
+     * Measures how long it takes to save the cached submissions of a large quiz at the end of the quiz.
+     * Only runs if the environment variable ARTEMIS_BENCHMARK is set to true, because creating the users takes too long for the regular test suite.
+     */
+    @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
+    @ValueSource(ints = { 2000, 5000, 10000 })
+    @EnabledIfEnvironmentVariable(named = "ARTEMIS_BENCHMARK", matches = "true")
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void benchmarkSaveQuizSubmissionsAtQuizEnd(int numberOfParticipants) throws Exception {
+        QuizExercise quizExercise = quizExerciseService.save(setupQuizExerciseParameters());
+        userRepository.saveAll(ModelFactory.generateActivatedUsers("benchmark", new String[] { "tumuser" }, Set.of(), numberOfParticipants));
+
+        for (int i = 1; i <= numberOfParticipants; i++) {
+            QuizSubmission quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, i, true, ZonedDateTime.now());
+            quizScheduleService.updateSubmission(quizExercise.getId(), "benchmark" + i, quizSubmission);
+        }
+
+        long start = System.nanoTime();
+        quizScheduleService.processCachedQuizSubmissions();
+        log.info("Processed {} quiz submissions in {}", numberOfParticipants, TimeLogUtil.formatDurationFrom(start));
+
+        assertThat(submissionRepository.countByExerciseIdSubmitted(quizExercise.getId())).isEqualTo(numberOfParticipants);
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testUpdateStatisticsWithSubmissionsInMemory() throws Exception {
+        QuizExercise quizExercise = quizExerciseService.save(setupQuizExerciseParameters());
+
+        int numberOfParticipants = 10 * multiplier;
+        Set<Result> results = new HashSet<>();
+        for (int i = 1; i <= numberOfParticipants; i++) {
+            QuizSubmission quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, i, true, ZonedDateTime.now());
+            database.addSubmission(quizExercise, quizSubmission, "student" + i);
+            database.addResultToSubmission(quizSubmission, AssessmentType.AUTOMATIC, null, quizExercise.getScoreForSubmission(quizSubmission), true);
+            // the result keeps the submission with its submitted answers in memory, just like the results created by the quiz schedule service
+            results.add(quizSubmission.getLatestResult());
+        }
+
+        QuizExercise quizExerciseWithStatistic = quizExerciseRepository.findOneWithQuestionsAndStatistics(quizExercise.getId());
+        // the submissions must not be loaded again for every result, so the number of queries must not depend on the number of results
+        assertThatDb(() -> {
+            quizStatisticService.updateStatistics(results, quizExerciseWithStatistic);
+            return null;
+        }).hasBeenCalledAtMostTimes(numberOfParticipants / 2);
+
+        // Test the statistics directly from the database
+        quizExercise = quizExerciseRepository.findOneWithQuestionsAndStatistics(quizExercise.getId());
+        assertThat(quizExercise.getQuizPointStatistic().getParticipantsRated()).isEqualTo(numberOfParticipants);
+        assertThat(quizExercise.getQuizPointStatistic().getParticipantsUnrated()).isZero();
+        for (var pointCounter : quizExercise.getQuizPointStatistic().getPointCounters()) {
+            if (pointCounter.getPoints() == 0.0) {
+                assertThat(pointCounter.getRatedCounter()).isEqualTo(Math.round(numberOfParticipants / 3.0));
+            }
+            else if (pointCounter.getPoints() == 3.0 || pointCounter.getPoints() == 4.0 || pointCounter.getPoints() == 6.0) {
+                assertThat(pointCounter.getRatedCounter()).isEqualTo(Math.round(numberOfParticipants / 6.0));
+            }
+            else if (pointCounter.getPoints() == 7.0 || pointCounter.getPoints() == 9.0) {
+                assertThat(pointCounter.getRatedCounter()).isEqualTo(Math.round(numberOfParticipants / 12.0));
+            }
+            else {
+                assertThat(pointCounter.getRatedCounter()).isZero();
+            }
+        }
+        for (var question : quizExercise.getQuizQuestions()) {
+            if (question instanceof MultipleChoiceQuestion) {
+                assertThat(question.getQuizQuestionStatistic().getRatedCorrectCounter()).isEqualTo(Math.round(numberOfParticipants / 2.0));
+            }
+            else if (question instanceof DragAndDropQuestion) {
+                assertThat(question.getQuizQuestionStatistic().getRatedCorrectCounter()).isEqualTo(Math.round(numberOfParticipants / 3.0));
+            }
+            else {
+                assertThat(question.getQuizQuestionStatistic().getRatedCorrectCounter()).isEqualTo(Math.round(numberOfParticipants / 4.0));
+            }
+            assertThat(question.getQuizQuestionStatistic().getParticipantsRated()).isEqualTo(numberOfParticipants);
+        }
+    }
+
     @Test
     @WithMockUser(username = "student1", roles = "USER")
     void testQuizSubmit_partial_points() throws Exception {
@@ -6,9 +6,11 @@ import static org.mockito.Mockito.doReturn;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -17,17 +19,23 @@ import org.json.JSONObject;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentMatchers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseMapEntry;
+import de.tum.in.www1.artemis.domain.assessment.dashboard.ExerciseRatingMapEntry;
 import de.tum.in.www1.artemis.domain.enumeration.*;
 import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
@@ -38,13 +46,18 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.AssessmentDashboardService;
 import de.tum.in.www1.artemis.service.connectors.VersionControlRepositoryPermission;
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.util.ModelFactory;
+import de.tum.in.www1.artemis.web.rest.dto.DueDateStat;
 import de.tum.in.www1.artemis.web.rest.dto.ResultWithPointsPerGradingCriterionDTO;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 class ResultServiceIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
     @Autowired
     private FeedbackRepository feedbackRepository;
 
@@ -87,6 +100,12 @@ class ResultServiceIntegrationTest extends AbstractSpringIntegrationBambooBitbuc
     @Autowired
     private GradingCriterionRepository gradingCriterionRepository;
 
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private AssessmentDashboardService assessmentDashboardService;
+
     private Course course;
 
     private ProgrammingExercise programmingExercise;
@@ -837,4 +856,106 @@ class ResultServiceIntegrationTest extends AbstractSpringIntegrationBambooBitbuc
         assertThat(assessments[0].inTime()).isEqualTo(1);    // correction round 1
         assertThat(assessments[1].inTime()).isEqualTo(1);    // correction round 2
     }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testGroupedAssessmentDashboardQueriesMatchQueriesPerExercise() {
+        var now = ZonedDateTime.now();
+        TextExercise textExercise = textExerciseRepository.save(ModelFactory.generateTextExercise(now.minusDays(1), now.plusHours(2), now.plusHours(4), course));
+        ProgrammingExercise programmingExercise = database.addProgrammingExerciseToCourse(course, false);
+        programmingExercise.setDueDate(null);
+        programmingExercise = programmingExerciseRepository.save(programmingExercise);
+
+        // student1 has been assessed in both correction rounds, student2 only in the first one
+        var textSubmission1 = addSubmissionWithManualResults(database.createAndSaveParticipationForExercise(textExercise, "student1"), new TextSubmission().text("abc"),
+                "instructor1", "tutor1");
+        var textSubmission2 = addSubmissionWithManualResults(database.createAndSaveParticipationForExercise(textExercise, "student2"), new TextSubmission().text("def"),
+                "tutor1");
+        ProgrammingExerciseStudentParticipation programmingParticipation = new ProgrammingExerciseStudentParticipation();
+        programmingParticipation.setParticipant(userRepository.findOneByLogin("student1").get());
+        programmingParticipation.setExercise(programmingExercise);
+        programmingExerciseStudentParticipationRepository.save(programmingParticipation);
+        addSubmissionWithManualResults(programmingParticipation, new ProgrammingSubmission(), "instructor1", "tutor1");
+
+        addRating(textSubmission1.getResults().get(0), 4);
+        addRating(textSubmission2.getResults().get(0), 2);
+
+        Set<Long> exerciseIds = Set.of(textExercise.getId(), programmingExercise.getId());
+
+        // the correction round statistics in exam mode are the same as the ones calculated per exercise
+        Map<Long, List<Long>> resultCountsPerExercise = resultRepository.countNumberOfFinishedAssessmentsByExerciseIdsIgnoreTestRuns(exerciseIds).stream()
+                .collect(Collectors.groupingBy(ExerciseMapEntry::exerciseId, Collectors.mapping(ExerciseMapEntry::value, Collectors.toList())));
+        for (Exercise exercise : List.of(textExercise, programmingExercise)) {
+            var assessmentsPerCorrectionRound = resultRepository.countNumberOfFinishedAssessmentsForExamExerciseForCorrectionRounds(exercise, 2);
+            assertThat(resultRepository.convertDatabaseResponseToDueDateStats(resultCountsPerExercise.get(exercise.getId()), 2))
+                    .containsExactly(assessmentsPerCorrectionRound);
+        }
+        assertThat(resultRepository.countNumberOfFinishedAssessmentsForExamExerciseForCorrectionRounds(textExercise, 2)).extracting(DueDateStat::inTime)
+                .containsExactly(2L, 1L);
+
+        Map<Long, Long> finishedAssessmentsPerExercise = resultRepository.countNumberOfFinishedAssessmentsForExercisesIgnoreTestRuns(exerciseIds).stream()
+                .collect(Collectors.toMap(ExerciseMapEntry::exerciseId, ExerciseMapEntry::value));
+        assertThat(finishedAssessmentsPerExercise).containsOnly(Map.entry(textExercise.getId(), 2L), Map.entry(programmingExercise.getId(), 1L));
+        for (Long exerciseId : exerciseIds) {
+            assertThat(finishedAssessmentsPerExercise.get(exerciseId)).isEqualTo(resultRepository.countNumberOfFinishedAssessmentsForExerciseIgnoreTestRuns(exerciseId));
+        }
+
+        long programmingAssessments = programmingExerciseRepository.countAssessmentsByExerciseIdSubmittedIgnoreTestRunSubmissions(programmingExercise.getId());
+        assertThat(programmingAssessments).isEqualTo(1L);
+        assertThat(programmingExerciseRepository.countAssessmentsByExerciseIdsSubmittedIgnoreTestRun(exerciseIds))
+                .containsExactly(new ExerciseMapEntry(programmingExercise.getId(), programmingAssessments));
+
+        Map<Long, ExerciseRatingMapEntry> ratingsPerExercise = ratingRepository.averageRatingByExerciseIds(exerciseIds).stream()
+                .collect(Collectors.toMap(ExerciseRatingMapEntry::exerciseId, Function.identity()));
+        assertThat(ratingsPerExercise.get(textExercise.getId()).averageRating()).isEqualTo(3.0);
+        assertThat(ratingsPerExercise.get(textExercise.getId()).numberOfRatings()).isEqualTo(2L);
+        assertThat(ratingsPerExercise.get(programmingExercise.getId()).numberOfRatings()).isZero();
+    }
+
+    /**
+     * Measures how long the statistics of the assessment dashboard take for a course with many exercises.
+     * Only runs if the environment variable ARTEMIS_BENCHMARK is set to true, because creating the exercises takes too long for the regular test suite.
+     */
+    @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
+    @ValueSource(ints = { 100, 200, 500 })
+    @EnabledIfEnvironmentVariable(named = "ARTEMIS_BENCHMARK", matches = "true")
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void benchmarkAssessmentDashboardStatistics(int numberOfExercises) {
+        var now = ZonedDateTime.now();
+        Set<Exercise> exercises = new HashSet<>();
+        for (int i = 0; i < numberOfExercises; i++) {
+            TextExercise textExercise = textExerciseRepository.save(ModelFactory.generateTextExercise(now.minusDays(1), now.plusHours(2), now.plusHours(4), course));
+            addSubmissionWithManualResults(database.createAndSaveParticipationForExercise(textExercise, "student1"), new TextSubmission().text("abc"), "tutor1");
+            exercises.add(textExercise);
+        }
+
+        long start = System.nanoTime();
+        assessmentDashboardService.generateStatisticsForExercisesForAssessmentDashboard(exercises, List.of(), false);
+        log.info("Generated the assessment dashboard statistics of {} exercises in {}", numberOfExercises, TimeLogUtil.formatDurationFrom(start));
+
+        assertThat(exercises).allSatisfy(exercise -> assertThat(exercise.getTotalNumberOfAssessments().inTime()).isEqualTo(1L));
+    }
+
+    private Submission addSubmissionWithManualResults(StudentParticipation participation, Submission submission, String... assessorLogins) {
+        submission.setParticipation(participation);
+        submission.setSubmitted(true);
+        submission.setSubmissionDate(ZonedDateTime.now().minusHours(1));
+        submission = submissionRepository.save(submission);
+        for (String assessorLogin : assessorLogins) {
+            var result = database.addResultToParticipation(AssessmentType.MANUAL, ZonedDateTime.now(), participation, assessorLogin, new ArrayList<>());
+            result.setRated(true);
+            result = database.addFeedbackToResults(result);
+            result.setSubmission(submission);
+            submission.addResult(result);
+            submission = submissionRepository.save(submission);
+        }
+        return submission;
+    }
+
+    private void addRating(Result result, int ratingValue) {
+        Rating rating = new Rating();
+        rating.setResult(result);
+        rating.setRating(ratingValue);
+        ratingRepository.save(rating);
+    }
 }
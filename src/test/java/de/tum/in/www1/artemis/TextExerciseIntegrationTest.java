@@ -979,6 +979,32 @@ class TextExerciseIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
         assertThat(plagiarismComparisonRepository.findByIdWithSubmissionsStudentsElseThrow(comparison.getId()).getStatus()).isEqualTo(PlagiarismStatus.NONE);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testCheckPlagiarismAgainOnlyComparesNewSubmissions() throws Exception {
+        final Course course = database.addCourseWithOneReleasedTextExercise();
+        TextExercise textExercise = textExerciseRepository.findByCourseIdWithCategories(course.getId()).get(0);
+
+        var longText = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. Nam id enim sit amet nisl hendrerit viverra. ".repeat(10);
+        database.createSubmissionForTextExercise(textExercise, database.getUserByLogin("student1"), longText);
+        database.createSubmissionForTextExercise(textExercise, database.getUserByLogin("student2"), longText);
+
+        var path = "/api/text-exercises/" + textExercise.getId() + "/check-plagiarism";
+        var result = request.get(path, HttpStatus.OK, TextPlagiarismResult.class, database.getDefaultPlagiarismOptions());
+        assertThat(result.getComparisons()).hasSize(1);
+        PlagiarismComparison<TextSubmissionElement> comparison = result.getComparisons().iterator().next();
+        request.put("/api/courses/" + course.getId() + "/plagiarism-comparisons/" + comparison.getId() + "/status", new PlagiarismComparisonStatusDTO(CONFIRMED), HttpStatus.OK);
+
+        // the comparison between the unchanged submissions is kept including its status, only the new submission is compared with the others
+        database.createSubmissionForTextExercise(textExercise, database.getUserByLogin("tutor1"), longText);
+        var updatedResult = request.get(path, HttpStatus.OK, TextPlagiarismResult.class, database.getDefaultPlagiarismOptions());
+        assertThat(updatedResult.getId()).isEqualTo(result.getId());
+        assertThat(updatedResult.getComparisons()).hasSize(3);
+        assertThat(updatedResult.getComparisons()).filteredOn(updatedComparison -> comparison.getId().equals(updatedComparison.getId())).singleElement()
+                .extracting(PlagiarismComparison::getStatus).isEqualTo(CONFIRMED);
+        assertThat(updatedResult.getSimilarityDistribution().stream().mapToInt(Integer::intValue).sum()).isEqualTo(3);
+    }
+
     @Test
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     void testCheckPlagiarismIdenticalShortTexts() throws Exception {
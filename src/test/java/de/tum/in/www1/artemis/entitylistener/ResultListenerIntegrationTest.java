@@ -5,12 +5,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 
 import java.time.ZonedDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.awaitility.Durations;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -340,6 +343,35 @@ class ResultListenerIntegrationTest extends AbstractSpringIntegrationBambooBitbu
         verifyStructureOfParticipantScoreInDatabase(isTeamTest, originalResult.getId(), originalResult.getScore(), originalResult.getId(), originalResult.getScore());
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void saveResultsOfMultipleStudents_ShouldCreateStudentScoresInOneBatch() {
+        Map<Long, Result> resultPerStudentId = new HashMap<>();
+        for (int i = 1; i <= 5; i++) {
+            User student = userRepository.findOneByLogin("student" + i).get();
+            resultPerStudentId.put(student.getId(), database.createParticipationSubmissionAndResult(idOfIndividualTextExercise, student, 10.0, 10.0, 20L * i, i % 2 == 0));
+        }
+
+        // Wait for the scheduler to execute its task
+        await().pollDelay(Durations.ONE_SECOND).until(() -> participantScoreSchedulerService.isIdle());
+
+        List<ParticipantScore> savedParticipantScores = participantScoreRepository.findAllEagerly();
+        assertThat(savedParticipantScores).hasSize(5);
+        for (var entry : resultPerStudentId.entrySet()) {
+            Long studentId = entry.getKey();
+            Result result = entry.getValue();
+            ParticipantScore participantScore = savedParticipantScores.stream().filter(score -> ((StudentScore) score).getUser().getId().equals(studentId)).findFirst().get();
+            Double points = round(result.getScore() * 0.01 * 10.0);
+            if (Boolean.TRUE.equals(result.isRated())) {
+                assertParticipantScoreStructure(participantScore, idOfIndividualTextExercise, studentId, result.getId(), result.getScore(), result.getId(), result.getScore(),
+                        points, points);
+            }
+            else {
+                assertParticipantScoreStructure(participantScore, idOfIndividualTextExercise, studentId, result.getId(), result.getScore(), null, null, points, null);
+            }
+        }
+    }
+
     private void assertParticipantScoreStructure(ParticipantScore participantScore, Long expectedExerciseId, Long expectedParticipantId, Long expectedLastResultId,
             Double expectedLastScore, Long expectedLastRatedResultId, Double expectedLastRatedScore, Double expectedLastPoints, Double expectedLastRatedPoints) {
         assertThat(participantScore.getExercise().getId()).isEqualTo(expectedExerciseId);
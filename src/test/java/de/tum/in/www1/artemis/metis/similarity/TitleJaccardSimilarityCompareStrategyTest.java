@@ -64,4 +64,19 @@ class TitleJaccardSimilarityCompareStrategyTest {
 
         assertThat(actualResult).isEqualTo(expectedResult);
     }
+
+    @Test
+    void testPreparedSimilarityCheck_sameScores() {
+        Post post = new Post();
+        post.setTitle("Totally different");
+        Post similarPost = new Post();
+        similarPost.setTitle("Somewhat different");
+        Post postWithoutTitle = new Post();
+
+        var similarityCheck = compareStrategy.prepareSimilarityCheck(post);
+
+        assertThat(similarityCheck.applyAsDouble(similarPost)).isEqualTo(compareStrategy.performSimilarityCheck(post, similarPost));
+        assertThat(similarityCheck.applyAsDouble(post)).isEqualTo(1.0);
+        assertThat(similarityCheck.applyAsDouble(postWithoutTitle)).isEqualTo(0.0);
+    }
 }
@@ -1,8 +1,11 @@
 package de.tum.in.www1.artemis.programmingexercise;
 
+import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_ACTIVE_RE_EVALUATION_JOB_PER_EXERCISE_CACHE;
+import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_RE_EVALUATION_JOBS_CACHE;
 import static de.tum.in.www1.artemis.config.Constants.TEST_CASES_DUPLICATE_NOTIFICATION;
 import static de.tum.in.www1.artemis.web.rest.ProgrammingExerciseResourceEndpoints.ROOT;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.verify;
 
 import java.time.ZonedDateTime;
@@ -22,6 +25,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import com.hazelcast.core.HazelcastInstance;
+
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
@@ -31,14 +36,15 @@ import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
 import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
-import de.tum.in.www1.artemis.domain.participation.SolutionProgrammingExerciseParticipation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseGradingService;
+import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseReEvaluationService;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseTestCaseService;
 import de.tum.in.www1.artemis.util.ModelFactory;
 import de.tum.in.www1.artemis.web.rest.ProgrammingExerciseGradingResource;
 import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseGradingStatisticsDTO;
+import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseReEvaluationJobDTO;
 
 /**
  * Tests the {@link ProgrammingExerciseGradingService}.
@@ -74,9 +80,15 @@ abstract class ProgrammingExerciseGradingServiceTest extends AbstractSpringInteg
     @Autowired
     private ProgrammingExerciseRepository programmingExerciseRepository;
 
+    @Autowired
+    private ProgrammingExerciseReEvaluationService programmingExerciseReEvaluationService;
+
     @Autowired
     private ProgrammingExerciseGradingService gradingService;
 
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
     private ProgrammingExercise programmingExerciseSCAEnabled;
 
     private ProgrammingExercise programmingExercise;
@@ -579,6 +591,66 @@ abstract class ProgrammingExerciseGradingServiceTest extends AbstractSpringInteg
         verifyStudentScoreCalculations(testParticipations);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void shouldReEvaluateScoreOfTheCorrectResultsInBackgroundJob() throws Exception {
+        programmingExercise = (ProgrammingExercise) database.addMaxScoreAndBonusPointsToExercise(programmingExercise);
+        programmingExercise = database.addTemplateParticipationForProgrammingExercise(programmingExercise);
+        programmingExercise = database.addSolutionParticipationForProgrammingExercise(programmingExercise);
+        programmingExercise = programmingExerciseRepository.findByIdWithTemplateAndSolutionParticipationWithResultsElseThrow(programmingExercise.getId());
+
+        var testCases = createTestCases(false);
+        var testParticipations = createTestParticipations();
+        changeTestCaseWeights(testCases);
+
+        // start the re-evaluation and wait until it finished
+        final var endpoint = ProgrammingExerciseGradingResource.RE_EVALUATION_JOBS.replace("{exerciseId}", programmingExercise.getId().toString());
+        final var job = request.postWithResponseBody(ROOT + endpoint, null, ProgrammingExerciseReEvaluationJobDTO.class, HttpStatus.OK);
+        assertThat(job.exerciseId()).isEqualTo(programmingExercise.getId());
+        await().until(() -> programmingExerciseReEvaluationService.getReEvaluationJob(job.id()).orElseThrow().status() != ProgrammingExerciseReEvaluationJobDTO.Status.RUNNING);
+
+        final var jobEndpoint = ProgrammingExerciseGradingResource.RE_EVALUATION_JOB.replace("{exerciseId}", programmingExercise.getId().toString()).replace("{jobId}", job.id());
+        final var finishedJob = request.get(ROOT + jobEndpoint, HttpStatus.OK, ProgrammingExerciseReEvaluationJobDTO.class);
+        assertThat(finishedJob.status()).isEqualTo(ProgrammingExerciseReEvaluationJobDTO.Status.FINISHED);
+        // student3 has no result
+        assertThat(finishedJob.processedParticipations()).isEqualTo(finishedJob.totalParticipations()).isEqualTo(4);
+        assertThat(finishedJob.updatedResults()).isEqualTo(7);
+
+        // this fixes an issue with the authentication context after a mock request
+        SecurityContextHolder.setContext(TestSecurityContextHolder.getContext());
+
+        verifyStudentScoreCalculations(testParticipations);
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void shouldNotReEvaluateWhileExerciseIsReEvaluatedAndFailOrphanedJobs() throws Exception {
+        // a job of another instance that holds the lease of the exercise
+        final var runningJob = new ProgrammingExerciseReEvaluationJobDTO("other-job", programmingExercise.getId(), ProgrammingExerciseReEvaluationJobDTO.Status.RUNNING, 0, 0,
+                0, ZonedDateTime.now(), null);
+        hazelcastInstance.<String, ProgrammingExerciseReEvaluationJobDTO>getMap(HAZELCAST_RE_EVALUATION_JOBS_CACHE).set(runningJob.id(), runningJob);
+        final var leases = hazelcastInstance.<Long, String>getMap(HAZELCAST_ACTIVE_RE_EVALUATION_JOB_PER_EXERCISE_CACHE);
+        leases.set(programmingExercise.getId(), runningJob.id());
+
+        try {
+            final var reEvaluateEndpoint = ProgrammingExerciseGradingResource.RE_EVALUATE.replace("{exerciseId}", programmingExercise.getId().toString());
+            request.putWithResponseBody(ROOT + reEvaluateEndpoint, "{}", Integer.class, HttpStatus.CONFLICT);
+
+            final var jobsEndpoint = ProgrammingExerciseGradingResource.RE_EVALUATION_JOBS.replace("{exerciseId}", programmingExercise.getId().toString());
+            final var job = request.postWithResponseBody(ROOT + jobsEndpoint, null, ProgrammingExerciseReEvaluationJobDTO.class, HttpStatus.OK);
+            assertThat(job.id()).isEqualTo(runningJob.id());
+            assertThat(job.status()).isEqualTo(ProgrammingExerciseReEvaluationJobDTO.Status.RUNNING);
+
+            // the lease expires when the other instance stops renewing it
+            leases.remove(programmingExercise.getId());
+            assertThat(programmingExerciseReEvaluationService.getReEvaluationJob(runningJob.id())).get()
+                    .satisfies(orphanedJob -> assertThat(orphanedJob.status()).isEqualTo(ProgrammingExerciseReEvaluationJobDTO.Status.FAILED));
+        }
+        finally {
+            leases.remove(programmingExercise.getId());
+        }
+    }
+
     @ValueSource(booleans = { false, true })
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
@@ -680,7 +752,7 @@ abstract class ProgrammingExerciseGradingServiceTest extends AbstractSpringInteg
 
         programmingExercise = programmingExerciseRepository.findByIdWithTemplateAndSolutionParticipationWithResultsElseThrow(programmingExercise.getId());
 
-        final var updated = programmingExerciseGradingService.updateResultsOnlyRegularDueDateParticipations(programmingExercise);
+        final var updated = updateAndSaveResultsInChunks(true);
         // four student results + template + solution
         assertThat(updated).hasSize(6);
 
@@ -705,15 +777,18 @@ abstract class ProgrammingExerciseGradingServiceTest extends AbstractSpringInteg
         testCases.get("test1").setBonusMultiplier(1.4D);
         testCaseRepository.saveAll(testCases.values());
 
-        final var updatedResults = programmingExerciseGradingService.updateAllResults(programmingExercise);
+        final var updatedResults = updateAndSaveResultsInChunks(false);
         assertThat(updatedResults).hasSize(7);
 
         // even though the test case weights are all zero, the solution should receive a score
         // => every test case is weighted with 1.0 in that case
-        final var updatedSolution = updatedResults.stream().filter(result -> result.getParticipation() instanceof SolutionProgrammingExerciseParticipation).findFirst().get();
+        final Long solutionParticipationId = programmingExercise.getSolutionParticipation().getId();
+        final Long templateParticipationId = programmingExercise.getTemplateParticipation().getId();
+        final var updatedSolution = updatedResults.stream().filter(result -> solutionParticipationId.equals(result.getParticipation().getId())).findFirst().get();
         assertThat(updatedSolution.getScore()).isCloseTo(66.7, Offset.offset(offsetByTenThousandth));
 
-        final var updatedStudentResults = updatedResults.stream().filter(result -> result.getParticipation() instanceof StudentParticipation).toList();
+        final var templateAndSolutionParticipationIds = Set.of(templateParticipationId, solutionParticipationId);
+        final var updatedStudentResults = updatedResults.stream().filter(result -> !templateAndSolutionParticipationIds.contains(result.getParticipation().getId())).toList();
         assertThat(updatedStudentResults).hasSize(5);
 
         for (final var result : updatedStudentResults) {
@@ -725,6 +800,13 @@ abstract class ProgrammingExerciseGradingServiceTest extends AbstractSpringInteg
         }
     }
 
+    private List<Result> updateAndSaveResultsInChunks(boolean onlyRegularDueDateParticipations) {
+        final List<Result> updatedResults = new ArrayList<>();
+        final var participationIds = programmingExerciseGradingService.findStudentParticipationIdsWithResults(programmingExercise, onlyRegularDueDateParticipations);
+        programmingExerciseGradingService.updateAndSaveResultsInChunks(programmingExercise, participationIds, (processed, results) -> updatedResults.addAll(results));
+        return updatedResults;
+    }
+
     private Map<String, ProgrammingExerciseTestCase> createTestCases(boolean withAdditionalInvisibleTestCase) {
         var testCases = testCaseService.findByExerciseId(programmingExercise.getId()).stream()
                 .collect(Collectors.toMap(ProgrammingExerciseTestCase::getTestName, Function.identity()));
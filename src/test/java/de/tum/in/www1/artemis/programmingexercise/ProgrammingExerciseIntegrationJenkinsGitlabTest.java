@@ -76,6 +76,19 @@ class ProgrammingExerciseIntegrationJenkinsGitlabTest extends AbstractSpringInte
         programmingExerciseIntegrationTestService.testExportSubmissionsByParticipationIds();
     }
 
+    @Test
+    @DisabledOnOs(OS.WINDOWS) // git file locking issues
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testExportSubmissionsByParticipationIds_streaming() throws Exception {
+        programmingExerciseIntegrationTestService.testExportSubmissionsByParticipationIds_streaming();
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testExportSubmissionsByParticipationIds_streamingWithoutCheckedOutRepositories() throws Exception {
+        programmingExerciseIntegrationTestService.testExportSubmissionsByParticipationIds_streamingWithoutCheckedOutRepositories();
+    }
+
     @Test
     @DisabledOnOs(OS.WINDOWS) // file locking issues
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
@@ -861,6 +874,12 @@ class ProgrammingExerciseIntegrationJenkinsGitlabTest extends AbstractSpringInte
         programmingExerciseIntegrationTestService.testCheckPlagiarismJplagReport();
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testCheckPlagiarismWithFailedRepositoryDownload() throws Exception {
+        programmingExerciseIntegrationTestService.testCheckPlagiarismWithFailedRepositoryDownload();
+    }
+
     @Test
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     void testGetPlagiarismResult() throws Exception {
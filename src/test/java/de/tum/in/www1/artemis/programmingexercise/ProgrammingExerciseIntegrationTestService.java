@@ -30,6 +30,7 @@ import org.assertj.core.data.Offset;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.EmptyCommitException;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.InvalidRemoteException;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -51,6 +52,7 @@ import de.tum.in.www1.artemis.domain.enumeration.*;
 import de.tum.in.www1.artemis.domain.notification.Notification;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.participation.TemplateProgrammingExerciseParticipation;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismStatus;
 import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
@@ -58,8 +60,10 @@ import de.tum.in.www1.artemis.domain.plagiarism.text.TextSubmissionElement;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.FileService;
 import de.tum.in.www1.artemis.service.UrlService;
+import de.tum.in.www1.artemis.service.WebsocketMessagingService;
 import de.tum.in.www1.artemis.service.connectors.GitService;
 import de.tum.in.www1.artemis.service.connectors.VersionControlService;
+import de.tum.in.www1.artemis.service.plagiarism.PlagiarismWebsocketService;
 import de.tum.in.www1.artemis.util.*;
 import de.tum.in.www1.artemis.web.rest.ProgrammingExerciseResourceEndpoints;
 import de.tum.in.www1.artemis.web.rest.ProgrammingExerciseTestCaseResource;
@@ -120,6 +124,13 @@ class ProgrammingExerciseIntegrationTestService {
     // this will be a SpyBean because it was configured as SpyBean in the super class of the actual test class (see AbstractArtemisIntegrationTest)
     private GitService gitService;
 
+    @Autowired
+    // this will be a SpyBean because it was configured as SpyBean in the super class of the actual test class (see AbstractArtemisIntegrationTest)
+    private WebsocketMessagingService websocketMessagingService;
+
+    @Autowired
+    private PlagiarismWebsocketService plagiarismWebsocketService;
+
     private Course course;
 
     public ProgrammingExercise programmingExercise;
@@ -373,6 +384,41 @@ class ProgrammingExerciseIntegrationTestService {
                 .anyMatch(entry -> entry.toString().endsWith(Path.of("student2", ".git").toString()));
     }
 
+    void testExportSubmissionsByParticipationIds_streaming() throws Exception {
+        var repository1 = gitService.getExistingCheckedOutRepositoryByLocalPath(localRepoFile.toPath(), null);
+        var repository2 = gitService.getExistingCheckedOutRepositoryByLocalPath(localRepoFile2.toPath(), null);
+        doReturn(repository1).when(gitService).getOrCheckoutRepository(eq(participation1.getVcsRepositoryUrl()), anyString(), anyBoolean());
+        doReturn(repository2).when(gitService).getOrCheckoutRepository(eq(participation2.getVcsRepositoryUrl()), anyString(), anyBoolean());
+
+        var participationIds = programmingExerciseStudentParticipationRepository.findAll().stream().map(participation -> participation.getId().toString()).toList();
+        final var path = ROOT + EXPORT_SUBMISSIONS_BY_PARTICIPATIONS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participationIds}",
+                String.join(",", participationIds)) + "?streaming=true";
+        var exportOptions = new RepositoryExportOptionsDTO();
+
+        downloadedFile = request.postWithResponseBodyFile(path, exportOptions, HttpStatus.OK);
+        assertThat(downloadedFile).exists();
+
+        List<Path> entries = unzipExportedFile();
+
+        // Make sure both repositories are present as folders and no zip files are nested in the exported file
+        assertThat(entries).anyMatch(entry -> entry.toString().endsWith(Path.of("student1", ".git").toString()))
+                .anyMatch(entry -> entry.toString().endsWith(Path.of("student2", ".git").toString())).noneMatch(entry -> entry.toString().endsWith(".zip"));
+        // The repositories of the participations must not be deleted as they have not been cloned for the export
+        assertThat(localRepoFile).exists();
+        assertThat(localRepoFile2).exists();
+    }
+
+    void testExportSubmissionsByParticipationIds_streamingWithoutCheckedOutRepositories() throws Exception {
+        doThrow(new InvalidRemoteException("Repository not found")).when(gitService).getOrCheckoutRepository(any(VcsRepositoryUrl.class), anyString(), anyBoolean());
+
+        var participationIds = programmingExerciseStudentParticipationRepository.findAll().stream().map(participation -> participation.getId().toString()).toList();
+        final var path = ROOT + EXPORT_SUBMISSIONS_BY_PARTICIPATIONS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participationIds}",
+                String.join(",", participationIds)) + "?streaming=true";
+
+        // no empty zip file is sent if none of the repositories could be checked out
+        request.postWithResponseBodyFile(path, new RepositoryExportOptionsDTO(), HttpStatus.BAD_REQUEST);
+    }
+
     void testExportSubmissionAnonymizationCombining() throws Exception {
         // provide repositories
         var repository = gitService.getExistingCheckedOutRepositoryByLocalPath(localRepoFile.toPath(), null);
@@ -1592,6 +1638,39 @@ class ProgrammingExerciseIntegrationTestService {
         }
     }
 
+    void testCheckPlagiarismWithFailedRepositoryDownload() throws Exception {
+        database.addCourseWithOneProgrammingExercise();
+        var programmingExercise = programmingExerciseRepository.findAllWithEagerTemplateAndSolutionParticipations().get(0);
+        prepareTwoRepositoriesForPlagiarismChecks(programmingExercise);
+        var participationStudent3 = database.addStudentParticipationForProgrammingExercise(programmingExercise, "student3");
+        var submissionStudent3 = database.createProgrammingSubmission(participationStudent3, false);
+        database.addResultToSubmission(submissionStudent3, AssessmentType.AUTOMATIC, null);
+
+        var studentRepository = mock(Repository.class);
+        var templateRepository = mock(Repository.class);
+        doReturn(studentRepository).when(gitService).getOrCheckoutRepositoryForJPlag(any(), anyString());
+        doThrow(new InvalidRemoteException("Repository not found")).when(gitService)
+                .getOrCheckoutRepositoryForJPlag(argThat(participation -> participationStudent3.getId().equals(participation.getId())), anyString());
+        doReturn(templateRepository).when(gitService).getOrCheckoutRepository(any(TemplateProgrammingExerciseParticipation.class), anyString());
+        doNothing().when(gitService).resetToOriginHead(any());
+        doNothing().when(gitService).deleteLocalRepository(any(Repository.class));
+
+        final var path = ROOT + CHECK_PLAGIARISM.replace("{exerciseId}", String.valueOf(programmingExercise.getId()));
+        var result = request.get(path, HttpStatus.OK, TextPlagiarismResult.class, database.getDefaultPlagiarismOptions());
+        assertPlagiarismResult(programmingExercise, result, 100.0);
+
+        // the failed download is skipped, but the progress is still reported for all three participations
+        verify(gitService, times(3)).getOrCheckoutRepositoryForJPlag(any(), anyString());
+        verify(gitService, times(2)).resetToOriginHead(studentRepository);
+        verify(gitService).resetToOriginHead(templateRepository);
+        final var topic = plagiarismWebsocketService.getProgrammingExercisePlagiarismCheckTopic(programmingExercise.getId());
+        verify(websocketMessagingService).sendMessage(eq(topic), contains("Downloading repositories: 3/3"));
+
+        // only the downloaded student repositories and the template repository are cleaned up after the check
+        verify(gitService, timeout(15000).times(2)).deleteLocalRepository(studentRepository);
+        verify(gitService, timeout(15000)).deleteLocalRepository(templateRepository);
+    }
+
     private void assertPlagiarismResult(ProgrammingExercise programmingExercise, TextPlagiarismResult result, double expectedSimilarity) {
         assertThat(result.getComparisons()).hasSize(1);
         assertThat(result.getExercise().getId()).isEqualTo(programmingExercise.getId());
@@ -1091,7 +1091,7 @@ public class ProgrammingExerciseTestService {
         Repository repository = gitService.getExistingCheckedOutRepositoryByLocalPath(localRepository.localRepoFile.toPath(), null);
         disableAutoGC(repository);
         createAndCommitDummyFileInLocalRepository(localRepository, "some-file.java");
-        doReturn(repository).when(gitService).getOrCheckoutRepository(eq(vcsUrl), anyString(), anyBoolean());
+        doReturn(repository).when(gitService).getOrCheckoutShallowRepository(eq(vcsUrl), anyString(), anyBoolean());
 
         var url = "/api/programming-exercises/" + exercise.getId() + "/export-solution-repository/";
         return request.get(url, expectedStatus, String.class);
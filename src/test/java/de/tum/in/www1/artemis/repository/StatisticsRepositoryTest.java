@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -87,6 +88,40 @@ class StatisticsRepositoryTest extends AbstractSpringIntegrationBambooBitbucketJ
         persistenceAuditEventRepository.deleteAll();
     }
 
+    /**
+     * Tests that the database groups the logged in users by hour and user, and that the hours are sorted into the timeslots of the daily view.
+     */
+    @Test
+    void testGetNumberOfEntriesPerTimeSlot_groupsLoggedInUsersByHour() {
+        // we need an authorization object for the database queries
+        SecurityUtils.setAuthorizationObject();
+        database.addUsers(2, 0, 0, 0);
+        // the time zone has a whole number of hours as offset, so that the hours in UTC are also hours in the time zone of the statistics
+        var dayStart = ZonedDateTime.of(2021, 11, 15, 0, 0, 0, 0, ZoneId.of("Europe/Berlin"));
+        var dayEnd = ZonedDateTime.of(2021, 11, 15, 23, 59, 59, 0, dayStart.getZone());
+        // student1 logs in twice and student2 once between 01:00 and 02:00, student2 logs in again between 03:00 and 04:00
+        persistenceAuditEventRepository.saveAll(List.of(setupPersistentEvent("student1", dayStart.plusMinutes(70)), setupPersistentEvent("student1", dayStart.plusMinutes(110)),
+                setupPersistentEvent("student2", dayStart.plusMinutes(80)), setupPersistentEvent("student2", dayStart.plusMinutes(185))));
+
+        // the database only returns one row per hour and user
+        List<StatisticsEntry> hourlyEntries = statisticsRepository.getLoggedInUsers(dayStart.toInstant(), dayEnd.toInstant());
+        assertThat(hourlyEntries).as("The two logins of student1 in the same hour are grouped").hasSize(3);
+        // the hours are grouped in UTC, i.e. 01:00 and 03:00 in Berlin are 00:00 and 02:00 in UTC
+        assertThat(hourlyEntries).extracting(StatisticsEntry::getDate).containsExactlyInAnyOrder("2021-11-15 00", "2021-11-15 00", "2021-11-15 02");
+
+        List<StatisticsEntry> entryList = statisticsRepository.getNumberOfEntriesPerTimeSlot(GraphType.LOGGED_IN_USERS, SpanType.DAY, dayStart, dayEnd, StatisticsView.ARTEMIS,
+                null);
+
+        StatisticsEntry entry01 = new StatisticsEntry(dayStart.withHour(1), 2);
+        StatisticsEntry entry03 = new StatisticsEntry(dayStart.withHour(3), 1);
+        assertThat(entryList).as("Result has 2 entries for two time slots").hasSize(2);
+        assertThat(entryList).as("Result contains 2 users between 01:00 and 02:00").anyMatch(entry -> compareStatisticsEntries(entry, entry01));
+        assertThat(entryList).as("Result contains 1 user between 03:00 and 04:00").anyMatch(entry -> compareStatisticsEntries(entry, entry03));
+
+        database.resetDatabase();
+        persistenceAuditEventRepository.deleteAll();
+    }
+
     /**
      * Tests how getNumberOfEntriesPerTimeSlot() handles views that are not expected for on different graph types
      * @param graphType The graph type that is tested. Note that not all possible graph types are tested, as some cover every possible view in the code already
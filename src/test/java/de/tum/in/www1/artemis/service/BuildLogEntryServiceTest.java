@@ -0,0 +1,84 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.BuildLogEntry;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
+import de.tum.in.www1.artemis.domain.enumeration.ProgrammingLanguage;
+import de.tum.in.www1.artemis.repository.BuildLogEntryRepository;
+import de.tum.in.www1.artemis.repository.ProgrammingSubmissionRepository;
+import de.tum.in.www1.artemis.util.ModelFactory;
+
+class BuildLogEntryServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    private BuildLogEntryService buildLogEntryService;
+
+    @Autowired
+    private BuildLogEntryRepository buildLogEntryRepository;
+
+    @Autowired
+    private ProgrammingSubmissionRepository programmingSubmissionRepository;
+
+    private ProgrammingSubmission programmingSubmission;
+
+    @BeforeEach
+    void init() {
+        database.addUsers(1, 0, 0, 0);
+        Course course = database.addCourseWithOneProgrammingExercise();
+        ProgrammingExercise programmingExercise = (ProgrammingExercise) course.getExercises().iterator().next();
+        programmingSubmission = database.addProgrammingSubmission(programmingExercise, ModelFactory.generateProgrammingSubmission(true), "student1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.resetDatabase();
+    }
+
+    @Test
+    void testSaveBuildLogsWithoutDuplicates() {
+        var buildLogs = createBuildLogs("Compiling", "error: missing semicolon", "error: missing semicolon", "", "error: unknown symbol", "error: missing semicolon", "Done");
+
+        saveBuildLogs(buildLogEntryService.removeUnnecessaryLogsForProgrammingLanguage(buildLogs, ProgrammingLanguage.JAVA));
+
+        assertThat(buildLogEntryRepository.findAll()).hasSize(4);
+        var submissionWithLogs = programmingSubmissionRepository.findWithEagerBuildLogEntriesById(programmingSubmission.getId()).orElseThrow();
+        assertThat(submissionWithLogs.getBuildLogEntries()).extracting(BuildLogEntry::getLog).containsExactly("Compiling", "error: missing semicolon", "error: unknown symbol",
+                "Done");
+    }
+
+    @Test
+    void testSaveBuildLogsWithDuplicatesForC() {
+        var buildLogs = createBuildLogs("Running test", "error: assertion failed", "Running test", "error: assertion failed");
+
+        saveBuildLogs(buildLogEntryService.removeUnnecessaryLogsForProgrammingLanguage(buildLogs, ProgrammingLanguage.C));
+
+        // C outputs duplicate but necessary logs, so they are all stored
+        var submissionWithLogs = programmingSubmissionRepository.findWithEagerBuildLogEntriesById(programmingSubmission.getId()).orElseThrow();
+        assertThat(submissionWithLogs.getBuildLogEntries()).extracting(BuildLogEntry::getLog).containsExactly("Running test", "error: assertion failed", "Running test",
+                "error: assertion failed");
+    }
+
+    private List<BuildLogEntry> createBuildLogs(String... logs) {
+        return Stream.of(logs).map(log -> new BuildLogEntry(ZonedDateTime.now(), log, programmingSubmission)).toList();
+    }
+
+    private void saveBuildLogs(List<BuildLogEntry> buildLogs) {
+        var savedBuildLogs = buildLogEntryService.saveBuildLogs(buildLogs, programmingSubmission);
+        assertThat(savedBuildLogs).allSatisfy(buildLog -> assertThat(buildLog.getId()).isNotNull());
+        programmingSubmission.setBuildLogEntries(savedBuildLogs);
+        programmingSubmissionRepository.save(programmingSubmission);
+    }
+}
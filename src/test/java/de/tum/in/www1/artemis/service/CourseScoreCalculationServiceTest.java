@@ -1,16 +1,21 @@
 package de.tum.in.www1.artemis.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
 
 import java.time.ZonedDateTime;
 import java.util.*;
 
+import org.awaitility.Durations;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
@@ -34,6 +39,9 @@ class CourseScoreCalculationServiceTest extends AbstractSpringIntegrationBambooB
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CourseStudentScoreRepository courseStudentScoreRepository;
+
     private Course course;
 
     @AfterEach
@@ -119,4 +127,70 @@ class CourseScoreCalculationServiceTest extends AbstractSpringIntegrationBambooB
 
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void calculateCourseScoresUsesStoredScoresUntilExercisesChange() {
+        ZonedDateTime pastDueDate = ZonedDateTime.now().minusDays(1);
+        course.getExercises().forEach(exercise -> exercise.setDueDate(pastDueDate));
+        exerciseRepository.saveAll(course.getExercises());
+        // wait until the scores of the results created for the course are processed, so that they do not overwrite the stored score below
+        await().pollDelay(Durations.ONE_SECOND).until(() -> participantScoreSchedulerService.isIdle());
+
+        User student = userRepository.findOneByLogin("student1").get();
+        var calculatedScore = courseScoreCalculationService.calculateCourseScores(course.getId(), List.of(student.getId())).studentScores().get(0);
+
+        var storedScores = courseStudentScoreRepository.findAllByCourse_Id(course.getId());
+        assertThat(storedScores).hasSize(1);
+        var storedScore = storedScores.get(0);
+        assertThat(storedScore.getPointsAchieved()).isCloseTo(calculatedScore.absolutePoints(), within(0.01));
+
+        // the stored score is used as long as the exercises of the course do not change
+        storedScore.setPointsAchieved(42.0);
+        courseStudentScoreRepository.save(storedScore);
+        var courseScores = courseScoreCalculationService.calculateCourseScores(course.getId(), List.of(student.getId()));
+        assertThat(courseScores.studentScores()).hasSize(1);
+        assertThat(courseScores.studentScores().get(0).absolutePoints()).isEqualTo(42.0);
+
+        var exercise = course.getExercises().stream().min(Comparator.comparing(Exercise::getId)).orElseThrow();
+        exercise.setIncludedInOverallScore(IncludedInOverallScore.NOT_INCLUDED);
+        exerciseRepository.save(exercise);
+        courseScores = courseScoreCalculationService.calculateCourseScores(course.getId(), List.of(student.getId()));
+        assertThat(courseScores.studentScores()).hasSize(1);
+        assertThat(courseScores.studentScores().get(0).absolutePoints()).isNotEqualTo(42.0);
+
+        var updatedScore = courseStudentScoreRepository.findAllByCourse_Id(course.getId()).get(0);
+        assertThat(updatedScore.getCalculationKey()).isNotEqualTo(storedScore.getCalculationKey());
+        assertThat(updatedScore.getPointsAchieved()).isCloseTo(courseScores.studentScores().get(0).absolutePoints(), within(0.01));
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void invalidateCourseScoresPreventsStoringScoresOfPreviousResults() {
+        ZonedDateTime pastDueDate = ZonedDateTime.now().minusDays(1);
+        course.getExercises().forEach(exercise -> exercise.setDueDate(pastDueDate));
+        exerciseRepository.saveAll(course.getExercises());
+        await().pollDelay(Durations.ONE_SECOND).until(() -> participantScoreSchedulerService.isIdle());
+
+        User student1 = userRepository.findOneByLogin("student1").get();
+        User student2 = userRepository.findOneByLogin("student2").get();
+        var calculatedScore = courseScoreCalculationService.calculateCourseScores(course.getId(), List.of(student1.getId())).studentScores().get(0);
+        var storedScore = courseStudentScoreRepository.findAllByCourse_Id(course.getId()).get(0);
+
+        courseScoreCalculationService.invalidateCourseScores(course, List.of(student1.getId(), student2.getId()));
+
+        // a calculation that loaded the score before it was invalidated cannot store it anymore
+        storedScore.setPointsAchieved(42.0);
+        assertThatThrownBy(() -> courseStudentScoreRepository.save(storedScore)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        var invalidatedScores = courseStudentScoreRepository.findAllByCourse_Id(course.getId());
+        assertThat(invalidatedScores).hasSize(2).allSatisfy(score -> assertThat(score.getCalculationKey()).isNotEqualTo(storedScore.getCalculationKey()));
+        assertThat(invalidatedScores).filteredOn(score -> score.getUser().getId().equals(student1.getId())).singleElement()
+                .satisfies(score -> assertThat(score.getVersion()).isGreaterThan(storedScore.getVersion()));
+
+        // the invalidated scores are calculated again the next time they are used
+        var courseScores = courseScoreCalculationService.calculateCourseScores(course.getId(), List.of(student1.getId(), student2.getId()));
+        assertThat(courseScores.studentScores()).filteredOn(score -> score.studentId().equals(student1.getId())).singleElement()
+                .satisfies(score -> assertThat(score.absolutePoints()).isEqualTo(calculatedScore.absolutePoints()));
+        assertThat(courseStudentScoreRepository.findAllByCourse_Id(course.getId())).hasSize(2)
+                .allSatisfy(score -> assertThat(score.getCalculationKey()).isEqualTo(storedScore.getCalculationKey()));
+    }
 }
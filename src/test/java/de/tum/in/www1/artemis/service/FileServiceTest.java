@@ -169,15 +169,10 @@ class FileServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
     }
 
     @Test
-    void testMergePdf_nullInput_shouldReturnEmptyOptional() {
-        Optional<byte[]> result = fileService.mergePdfFiles(null, "");
-        assertThat(result).isEmpty();
-    }
-
-    @Test
-    void testMergePdf_emptyList_shouldReturnEmptyOptional() {
-        Optional<byte[]> result = fileService.mergePdfFiles(new ArrayList<>(), "list_of_pdfs");
-        assertThat(result).isEmpty();
+    void testMergePdf_emptyList_shouldWriteNothing() throws IOException {
+        ByteArrayOutputStream mergedFile = new ByteArrayOutputStream();
+        fileService.mergePdfFiles(new ArrayList<>(), "list_of_pdfs", mergedFile);
+        assertThat(mergedFile.size()).isZero();
     }
 
     @Test
@@ -204,11 +199,16 @@ class FileServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
         paths.add(Path.of(".", "exportTest", "testfile1.pdf").toString());
         paths.add(Path.of(".", "exportTest", "testfile2.pdf").toString());
 
-        Optional<byte[]> mergedFile = fileService.mergePdfFiles(paths, "list_of_pdfs");
-        assertThat(mergedFile).isPresent();
-        assertThat(mergedFile.get()).isNotEmpty();
-        PDDocument mergedDoc = PDDocument.load(mergedFile.get());
-        assertThat(mergedDoc.getNumberOfPages()).isEqualTo(5);
+        // files that do not exist are ignored
+        paths.add(Path.of(".", "exportTest", "missing.pdf").toString());
+
+        ByteArrayOutputStream mergedFile = new ByteArrayOutputStream();
+        fileService.mergePdfFiles(paths, "list_of_pdfs", mergedFile);
+        assertThat(mergedFile.size()).isPositive();
+        try (PDDocument mergedDoc = PDDocument.load(mergedFile.toByteArray())) {
+            assertThat(mergedDoc.getNumberOfPages()).isEqualTo(5);
+            assertThat(mergedDoc.getDocumentInformation().getTitle()).isEqualTo("list_of_pdfs");
+        }
     }
 
     @Test
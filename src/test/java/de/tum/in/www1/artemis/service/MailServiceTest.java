@@ -2,6 +2,9 @@ package de.tum.in.www1.artemis.service;
 
 import static org.mockito.Mockito.*;
 
+import java.net.URL;
+import java.util.List;
+
 import javax.mail.internet.MimeMessage;
 
 import org.junit.jupiter.api.Assertions;
@@ -10,9 +13,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.context.IContext;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 
+import de.tum.in.www1.artemis.domain.Attachment;
 import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.notification.GroupNotification;
+import de.tum.in.www1.artemis.domain.notification.NotificationTarget;
+import de.tum.in.www1.artemis.domain.notification.NotificationTitleTypeConstants;
 import de.tum.in.www1.artemis.exception.ArtemisMailException;
 import tech.jhipster.config.JHipsterProperties;
 
@@ -97,4 +106,36 @@ class MailServiceTest {
         doThrow(new org.springframework.mail.MailSendException("Some error occurred")).when(javaMailSender).send(any(MimeMessage.class));
         Assertions.assertThrows(ArtemisMailException.class, () -> mailService.sendEmail(student1, subject, content, false, true));
     }
+
+    /**
+     * Emails to multiple users are only created once per language, but contain the name of each user and are sent to every user
+     */
+    @Test
+    void testSendNotificationEmailForMultipleUsers() throws Exception {
+        templateEngine = mock(SpringTemplateEngine.class);
+        when(templateEngine.process(anyString(), any(IContext.class))).thenAnswer(invocation -> {
+            User user = (User) ((IContext) invocation.getArgument(1)).getVariable("user");
+            return "Hello " + user.getName();
+        });
+        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine, timeService);
+        ReflectionTestUtils.setField(mailService, "artemisServerUrl", new URL("http://localhost:8080"));
+
+        GroupNotification notification = new GroupNotification();
+        notification.setTitle(NotificationTitleTypeConstants.ATTACHMENT_CHANGE_TITLE);
+        notification.setTransientAndStringTarget(new NotificationTarget("attachments", 1L, "courses"));
+        student1.setLangKey("en");
+        student1.setFirstName("Student");
+        User student2 = new User();
+        student2.setId(556L);
+        student2.setEmail("student2@example.com");
+        student2.setLangKey("en");
+        student2.setFirstName("Other");
+
+        mailService.sendNotificationEmailForMultipleUsers(notification, List.of(student1, student2), new Attachment());
+
+        verify(templateEngine, times(1)).process(anyString(), any(IContext.class));
+        verify(javaMailSender, times(2)).send(any(MimeMessage.class));
+        verify(mimeMessage).setContent(contains("Student"), anyString());
+        verify(mimeMessage).setContent(contains("Other"), anyString());
+    }
 }
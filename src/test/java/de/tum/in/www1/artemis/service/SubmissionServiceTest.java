@@ -15,7 +15,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import com.hazelcast.core.HazelcastInstance;
+
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.enumeration.ComplaintType;
@@ -26,6 +29,7 @@ import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
 import de.tum.in.www1.artemis.repository.ComplaintRepository;
 import de.tum.in.www1.artemis.repository.ExamRepository;
 import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.repository.TextExerciseRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.web.rest.dto.SubmissionWithComplaintDTO;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
@@ -41,12 +45,21 @@ class SubmissionServiceTest extends AbstractSpringIntegrationBambooBitbucketJira
     @Autowired
     private SubmissionService submissionService;
 
+    @Autowired
+    private TextSubmissionService textSubmissionService;
+
+    @Autowired
+    private TextExerciseRepository textExerciseRepository;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private ComplaintRepository complaintRepository;
 
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
     private User student1;
 
     private User tutor1;
@@ -238,6 +251,56 @@ class SubmissionServiceTest extends AbstractSpringIntegrationBambooBitbucketJira
         assertThat(submissionListTutor2CorrectionRound1).isEmpty();
     }
 
+    @Test
+    @WithMockUser(username = "tutor1", roles = "TA")
+    void testTextExerciseGetRandomSubmissionEligibleForNewAssessmentProposesDifferentSubmissionsToTutors() {
+        hazelcastInstance.getMap(Constants.HAZELCAST_CLAIMED_ASSESSMENT_SUBMISSIONS_CACHE).clear();
+        submission1 = new TextSubmission();
+        submission2 = new TextSubmission();
+        // setup
+        queryTestingBasics(this.examTextExercise);
+
+        getQueryResults(this.examTextExercise);
+
+        // the submission proposed to tutor1 is claimed, so tutor2 gets the other one
+        assertThat(unassessedSubmissionCorrectionRound0Tutor1).isPresent();
+        assertThat(unassessedSubmissionCorrectionRound0Tutor2).isPresent();
+        assertThat(unassessedSubmissionCorrectionRound0Tutor1.get()).isIn(submission1, submission2);
+        assertThat(unassessedSubmissionCorrectionRound0Tutor2.get()).isIn(submission1, submission2).isNotEqualTo(unassessedSubmissionCorrectionRound0Tutor1.get());
+
+        // tutor1 gets the submission claimed before again
+        database.changeUser("tutor1");
+        assertThat(submissionService.getRandomAssessableSubmission(examTextExercise, true, 0)).isEqualTo(unassessedSubmissionCorrectionRound0Tutor1);
+    }
+
+    @Test
+    @WithMockUser(username = "tutor1", roles = "TA")
+    void testTextExerciseWithAutomaticAssessmentProposesDifferentSubmissionsToTutors() {
+        hazelcastInstance.getMap(Constants.HAZELCAST_CLAIMED_ASSESSMENT_SUBMISSIONS_CACHE).clear();
+        // the submissions of exercises with automatic assessment are proposed by the assessment queue
+        examTextExercise.setAssessmentType(AssessmentType.SEMI_AUTOMATIC);
+        examTextExercise = textExerciseRepository.save(examTextExercise);
+        submission1 = new TextSubmission();
+        submission2 = new TextSubmission();
+        // setup
+        queryTestingBasics(this.examTextExercise);
+
+        database.changeUser("tutor1");
+        Optional<TextSubmission> proposedSubmissionTutor1 = textSubmissionService.getRandomTextSubmissionEligibleForNewAssessment(examTextExercise, true, 0);
+        database.changeUser("tutor2");
+        Optional<TextSubmission> proposedSubmissionTutor2 = textSubmissionService.getRandomTextSubmissionEligibleForNewAssessment(examTextExercise, true, 0);
+
+        // the submission proposed to tutor1 is claimed, so tutor2 gets the other one
+        assertThat(proposedSubmissionTutor1).isPresent();
+        assertThat(proposedSubmissionTutor2).isPresent();
+        assertThat(proposedSubmissionTutor1.get()).isIn(submission1, submission2);
+        assertThat(proposedSubmissionTutor2.get()).isIn(submission1, submission2).isNotEqualTo(proposedSubmissionTutor1.get());
+
+        // tutor1 gets the submission claimed before again
+        database.changeUser("tutor1");
+        assertThat(textSubmissionService.getRandomTextSubmissionEligibleForNewAssessment(examTextExercise, true, 0)).isEqualTo(proposedSubmissionTutor1);
+    }
+
     @Test
     @WithMockUser(username = "tutor1", roles = "TA")
     void testTextExerciseGetRandomSubmissionEligibleForNewAssessmentNoAssessments() {
@@ -0,0 +1,94 @@
+package de.tum.in.www1.artemis.service;
+
+import static de.tum.in.www1.artemis.config.Constants.NEW_RESULT_TOPIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.Feedback;
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
+import de.tum.in.www1.artemis.domain.enumeration.FeedbackType;
+import de.tum.in.www1.artemis.domain.enumeration.Visibility;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
+
+class WebsocketMessagingServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    private ProgrammingExerciseRepository programmingExerciseRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ProgrammingExercise exercise;
+
+    @BeforeEach
+    void init() {
+        database.addUsers(1, 1, 0, 0);
+        database.addCourseWithOneProgrammingExercise();
+        exercise = programmingExerciseRepository.findAllWithEagerTemplateAndSolutionParticipations().get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.resetDatabase();
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
+    @ValueSource(booleans = { true, false })
+    void testBroadcastNewResultFiltersSensitiveFeedbacksForStudents(boolean isBeforeDueDate) throws Exception {
+        exercise.setDueDate(isBeforeDueDate ? ZonedDateTime.now().plusDays(1) : ZonedDateTime.now().minusDays(1));
+        exercise.setBuildAndTestStudentSubmissionsAfterDueDate(null);
+        exercise = programmingExerciseRepository.save(exercise);
+        ProgrammingExerciseStudentParticipation participation = database.addStudentParticipationForProgrammingExercise(exercise, "student1");
+        participation.setExercise(exercise);
+        Result result = database.addResultToParticipation(AssessmentType.AUTOMATIC, ZonedDateTime.now(), participation);
+        result.setParticipation(participation);
+        result.setAssessor(database.getUserByLogin("tutor1"));
+        result.addFeedback(new Feedback().text("always").type(FeedbackType.AUTOMATIC).positive(true).visibility(Visibility.ALWAYS));
+        result.addFeedback(new Feedback().text("afterDueDate").type(FeedbackType.AUTOMATIC).positive(true).visibility(Visibility.AFTER_DUE_DATE));
+        result.addFeedback(new Feedback().text("never").type(FeedbackType.AUTOMATIC).positive(false).visibility(Visibility.NEVER));
+
+        websocketMessagingService.broadcastNewResult(participation, result);
+
+        JsonNode studentPayload = getSentPayload("/user/student1" + NEW_RESULT_TOPIC);
+        List<String> expectedFeedbacks = isBeforeDueDate ? List.of("always") : List.of("always", "afterDueDate");
+        assertThat(studentPayload.path("feedbacks").findValuesAsText("text")).containsExactlyElementsOf(expectedFeedbacks);
+        assertThat(studentPayload.path("testCaseCount").asInt()).isEqualTo(expectedFeedbacks.size());
+        assertThat(studentPayload.path("passedTestCaseCount").asInt()).isEqualTo(expectedFeedbacks.size());
+        assertThat(studentPayload.has("assessor")).isFalse();
+        assertThat(studentPayload.path("participation").path("id").asLong()).isEqualTo(participation.getId());
+
+        // tutors still receive the complete result
+        JsonNode tutorPayload = getSentPayload("/topic/exercise/" + exercise.getId() + "/newResults");
+        assertThat(tutorPayload.path("feedbacks").findValuesAsText("text")).containsExactly("always", "afterDueDate", "never");
+        assertThat(tutorPayload.has("assessor")).isTrue();
+
+        // the given result is not modified
+        assertThat(result.getFeedbacks()).hasSize(3);
+        assertThat(result.getAssessor()).isNotNull();
+    }
+
+    private JsonNode getSentPayload(String destination) throws Exception {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<byte[]>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq(destination), messageCaptor.capture());
+        return objectMapper.readTree(messageCaptor.getValue().getPayload());
+    }
+}
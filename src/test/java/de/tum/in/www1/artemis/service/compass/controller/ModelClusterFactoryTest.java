@@ -2,20 +2,32 @@ package de.tum.in.www1.artemis.service.compass.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import de.tum.in.www1.artemis.domain.modeling.ModelCluster;
 import de.tum.in.www1.artemis.domain.modeling.ModelElement;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
 import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.util.FileUtils;
 import de.tum.in.www1.artemis.util.ModelFactory;
 
 class ModelClusterFactoryTest {
 
+    private final Logger log = LoggerFactory.getLogger(ModelClusterFactoryTest.class);
+
     private ModelClusterFactory modelClusterFactory;
 
     @BeforeEach
@@ -46,4 +58,66 @@ class ModelClusterFactoryTest {
             assertThat(element.getCluster()).as("created elements keeps the cluster").isEqualTo(modelCluster);
         }
     }
+
+    @Test
+    void testParsedModelsAreCachedUntilTheModelChanges() throws Exception {
+        ModelingSubmission submission = ModelFactory.generateModelingSubmission(FileUtils.loadFileFromResources("test-data/model-submission/model.54727.json"), true);
+        submission.setId(1L);
+
+        var model = modelClusterFactory.checkOutModel(submission);
+        assertThat(modelClusterFactory.checkOutModel(submission)).as("checked out model is not handed out again").isNotSameAs(model);
+        modelClusterFactory.returnModel(submission, model);
+        assertThat(modelClusterFactory.checkOutModel(submission)).as("unchanged model is not parsed again").isSameAs(model);
+        modelClusterFactory.returnModel(submission, model);
+        assertThat(modelClusterFactory.getModelElementIds(submission)).as("element ids are read from the cached model")
+                .containsExactlyElementsOf(model.getAllModelElements().stream().map(UMLElement::getJSONElementID).toList());
+
+        submission.setModel(FileUtils.loadFileFromResources("test-data/model-submission/model.one-element.json"));
+        assertThat(modelClusterFactory.checkOutModel(submission).getAllModelElements()).as("changed model is parsed again").hasSize(1);
+    }
+
+    @Test
+    void testBuildingClustersAgainWithCachedModels_sameClusters() throws Exception {
+        List<String> modelFiles = List.of("model.54727.json", "model.54727.cpy.json", "example-class-diagram.json", "example-class-diagram-package-relationship.json",
+                "use-case-model.json", "use-case-model.json", "model.different-context.json");
+        List<ModelingSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < modelFiles.size(); i++) {
+            ModelingSubmission submission = ModelFactory.generateModelingSubmission(FileUtils.loadFileFromResources("test-data/model-submission/" + modelFiles.get(i)), true);
+            submission.setId((long) i + 1);
+            submissions.add(submission);
+        }
+
+        List<Set<String>> firstClusters = toElementIdsOfClusters(modelClusterFactory.buildClusters(submissions, new ModelingExercise()));
+        List<Set<String>> secondClusters = toElementIdsOfClusters(modelClusterFactory.buildClusters(submissions, new ModelingExercise()));
+
+        assertThat(firstClusters).as("model clusters created").isNotEmpty();
+        assertThat(secondClusters).as("clusters built from cached models are the same as the clusters built from parsed models").isEqualTo(firstClusters);
+    }
+
+    private static List<Set<String>> toElementIdsOfClusters(List<ModelCluster> modelClusters) {
+        return modelClusters.stream().map(cluster -> cluster.getModelElements().stream()
+                .map(element -> element.getSubmission().getId() + "/" + element.getModelElementId()).collect(Collectors.toSet())).toList();
+    }
+
+    @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
+    @ValueSource(ints = { 100, 500, 1000 })
+    @EnabledIfEnvironmentVariable(named = "ARTEMIS_BENCHMARK", matches = "true")
+    void benchmarkBuildingClusters(int numberOfSubmissions) throws Exception {
+        List<String> models = List.of(FileUtils.loadFileFromResources("test-data/model-submission/model.54727.json"),
+                FileUtils.loadFileFromResources("test-data/model-submission/model.54742.json"), FileUtils.loadFileFromResources("test-data/model-submission/model.54745.json"),
+                FileUtils.loadFileFromResources("test-data/model-submission/model.inheritance.json"),
+                FileUtils.loadFileFromResources("test-data/model-submission/model.different-context.json"));
+        List<ModelingSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < numberOfSubmissions; i++) {
+            ModelingSubmission submission = ModelFactory.generateModelingSubmission(models.get(i % models.size()), true);
+            submission.setId((long) i);
+            submissions.add(submission);
+        }
+
+        long start = System.nanoTime();
+        List<ModelCluster> modelClusters = modelClusterFactory.buildClusters(submissions, new ModelingExercise());
+        log.info("Built {} clusters for {} submissions in {}", modelClusters.size(), numberOfSubmissions, TimeLogUtil.formatDurationFrom(start));
+
+        assertThat(modelClusters).isNotEmpty();
+    }
 }
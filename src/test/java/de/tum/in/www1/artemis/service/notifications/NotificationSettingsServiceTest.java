@@ -34,6 +34,8 @@ class NotificationSettingsServiceTest extends AbstractSpringIntegrationBambooBit
 
     private User student1;
 
+    private User tutor1;
+
     private NotificationSetting completeNotificationSettingA;
 
     private NotificationSetting[] unsavedNotificationSettings;
@@ -47,8 +49,9 @@ class NotificationSettingsServiceTest extends AbstractSpringIntegrationBambooBit
     void setUp() {
         SecurityUtils.setAuthorizationObject();
 
-        List<User> users = database.addUsers(1, 0, 0, 0);
+        List<User> users = database.addUsers(1, 1, 0, 0);
         student1 = users.get(0);
+        tutor1 = users.get(1);
 
         NotificationSetting unsavedNotificationSettingA = new NotificationSetting(false, true, NOTIFICATION__EXERCISE_NOTIFICATION__EXERCISE_OPEN_FOR_PRACTICE);
         NotificationSetting unsavedNotificationSettingB = new NotificationSetting(true, true, NOTIFICATION__LECTURE_NOTIFICATION__ATTACHMENT_CHANGES);
@@ -125,6 +128,23 @@ class NotificationSettingsServiceTest extends AbstractSpringIntegrationBambooBit
                 .as("Emails with type EXAM_ARCHIVE_STARTED should not be allowed for the given user").isFalse();
     }
 
+    /**
+     * Tests the method filterUsersByNotificationOrEmailSettings
+     * Users without own notification settings should be filtered based on the default settings
+     */
+    @Test
+    void testFilterUsersByNotificationOrEmailSettings() {
+        notification.setTitle(NotificationTitleTypeConstants.findCorrespondingNotificationTitle(ATTACHMENT_CHANGE));
+        assertThat(notificationSettingsService.filterUsersByNotificationOrEmailSettings(notification, List.of(student1, tutor1), EMAIL))
+                .as("Emails with type ATTACHMENT_CHANGE should only be allowed for the user that activated them").containsExactly(student1);
+
+        notification.setTitle(NotificationTitleTypeConstants.findCorrespondingNotificationTitle(EXAM_ARCHIVE_STARTED));
+        assertThat(notificationSettingsService.filterUsersByNotificationOrEmailSettings(notification, List.of(student1, tutor1), EMAIL))
+                .as("Emails with type EXAM_ARCHIVE_STARTED should not be allowed for any user").isEmpty();
+        assertThat(notificationSettingsService.filterUsersByNotificationOrEmailSettings(notification, List.of(student1, tutor1), NotificationSettingsCommunicationChannel.WEBAPP))
+                .as("Notifications with type EXAM_ARCHIVE_STARTED should only be allowed for the user that did not deactivate them").containsExactly(tutor1);
+    }
+
     /**
      * Tests the method checkLoadedNotificationSettingsForCorrectness with an empty input
      */
@@ -165,7 +165,7 @@ class ProgrammingExerciseScheduleServiceTest extends AbstractSpringIntegrationBa
         verifyLockStudentRepositoryOperation(false, 0);
         verify(programmingTriggerService, never()).triggerInstructorBuildForExercise(programmingExercise.getId());
         // Update all scores should not have been triggered.
-        verify(programmingExerciseGradingService, never()).updateAllResults(programmingExercise);
+        verify(programmingExerciseGradingService, never()).findStudentParticipationIdsWithResults(programmingExercise, false);
     }
 
     @Test
@@ -205,7 +205,7 @@ class ProgrammingExerciseScheduleServiceTest extends AbstractSpringIntegrationBa
 
         verifyLockStudentRepositoryOperation(false, 0);
         verify(programmingTriggerService, never()).triggerInstructorBuildForExercise(programmingExercise.getId());
-        verify(programmingExerciseGradingService, never()).updateAllResults(programmingExercise);
+        verify(programmingExerciseGradingService, never()).findStudentParticipationIdsWithResults(programmingExercise, false);
     }
 
     @Test
@@ -267,9 +267,9 @@ class ProgrammingExerciseScheduleServiceTest extends AbstractSpringIntegrationBa
         verifyLockStudentRepositoryOperation(true, dueDateDelayMS);
         verify(programmingTriggerService, never()).triggerInstructorBuildForExercise(programmingExercise.getId());
         // has AFTER_DUE_DATE tests and no additional build after due date => update the scores to show those test cases in it
-        verify(programmingExerciseGradingService, timeout(5000).times(1)).updateResultsOnlyRegularDueDateParticipations(programmingExercise);
+        verify(programmingExerciseGradingService, timeout(5000).times(1)).findStudentParticipationIdsWithResults(programmingExercise, true);
         // make sure to trigger the update only for participants who do not have got an individual due date
-        verify(programmingExerciseGradingService, never()).updateAllResults(programmingExercise);
+        verify(programmingExerciseGradingService, never()).findStudentParticipationIdsWithResults(programmingExercise, false);
     }
 
     @Test
@@ -291,7 +291,7 @@ class ProgrammingExerciseScheduleServiceTest extends AbstractSpringIntegrationBa
         verifyLockStudentRepositoryOperation(true, dueDateDelayMS / 2);
         verify(programmingTriggerService, timeout(dueDateDelayMS).times(1)).triggerInstructorBuildForExercise(programmingExercise.getId());
         // has AFTER_DUE_DATE tests, but also buildAfterDueDate => do not update results, but use the results created on additional build run
-        verify(programmingExerciseGradingService, never()).updateAllResults(programmingExercise);
+        verify(programmingExerciseGradingService, never()).findStudentParticipationIdsWithResults(programmingExercise, false);
     }
 
     @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
@@ -324,7 +324,7 @@ class ProgrammingExerciseScheduleServiceTest extends AbstractSpringIntegrationBa
             verify(programmingTriggerService, never()).triggerInstructorBuildForExercise(programmingExercise.getId());
         }
         // no tests marked as AFTER_DUE_DATE => do not update scores on due date
-        verify(programmingExerciseGradingService, never()).updateAllResults(programmingExercise);
+        verify(programmingExerciseGradingService, never()).findStudentParticipationIdsWithResults(programmingExercise, false);
     }
 
     @Test
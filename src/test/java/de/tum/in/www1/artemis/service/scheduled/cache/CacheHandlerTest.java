@@ -0,0 +1,132 @@
+package de.tum.in.www1.artemis.service.scheduled.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import io.micrometer.core.instrument.MeterRegistry;
+
+class CacheHandlerTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    private static final long CACHE_KEY = 42L;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TestCacheHandler cacheHandler;
+
+    @BeforeEach
+    void init() {
+        cacheHandler = new TestCacheHandler(hazelcastInstance, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheHandler.clear();
+    }
+
+    @Test
+    void testConcurrentCreationOfCacheReturnsTheSameCache() throws Exception {
+        int numberOfThreads = 10;
+        var executor = Executors.newFixedThreadPool(numberOfThreads);
+        var start = new CountDownLatch(1);
+        try {
+            List<Future<Cache>> futures = new ArrayList<>();
+            for (int i = 0; i < numberOfThreads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cacheHandler.getTransientWriteCacheFor(CACHE_KEY);
+                }));
+            }
+            // let all threads create the cache at the same time
+            start.countDown();
+
+            List<UUID> returnedCacheIds = new ArrayList<>();
+            for (Future<Cache> future : futures) {
+                returnedCacheIds.add(((TestCache) future.get(10, TimeUnit.SECONDS)).getId());
+            }
+
+            // several threads might have created a cache, but only one of them is stored and returned to all callers
+            assertThat(cacheHandler.createdCaches.get()).isBetween(1, numberOfThreads);
+            assertThat(cacheHandler.getAllCaches()).hasSize(1);
+            UUID storedCacheId = ((TestCache) cacheHandler.getCacheFor(CACHE_KEY)).getId();
+            assertThat(returnedCacheIds).hasSize(numberOfThreads).containsOnly(storedCacheId);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExistingCacheIsNotReplaced() {
+        UUID cacheId = ((TestCache) cacheHandler.getTransientWriteCacheFor(CACHE_KEY)).getId();
+
+        assertThat(((TestCache) cacheHandler.getTransientWriteCacheFor(CACHE_KEY)).getId()).isEqualTo(cacheId);
+        assertThat(cacheHandler.createdCaches.get()).isEqualTo(1);
+    }
+
+    /**
+     * A cache handler whose caches can be told apart, so that it can be checked which of the concurrently created caches is used.
+     */
+    private static class TestCacheHandler extends CacheHandler<Long> {
+
+        private final AtomicInteger createdCaches = new AtomicInteger();
+
+        TestCacheHandler(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+            super(hazelcastInstance, "test-cache-handler", meterRegistry);
+        }
+
+        @Override
+        protected Cache emptyCacheValue() {
+            return new TestCache(null);
+        }
+
+        @Override
+        protected Cache createDistributedCacheValue(Long key) {
+            createdCaches.incrementAndGet();
+            return new TestCache(UUID.randomUUID());
+        }
+
+        @Override
+        protected void clear() {
+            cache.clear();
+        }
+    }
+
+    private static class TestCache implements Cache, Serializable {
+
+        private final UUID id;
+
+        TestCache(UUID id) {
+            this.id = id;
+        }
+
+        UUID getId() {
+            return id;
+        }
+
+        @Override
+        public void clear() {
+            // nothing to release
+        }
+    }
+}
@@ -277,7 +277,7 @@ describe('ExamActionService', () => {
     it.each(createActions())('should open exam monitoring websocket subscription if not existing', (action: ExamAction) => {
         const topic = EXAM_MONITORING_ACTION_TOPIC(exam.id!);
         const subscribeSpy = jest.spyOn(websocketService, 'subscribe').mockImplementation(() => {});
-        const receiveSpy = jest.spyOn(websocketService, 'receive').mockReturnValue(of(action));
+        const receiveSpy = jest.spyOn(websocketService, 'receive').mockReturnValue(of([action]));
         const updateCachedActionsSpy = jest.spyOn(examActionService, 'updateCachedActions');
 
         examActionService.openExamMonitoringWebsocketSubscriptionIfNotExisting(exam);